@@ -0,0 +1,29 @@
+-- Journal storage footprint: how much of journal_entries is text, how much of the text is compressed,
+-- and how many bytes a mood-chart row reads now versus a full entity row before text columns were made lazy.
+-- Run before and after re-saving old entries (compression applies on write):
+--   mysql -u <user> -p mymindmirror_db < scripts/measure-journal-storage.sql
+
+-- Table and index size as InnoDB reports it (run ANALYZE TABLE journal_entries first for fresh numbers)
+SELECT table_rows,
+       ROUND(data_length / 1024 / 1024, 2)  AS data_mb,
+       ROUND(index_length / 1024 / 1024, 2) AS index_mb,
+       ROUND(avg_row_length)                AS avg_row_bytes
+FROM information_schema.tables
+WHERE table_schema = DATABASE() AND table_name = 'journal_entries';
+
+-- Stored bytes per column; compressed raw_text values start with the 0x01 'gz:' marker
+SELECT COUNT(*)                                                          AS entries,
+       SUM(raw_text LIKE CONCAT(CHAR(1), 'gz:%'))                        AS compressed_entries,
+       SUM(LENGTH(raw_text))                                             AS raw_text_bytes,
+       SUM(COALESCE(LENGTH(emotions), 0))                                AS emotions_bytes,
+       SUM(COALESCE(LENGTH(core_concerns), 0))                           AS core_concerns_bytes,
+       SUM(COALESCE(LENGTH(summary), 0))                                 AS summary_bytes,
+       SUM(COALESCE(LENGTH(growth_tips), 0))                             AS growth_tips_bytes
+FROM journal_entries;
+
+-- Average bytes read per row: mood chart / insights projection versus a full row
+SELECT ROUND(AVG(LENGTH(entry_date) + 8))                                AS mood_data_row_bytes,
+       ROUND(AVG(LENGTH(entry_date) + 8 + LENGTH(raw_text)
+                 + COALESCE(LENGTH(emotions), 0) + COALESCE(LENGTH(core_concerns), 0)
+                 + COALESCE(LENGTH(summary), 0) + COALESCE(LENGTH(growth_tips), 0))) AS full_row_bytes
+FROM journal_entries;
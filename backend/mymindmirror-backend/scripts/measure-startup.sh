@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Compares startup time and resident memory of the plain jar, the AOT + CDS build and the native executable.
+# Each variant is started RUNS times against the database configured in application.properties;
+# the script reads "Started BackendApplication in X seconds" from the log and the process RSS right after.
+#
+# Build first:
+#   ./mvnw -DskipTests package                          -> target/backend-0.0.1-SNAPSHOT.jar
+#   ./mvnw -DskipTests -Pfast-startup package           -> target/fast-startup/
+#   ./mvnw -DskipTests -Pnative native:compile          -> target/backend
+#
+# Usage: scripts/measure-startup.sh [runs]
+
+set -euo pipefail
+
+RUNS="${1:-5}"
+cd "$(dirname "$0")/.."
+JAR="backend-0.0.1-SNAPSHOT.jar"
+
+measure() {
+  local name="$1"; shift
+  local workdir="$1"; shift
+  local total_seconds=0 total_rss=0 ok=0
+  for ((i = 1; i <= RUNS; i++)); do
+    local log
+    log="$(mktemp)"
+    (cd "$workdir" && exec "$@") >"$log" 2>&1 &
+    local pid=$!
+    local started=""
+    for ((t = 0; t < 600; t++)); do
+      started="$(grep -oE 'Started BackendApplication in [0-9.]+ seconds' "$log" | grep -oE '[0-9.]+' | head -1 || true)"
+      [[ -n "$started" ]] && break
+      kill -0 "$pid" 2>/dev/null || break
+      sleep 0.1
+    done
+    if [[ -n "$started" ]]; then
+      local rss_kb
+      rss_kb="$(ps -o rss= -p "$pid" | tr -d ' ')"
+      total_seconds="$(echo "$total_seconds + $started" | bc)"
+      total_rss=$((total_rss + rss_kb))
+      ok=$((ok + 1))
+    else
+      echo "  $name run $i did not start; see $log" >&2
+    fi
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+    [[ -n "$started" ]] && rm -f "$log"
+  done
+  if ((ok > 0)); then
+    printf '| %-14s | %8.2f s | %7d MB | %d/%d |\n' "$name" "$(echo "$total_seconds / $ok" | bc -l)" \
+      $((total_rss / ok / 1024)) "$ok" "$RUNS"
+  fi
+}
+
+echo "| Variant        | Startup    | RSS       | Runs |"
+echo "|----------------|------------|-----------|------|"
+[[ -f "target/$JAR" ]] && measure "jar" target java -jar "$JAR"
+[[ -f "target/fast-startup/application.jsa" ]] && measure "aot + cds" target/fast-startup \
+  java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar "$JAR"
+[[ -x "target/backend" ]] && measure "native" target ./backend
+exit 0
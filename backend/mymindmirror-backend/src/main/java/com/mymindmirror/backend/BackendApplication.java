@@ -2,8 +2,10 @@ package com.mymindmirror.backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling // Background housekeeping (e.g. rate-limit bucket eviction)
 public class BackendApplication {
 
 	public static void main(String[] args) {
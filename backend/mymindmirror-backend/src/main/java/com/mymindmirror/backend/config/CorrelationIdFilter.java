@@ -0,0 +1,50 @@
+package com.mymindmirror.backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Gives every request a correlation ID and puts it in the logging MDC, so all log lines written while
+ * handling the request (including the calls to the ML service, which forward it) can be grouped.
+ * An incoming X-Request-Id is reused if it looks safe (e.g. set by a load balancer); otherwise one is generated.
+ * The ID is echoed back in the response header.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // Before Spring Security, so authentication logs carry the ID too
+public class CorrelationIdFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String MDC_REQUEST_ID = "requestId";
+    public static final String MDC_USER = "user"; // Set by JwtRequestFilter once the caller is authenticated
+
+    // Client-supplied IDs end up in logs verbatim; only accept short, plain tokens
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(HEADER);
+        if (requestId == null || !SAFE_ID.matcher(requestId).matches()) {
+            requestId = UUID.randomUUID().toString();
+        }
+        MDC.put(MDC_REQUEST_ID, requestId);
+        response.setHeader(HEADER, requestId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(MDC_REQUEST_ID);
+            MDC.remove(MDC_USER);
+        }
+    }
+}
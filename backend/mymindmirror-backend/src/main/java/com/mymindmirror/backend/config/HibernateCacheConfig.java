@@ -0,0 +1,90 @@
+package com.mymindmirror.backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures the Caffeine-backed JCache regions used by Hibernate's second-level cache.
+ * Sizes and TTLs come from application.properties, so each region can be tuned per deployment.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HibernateCacheConfig.class);
+
+    // Referenced by the @Cache / @NaturalIdCache annotations and query hints on the entities and repositories
+    public static final String USERS_REGION = "users";
+    public static final String USERS_BY_USERNAME_REGION = "users-by-username";
+    public static final String JOURNAL_ENTRIES_REGION = "journal-entries";
+    public static final String JOURNAL_ENTRY_BY_DAY_REGION = "journal-entry-by-day";
+    // Hibernate's built-in region tracking when each table last changed (used to invalidate query results)
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+    public static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+
+    /**
+     * Builds the JCache CacheManager with one Caffeine cache per Hibernate region.
+     */
+    @Bean(destroyMethod = "") // The provider's default manager outlives a single application context (e.g. in tests)
+    public CacheManager hibernateCacheManager(
+            @Value("${app.cache.users.max-entries:10000}") long usersMaxEntries,
+            @Value("${app.cache.users.ttl-seconds:3600}") long usersTtlSeconds,
+            @Value("${app.cache.journal-entries.max-entries:50000}") long entriesMaxEntries,
+            @Value("${app.cache.journal-entries.ttl-seconds:3600}") long entriesTtlSeconds,
+            @Value("${app.cache.queries.max-entries:20000}") long queriesMaxEntries,
+            @Value("${app.cache.queries.ttl-seconds:600}") long queriesTtlSeconds) {
+
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+
+        createRegion(cacheManager, USERS_REGION, usersMaxEntries, usersTtlSeconds);
+        createRegion(cacheManager, USERS_BY_USERNAME_REGION, usersMaxEntries, usersTtlSeconds);
+        createRegion(cacheManager, JOURNAL_ENTRIES_REGION, entriesMaxEntries, entriesTtlSeconds);
+        createRegion(cacheManager, JOURNAL_ENTRY_BY_DAY_REGION, queriesMaxEntries, queriesTtlSeconds);
+        createRegion(cacheManager, DEFAULT_QUERY_RESULTS_REGION, queriesMaxEntries, queriesTtlSeconds);
+        // Timestamps must never be evicted before the query results that depend on them,
+        // otherwise a stale cached query could be treated as up to date. One entry per table.
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, 0, 0);
+
+        logger.info("Second-level cache regions initialized.");
+        return cacheManager;
+    }
+
+    /**
+     * Hands our CacheManager to Hibernate instead of letting it create its own.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    /**
+     * Creates a region if it does not exist yet.
+     * @param maxEntries Maximum number of entries (0 = unbounded).
+     * @param ttlSeconds Time-to-live after write (0 = no expiry).
+     */
+    private void createRegion(CacheManager cacheManager, String name, long maxEntries, long ttlSeconds) {
+        if (cacheManager.getCache(name) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(true);
+        if (maxEntries > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        }
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,44 @@
+package com.mymindmirror.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Where hot journal history ends. Entries dated before the cutoff belong in journal_entries_archive;
+ * the archive job moves them there and the repository only reads the archive for ranges that start before it.
+ * The cutoff is the first day of the month horizon-months ago, so it lines up with monthly partitions
+ * and only ever moves forward.
+ */
+@Component
+public class JournalArchivePolicy {
+
+    private final int horizonMonths;
+
+    public JournalArchivePolicy(@Value("${app.archive.horizon-months:24}") int horizonMonths) {
+        if (horizonMonths < 2) {
+            // Insights and reflections read the last 30 days from the hot table only
+            throw new IllegalArgumentException("app.archive.horizon-months must be at least 2, was " + horizonMonths);
+        }
+        this.horizonMonths = horizonMonths;
+    }
+
+    /**
+     * The first date that is still hot today.
+     */
+    public LocalDate cutoff() {
+        return cutoff(LocalDate.now());
+    }
+
+    public LocalDate cutoff(LocalDate today) {
+        return today.minusMonths(horizonMonths).withDayOfMonth(1);
+    }
+
+    /**
+     * Whether a range starting at the given date may include archived entries.
+     */
+    public boolean reachesArchive(LocalDate startDate) {
+        return startDate.isBefore(cutoff());
+    }
+}
@@ -0,0 +1,83 @@
+package com.mymindmirror.backend.config;
+
+import com.mymindmirror.backend.model.AccountDeletion;
+import com.mymindmirror.backend.model.AnalysisJob;
+import com.mymindmirror.backend.model.DigestRun;
+import com.mymindmirror.backend.model.ArchivedJournalEntry;
+import com.mymindmirror.backend.model.JournalEntry;
+import com.mymindmirror.backend.model.MoodInsightState;
+import com.mymindmirror.backend.model.PopulationDailyStats;
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.model.UserShardAssignment;
+import com.mymindmirror.backend.model.WeeklyDigest;
+import com.mymindmirror.backend.payload.AnalyticsResponse;
+import com.mymindmirror.backend.payload.AuthRequest;
+import com.mymindmirror.backend.payload.AuthResponse;
+import com.mymindmirror.backend.payload.DashboardResponse;
+import com.mymindmirror.backend.payload.InsightsResponse;
+import com.mymindmirror.backend.payload.JournalEntryRequest;
+import com.mymindmirror.backend.payload.JournalEntryResponse;
+import com.mymindmirror.backend.payload.MoodDataResponse;
+import com.mymindmirror.backend.payload.PopulationStatsResponse;
+import com.mymindmirror.backend.payload.ReflectionResponse;
+import com.mymindmirror.backend.payload.WeeklyDigestResponse;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the GraalVM native image (mvn -Pnative native:compile).
+ * Spring's AOT processing already covers beans, controllers and JPA-managed types; this adds what it
+ * can't see: payloads bound by hand with ObjectMapper, and the jjwt classes loaded by name at runtime.
+ * Has no effect on the regular JVM build.
+ */
+@Configuration
+@ImportRuntimeHints(NativeRuntimeHints.Registrar.class)
+public class NativeRuntimeHints {
+
+    // jjwt 0.11 instantiates its implementation classes reflectively and finds its JSON serializer via ServiceLoader
+    private static final List<String> JJWT_REFLECTIVE_CLASSES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.impl.io.RuntimeClasspathSerializerLocator",
+            "io.jsonwebtoken.impl.io.RuntimeClasspathDeserializerLocator",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Jackson-mapped request/response payloads (getters, setters and constructors)
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                    AnalyticsResponse.class, AuthRequest.class, AuthResponse.class, DashboardResponse.class, InsightsResponse.class, JournalEntryRequest.class,
+                    JournalEntryResponse.class, MoodDataResponse.class, PopulationStatsResponse.class, ReflectionResponse.class,
+                    WeeklyDigestResponse.class);
+
+            // Lombok generates plain accessors at compile time; Hibernate still needs the entities' constructors and fields
+            for (Class<?> entity : List.of(User.class, JournalEntry.class, ArchivedJournalEntry.class, MoodInsightState.class,
+                    AnalysisJob.class, UserShardAssignment.class, WeeklyDigest.class, DigestRun.class, PopulationDailyStats.class,
+                    AccountDeletion.class)) {
+                hints.reflection().registerType(entity, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+
+            for (String className : JJWT_REFLECTIVE_CLASSES) {
+                hints.reflection().registerType(TypeReference.of(className), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+        }
+    }
+}
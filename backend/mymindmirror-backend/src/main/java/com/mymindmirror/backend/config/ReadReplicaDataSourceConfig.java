@@ -0,0 +1,99 @@
+package com.mymindmirror.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool plus one pool per read replica,
+ * routed by ReadWriteRoutingDataSource. Each pool is a separate HikariCP pool with its own
+ * Micrometer metrics (tagged pool=primary, pool=replica-1, ...).
+ * Active only when app.datasource.replicas.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaDataSourceConfig.class);
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(@Value("${app.datasource.read-your-writes-ms:5000}") long windowMillis) {
+        return new ReadYourWritesTracker(windowMillis);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+            ReadYourWritesTracker readYourWritesTracker,
+            @Value("${app.datasource.replicas.urls:}") String[] replicaUrls,
+            @Value("${app.datasource.replicas.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${app.datasource.replicas.password:${spring.datasource.password:}}") String replicaPassword,
+            @Value("${app.datasource.replicas.maximum-pool-size:10}") int replicaPoolSize,
+            @Value("${app.datasource.replicas.validation-timeout-seconds:2}") int validationTimeoutSeconds) {
+
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        // Primary keeps the usual spring.datasource.* and spring.datasource.hikari.* settings
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        primary.setMetricsTrackerFactory(metrics);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setConnectionTimeout(primary.getConnectionTimeout());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(metrics);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        logger.info("Read/write routing enabled with {} replica pool(s): {}", replicas.size(), replicas.keySet());
+
+        return new ReadWriteRoutingDataSource(primary, replicas, readYourWritesTracker, meterRegistry, validationTimeoutSeconds);
+    }
+
+    /**
+     * Lets the routing see which transactions wrote, so only committed writes start a read-your-writes window.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer writeDetectionCustomizer(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, readWriteRoutingDataSource.writeDetector());
+    }
+
+    /**
+     * The DataSource JPA uses. The lazy proxy defers fetching a physical connection until the first
+     * statement, by which point the transaction's read-only flag is set and routing can see it.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+}
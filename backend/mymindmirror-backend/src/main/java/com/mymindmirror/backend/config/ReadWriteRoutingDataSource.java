@@ -0,0 +1,199 @@
+package com.mymindmirror.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica (round-robin) and everything else to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction's read-only flag is only known
+ * once the transaction has started, after Hibernate would normally have fetched its connection.
+ *
+ * Reads stay on the primary when:
+ * - there is no authenticated user (login, background workers, schedulers), since those paths often read
+ *   what was just written on another thread;
+ * - the user committed a write within the read-your-writes window (see {@link #writeDetector()});
+ * - no replica passed its last health check.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas; // Keyed by pool name, in configuration order
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final int validationTimeoutSeconds;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> healthyReplicas;
+    private final Map<String, Counter> routedConnections = new HashMap<>();
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                      ReadYourWritesTracker readYourWritesTracker, MeterRegistry meterRegistry,
+                                      int validationTimeoutSeconds) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.healthyReplicas = List.copyOf(this.replicas.keySet()); // Assume healthy until the first check says otherwise
+
+        Map<Object, Object> targets = new HashMap<>(this.replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+
+        for (Object target : targets.keySet()) {
+            routedConnections.put((String) target, Counter.builder("app.datasource.routed.connections")
+                    .description("Connections handed out per routing target")
+                    .tag("target", (String) target)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("app.datasource.replicas.healthy", this, routing -> routing.healthyReplicas.size())
+                .description("Replicas that passed the last health check")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return routed(PRIMARY);
+        }
+        String username = currentUsername();
+        if (username == null || readYourWritesTracker.mustReadPrimary(username)) {
+            return routed(PRIMARY);
+        }
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return routed(PRIMARY);
+        }
+        return routed(healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size())));
+    }
+
+    /**
+     * Validates every replica connection and rebuilds the set reads may be routed to.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-interval-ms:10000}")
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            try (Connection connection = replica.getValue().getConnection()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    healthy.add(replica.getKey());
+                } else {
+                    logger.warn("Replica {} failed validation.", replica.getKey());
+                }
+            } catch (Exception e) {
+                logger.warn("Replica {} is unreachable: {}", replica.getKey(), e.getMessage());
+            }
+        }
+        if (!healthy.equals(healthyReplicas)) {
+            logger.info("Healthy read replicas changed from {} to {}.", healthyReplicas, healthy);
+        }
+        healthyReplicas = List.copyOf(healthy);
+        readYourWritesTracker.evictExpired();
+    }
+
+    /**
+     * @return The replicas reads are currently routed to.
+     */
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            closeQuietly(replica);
+        }
+        closeQuietly(primary);
+    }
+
+    /**
+     * A Hibernate StatementInspector that starts the user's read-your-writes window once a transaction that issued
+     * an insert, update or delete commits. Read-write transactions that only selected, or rolled back, don't count.
+     * Statements issued outside Hibernate (plain JDBC) aren't seen; no user request writes that way.
+     */
+    public StatementInspector writeDetector() {
+        return sql -> {
+            if (isWrite(sql) && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                    && TransactionSynchronizationManager.isSynchronizationActive()
+                    && !TransactionSynchronizationManager.hasResource(this)) {
+                String username = currentUsername();
+                if (username != null) {
+                    // Flushes usually run inside the commit itself, which still honors synchronizations registered here
+                    TransactionSynchronization recordOnCommit = new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            readYourWritesTracker.recordWrite(username);
+                        }
+
+                        @Override
+                        public void afterCompletion(int status) {
+                            TransactionSynchronizationManager.unbindResourceIfPossible(ReadWriteRoutingDataSource.this);
+                        }
+                    };
+                    TransactionSynchronizationManager.bindResource(this, recordOnCommit);
+                    TransactionSynchronizationManager.registerSynchronization(recordOnCommit);
+                }
+            }
+            return sql;
+        };
+    }
+
+    /**
+     * @return False for queries (SELECT, WITH), including locking reads; true for anything that may change data.
+     */
+    static boolean isWrite(String sql) {
+        String statement = sql.stripLeading();
+        if (statement.startsWith("/*")) { // hibernate.use_sql_comments
+            int end = statement.indexOf("*/");
+            statement = end < 0 ? "" : statement.substring(end + 2).stripLeading();
+        }
+        return !statement.regionMatches(true, 0, "select", 0, 6) && !statement.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    private String routed(String target) {
+        routedConnections.get(target).increment();
+        return target;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close data source: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.mymindmirror.backend.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers which users wrote recently, so their reads can be kept on the primary
+ * until the replicas have had time to catch up (read-your-writes).
+ * State is per node; a user's requests normally stick to one node for the length of the window.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowNanos; // How long after a write a user's reads stay on the primary
+    private final LongSupplier nanoClock;
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMillis) {
+        this(windowMillis, System::nanoTime);
+    }
+
+    ReadYourWritesTracker(long windowMillis, LongSupplier nanoClock) {
+        this.windowNanos = windowMillis * 1_000_000L;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Records that a user has just written to the primary.
+     */
+    public void recordWrite(String username) {
+        lastWriteNanos.put(username, nanoClock.getAsLong());
+    }
+
+    /**
+     * @return True if the user wrote within the window and must read from the primary.
+     */
+    public boolean mustReadPrimary(String username) {
+        Long last = lastWriteNanos.get(username);
+        if (last == null) {
+            return false;
+        }
+        if (nanoClock.getAsLong() - last < windowNanos) {
+            return true;
+        }
+        lastWriteNanos.remove(username, last);
+        return false;
+    }
+
+    /**
+     * Drops entries whose window has passed.
+     */
+    public void evictExpired() {
+        long now = nanoClock.getAsLong();
+        lastWriteNanos.values().removeIf(last -> now - last >= windowNanos);
+    }
+}
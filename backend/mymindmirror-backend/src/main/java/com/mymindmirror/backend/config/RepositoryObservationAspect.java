@@ -0,0 +1,48 @@
+package com.mymindmirror.backend.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wraps every Spring Data repository call in an observation, so traces show e.g.
+ * "JournalEntryRepository.findByUserAndEntryDate" as its own span (with the JDBC statement spans beneath it,
+ * or none when the second-level cache answered). Also yields a repository.invocation timer per method.
+ */
+@Aspect
+@Component
+public class RepositoryObservationAspect {
+
+    private final ObservationRegistry observationRegistry;
+
+    public RepositoryObservationAspect(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object observe(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryName(joinPoint.getThis());
+        String method = joinPoint.getSignature().getName();
+        return Observation.createNotStarted("repository.invocation", observationRegistry)
+                .contextualName(repository + "." + method)
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", method)
+                .observeChecked((Observation.CheckedCallable<Object, Throwable>) joinPoint::proceed); // Cast picks the callable overload
+    }
+
+    /**
+     * Names the span after our repository interface rather than the JDK proxy or the declaring CrudRepository.
+     */
+    private static String repositoryName(Object proxy) {
+        for (Class<?> candidate : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+            if (candidate.getPackageName().startsWith("com.mymindmirror")) {
+                return candidate.getSimpleName();
+            }
+        }
+        return proxy.getClass().getSimpleName();
+    }
+}
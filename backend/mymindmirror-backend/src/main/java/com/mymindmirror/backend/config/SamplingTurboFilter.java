@@ -0,0 +1,54 @@
+package com.mymindmirror.backend.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that keeps only one in every 'rate' INFO-or-lower events from each of the
+ * configured (hot-path) loggers. WARN and ERROR always pass. Turbo filters run before the event object is built,
+ * so a dropped message costs a counter increment instead of formatting, MDC copying and JSON encoding.
+ * Configured in logback-spring.xml, e.g.:
+ * <pre>
+ * &lt;turboFilter class="com.mymindmirror.backend.config.SamplingTurboFilter"&gt;
+ *     &lt;logger&gt;com.mymindmirror.backend.controller.JournalController&lt;/logger&gt;
+ *     &lt;rate&gt;100&lt;/rate&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    // One counter per sampled logger; only written while Logback reads the configuration
+    private final Map<String, AtomicLong> counters = new HashMap<>();
+    private int rate = 1; // 1 = keep everything
+
+    public void addLogger(String loggerName) {
+        counters.put(loggerName.trim(), new AtomicLong());
+    }
+
+    public void setRate(int rate) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("Sampling rate must be at least 1.");
+        }
+        this.rate = rate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (rate == 1 || format == null || level == null || level.isGreaterOrEqual(Level.WARN)) { // format is null for isXxxEnabled() checks
+            return FilterReply.NEUTRAL; // Normal level checks apply
+        }
+        AtomicLong counter = counters.get(logger.getName());
+        // Disabled levels must not consume a sample slot (isEnabledFor would re-enter the turbo filters)
+        if (counter == null || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
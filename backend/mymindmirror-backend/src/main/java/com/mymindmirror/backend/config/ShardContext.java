@@ -0,0 +1,57 @@
+package com.mymindmirror.backend.config;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread's database work belongs to, read by ShardRoutingDataSource when a
+ * connection is fetched. Unset means the directory database (users, shard assignments).
+ * Must be set before a transaction's first statement; a transaction never switches databases.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * The current shard, or null for the directory.
+     */
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T callOn(String shard, Supplier<T> work) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void runOn(String shard, Runnable work) {
+        callOn(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Sets the shard and returns the previous one, for callers that can't use a lambda (e.g. around advice).
+     */
+    static String enter(String shard) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.mymindmirror.backend.config;
+
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.service.ShardRouter;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sets ShardContext for @UserSharded methods. Ordered ahead of the transaction interceptor, so the shard
+ * is known before the method's transaction fetches a connection. Calls made while a shard is already set
+ * (a sharded method calling another, or a background job working through one shard) keep that shard.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ShardRoutingAspect {
+
+    private final ShardRouter shardRouter;
+
+    public ShardRoutingAspect(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    // The annotation is looked up rather than bound: binding needs ExposeInvocationInterceptor, which runs after this aspect
+    @Around("@annotation(com.mymindmirror.backend.config.UserSharded)")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!shardRouter.isEnabled() || ShardContext.current() != null) {
+            return joinPoint.proceed();
+        }
+        User user = null;
+        for (Object argument : joinPoint.getArgs()) {
+            if (argument instanceof User candidate) {
+                user = candidate;
+                break;
+            }
+        }
+        if (user == null) {
+            throw new IllegalArgumentException("@UserSharded method " + joinPoint.getSignature().toShortString()
+                    + " has no User argument.");
+        }
+        UserSharded userSharded = AnnotationUtils.findAnnotation(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                UserSharded.class);
+        boolean write = userSharded != null && userSharded.write();
+        String previous = ShardContext.enter(shardRouter.route(user.getId(), write));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+}
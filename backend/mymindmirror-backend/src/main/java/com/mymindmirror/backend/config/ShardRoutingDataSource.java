@@ -0,0 +1,80 @@
+package com.mymindmirror.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends each connection to the shard in ShardContext, or to the directory database when none is set.
+ * Must sit behind a LazyConnectionDataSourceProxy, so the shard is read at the transaction's first statement
+ * rather than when the transaction manager opens it.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRoutingDataSource.class);
+
+    public static final String DIRECTORY = "directory";
+
+    private final DataSource directory;
+    private final Map<String, DataSource> shards; // Keyed by shard name, in configuration order
+    private final Map<String, Counter> routedConnections = new HashMap<>();
+
+    public ShardRoutingDataSource(DataSource directory, Map<String, DataSource> shards, MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.shards = new LinkedHashMap<>(shards);
+
+        Map<Object, Object> targets = new HashMap<>(this.shards);
+        targets.put(DIRECTORY, directory);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(directory);
+        setLenientFallback(false); // An unknown shard name is a bug, not a reason to write to the directory
+
+        for (Object target : targets.keySet()) {
+            routedConnections.put((String) target, Counter.builder("app.datasource.routed.connections")
+                    .description("Connections handed out per routing target")
+                    .tag("target", (String) target)
+                    .register(meterRegistry));
+        }
+    }
+
+    public List<String> getShardNames() {
+        return List.copyOf(shards.keySet());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String shard = ShardContext.current();
+        String target = shard != null ? shard : DIRECTORY;
+        Counter counter = routedConnections.get(target);
+        if (counter != null) {
+            counter.increment();
+        }
+        return target;
+    }
+
+    @Override
+    public void close() {
+        for (DataSource shard : shards.values()) {
+            closeQuietly(shard);
+        }
+        closeQuietly(directory);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close data source: {}", e.getMessage());
+            }
+        }
+    }
+}
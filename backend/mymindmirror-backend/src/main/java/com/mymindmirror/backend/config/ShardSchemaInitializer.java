@@ -0,0 +1,136 @@
+package com.mymindmirror.backend.config;
+
+import org.hibernate.boot.model.relational.Namespace;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.mapping.Table;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.schema.TargetType;
+import org.hibernate.tool.schema.internal.ExceptionHandlerHaltImpl;
+import org.hibernate.tool.schema.spi.ContributableMatcher;
+import org.hibernate.tool.schema.spi.ExecutionOptions;
+import org.hibernate.tool.schema.spi.SchemaFilter;
+import org.hibernate.tool.schema.spi.SchemaFilterProvider;
+import org.hibernate.tool.schema.spi.SchemaManagementTool;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.hibernate.tool.schema.spi.SchemaMigrator;
+import org.hibernate.tool.schema.spi.ScriptTargetOutput;
+import org.hibernate.tool.schema.spi.TargetDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies the mapped schema of the per-user tables to every shard. spring.jpa.hibernate.ddl-auto only reaches the
+ * directory, because Hibernate builds the schema before any shard is selected.
+ * Runs as an additive update (new tables and columns) whenever ddl-auto would change the directory's schema.
+ * Directory-only tables (users, shard assignments, job bookkeeping) are left out, so nothing on a shard may
+ * reference them with a foreign key.
+ */
+public class ShardSchemaInitializer implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private static final Set<String> SCHEMA_CHANGING_MODES = Set.of("update", "create", "create-drop");
+
+    /**
+     * Tables holding a user's journal data, which live on the user's shard.
+     */
+    public static final Set<String> SHARDED_TABLES = Set.of("journal_entries", "journal_entries_archive",
+            "mood_insight_states", "analysis_jobs", "weekly_digests");
+
+    private final HibernateMetadataCapture capture;
+    private final List<String> shards;
+    private final String ddlAuto;
+
+    public ShardSchemaInitializer(HibernateMetadataCapture capture, List<String> shards, String ddlAuto) {
+        this.capture = capture;
+        this.shards = shards;
+        this.ddlAuto = ddlAuto;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!SCHEMA_CHANGING_MODES.contains(ddlAuto)) {
+            return;
+        }
+        if (capture.getMetadata() == null) {
+            throw new IllegalStateException("Hibernate metadata was not captured; shard schemas can't be applied.");
+        }
+        ServiceRegistry serviceRegistry = capture.getServiceRegistry();
+        Map<String, Object> settings = new HashMap<>(serviceRegistry.requireService(ConfigurationService.class).getSettings());
+        settings.put(AvailableSettings.HBM2DDL_FILTER_PROVIDER, SHARDED_ONLY);
+        SchemaMigrator migrator = serviceRegistry.requireService(SchemaManagementTool.class).getSchemaMigrator(settings);
+        ExecutionOptions options = SchemaManagementToolCoordinator.buildExecutionOptions(settings, ExceptionHandlerHaltImpl.INSTANCE);
+        for (String shard : shards) {
+            // Connections come from the routing DataSource, so the migration runs against the selected shard
+            ShardContext.runOn(shard, () -> migrator.doMigration(capture.getMetadata(), options, ContributableMatcher.ALL,
+                    DATABASE_ONLY));
+            logger.info("Schema updated on {}.", shard);
+        }
+    }
+
+    private static final SchemaFilter SHARDED_TABLES_FILTER = new SchemaFilter() {
+        @Override
+        public boolean includeNamespace(Namespace namespace) {
+            return true;
+        }
+
+        @Override
+        public boolean includeTable(Table table) {
+            return SHARDED_TABLES.contains(table.getName().toLowerCase(Locale.ROOT));
+        }
+
+        @Override
+        public boolean includeSequence(Sequence sequence) {
+            return false; // Ids are UUIDs
+        }
+    };
+
+    private static final SchemaFilterProvider SHARDED_ONLY = new SchemaFilterProvider() {
+        @Override
+        public SchemaFilter getCreateFilter() {
+            return SHARDED_TABLES_FILTER;
+        }
+
+        @Override
+        public SchemaFilter getDropFilter() {
+            return SHARDED_TABLES_FILTER;
+        }
+
+        @Override
+        public SchemaFilter getTruncatorFilter() {
+            return SHARDED_TABLES_FILTER;
+        }
+
+        @Override
+        public SchemaFilter getMigrateFilter() {
+            return SHARDED_TABLES_FILTER;
+        }
+
+        @Override
+        public SchemaFilter getValidateFilter() {
+            return SHARDED_TABLES_FILTER;
+        }
+    };
+
+    private static final TargetDescriptor DATABASE_ONLY = new TargetDescriptor() {
+        @Override
+        public EnumSet<TargetType> getTargetTypes() {
+            return EnumSet.of(TargetType.DATABASE);
+        }
+
+        @Override
+        public ScriptTargetOutput getScriptTargetOutput() {
+            return null; // No script target
+        }
+    };
+}
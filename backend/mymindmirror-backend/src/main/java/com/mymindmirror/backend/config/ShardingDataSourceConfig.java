@@ -0,0 +1,110 @@
+package com.mymindmirror.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the single auto-configured pool with a directory pool (spring.datasource.*, holding users and
+ * shard assignments) plus one pool per journal shard, routed by ShardRoutingDataSource.
+ * Shards are named shard-0, shard-1, ... in the order of app.sharding.urls; names are stored in user_shards,
+ * so only ever append new URLs.
+ * Active only when app.sharding.enabled=true; not combinable with read replicas.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardingDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardingDataSourceConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public ShardRoutingDataSource shardRoutingDataSource(
+            DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+            @Value("${app.sharding.urls:}") String[] shardUrls,
+            @Value("${app.sharding.username:${spring.datasource.username:}}") String shardUsername,
+            @Value("${app.sharding.password:${spring.datasource.password:}}") String shardPassword,
+            @Value("${app.sharding.maximum-pool-size:10}") int shardPoolSize,
+            @Value("${app.datasource.replicas.enabled:false}") boolean replicasEnabled) {
+        if (replicasEnabled) {
+            throw new IllegalArgumentException("app.sharding.enabled and app.datasource.replicas.enabled can't be combined.");
+        }
+
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        // The directory keeps the usual spring.datasource.* and spring.datasource.hikari.* settings
+        HikariDataSource directory = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(directory));
+        directory.setPoolName(ShardRoutingDataSource.DIRECTORY);
+        directory.setMetricsTrackerFactory(metrics);
+
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (String url : shardUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + shards.size());
+            shard.setJdbcUrl(url.trim());
+            shard.setUsername(shardUsername);
+            shard.setPassword(shardPassword);
+            shard.setDriverClassName(properties.determineDriverClassName());
+            shard.setMaximumPoolSize(shardPoolSize);
+            shard.setConnectionTimeout(directory.getConnectionTimeout());
+            shard.setMetricsTrackerFactory(metrics);
+            shards.put(shard.getPoolName(), shard);
+        }
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("app.sharding.enabled=true needs at least one URL in app.sharding.urls.");
+        }
+        logger.info("Journal sharding enabled with {} shard(s): {}", shards.size(), shards.keySet());
+
+        return new ShardRoutingDataSource(directory, shards, meterRegistry);
+    }
+
+    /**
+     * The DataSource JPA uses. The lazy proxy defers fetching a physical connection until the first
+     * statement, by which point ShardRoutingAspect has set the shard.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public HibernateMetadataCapture hibernateMetadataCapture() {
+        return new HibernateMetadataCapture();
+    }
+
+    /**
+     * Hands Hibernate's boot metadata to ShardSchemaInitializer, which applies the schema to every shard.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaMetadataCustomizer(HibernateMetadataCapture capture) {
+        return hibernateProperties -> hibernateProperties.put("hibernate.integrator_provider", capture);
+    }
+
+    @Bean
+    public ShardSchemaInitializer shardSchemaInitializer(HibernateMetadataCapture capture,
+                                                         ShardRoutingDataSource shardRoutingDataSource,
+                                                         @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return new ShardSchemaInitializer(capture, shardRoutingDataSource.getShardNames(), ddlAuto);
+    }
+}
@@ -0,0 +1,28 @@
+package com.mymindmirror.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Trace export beyond what Spring Boot configures from management.otlp.tracing.*.
+ * Boot hands every SpanExporter bean to the OpenTelemetry SDK's batch processor, so the file exporter
+ * and an OTLP exporter (local collector) can run side by side.
+ */
+@Configuration
+public class TracingConfig {
+
+    /**
+     * JSON-lines span file, enabled when app.tracing.file is set.
+     */
+    @Bean(destroyMethod = "") // The SDK's span processor shuts exporters down
+    @ConditionalOnExpression("'${app.tracing.file:}' != ''")
+    public FileSpanExporter fileSpanExporter(@Value("${app.tracing.file}") String file, ObjectMapper objectMapper) throws IOException {
+        return new FileSpanExporter(Path.of(file), objectMapper);
+    }
+}
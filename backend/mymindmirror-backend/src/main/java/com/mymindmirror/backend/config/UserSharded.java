@@ -0,0 +1,20 @@
+package com.mymindmirror.backend.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a service method on the shard of the User passed to it (see ShardRoutingAspect).
+ * The method's transactions, and those of anything it calls, all use that shard.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface UserSharded {
+
+    /**
+     * Whether the method changes the user's data; writes are refused while the user is being moved.
+     */
+    boolean write() default false;
+}
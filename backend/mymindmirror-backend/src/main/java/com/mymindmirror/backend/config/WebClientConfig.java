@@ -1,9 +1,11 @@
 // src/main/java/com/mymindmirror/backend/config/WebClientConfig.java
 package com.mymindmirror.backend.config;
 
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration // Marks this class as a source of bean definitions
@@ -20,6 +22,16 @@ public class WebClientConfig {
     @Bean // Marks this method's return value as a Spring Bean
     public WebClient mlServiceWebClient(WebClient.Builder webClientBuilder) {
         // At this point, mlServiceBaseUrl will have been correctly injected by Spring.
-        return webClientBuilder.baseUrl(mlServiceBaseUrl).build();
+        return webClientBuilder.baseUrl(mlServiceBaseUrl)
+                // Forward the request's correlation ID so ML service logs can be matched to ours.
+                // Calls are blocking, so the filter runs on the request thread where the MDC is set.
+                .filter((request, next) -> {
+                    String requestId = MDC.get(CorrelationIdFilter.MDC_REQUEST_ID);
+                    if (requestId == null) {
+                        return next.exchange(request);
+                    }
+                    return next.exchange(ClientRequest.from(request).header(CorrelationIdFilter.HEADER, requestId).build());
+                })
+                .build();
     }
 }
\ No newline at end of file
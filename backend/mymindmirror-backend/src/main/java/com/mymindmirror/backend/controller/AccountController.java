@@ -0,0 +1,60 @@
+package com.mymindmirror.backend.controller;
+
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.service.AccountDeletionService;
+import com.mymindmirror.backend.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST Controller for the authenticated user's account.
+ */
+@RestController
+@RequestMapping("/api/account")
+public class AccountController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountController.class);
+
+    private final AccountDeletionService accountDeletionService;
+    private final UserService userService;
+
+    public AccountController(AccountDeletionService accountDeletionService, UserService userService) {
+        this.accountDeletionService = accountDeletionService;
+        this.userService = userService;
+    }
+
+    private User getCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+        return userService.findByUsername(username)
+                .orElseThrow(() -> {
+                    logger.error("Authenticated user '{}' not found in database. This indicates a security misconfiguration.", username);
+                    return new RuntimeException("Authenticated user not found.");
+                });
+    }
+
+    /**
+     * Deletes the authenticated user's account. The account is disabled right away (sign-in and issued tokens
+     * stop working); its data is deleted in the background.
+     * @return ResponseEntity with 202 Accepted.
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> deleteAccount() {
+        try {
+            User currentUser = getCurrentUser();
+            accountDeletionService.requestDeletion(currentUser);
+            logger.info("Account deletion requested by user {}.", currentUser.getUsername());
+            return ResponseEntity.accepted().build();
+        } catch (Exception e) {
+            logger.error("Error requesting account deletion: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
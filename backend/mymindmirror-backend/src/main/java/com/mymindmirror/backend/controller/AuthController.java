@@ -10,6 +10,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -86,6 +87,9 @@ public class AuthController {
         } catch (BadCredentialsException e) {
             logger.warn("Login failed for username '{}': Invalid credentials.", request.getUsername());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new AuthResponse("Invalid username or password."));
+        } catch (DisabledException e) {
+            logger.warn("Login failed for username '{}': Account deleted.", request.getUsername());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new AuthResponse("Invalid username or password."));
         } catch (Exception e) {
             logger.error("An unexpected error occurred during login for username '{}': {}", request.getUsername(), e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new AuthResponse("Login failed due to an internal error."));
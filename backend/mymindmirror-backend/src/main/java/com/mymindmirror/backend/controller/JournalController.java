@@ -2,15 +2,28 @@ package com.mymindmirror.backend.controller;
 
 import com.mymindmirror.backend.model.JournalEntry;
 import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.payload.AnalyticsResponse;
+import com.mymindmirror.backend.payload.DashboardResponse;
+import com.mymindmirror.backend.payload.InsightsResponse;
 import com.mymindmirror.backend.payload.JournalEntryRequest;
 import com.mymindmirror.backend.payload.JournalEntryResponse;
 import com.mymindmirror.backend.payload.MoodDataResponse;
+import com.mymindmirror.backend.payload.ReflectionResponse;
+import com.mymindmirror.backend.payload.WeeklyDigestResponse;
+import com.mymindmirror.backend.service.DashboardService;
 import com.mymindmirror.backend.service.JournalService;
+import com.mymindmirror.backend.service.MoodAnalyticsService;
+import com.mymindmirror.backend.service.MoodInsightsService;
+import com.mymindmirror.backend.service.ReflectionService;
+import com.mymindmirror.backend.service.ShardMovingException;
 import com.mymindmirror.backend.service.UserService;
+import com.mymindmirror.backend.service.WeeklyDigestService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
@@ -19,7 +32,6 @@ import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * REST Controller for managing journal entries.
@@ -33,10 +45,22 @@ public class JournalController {
 
     private final JournalService journalService;
     private final UserService userService;
+    private final MoodInsightsService moodInsightsService;
+    private final ReflectionService reflectionService;
+    private final DashboardService dashboardService;
+    private final WeeklyDigestService weeklyDigestService;
+    private final MoodAnalyticsService moodAnalyticsService;
 
-    public JournalController(JournalService journalService, UserService userService) {
+    public JournalController(JournalService journalService, UserService userService, MoodInsightsService moodInsightsService,
+                             ReflectionService reflectionService, DashboardService dashboardService,
+                             WeeklyDigestService weeklyDigestService, MoodAnalyticsService moodAnalyticsService) {
         this.journalService = journalService;
         this.userService = userService;
+        this.moodInsightsService = moodInsightsService;
+        this.reflectionService = reflectionService;
+        this.dashboardService = dashboardService;
+        this.weeklyDigestService = weeklyDigestService;
+        this.moodAnalyticsService = moodAnalyticsService;
     }
 
     private User getCurrentUser() {
@@ -57,12 +81,18 @@ public class JournalController {
      */
     @PostMapping
     public ResponseEntity<JournalEntryResponse> createJournalEntry(@RequestBody JournalEntryRequest request) {
-        logger.info("Received request to create/update journal entry.");
+        logger.debug("Received request to create/update journal entry.");
         try {
             User currentUser = getCurrentUser();
             JournalEntry savedEntry = journalService.saveJournalEntry(currentUser, request.getText());
             logger.info("Journal entry saved/updated successfully for user {}.", currentUser.getUsername());
             return ResponseEntity.status(HttpStatus.CREATED).body(new JournalEntryResponse(savedEntry));
+        } catch (ShardMovingException e) {
+            logger.warn("Save refused while the user's journal is being moved: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build(); // Retry in a few seconds
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.warn("Save of today's entry lost to a concurrent change: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             logger.error("Error saving journal entry: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -77,12 +107,18 @@ public class JournalController {
      */
     @PutMapping("/{id}")
     public ResponseEntity<JournalEntryResponse> updateJournalEntry(@PathVariable UUID id, @RequestBody JournalEntryRequest request) {
-        logger.info("Received request to update journal entry with ID: {}", id);
+        logger.debug("Received request to update journal entry with ID: {}", id);
         try {
             User currentUser = getCurrentUser();
             JournalEntry updatedEntry = journalService.updateJournalEntry(id, currentUser, request.getText());
             logger.info("Journal entry with ID {} updated successfully for user {}.", id, currentUser.getUsername());
             return ResponseEntity.ok(new JournalEntryResponse(updatedEntry));
+        } catch (ShardMovingException e) {
+            logger.warn("Update of entry ID {} refused while the user's journal is being moved.", id);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build(); // Retry in a few seconds
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.warn("Update of entry ID {} lost to a concurrent change.", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build(); // The entry changed since it was read
         } catch (IllegalArgumentException e) {
             logger.warn("Update failed for entry ID {}: {}", id, e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null); // Or 404/403 depending on specific error
@@ -99,12 +135,18 @@ public class JournalController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteJournalEntry(@PathVariable UUID id) {
-        logger.info("Received request to delete journal entry with ID: {}", id);
+        logger.debug("Received request to delete journal entry with ID: {}", id);
         try {
             User currentUser = getCurrentUser();
             journalService.deleteJournalEntry(id, currentUser);
             logger.info("Journal entry with ID {} deleted successfully for user {}.", id, currentUser.getUsername());
             return ResponseEntity.noContent().build(); // 204 No Content
+        } catch (ShardMovingException e) {
+            logger.warn("Delete of entry ID {} refused while the user's journal is being moved.", id);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build(); // Retry in a few seconds
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.warn("Delete of entry ID {} lost to a concurrent change.", id);
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (IllegalArgumentException e) {
             logger.warn("Delete failed for entry ID {}: {}", id, e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build(); // Or 404/403 depending on specific error
@@ -115,10 +157,10 @@ public class JournalController {
     }
 
     @GetMapping("/history")
-    public ResponseEntity<List<JournalEntryResponse>> getJournalHistory(
+    public ResponseEntity<byte[]> getJournalHistory(
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
-        logger.info("Received request for journal history.");
+        logger.debug("Received request for journal history.");
         User currentUser = getCurrentUser();
         LocalDate start = LocalDate.now().minusDays(30);
         LocalDate end = LocalDate.now();
@@ -135,19 +177,17 @@ public class JournalController {
             return ResponseEntity.badRequest().body(null);
         }
 
-        List<JournalEntry> entries = journalService.getJournalEntriesForUser(currentUser, start, end);
-        logger.info("Found {} journal entries for user {} in range {} to {}.", entries.size(), currentUser.getUsername(), start, end);
-        List<JournalEntryResponse> responses = entries.stream()
-                .map(JournalEntryResponse::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+        // Pre-serialized JSON, written to the response as is
+        byte[] json = journalService.getJournalEntriesJson(currentUser, start, end);
+        logger.debug("Sent journal history for user {} in range {} to {} ({} bytes).", currentUser.getUsername(), start, end, json.length);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
     }
 
     @GetMapping("/mood-data")
     public ResponseEntity<List<MoodDataResponse>> getMoodData(
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
-        logger.info("Received request for mood data for chart.");
+        logger.debug("Received request for mood data for chart.");
         User currentUser = getCurrentUser();
         LocalDate start = LocalDate.now().minusDays(30);
         LocalDate end = LocalDate.now();
@@ -165,18 +205,118 @@ public class JournalController {
         }
 
         List<MoodDataResponse> moodData = journalService.getMoodDataForChart(currentUser, start, end);
-        logger.info("Found {} mood data points for user {} in range {} to {}.", moodData.size(), currentUser.getUsername(), start, end);
+        logger.debug("Found {} mood data points for user {} in range {} to {}.", moodData.size(), currentUser.getUsername(), start, end);
         return ResponseEntity.ok(moodData);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<JournalEntryResponse> getJournalEntry(@PathVariable UUID id) {
-        logger.info("Received request for journal entry with ID: {}.", id);
+    /**
+     * Returns mood analytics (mood statistics and percentiles, average emotions, how each concern relates to mood)
+     * for the authenticated user over a date range, by default the last 90 days.
+     * Computed in memory from the user's cached history, so any range can be asked for without a query.
+     * @return ResponseEntity with the AnalyticsResponse, or 400 for a malformed or reversed range.
+     */
+    @GetMapping("/analytics")
+    public ResponseEntity<AnalyticsResponse> getAnalytics(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate) {
+        logger.debug("Received request for mood analytics.");
+        User currentUser = getCurrentUser();
+        LocalDate start = LocalDate.now().minusDays(90);
+        LocalDate end = LocalDate.now();
+
+        try {
+            if (startDate != null) {
+                start = LocalDate.parse(startDate);
+            }
+            if (endDate != null) {
+                end = LocalDate.parse(endDate);
+            }
+        } catch (DateTimeParseException e) {
+            logger.error("Invalid date format provided: {}.", e.getMessage());
+            return ResponseEntity.badRequest().body(null);
+        }
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(null);
+        }
+
+        return ResponseEntity.ok(moodAnalyticsService.getAnalytics(currentUser, start, end));
+    }
+
+    /**
+     * Returns mood insights (7-day trend, journaling streak, unusually low days) for the authenticated user.
+     * Served from incrementally maintained state, so it does not scan the user's history.
+     * @return ResponseEntity with the InsightsResponse.
+     */
+    @GetMapping("/insights")
+    public ResponseEntity<InsightsResponse> getInsights() {
+        logger.debug("Received request for mood insights.");
+        User currentUser = getCurrentUser();
+        return ResponseEntity.ok(moodInsightsService.getInsights(currentUser));
+    }
+
+    /**
+     * Returns today's AI reflection for the authenticated user.
+     * Generated on the backend from recent entries, cached for the day, and shared between concurrent requests.
+     * @return ResponseEntity with the ReflectionResponse, or 503 if the ML service could not produce one.
+     */
+    @GetMapping("/reflection/today")
+    public ResponseEntity<ReflectionResponse> getTodaysReflection() {
+        logger.debug("Received request for today's reflection.");
+        User currentUser = getCurrentUser();
+        return reflectionService.getTodaysReflection(currentUser)
+                .map(text -> ResponseEntity.ok(new ReflectionResponse(LocalDate.now(), text)))
+                .orElseGet(() -> {
+                    logger.warn("Reflection could not be generated for user {}.", currentUser.getUsername());
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+                });
+    }
+
+    /**
+     * Returns everything the journal page shows (recent entries, chart series, emotion averages, concern counts,
+     * today's entry and reflection) in one response, so a page view costs one request instead of several.
+     * @return ResponseEntity with the DashboardResponse; parts that weren't ready in time are listed as degraded.
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardResponse> getDashboard() {
+        logger.debug("Received request for the journal dashboard.");
+        User currentUser = getCurrentUser();
+        DashboardResponse dashboard = dashboardService.getDashboard(currentUser);
+        if (!dashboard.getDegraded().isEmpty()) {
+            logger.warn("Dashboard for user {} served without: {}", currentUser.getUsername(), dashboard.getDegraded());
+        }
+        return ResponseEntity.ok(dashboard);
+    }
+
+    /**
+     * Returns the precomputed weekly digest (mood statistics, top concerns and emotions, recap) for the authenticated user.
+     * Digests are written by the Monday-morning batch; this endpoint only reads them.
+     * @param weekStart Any date in the wanted week (default: the most recent full week).
+     * @return ResponseEntity with the WeeklyDigestResponse, or 404 if there is none for that week.
+     */
+    @GetMapping("/digest/weekly")
+    public ResponseEntity<WeeklyDigestResponse> getWeeklyDigest(@RequestParam(required = false) String weekStart) {
+        logger.debug("Received request for a weekly digest.");
         User currentUser = getCurrentUser();
-        return journalService.getJournalEntryById(id)
-                .filter(entry -> entry.getUser().getId().equals(currentUser.getId()))
-                .map(JournalEntryResponse::new)
+        LocalDate week = WeeklyDigestService.lastCompletedWeek(LocalDate.now());
+        try {
+            if (weekStart != null) {
+                week = LocalDate.parse(weekStart);
+            }
+        } catch (DateTimeParseException e) {
+            logger.error("Invalid date format provided: {}.", e.getMessage());
+            return ResponseEntity.badRequest().body(null);
+        }
+        return weeklyDigestService.getDigest(currentUser, week)
                 .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getJournalEntry(@PathVariable UUID id) {
+        logger.debug("Received request for journal entry with ID: {}.", id);
+        User currentUser = getCurrentUser();
+        return journalService.getJournalEntryJson(id, currentUser)
+                .map(json -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json))
                 .orElseGet(() -> {
                     logger.warn("Journal entry with ID {} not found or not owned by user {}.", id, currentUser.getUsername());
                     return ResponseEntity.notFound().build();
@@ -0,0 +1,46 @@
+package com.mymindmirror.backend.controller;
+
+import com.mymindmirror.backend.payload.PopulationStatsResponse;
+import com.mymindmirror.backend.service.PopulationStatsService;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Operator endpoint for platform-wide, anonymous statistics (actuator id "population"):
+ * GET /actuator/population?startDate=YYYY-MM-DD&endDate=YYYY-MM-DD, by default the last 30 days.
+ * Not exposed over HTTP unless listed in management.endpoints.web.exposure.include;
+ * expose it on an internal management port only.
+ */
+@Component
+@Endpoint(id = "population")
+public class PopulationStatsEndpoint {
+
+    private final PopulationStatsService populationStatsService;
+
+    public PopulationStatsEndpoint(PopulationStatsService populationStatsService) {
+        this.populationStatsService = populationStatsService;
+    }
+
+    @ReadOperation
+    public PopulationStatsResponse stats(@Nullable String startDate, @Nullable String endDate) {
+        LocalDate start;
+        LocalDate end;
+        try {
+            end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
+            start = startDate != null ? LocalDate.parse(startDate) : end.minusDays(29);
+        } catch (DateTimeParseException e) {
+            throw new InvalidEndpointRequestException("Dates must be formatted YYYY-MM-DD.", e.getMessage());
+        }
+        try {
+            return populationStatsService.getStats(start, end);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.mymindmirror.backend.controller;
+
+import com.mymindmirror.backend.model.UserShardAssignment;
+import com.mymindmirror.backend.service.ShardRebalancer;
+import com.mymindmirror.backend.service.ShardRouter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Operator endpoint for journal shards (actuator id "shards"): users per shard, a user's assignment,
+ * and moving a user. Not exposed over HTTP unless listed in management.endpoints.web.exposure.include;
+ * expose it on an internal management port only.
+ */
+@Component
+@Endpoint(id = "shards")
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardAdminEndpoint {
+
+    private final ShardRouter shardRouter;
+    private final ShardRebalancer shardRebalancer;
+
+    public ShardAdminEndpoint(ShardRouter shardRouter, ShardRebalancer shardRebalancer) {
+        this.shardRouter = shardRouter;
+        this.shardRebalancer = shardRebalancer;
+    }
+
+    @ReadOperation
+    public Map<String, Long> assignedUsers() {
+        return shardRouter.countAssignedUsers();
+    }
+
+    @ReadOperation
+    public Map<String, Object> assignment(@Selector UUID userId) {
+        UserShardAssignment assignment = shardRouter.assignment(userId);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("userId", userId);
+        response.put("shard", assignment.getShard());
+        response.put("state", assignment.getState());
+        response.put("targetShard", assignment.getTargetShard());
+        return response;
+    }
+
+    /**
+     * POST /actuator/shards/{userId} with {"targetShard": "shard-1"}; returns when the move is complete.
+     */
+    @WriteOperation
+    public Map<String, Object> move(@Selector UUID userId, String targetShard) {
+        boolean moved = shardRebalancer.moveUser(userId, targetShard);
+        Map<String, Object> response = assignment(userId);
+        response.put("moved", moved);
+        return response;
+    }
+}
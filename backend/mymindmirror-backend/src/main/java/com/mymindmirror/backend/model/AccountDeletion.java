@@ -0,0 +1,60 @@
+package com.mymindmirror.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of deleting one user's account: the step the deletion has reached, so a run that stops (restart, crash)
+ * resumes there, and a lease so only one node works on it at a time. Kept after completion, without personal data.
+ * Lives in the directory database next to 'users'.
+ * This entity maps to the 'account_deletions' table in the database.
+ */
+@Entity
+@Table(name = "account_deletions", indexes = {
+        @Index(name = "idx_account_deletions_step", columnList = "step, requested_at")
+})
+@Data
+public class AccountDeletion {
+
+    /**
+     * Steps in the order they run; each deletes the user's rows of one kind, chunk by chunk.
+     */
+    public enum Step {
+        JOURNAL_ENTRIES, // Hot entries and their analysis jobs
+        ARCHIVED_ENTRIES,
+        WEEKLY_DIGESTS,
+        INSIGHTS, // Mood insight state
+        ACCOUNT, // Shard assignment and the users row
+        DONE
+    }
+
+    @Id // One deletion per user
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Step step;
+
+    @Column(nullable = false) // Rows deleted so far, all steps together
+    private long deletedRows;
+
+    @Column(nullable = true, length = 128) // Node currently working on the deletion
+    private String leaseOwner;
+
+    @Column(nullable = true) // After this instant another node may take the deletion over
+    private Instant leaseExpiresAt;
+
+    @Column(nullable = false)
+    private Instant requestedAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Column(nullable = true)
+    private Instant completedAt;
+
+    @Version // Two nodes can't both take or advance the same deletion
+    private Long version;
+}
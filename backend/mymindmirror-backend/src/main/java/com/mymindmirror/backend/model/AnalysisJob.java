@@ -0,0 +1,59 @@
+package com.mymindmirror.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A pending or running ML analysis for a journal entry (transactional outbox).
+ * Written in the same transaction as the entry; claimed by whichever backend node polls first.
+ * This entity maps to the 'analysis_jobs' table in the database.
+ */
+@Entity
+@Table(name = "analysis_jobs", indexes = {
+        @Index(name = "idx_analysis_jobs_claim", columnList = "status, available_at"), // Claim query scans by status and due time
+        @Index(name = "idx_analysis_jobs_entry", columnList = "entry_id")
+})
+@Data
+public class AnalysisJob {
+
+    public enum Status {
+        PENDING, // Waiting to be claimed (possibly after a backoff delay)
+        RUNNING, // Claimed by a node; reclaimable once the lease expires
+        DONE,
+        FAILED // Gave up after the maximum number of attempts
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false) // The journal entry to analyze
+    private UUID entryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false) // Number of times the job has been claimed
+    private int attempts;
+
+    @Column(nullable = false) // Earliest time the job may be claimed
+    private Instant availableAt;
+
+    @Column(nullable = true, length = 128) // Node currently holding the job
+    private String leaseOwner;
+
+    @Column(nullable = true) // After this instant another node may take the job over
+    private Instant leaseExpiresAt;
+
+    @Column(nullable = true, length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = true)
+    private Instant completedAt;
+}
@@ -0,0 +1,60 @@
+package com.mymindmirror.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A journal entry older than the archive horizon, moved out of the hot 'journal_entries' table
+ * by JournalArchiveService. Same columns (values are copied as stored, compressed text included) plus the move time.
+ * This entity maps to the 'journal_entries_archive' table in the database. Archived entries are read-only;
+ * JournalEntryRepository reads them together with hot entries when a requested range reaches past the horizon.
+ */
+@Entity
+@Table(name = "journal_entries_archive", indexes = {
+        @Index(name = "idx_journal_archive_user_date", columnList = "user_id, entry_date")
+})
+@Data
+public class ArchivedJournalEntry {
+
+    @Id // Keeps the id the entry had in journal_entries
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    // No FK constraint: with sharding the archive lives on a shard, while users stay in the directory
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @ToString.Exclude @EqualsAndHashCode.Exclude
+    private User user;
+
+    @Column(nullable = false)
+    private LocalDate entryDate;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    @Convert(converter = CompressedTextConverter.class)
+    private String rawText;
+
+    @Column(nullable = true)
+    private Double moodScore;
+
+    @Column(columnDefinition = "TEXT", nullable = true)
+    private String emotions; // JSON string, as in JournalEntry
+
+    @Column(columnDefinition = "TEXT", nullable = true)
+    private String coreConcerns; // JSON string, as in JournalEntry
+
+    @Column(columnDefinition = "TEXT", nullable = true)
+    private String summary;
+
+    @Column(columnDefinition = "TEXT", nullable = true)
+    private String growthTips; // JSON string, as in JournalEntry
+
+    @Column(nullable = false) // The version the entry had in journal_entries, so its cached response stays valid
+    private long version;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+}
@@ -0,0 +1,74 @@
+package com.mymindmirror.backend.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores long text gzip-compressed (Base64, behind a marker prefix) and returns it unchanged on read.
+ * Text below the threshold, or text that doesn't get smaller, is stored as-is, so existing rows and short
+ * entries stay plain and readable in SQL. The column stays TEXT, so no schema change is needed.
+ * Instantiated by Spring (Hibernate's bean container), which supplies the threshold.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, String> {
+
+    // Starts with a control character no typed text contains; plain text that happens to start with it is always compressed
+    static final String MARKER = "\u0001gz:";
+
+    private final int thresholdBytes; // 0 disables compression (reads still decompress)
+
+    public CompressedTextConverter(@Value("${app.storage.compress-threshold-bytes:2048}") int thresholdBytes) {
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public String convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        boolean looksCompressed = text.startsWith(MARKER);
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (!looksCompressed && (thresholdBytes <= 0 || utf8.length < thresholdBytes)) {
+            return text;
+        }
+        String compressed = MARKER + Base64.getEncoder().encodeToString(gzip(utf8));
+        return looksCompressed || compressed.length() < text.length() ? compressed : text;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String column) {
+        if (column == null || !column.startsWith(MARKER)) {
+            return column;
+        }
+        byte[] compressed = Base64.getDecoder().decode(column.substring(MARKER.length()));
+        return new String(gunzip(compressed), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return gzip.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.mymindmirror.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Progress of the weekly digest batch for one week: a checkpoint that lets an interrupted run resume
+ * after the last finished chunk of users, and a lease so only one node runs it at a time.
+ * Lives in the directory database next to 'users', which the run iterates.
+ * This entity maps to the 'digest_runs' table in the database.
+ */
+@Entity
+@Table(name = "digest_runs")
+@Data
+public class DigestRun {
+
+    public enum Status {
+        RUNNING, // Started; resumable from lastUserId
+        COMPLETED
+    }
+
+    @Id // One run per week, keyed by the week's Monday
+    private LocalDate weekStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = true) // Keyset cursor: every user up to and including this ID has been processed
+    private UUID lastUserId;
+
+    @Column(nullable = false)
+    private int processedUsers;
+
+    @Column(nullable = false)
+    private int digestsWritten;
+
+    @Column(nullable = false) // Users whose digest failed (they are not retried by this run)
+    private int failedUsers;
+
+    @Column(nullable = true, length = 128) // Node currently running the batch
+    private String leaseOwner;
+
+    @Column(nullable = true) // After this instant another node may take the run over
+    private Instant leaseExpiresAt;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Column(nullable = true)
+    private Instant completedAt;
+
+    @Version // Two nodes can't both take or advance the same run
+    private Long version;
+}
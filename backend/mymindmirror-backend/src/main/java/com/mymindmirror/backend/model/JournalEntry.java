@@ -1,17 +1,32 @@
 package com.mymindmirror.backend.model;
 
+import com.mymindmirror.backend.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.Data; // Lombok annotation for getters, setters, equals, hashCode, toString
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.LazyGroup;
 import java.time.LocalDate; // For storing dates without time
 import java.util.UUID; // For universally unique identifiers
 
 /**
  * Represents a single journal entry made by a user.
  * This entity maps to the 'journal_entries' table in the database.
+ * The long text columns form a lazy "body" group (bytecode enhancement, see pom.xml): queries that only need
+ * dates and scores never read them, and touching any one of them loads all five in a single select.
+ * They can only be loaded while a session is open; read them inside a transaction or use a projection query.
+ * On MySQL the table can be range-partitioned by entry_date (JournalPartitionMaintenance); entries older than
+ * the archive horizon are moved to 'journal_entries_archive' (ArchivedJournalEntry).
  */
 @Entity // Marks this class as a JPA entity
-@Table(name = "journal_entries") // Specifies the table name in the database
+@Table(name = "journal_entries", indexes = { // Specifies the table name in the database
+        @Index(name = "idx_journal_entries_user_date", columnList = "user_id, entry_date") // History and chart range scans
+})
 @Data // Lombok annotation: automatically generates getters, setters, toString, equals, and hashCode methods
+@Cacheable // Entries are read far more often than written; cache them in the second-level cache
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.JOURNAL_ENTRIES_REGION)
 public class JournalEntry {
 
     @Id // Marks this field as the primary key
@@ -21,27 +36,51 @@ public class JournalEntry {
     // Many-to-one relationship with the User entity.
     // Each journal entry belongs to one user.
     @ManyToOne(fetch = FetchType.LAZY) // LAZY fetch type to load User only when explicitly accessed
-    @JoinColumn(name = "user_id", nullable = false) // Specifies the foreign key column in 'journal_entries' table
+    // Specifies the foreign key column in 'journal_entries' table. No FK constraint: MySQL can't partition
+    // a table that has one (see JournalPartitionMaintenance), so deleting a user must delete their entries explicitly.
+    @JoinColumn(name = "user_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User user; // The user who created this entry
 
     @Column(nullable = false) // Ensures the entry date is not null
     private LocalDate entryDate; // The date of the journal entry
 
     @Column(columnDefinition = "TEXT", nullable = false) // Stores the raw journal text, can be long
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("body")
+    @Convert(converter = CompressedTextConverter.class) // Long entries are stored gzip-compressed
+    @ToString.Exclude @EqualsAndHashCode.Exclude // Must not trigger lazy loading (e.g. when logged detached)
     private String rawText; // The original text written by the user
 
     @Column(nullable = true) // Mood score can be null if AI analysis fails or is pending
     private Double moodScore; // Numerical representation of mood (-1.0 to 1.0)
 
     @Column(columnDefinition = "TEXT", nullable = true) // Stores JSON string of emotions, can be long
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("body")
+    @ToString.Exclude @EqualsAndHashCode.Exclude
     private String emotions; // JSON string: e.g., {"joy": 0.8, "sadness": 0.2}
 
     @Column(columnDefinition = "TEXT", nullable = true) // Stores JSON string of core concerns, can be long
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("body")
+    @ToString.Exclude @EqualsAndHashCode.Exclude
     private String coreConcerns; // JSON string: e.g., ["work stress", "relationship issues"]
 
     @Column(columnDefinition = "TEXT", nullable = true) // Stores the AI-generated summary, can be long
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("body")
+    @ToString.Exclude @EqualsAndHashCode.Exclude
     private String summary;
 
     @Column(columnDefinition = "TEXT", nullable = true) // Stores JSON string of growth tips, can be long
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("body")
+    @ToString.Exclude @EqualsAndHashCode.Exclude
     private String growthTips; // JSON string: e.g., ["Practice mindfulness", "Break tasks down"]
+
+    // Bumped by every update; with the id it keys the serialized-response cache (JournalResponseCache).
+    // Primitive, so rows that predate the column read 0 and Spring Data still tells new entries by their id.
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
@@ -0,0 +1,43 @@
+package com.mymindmirror.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.util.UUID;
+
+/**
+ * Per-user streaming state behind the insights endpoint (trend, streaks, anomaly detection).
+ * Updated in constant time on every journal write so reading insights never scans history.
+ * This entity maps to the 'mood_insight_states' table in the database.
+ */
+@Entity
+@Table(name = "mood_insight_states")
+@Data
+public class MoodInsightState {
+
+    @Id // One row per user, keyed by the user's ID
+    private UUID userId;
+
+    @Column(nullable = true) // Exponentially weighted moving average of daily mood, including the latest day
+    private Double ewma;
+
+    @Column(nullable = true) // EWMA before the latest day was folded in, so same-day edits can be re-applied exactly
+    private Double ewmaBeforeLatestDay;
+
+    @Column(nullable = true) // Epoch day of the latest value folded into the EWMA
+    private Long ewmaDay;
+
+    @Column(nullable = false) // Consecutive days with an entry, ending at lastEntryDay
+    private int streak;
+
+    @Column(nullable = false) // Longest streak ever reached
+    private int longestStreak;
+
+    @Column(nullable = true) // Epoch day of the most recent entry
+    private Long lastEntryDay;
+
+    @Column(nullable = true) // Epoch day of the newest slot in the rolling mood window
+    private Long windowEndDay;
+
+    @Column(length = 120, nullable = true) // Rolling 30-day mood window: 30 packed floats (NaN = no score)
+    private byte[] moodWindow;
+}
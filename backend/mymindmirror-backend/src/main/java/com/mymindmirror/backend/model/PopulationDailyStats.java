@@ -0,0 +1,41 @@
+package com.mymindmirror.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Platform-wide, anonymous statistics for one day, as mergeable sketches: distinct journalers (HyperLogLog),
+ * mood scores (t-digest) and concerns (Count-Min with top candidates). Nodes merge their pending updates in;
+ * any date range is answered by merging its days. Holds no user IDs or entry text.
+ * Lives in the directory database, since it spans all shards.
+ * This entity maps to the 'population_daily_stats' table in the database.
+ */
+@Entity
+@Table(name = "population_daily_stats")
+@Data
+public class PopulationDailyStats {
+
+    @Id
+    @Column(name = "stat_day") // "day" is reserved in H2
+    private LocalDate day;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "BLOB") // About 4 KiB
+    private byte[] journalers;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "BLOB") // Up to about 3 KiB
+    private byte[] moodDigest;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "BLOB") // About 17 KiB
+    private byte[] concerns;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Version // Concurrent merges from two nodes: one retries instead of overwriting the other
+    private Long version;
+}
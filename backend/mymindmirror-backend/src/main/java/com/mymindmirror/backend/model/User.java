@@ -1,7 +1,14 @@
 package com.mymindmirror.backend.model;
 
+import com.mymindmirror.backend.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.Data; // Lombok annotation for getters, setters, equals, hashCode, toString
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import java.time.Instant;
 import java.util.UUID; // For universally unique identifiers
 
 /**
@@ -11,12 +18,16 @@ import java.util.UUID; // For universally unique identifiers
 @Entity // Marks this class as a JPA entity
 @Table(name = "users") // Specifies the table name in the database
 @Data // Lombok annotation: automatically generates getters, setters, toString, equals, and hashCode methods
+@Cacheable // Users are read on every authenticated request, so keep them in the second-level cache
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS_REGION)
+@NaturalIdCache(region = HibernateCacheConfig.USERS_BY_USERNAME_REGION) // Resolves username -> id without hitting the database
 public class User {
 
     @Id // Marks this field as the primary key
     @GeneratedValue(strategy = GenerationType.UUID) // Generates a UUID for the ID automatically
     private UUID id;
 
+    @NaturalId // Username is the immutable business key used for lookups
     @Column(nullable = false, unique = true) // Ensures username is not null and is unique
     private String username;
 
@@ -25,4 +36,7 @@ public class User {
 
     @Column(nullable = false) // Stores the hashed password, should not be null
     private String passwordHash; // Stores the hashed password for security
+
+    @Column(nullable = true) // Set when the user deletes their account: sign-in stops at once, data goes in the background
+    private Instant disabledAt;
 }
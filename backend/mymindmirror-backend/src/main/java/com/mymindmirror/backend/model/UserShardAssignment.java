@@ -0,0 +1,42 @@
+package com.mymindmirror.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Which shard holds a user's journal data. Lives in the directory database next to 'users'.
+ * Written when the user registers and changed only by ShardRebalancer; users without a row
+ * (registered before sharding was enabled) are on the default shard.
+ * This entity maps to the 'user_shards' table in the database.
+ */
+@Entity
+@Table(name = "user_shards")
+@Data
+public class UserShardAssignment {
+
+    public enum State {
+        ACTIVE,
+        MOVING // Being copied to targetShard; reads still go to shard, writes are refused until the move ends
+    }
+
+    @Id // One row per user, keyed by the user's ID
+    private UUID userId;
+
+    @Column(nullable = false, length = 64)
+    private String shard;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private State state;
+
+    @Column(length = 64)
+    private String targetShard;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Version // Two rebalancers can't both start moving the same user
+    private Long version;
+}
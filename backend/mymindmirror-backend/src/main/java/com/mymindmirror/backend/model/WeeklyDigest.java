@@ -0,0 +1,54 @@
+package com.mymindmirror.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A user's precomputed summary of one week (Monday to Sunday), written by WeeklyDigestJob.
+ * Lives next to the user's journal entries (on their shard when sharding is enabled).
+ * This entity maps to the 'weekly_digests' table in the database.
+ */
+@Entity
+@Table(name = "weekly_digests", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_weekly_digests_user_week", columnNames = {"user_id", "week_start"}) // One per user per week
+})
+@Data
+public class WeeklyDigest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false) // The user lives in the directory database, so no foreign key
+    private UUID userId;
+
+    @Column(nullable = false) // Monday of the summarized week
+    private LocalDate weekStart;
+
+    @Column(nullable = false)
+    private int entryCount;
+
+    @Column(nullable = true) // Null if no entry that week had a mood score
+    private Double averageMood;
+
+    @Column(nullable = true)
+    private Double lowestMood;
+
+    @Column(nullable = true)
+    private Double highestMood;
+
+    @Column(columnDefinition = "TEXT", nullable = true) // JSON string: most frequent concerns, e.g. ["work", "sleep"]
+    private String topConcerns;
+
+    @Column(columnDefinition = "TEXT", nullable = true) // JSON string: strongest average emotions, e.g. {"joy": 0.6}
+    private String topEmotions;
+
+    @Column(columnDefinition = "TEXT", nullable = true) // LLM-written recap; null if the LLM call failed
+    private String recap;
+
+    @Column(nullable = false)
+    private Instant generatedAt;
+}
@@ -0,0 +1,18 @@
+package com.mymindmirror.backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * The columns of a journal entry the analytics store keeps, read once per user when their history is loaded.
+ */
+@Data
+@AllArgsConstructor
+public class AnalyticsEntryData {
+    private LocalDate entryDate;
+    private Double moodScore;
+    private String emotionsJson;
+    private String coreConcernsJson;
+}
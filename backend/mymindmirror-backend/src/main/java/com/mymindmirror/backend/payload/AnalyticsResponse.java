@@ -0,0 +1,43 @@
+// AnalyticsResponse.java
+package com.mymindmirror.backend.payload;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for mood analytics over a date range. Mood figures are null when no entry in the range is scored.
+ */
+@Data
+@NoArgsConstructor
+public class AnalyticsResponse {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private int entryCount;
+    private int scoredCount; // Entries with a mood score
+    private Double moodAverage;
+    private Double moodMin;
+    private Double moodMax;
+    private Double moodStdDev;
+    private Map<String, Double> moodPercentiles = new LinkedHashMap<>(); // "p10" to "p90"
+    private Map<String, Double> emotionAverages = new LinkedHashMap<>(); // Highest average first
+    private List<ConcernAnalytics> concerns = new ArrayList<>(); // Most frequent first
+
+    /**
+     * How one concern relates to mood: average mood on days with and without it, and the correlation between
+     * mood and its presence (-1 to 1; negative means lower mood on days it comes up). Null where undefined.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class ConcernAnalytics {
+        private String concern;
+        private int days;
+        private Double moodWith;
+        private Double moodWithout;
+        private Double correlation;
+    }
+}
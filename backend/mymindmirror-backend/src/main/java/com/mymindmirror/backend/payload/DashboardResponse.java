@@ -0,0 +1,25 @@
+// DashboardResponse.java
+package com.mymindmirror.backend.payload;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for everything the journal page shows, returned by a single request.
+ * Parts that failed or took too long are listed in {@code degraded} and left empty.
+ */
+@Data
+@NoArgsConstructor
+public class DashboardResponse {
+    private List<JournalEntryResponse> entries = new ArrayList<>(); // Recent entries, newest first
+    private List<MoodDataResponse> moodSeries = new ArrayList<>(); // Scored days, oldest first
+    private Map<String, Double> emotionAverages = new LinkedHashMap<>(); // Highest average first
+    private Map<String, Integer> concernCounts = new LinkedHashMap<>(); // Most frequent first
+    private JournalEntryResponse todaysEntry; // Null if the user hasn't journaled today
+    private String reflection; // Null if the reflection wasn't ready in time
+    private List<String> degraded = new ArrayList<>(); // "entries" and/or "reflection"
+}
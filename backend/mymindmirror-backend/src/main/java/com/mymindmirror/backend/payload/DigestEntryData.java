@@ -0,0 +1,21 @@
+// DigestEntryData.java (projection for the weekly digest batch)
+package com.mymindmirror.backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * The columns of a journal entry the weekly digest needs, read in bulk for a chunk of users.
+ */
+@Data
+@AllArgsConstructor
+public class DigestEntryData {
+    private UUID userId;
+    private LocalDate entryDate;
+    private Double moodScore;
+    private String emotionsJson;
+    private String coreConcernsJson;
+    private String summary; // The entry's AI summary; the recap prompt uses these instead of the full text
+}
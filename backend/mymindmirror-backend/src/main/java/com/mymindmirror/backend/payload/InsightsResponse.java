@@ -0,0 +1,27 @@
+// InsightsResponse.java
+package com.mymindmirror.backend.payload;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * DTO for the mood insights callouts: trend, streaks and unusually low days.
+ */
+@Data
+@NoArgsConstructor
+public class InsightsResponse {
+    private Double sevenDayAverage; // Average mood over the last 7 days (null if no scored days)
+    private Double thirtyDayAverage; // Average mood over the last 30 days
+    private Double moodTrend; // Exponentially weighted moving average of daily mood
+    private String trendDirection; // "improving", "declining" or "steady" (null if not enough data)
+    private int scoredDaysLast7;
+    private int scoredDaysLast30;
+    private int currentStreak; // Consecutive days journaled, ending today or yesterday
+    private int longestStreak;
+    private LocalDate lastEntryDate;
+    private LocalDate latestMoodDate; // Most recent day with a mood score
+    private Double latestMoodScore;
+    private Double latestMoodZScore; // How unusual the latest mood is compared with the previous 30 days
+    private boolean unusuallyLowDay; // True when the latest mood is far below the user's baseline
+}
@@ -8,6 +8,7 @@ import java.time.LocalDate;
 import java.util.Map;
 import java.util.List;
 import java.util.UUID;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -32,25 +33,37 @@ public class JournalEntryResponse {
     private List<String> coreConcerns; // Parsed from JSON string
     private String summary;
     private List<String> growthTips; // Parsed from JSON string
+    @JsonIgnore
+    private long version; // The entry's version; keys the serialized-response cache, not part of the JSON
 
     // Constructor to convert JournalEntry entity to JournalEntryResponse DTO
+    // (reads the entry's lazy text columns, so the entry must be loaded or its session still open)
     public JournalEntryResponse(JournalEntry entry) {
-        this.id = entry.getId();
-        this.entryDate = entry.getEntryDate();
-        this.rawText = entry.getRawText();
-        this.moodScore = entry.getMoodScore();
-        this.summary = entry.getSummary();
+        this(entry.getId(), entry.getEntryDate(), entry.getRawText(), entry.getMoodScore(),
+                entry.getEmotions(), entry.getCoreConcerns(), entry.getSummary(), entry.getGrowthTips(), entry.getVersion());
+    }
+
+    // Constructor from stored column values; used directly by projection queries in JournalEntryRepository
+    public JournalEntryResponse(UUID id, LocalDate entryDate, String rawText, Double moodScore,
+                                String emotionsJson, String coreConcernsJson, String summary, String growthTipsJson,
+                                long version) {
+        this.id = id;
+        this.entryDate = entryDate;
+        this.rawText = rawText;
+        this.moodScore = moodScore;
+        this.summary = summary;
+        this.version = version;
 
         // Parse JSON strings back into Java objects for the frontend
         try {
-            if (entry.getEmotions() != null) {
-                this.emotions = objectMapper.readValue(entry.getEmotions(), Map.class);
+            if (emotionsJson != null) {
+                this.emotions = objectMapper.readValue(emotionsJson, Map.class);
             }
-            if (entry.getCoreConcerns() != null) {
-                this.coreConcerns = objectMapper.readValue(entry.getCoreConcerns(), List.class);
+            if (coreConcernsJson != null) {
+                this.coreConcerns = objectMapper.readValue(coreConcernsJson, List.class);
             }
-            if (entry.getGrowthTips() != null) {
-                this.growthTips = objectMapper.readValue(entry.getGrowthTips(), List.class);
+            if (growthTipsJson != null) {
+                this.growthTips = objectMapper.readValue(growthTipsJson, List.class);
             }
         } catch (JsonProcessingException e) {
             logger.error("Error parsing JSON from JournalEntry entity: {}", e.getMessage(), e);
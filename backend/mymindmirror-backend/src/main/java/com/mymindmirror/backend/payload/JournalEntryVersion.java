@@ -0,0 +1,16 @@
+package com.mymindmirror.backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * A journal entry's ID and version, read without its body to check a cached serialized response against.
+ */
+@Data
+@AllArgsConstructor
+public class JournalEntryVersion {
+    private UUID id;
+    private long version;
+}
@@ -0,0 +1,37 @@
+// PopulationStatsResponse.java
+package com.mymindmirror.backend.payload;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for platform-wide, anonymous statistics over a date range. All counts are sketch estimates.
+ */
+@Data
+@NoArgsConstructor
+public class PopulationStatsResponse {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long journalers; // Distinct users with an entry in the range
+    private Map<LocalDate, Long> dailyJournalers = new LinkedHashMap<>(); // Days with entries only, oldest first
+    private long scoredEntries;
+    private Map<String, Double> moodPercentiles = new LinkedHashMap<>(); // "p5" to "p95"; empty if nothing is scored
+    private List<ConcernCount> topConcerns = new ArrayList<>(); // Most frequent first
+
+    @Data
+    @NoArgsConstructor
+    public static class ConcernCount {
+        private String concern;
+        private long count;
+
+        public ConcernCount(String concern, long count) {
+            this.concern = concern;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+// ReflectionResponse.java
+package com.mymindmirror.backend.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * DTO for the daily reflection shown on the journal page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReflectionResponse {
+    private LocalDate date;
+    private String reflection;
+}
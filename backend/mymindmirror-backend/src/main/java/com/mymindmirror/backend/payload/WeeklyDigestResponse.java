@@ -0,0 +1,58 @@
+// WeeklyDigestResponse.java
+package com.mymindmirror.backend.payload;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mymindmirror.backend.model.WeeklyDigest;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for a user's weekly digest.
+ */
+@Data
+@NoArgsConstructor
+public class WeeklyDigestResponse {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeeklyDigestResponse.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private LocalDate weekStart;
+    private int entryCount;
+    private Double averageMood;
+    private Double lowestMood;
+    private Double highestMood;
+    private List<String> topConcerns; // Parsed from JSON string
+    private Map<String, Double> topEmotions; // Parsed from JSON string
+    private String recap; // Null if the LLM recap couldn't be generated
+    private Instant generatedAt;
+
+    @SuppressWarnings("unchecked")
+    public WeeklyDigestResponse(WeeklyDigest digest) {
+        this.weekStart = digest.getWeekStart();
+        this.entryCount = digest.getEntryCount();
+        this.averageMood = digest.getAverageMood();
+        this.lowestMood = digest.getLowestMood();
+        this.highestMood = digest.getHighestMood();
+        this.recap = digest.getRecap();
+        this.generatedAt = digest.getGeneratedAt();
+        try {
+            if (digest.getTopConcerns() != null) {
+                this.topConcerns = objectMapper.readValue(digest.getTopConcerns(), List.class);
+            }
+            if (digest.getTopEmotions() != null) {
+                this.topEmotions = objectMapper.readValue(digest.getTopEmotions(), Map.class);
+            }
+        } catch (JsonProcessingException e) {
+            logger.error("Error parsing JSON from WeeklyDigest entity: {}", e.getMessage(), e);
+            this.topConcerns = null;
+            this.topEmotions = null;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.mymindmirror.backend.repository;
+
+import com.mymindmirror.backend.model.AccountDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JPA Repository for AccountDeletion entities (account deletion progress).
+ */
+@Repository
+public interface AccountDeletionRepository extends JpaRepository<AccountDeletion, UUID> {
+
+    /**
+     * Unfinished deletions no node holds a live lease on, oldest request first.
+     */
+    @Query("select d from AccountDeletion d where d.step <> :done"
+            + " and (d.leaseExpiresAt is null or d.leaseExpiresAt < :now) order by d.requestedAt")
+    List<AccountDeletion> findClaimable(@Param("done") AccountDeletion.Step done, @Param("now") Instant now, Pageable page);
+}
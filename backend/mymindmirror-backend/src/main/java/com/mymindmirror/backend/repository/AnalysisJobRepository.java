@@ -0,0 +1,101 @@
+package com.mymindmirror.backend.repository;
+
+import com.mymindmirror.backend.model.AnalysisJob;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JPA Repository for AnalysisJob entities.
+ */
+@Repository
+public interface AnalysisJobRepository extends JpaRepository<AnalysisJob, UUID> {
+
+    /**
+     * Locks a batch of claimable jobs: pending jobs that are due, and running jobs whose lease expired.
+     * The lock timeout hint of -2 asks Hibernate for SKIP LOCKED (e.g. "FOR UPDATE SKIP LOCKED" on MySQL 8),
+     * so concurrent pollers on other nodes skip rows already being claimed instead of waiting for them.
+     * Must be called inside a transaction.
+     * @param now The current time.
+     * @param page Limits the batch size.
+     * @return Locked jobs, oldest due first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select j from AnalysisJob j where (j.status = :pending and j.availableAt <= :now)"
+            + " or (j.status = :running and j.leaseExpiresAt < :now) order by j.availableAt")
+    List<AnalysisJob> findClaimable(@Param("now") Instant now,
+                                    @Param("pending") AnalysisJob.Status pending,
+                                    @Param("running") AnalysisJob.Status running,
+                                    Pageable page);
+
+    /**
+     * Checks whether an entry already has a job waiting, so repeated edits don't pile up jobs.
+     */
+    boolean existsByEntryIdAndStatus(UUID entryId, AnalysisJob.Status status);
+
+    /**
+     * Marks a job finished, but only if the caller still holds its lease.
+     * @return 1 if the job was updated, 0 if the lease was lost to another node.
+     */
+    @Modifying
+    @Query("update AnalysisJob j set j.status = :done, j.completedAt = :now, j.leaseOwner = null, j.leaseExpiresAt = null"
+            + " where j.id = :id and j.leaseOwner = :owner and j.status = :running")
+    int markDone(@Param("id") UUID id, @Param("owner") String owner, @Param("now") Instant now,
+                 @Param("done") AnalysisJob.Status done, @Param("running") AnalysisJob.Status running);
+
+    /**
+     * Releases a job after a failed attempt, either back to pending (with a due time) or to failed.
+     * @return 1 if the job was updated, 0 if the lease was lost to another node.
+     */
+    @Modifying
+    @Query("update AnalysisJob j set j.status = :next, j.availableAt = :availableAt, j.lastError = :error,"
+            + " j.leaseOwner = null, j.leaseExpiresAt = null"
+            + " where j.id = :id and j.leaseOwner = :owner and j.status = :running")
+    int release(@Param("id") UUID id, @Param("owner") String owner, @Param("next") AnalysisJob.Status next,
+                @Param("availableAt") Instant availableAt, @Param("error") String error,
+                @Param("running") AnalysisJob.Status running);
+
+    /**
+     * Removes finished jobs older than the given time.
+     * @return The number of deleted jobs.
+     */
+    @Modifying
+    @Query("delete from AnalysisJob j where j.status = :done and j.completedAt < :before")
+    int deleteCompletedBefore(@Param("done") AnalysisJob.Status done, @Param("before") Instant before);
+
+    /**
+     * Lists a user's jobs in the given states (jobs only reference entries, so this goes through journal_entries).
+     */
+    @Query("select j from AnalysisJob j where j.status in :statuses"
+            + " and j.entryId in (select e.id from JournalEntry e where e.user.id = :userId)")
+    List<AnalysisJob> findByUserIdAndStatusIn(@Param("userId") UUID userId,
+                                              @Param("statuses") Collection<AnalysisJob.Status> statuses);
+
+    /**
+     * Deletes all jobs for a user's hot entries. Run before the entries themselves are deleted.
+     * @return The number of deleted jobs.
+     */
+    @Modifying
+    @Query("delete from AnalysisJob j where j.entryId in (select e.id from JournalEntry e where e.user.id = :userId)")
+    int deleteAllByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Deletes the jobs of the given entries. Run before the entries themselves are deleted.
+     * @return The number of deleted jobs.
+     */
+    @Modifying
+    @Query("delete from AnalysisJob j where j.entryId in :entryIds")
+    int deleteAllByEntryIdIn(@Param("entryIds") Collection<UUID> entryIds);
+}
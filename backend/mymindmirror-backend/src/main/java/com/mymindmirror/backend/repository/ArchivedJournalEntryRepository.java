@@ -0,0 +1,48 @@
+package com.mymindmirror.backend.repository;
+
+import com.mymindmirror.backend.model.ArchivedJournalEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JPA Repository for ArchivedJournalEntry entities.
+ * Reads that combine archived and hot entries go through JournalEntryRepository.
+ */
+@Repository
+public interface ArchivedJournalEntryRepository extends JpaRepository<ArchivedJournalEntry, UUID> {
+
+    /**
+     * Loads all of a user's archived entries, e.g. to copy them to another shard.
+     */
+    @Query("select e from ArchivedJournalEntry e where e.user.id = :userId")
+    List<ArchivedJournalEntry> findAllByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Deletes all of a user's archived entries in one statement.
+     * @return The number of deleted entries.
+     */
+    @Modifying
+    @Query("delete from ArchivedJournalEntry e where e.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Reads a chunk of a user's archived entry IDs, for deleting them chunk by chunk.
+     */
+    @Query("select e.id from ArchivedJournalEntry e where e.user.id = :userId")
+    List<UUID> findIdsByUserId(@Param("userId") UUID userId, Pageable page);
+
+    /**
+     * Deletes archived entries by primary key in one statement.
+     * @return The number of deleted entries.
+     */
+    @Modifying
+    @Query("delete from ArchivedJournalEntry e where e.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
+}
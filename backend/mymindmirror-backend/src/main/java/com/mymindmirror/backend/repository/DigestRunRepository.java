@@ -0,0 +1,13 @@
+package com.mymindmirror.backend.repository;
+
+import com.mymindmirror.backend.model.DigestRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+
+/**
+ * JPA Repository for DigestRun entities (weekly digest checkpoints).
+ */
+@Repository
+public interface DigestRunRepository extends JpaRepository<DigestRun, LocalDate> {
+}
@@ -1,10 +1,22 @@
 package com.mymindmirror.backend.repository;
 
+import com.mymindmirror.backend.config.HibernateCacheConfig;
 import com.mymindmirror.backend.model.JournalEntry;
 import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.payload.DigestEntryData;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,9 +24,10 @@ import java.util.UUID;
 /**
  * JPA Repository for JournalEntry entities.
  * Provides standard CRUD operations and custom query methods for JournalEntry data.
+ * Range reads that may reach archived history are in JournalEntryRepositoryCustom.
  */
 @Repository // Marks this interface as a Spring Data JPA repository
-public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID> {
+public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID>, JournalEntryRepositoryCustom {
 
     /**
      * Finds all Journal Entries for a specific user within a given date range.
@@ -28,9 +41,74 @@ public interface JournalEntryRepository extends JpaRepository<JournalEntry, UUID
     /**
      * Finds a Journal Entry for a specific user on a specific date.
      * Useful for checking if an entry for today already exists.
+     * Results are kept in the query cache; Hibernate invalidates them whenever journal_entries changes.
      * @param user The User entity.
      * @param entryDate The specific date to search for.
      * @return An Optional containing the JournalEntry if found, or empty if not.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.JOURNAL_ENTRY_BY_DAY_REGION)
+    })
     Optional<JournalEntry> findByUserAndEntryDate(User user, LocalDate entryDate);
+
+    /**
+     * Reads one week of entries for a chunk of users in a single query (weekly digest batch).
+     * Only the columns the digest needs; hot table only, since a past week is far newer than the archive cutoff.
+     * @param userIds The chunk's user IDs.
+     * @param startDate The week's Monday.
+     * @param endDate The week's Sunday.
+     * @return The entries, in no particular order.
+     */
+    @Query("select new com.mymindmirror.backend.payload.DigestEntryData(e.user.id, e.entryDate, e.moodScore, e.emotions, " +
+            "e.coreConcerns, e.summary) from JournalEntry e where e.user.id in :userIds and e.entryDate between :startDate and :endDate")
+    List<DigestEntryData> findDigestData(@Param("userIds") Collection<UUID> userIds, @Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate);
+
+    /**
+     * Locks a chunk of hot entries dated before the cutoff, oldest first, for moving to the archive.
+     * As with AnalysisJobRepository.findClaimable, the lock timeout hint of -2 asks for SKIP LOCKED,
+     * so archive runs on several nodes take disjoint chunks. Must be called inside a transaction.
+     * @param cutoff Entries dated before this are archivable.
+     * @param page Limits the chunk size.
+     * @return Locked entries (their lazy text columns are not loaded).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from JournalEntry e where e.entryDate < :cutoff order by e.entryDate")
+    List<JournalEntry> findArchivable(@Param("cutoff") LocalDate cutoff, Pageable page);
+
+    /**
+     * Loads all of a user's hot entries (bodies stay lazy), e.g. to copy them to another shard.
+     * @param userId The user's ID.
+     * @return The user's entries.
+     */
+    @Query("select e from JournalEntry e where e.user.id = :userId")
+    List<JournalEntry> findAllByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Deletes all of a user's hot entries in one statement (also invalidates the journal-entries cache region).
+     * @param userId The user's ID.
+     * @return The number of deleted entries.
+     */
+    @Modifying
+    @Query("delete from JournalEntry e where e.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Reads a chunk of a user's hot entry IDs, for deleting them chunk by chunk.
+     * @param userId The user's ID.
+     * @param page Limits the chunk size.
+     * @return The IDs.
+     */
+    @Query("select e.id from JournalEntry e where e.user.id = :userId")
+    List<UUID> findIdsByUserId(@Param("userId") UUID userId, Pageable page);
+
+    /**
+     * Deletes entries by primary key in one statement.
+     * @return The number of deleted entries.
+     */
+    @Modifying
+    @Query("delete from JournalEntry e where e.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
 }
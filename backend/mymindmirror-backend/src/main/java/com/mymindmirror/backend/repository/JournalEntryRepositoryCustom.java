@@ -0,0 +1,102 @@
+package com.mymindmirror.backend.repository;
+
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.payload.AnalyticsEntryData;
+import com.mymindmirror.backend.payload.JournalEntryResponse;
+import com.mymindmirror.backend.payload.JournalEntryVersion;
+import com.mymindmirror.backend.payload.MoodDataResponse;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Journal queries that span the hot journal_entries table and journal_entries_archive.
+ * The archive is only queried when the requested range starts before the archive cutoff (JournalArchivePolicy),
+ * so the common recent-history reads touch the hot table alone.
+ */
+public interface JournalEntryRepositoryCustom {
+
+    /**
+     * Reads a user's entries in a date range straight into response DTOs, bodies included.
+     * Loading entities instead would issue one extra select per entry for the lazy body group.
+     * @param user The User entity.
+     * @param startDate The start date of the range (inclusive).
+     * @param endDate The end date of the range (inclusive).
+     * @return The entries as JournalEntryResponse objects.
+     */
+    List<JournalEntryResponse> findResponsesByUserAndEntryDateBetween(User user, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Lists the ID and version of a user's entries in a date range, in the order findResponsesByUserAndEntryDateBetween
+     * returns them, without reading any text column. Lets cached responses be checked before any body is read.
+     * @param user The User entity.
+     * @param startDate The start date of the range (inclusive).
+     * @param endDate The end date of the range (inclusive).
+     * @return The entries' versions.
+     */
+    List<JournalEntryVersion> findVersionsByUserAndEntryDateBetween(User user, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Reads the given entries of a user, hot or archived, straight into response DTOs, bodies included.
+     * @param user The User who must own the entries.
+     * @param ids The entry IDs.
+     * @return The entries found, in no particular order.
+     */
+    List<JournalEntryResponse> findResponsesByUserAndIdIn(User user, Collection<UUID> ids);
+
+    /**
+     * Reads only the date and mood score of a user's analyzed entries in a date range, oldest first.
+     * No text columns are read.
+     * @param user The User entity.
+     * @param startDate The start date of the range (inclusive).
+     * @param endDate The end date of the range (inclusive).
+     * @return Chart points for entries that have a mood score.
+     */
+    List<MoodDataResponse> findMoodDataByUserAndEntryDateBetween(User user, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Lists the dates of all of a user's entries, archived ones included, newest first, without loading entry bodies.
+     * Used once per user to bootstrap streak tracking.
+     * @param user The User entity.
+     * @return Entry dates in descending order.
+     */
+    List<LocalDate> findEntryDatesByUserDesc(User user);
+
+    /**
+     * Reads the date, mood score, emotions and concerns of all of a user's entries, archived ones included,
+     * without the text. Used to load the user's history into the analytics store.
+     * @param user The User entity.
+     * @return The entries, in no particular order.
+     */
+    List<AnalyticsEntryData> findAnalyticsDataByUser(User user);
+
+    /**
+     * Reads one of a user's entries, hot or archived, as a response DTO.
+     * @param id The entry ID.
+     * @param user The User who must own the entry.
+     * @return The entry, or empty if it doesn't exist or belongs to someone else.
+     */
+    Optional<JournalEntryResponse> findResponseByIdAndUser(UUID id, User user);
+
+    /**
+     * Reads the version of one of a user's entries, hot or archived, without its body.
+     * @param id The entry ID.
+     * @param user The User who must own the entry.
+     * @return The entry's version, or empty if it doesn't exist or belongs to someone else.
+     */
+    Optional<JournalEntryVersion> findVersionByIdAndUser(UUID id, User user);
+
+    /**
+     * Copies the given hot entries into journal_entries_archive and deletes them from journal_entries.
+     * Both statements run in the caller's transaction; the bulk delete also invalidates the
+     * journal-entries cache region.
+     * @param ids The entries to move.
+     * @param now Recorded as the archive time.
+     * @return The number of entries moved.
+     */
+    int moveToArchive(List<UUID> ids, Instant now);
+}
@@ -0,0 +1,207 @@
+package com.mymindmirror.backend.repository;
+
+import com.mymindmirror.backend.config.JournalArchivePolicy;
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.payload.AnalyticsEntryData;
+import com.mymindmirror.backend.payload.JournalEntryResponse;
+import com.mymindmirror.backend.payload.JournalEntryVersion;
+import com.mymindmirror.backend.payload.MoodDataResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of JournalEntryRepositoryCustom, picked up by Spring Data through the "Impl" suffix.
+ * The same JPQL runs against JournalEntry and ArchivedJournalEntry, which share their column layout.
+ */
+public class JournalEntryRepositoryCustomImpl implements JournalEntryRepositoryCustom {
+
+    private static final String HOT = "JournalEntry";
+    private static final String ARCHIVE = "ArchivedJournalEntry";
+
+    private static final String VERSION_SELECT = "select new com.mymindmirror.backend.payload.JournalEntryVersion("
+            + "e.id, e.version) from ";
+    private static final String RESPONSE_SELECT = "select new com.mymindmirror.backend.payload.JournalEntryResponse("
+            + "e.id, e.entryDate, e.rawText, e.moodScore, e.emotions, e.coreConcerns, e.summary, e.growthTips, e.version) from ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JournalArchivePolicy archivePolicy;
+
+    public JournalEntryRepositoryCustomImpl(JournalArchivePolicy archivePolicy) {
+        this.archivePolicy = archivePolicy;
+    }
+
+    @Override
+    public List<JournalEntryResponse> findResponsesByUserAndEntryDateBetween(User user, LocalDate startDate, LocalDate endDate) {
+        List<JournalEntryResponse> responses = new ArrayList<>(responsesBetween(HOT, user, startDate, endDate));
+        if (archivePolicy.reachesArchive(startDate)) {
+            responses.addAll(responsesBetween(ARCHIVE, user, startDate, endDate));
+        }
+        return responses;
+    }
+
+    @Override
+    public List<JournalEntryVersion> findVersionsByUserAndEntryDateBetween(User user, LocalDate startDate, LocalDate endDate) {
+        List<JournalEntryVersion> versions = new ArrayList<>(versionsBetween(HOT, user, startDate, endDate));
+        if (archivePolicy.reachesArchive(startDate)) {
+            versions.addAll(versionsBetween(ARCHIVE, user, startDate, endDate));
+        }
+        return versions;
+    }
+
+    @Override
+    public List<JournalEntryResponse> findResponsesByUserAndIdIn(User user, Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<JournalEntryResponse> responses = new ArrayList<>(responsesByIds(HOT, user, ids));
+        if (responses.size() < ids.size()) { // The rest are archived (or gone)
+            Set<UUID> found = responses.stream().map(JournalEntryResponse::getId).collect(Collectors.toSet());
+            List<UUID> rest = ids.stream().filter(id -> !found.contains(id)).toList();
+            responses.addAll(responsesByIds(ARCHIVE, user, rest));
+        }
+        return responses;
+    }
+
+    @Override
+    public List<MoodDataResponse> findMoodDataByUserAndEntryDateBetween(User user, LocalDate startDate, LocalDate endDate) {
+        List<MoodDataResponse> points = new ArrayList<>(moodDataBetween(HOT, user, startDate, endDate));
+        if (archivePolicy.reachesArchive(startDate)) {
+            points.addAll(moodDataBetween(ARCHIVE, user, startDate, endDate));
+            points.sort(Comparator.comparing(MoodDataResponse::getDate));
+        }
+        return points;
+    }
+
+    @Override
+    public List<LocalDate> findEntryDatesByUserDesc(User user) {
+        List<LocalDate> dates = new ArrayList<>(entryDates(HOT, user));
+        dates.addAll(entryDates(ARCHIVE, user));
+        dates.sort(Comparator.reverseOrder());
+        return dates;
+    }
+
+    @Override
+    public List<AnalyticsEntryData> findAnalyticsDataByUser(User user) {
+        List<AnalyticsEntryData> rows = new ArrayList<>(analyticsData(HOT, user));
+        rows.addAll(analyticsData(ARCHIVE, user));
+        return rows;
+    }
+
+    @Override
+    public Optional<JournalEntryResponse> findResponseByIdAndUser(UUID id, User user) {
+        Optional<JournalEntryResponse> hot = responseById(HOT, id, user);
+        return hot.isPresent() ? hot : responseById(ARCHIVE, id, user);
+    }
+
+    @Override
+    public Optional<JournalEntryVersion> findVersionByIdAndUser(UUID id, User user) {
+        Optional<JournalEntryVersion> hot = versionById(HOT, id, user);
+        return hot.isPresent() ? hot : versionById(ARCHIVE, id, user);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int moveToArchive(List<UUID> ids, Instant now) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Insert-select copies column values as stored, so compressed text stays compressed
+        entityManager.createQuery("insert into ArchivedJournalEntry"
+                        + " (id, user, entryDate, rawText, moodScore, emotions, coreConcerns, summary, growthTips, version, archivedAt)"
+                        + " select e.id, e.user, e.entryDate, e.rawText, e.moodScore, e.emotions, e.coreConcerns,"
+                        + " e.summary, e.growthTips, e.version, :now from JournalEntry e where e.id in :ids")
+                .setParameter("now", now)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return entityManager.createQuery("delete from JournalEntry e where e.id in :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    private List<JournalEntryResponse> responsesBetween(String entity, User user, LocalDate startDate, LocalDate endDate) {
+        return entityManager.createQuery(RESPONSE_SELECT + entity
+                        + " e where e.user = :user and e.entryDate between :startDate and :endDate", JournalEntryResponse.class)
+                .setParameter("user", user)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+    }
+
+    private List<JournalEntryVersion> versionsBetween(String entity, User user, LocalDate startDate, LocalDate endDate) {
+        return entityManager.createQuery(VERSION_SELECT + entity
+                        + " e where e.user = :user and e.entryDate between :startDate and :endDate", JournalEntryVersion.class)
+                .setParameter("user", user)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+    }
+
+    private List<JournalEntryResponse> responsesByIds(String entity, User user, Collection<UUID> ids) {
+        return entityManager.createQuery(RESPONSE_SELECT + entity + " e where e.user = :user and e.id in :ids",
+                        JournalEntryResponse.class)
+                .setParameter("user", user)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    private List<MoodDataResponse> moodDataBetween(String entity, User user, LocalDate startDate, LocalDate endDate) {
+        return entityManager.createQuery("select new com.mymindmirror.backend.payload.MoodDataResponse(e.entryDate, e.moodScore)"
+                        + " from " + entity + " e where e.user = :user and e.entryDate between :startDate and :endDate"
+                        + " and e.moodScore is not null order by e.entryDate", MoodDataResponse.class)
+                .setParameter("user", user)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultList();
+    }
+
+    private List<LocalDate> entryDates(String entity, User user) {
+        return entityManager.createQuery("select e.entryDate from " + entity + " e where e.user = :user", LocalDate.class)
+                .setParameter("user", user)
+                .getResultList();
+    }
+
+    private List<AnalyticsEntryData> analyticsData(String entity, User user) {
+        return entityManager.createQuery("select new com.mymindmirror.backend.payload.AnalyticsEntryData("
+                        + "e.entryDate, e.moodScore, e.emotions, e.coreConcerns) from " + entity + " e where e.user = :user",
+                        AnalyticsEntryData.class)
+                .setParameter("user", user)
+                .getResultList();
+    }
+
+    private Optional<JournalEntryResponse> responseById(String entity, UUID id, User user) {
+        return entityManager.createQuery(RESPONSE_SELECT + entity + " e where e.id = :id and e.user = :user",
+                        JournalEntryResponse.class)
+                .setParameter("id", id)
+                .setParameter("user", user)
+                .setMaxResults(1)
+                .getResultList() // Not getResultStream(): an unconsumed stream leaves its ResultSet open
+                .stream()
+                .findFirst();
+    }
+
+    private Optional<JournalEntryVersion> versionById(String entity, UUID id, User user) {
+        return entityManager.createQuery(VERSION_SELECT + entity + " e where e.id = :id and e.user = :user",
+                        JournalEntryVersion.class)
+                .setParameter("id", id)
+                .setParameter("user", user)
+                .setMaxResults(1)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+}
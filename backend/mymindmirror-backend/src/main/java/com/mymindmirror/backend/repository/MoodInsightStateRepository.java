@@ -0,0 +1,27 @@
+package com.mymindmirror.backend.repository;
+
+import com.mymindmirror.backend.model.MoodInsightState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JPA Repository for MoodInsightState entities.
+ */
+@Repository
+public interface MoodInsightStateRepository extends JpaRepository<MoodInsightState, UUID> {
+
+    /**
+     * Loads a user's insight state and locks the row, so concurrent writes for the same user apply one after another.
+     * @param userId The user's ID.
+     * @return An Optional containing the state if it has been initialized.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from MoodInsightState s where s.userId = :userId")
+    Optional<MoodInsightState> findForUpdate(@Param("userId") UUID userId);
+}
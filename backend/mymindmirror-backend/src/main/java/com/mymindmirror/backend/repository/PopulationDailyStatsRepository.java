@@ -0,0 +1,16 @@
+package com.mymindmirror.backend.repository;
+
+import com.mymindmirror.backend.model.PopulationDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * JPA Repository for PopulationDailyStats entities (daily population sketches).
+ */
+@Repository
+public interface PopulationDailyStatsRepository extends JpaRepository<PopulationDailyStats, LocalDate> {
+
+    List<PopulationDailyStats> findByDayBetween(LocalDate startDate, LocalDate endDate);
+}
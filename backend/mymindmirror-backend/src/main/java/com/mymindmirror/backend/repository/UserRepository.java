@@ -1,8 +1,12 @@
 package com.mymindmirror.backend.repository;
 
 import com.mymindmirror.backend.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,7 +15,7 @@ import java.util.UUID;
  * Provides standard CRUD operations and custom query methods for User data.
  */
 @Repository // Marks this interface as a Spring Data JPA repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
 
     /**
      * Finds a User by their username.
@@ -27,4 +31,14 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      * @return True if a user with this username exists, false otherwise.
      */
     Boolean existsByUsername(String username);
+
+    /**
+     * Keyset pagination over all user IDs: the next page after a cursor, in ID order.
+     * Unlike offset paging, each page is an index range scan however far the batch has got.
+     * @param after The last ID of the previous page (new UUID(0, 0) to start).
+     * @param page The page size (use page 0).
+     * @return Up to page-size IDs greater than the cursor.
+     */
+    @Query("select u.id from User u where u.id > :after order by u.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Pageable page);
 }
@@ -0,0 +1,19 @@
+package com.mymindmirror.backend.repository;
+
+import com.mymindmirror.backend.model.User;
+import java.util.Optional;
+
+/**
+ * Custom User queries that need the Hibernate Session API directly.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Loads a User by its natural id (username).
+     * Unlike findByUsername, this goes through the natural-id and entity caches,
+     * so repeated lookups for the same user do not reach the database.
+     * @param username The username to search for.
+     * @return An Optional containing the User if found, or empty if not.
+     */
+    Optional<User> findByNaturalUsername(String username);
+}
@@ -0,0 +1,21 @@
+package com.mymindmirror.backend.repository;
+
+import com.mymindmirror.backend.model.UserShardAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JPA Repository for UserShardAssignment entities (directory database).
+ */
+@Repository
+public interface UserShardAssignmentRepository extends JpaRepository<UserShardAssignment, UUID> {
+
+    /**
+     * Counts assigned users per shard, as [shard, count] rows.
+     */
+    @Query("select a.shard, count(a) from UserShardAssignment a group by a.shard")
+    List<Object[]> countByShard();
+}
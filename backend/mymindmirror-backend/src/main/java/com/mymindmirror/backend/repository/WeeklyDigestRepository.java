@@ -0,0 +1,63 @@
+package com.mymindmirror.backend.repository;
+
+import com.mymindmirror.backend.model.WeeklyDigest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * JPA Repository for WeeklyDigest entities.
+ */
+@Repository
+public interface WeeklyDigestRepository extends JpaRepository<WeeklyDigest, UUID> {
+
+    Optional<WeeklyDigest> findByUserIdAndWeekStart(UUID userId, LocalDate weekStart);
+
+    /**
+     * Which of the given users already have a digest for the week (so a resumed batch skips them).
+     * @param weekStart The week's Monday.
+     * @param userIds A chunk of user IDs.
+     * @return The IDs of users that have one.
+     */
+    @Query("select d.userId from WeeklyDigest d where d.weekStart = :weekStart and d.userId in :userIds")
+    List<UUID> findUserIdsWithDigest(@Param("weekStart") LocalDate weekStart, @Param("userIds") Collection<UUID> userIds);
+
+    /**
+     * Loads all of a user's digests (for moving the user to another shard).
+     * @param userId The user's ID.
+     * @return The user's digests.
+     */
+    @Query("select d from WeeklyDigest d where d.userId = :userId")
+    List<WeeklyDigest> findAllByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Deletes all of a user's digests.
+     * @param userId The user's ID.
+     * @return The number of deleted digests.
+     */
+    @Modifying
+    @Query("delete from WeeklyDigest d where d.userId = :userId")
+    int deleteAllByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Reads a chunk of a user's digest IDs, for deleting them chunk by chunk.
+     */
+    @Query("select d.id from WeeklyDigest d where d.userId = :userId")
+    List<UUID> findIdsByUserId(@Param("userId") UUID userId, Pageable page);
+
+    /**
+     * Deletes digests by primary key in one statement.
+     * @return The number of deleted digests.
+     */
+    @Modifying
+    @Query("delete from WeeklyDigest d where d.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,259 @@
+package com.mymindmirror.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Makes journal writes (POST and PUT under /api/journal) safe to retry: a request carrying an Idempotency-Key
+ * header runs once, and a retry with the same key gets the original status and body back (marked with an
+ * Idempotent-Replayed header) instead of saving and analyzing the entry again. A retry that arrives while the
+ * original is still running waits for it. Keys are per user and replayed for app.idempotency.ttl-seconds.
+ * A key reused for a different request (another endpoint, or the same one with a different body) gets 422.
+ * <p>
+ * Server errors, 429 and 409 (a concurrent edit won) responses are not recorded, so a retry after one of them
+ * runs again. The store is in-process, like the rate limiter: with several nodes, retries are only absorbed when
+ * they reach the same node.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String PROTECTED_PATH_PREFIX = "/api/journal";
+    // Keys end up in memory and logs; accept UUIDs and similar tokens only
+    private static final Pattern SAFE_KEY = Pattern.compile("[A-Za-z0-9._:-]{1,128}");
+
+    private final boolean enabled;
+    private final IdempotencyStore store;
+    private final int maxResponseBytes; // Larger responses are not recorded
+    private final long waitTimeoutMillis; // How long a duplicate waits for the original
+
+    public IdempotencyFilter(@Value("${app.idempotency.enabled:true}") boolean enabled,
+                             @Value("${app.idempotency.ttl-seconds:3600}") long ttlSeconds,
+                             @Value("${app.idempotency.max-keys:10000}") int maxKeys,
+                             @Value("${app.idempotency.max-response-bytes:32768}") int maxResponseBytes,
+                             @Value("${app.idempotency.wait-timeout-seconds:60}") long waitTimeoutSeconds) {
+        this.enabled = enabled;
+        this.store = new IdempotencyStore(ttlSeconds, maxKeys);
+        this.maxResponseBytes = maxResponseBytes;
+        this.waitTimeoutMillis = TimeUnit.SECONDS.toMillis(waitTimeoutSeconds);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || !(HttpMethod.POST.matches(request.getMethod()) || HttpMethod.PUT.matches(request.getMethod()))
+                || !request.getRequestURI().startsWith(PROTECTED_PATH_PREFIX)
+                || request.getHeader(HEADER) == null; // Without a key, writes behave as before
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            // Unauthenticated requests are rejected by Spring Security further down the chain
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String idempotencyKey = request.getHeader(HEADER);
+        if (!SAFE_KEY.matcher(idempotencyKey).matches()) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Invalid Idempotency-Key header.");
+            return;
+        }
+        String key = authentication.getName() + ":" + idempotencyKey; // Users can't see or collide with each other's keys
+        // The body is read here to fingerprint it, so the rest of the chain reads the buffered copy
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String fingerprint = request.getMethod() + " " + request.getRequestURI() + " " + sha256(cachedRequest.body);
+
+        while (true) {
+            IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+            if (claim == null) {
+                logger.warn("Idempotency store is full; {} {} runs without replay protection.", request.getMethod(), request.getRequestURI());
+                chain.doFilter(cachedRequest, response);
+                return;
+            }
+            if (claim.isOwner()) {
+                runAndRecord(cachedRequest, response, chain, claim);
+                return;
+            }
+            if (!claim.matches(fingerprint)) {
+                logger.warn("Idempotency key of user {} reused for a different request: {} {}", authentication.getName(),
+                        request.getMethod(), request.getRequestURI());
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "This Idempotency-Key was already used for a different request.");
+                return;
+            }
+
+            Optional<IdempotencyStore.StoredResponse> original;
+            try {
+                original = claim.await(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                writeError(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed.");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while waiting for the original request", e);
+            }
+            if (original.isPresent()) {
+                logger.info("Replaying response for idempotent {} {}.", request.getMethod(), request.getRequestURI());
+                replay(response, original.get());
+                return;
+            }
+            // The original failed without a recordable response; try to run this one instead
+        }
+    }
+
+    /**
+     * Runs the request as the key's owner and records its response for retries, unless it is a server error,
+     * a rate-limit rejection, or too large to keep.
+     */
+    private void runAndRecord(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
+                              IdempotencyStore.Claim claim) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean recorded = false;
+        try {
+            chain.doFilter(request, wrapper);
+            int status = wrapper.getStatus();
+            byte[] body = wrapper.getContentAsByteArray();
+            if (status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value() && status != HttpStatus.CONFLICT.value()
+                    && body.length <= maxResponseBytes) {
+                claim.complete(new IdempotencyStore.StoredResponse(status, wrapper.getContentType(), body));
+                recorded = true;
+            }
+        } finally {
+            if (!recorded) {
+                claim.release();
+            }
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private static void replay(HttpServletResponse response, IdempotencyStore.StoredResponse original) throws IOException {
+        response.setStatus(original.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (original.getContentType() != null) {
+            response.setContentType(original.getContentType());
+        }
+        response.setContentLength(original.getBody().length);
+        response.getOutputStream().write(original.getBody());
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+
+    /**
+     * Forgets a user's stored responses, which can contain journal text (e.g. when the account is deleted).
+     */
+    public void forget(String username) {
+        store.removeByPrefix(username + ":");
+    }
+
+    /**
+     * Drops responses whose replay window has passed.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.eviction-interval-ms:60000}")
+    public void evictExpiredKeys() {
+        int removed = store.evictExpired();
+        if (removed > 0) {
+            logger.debug("Evicted {} expired idempotency keys.", removed);
+        }
+    }
+
+    /**
+     * The request with its body read into memory, so it can be fingerprinted and still be read downstream.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Async reads are not supported");
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.mymindmirror.backend.security;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process store of idempotency keys: the first request with a key claims it, runs, and records its response;
+ * later requests with the same key get that response back, or wait for it while the first is still running.
+ * Recorded responses expire a fixed time after they complete. The number of keys is bounded; when the store is
+ * full of unexpired keys, new keys are not tracked (the request simply runs unprotected).
+ */
+public class IdempotencyStore {
+
+    private final long ttlNanos; // How long a completed response is replayed
+    private final int maxKeys; // Upper bound on tracked keys
+    private final LongSupplier nanoClock; // Injectable clock for tests
+
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(long ttlSeconds, int maxKeys) {
+        this(ttlSeconds, maxKeys, System::nanoTime);
+    }
+
+    public IdempotencyStore(long ttlSeconds, int maxKeys, LongSupplier nanoClock) {
+        if (ttlSeconds <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("Idempotency key TTL and capacity must be positive.");
+        }
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Claims a key, or finds the request that claimed it first.
+     * @param key The idempotency key (scoped by the caller, e.g. per user).
+     * @param fingerprint What the request does (e.g. method and path); a replay must match it.
+     * @return A claim that either owns the key (run the request, then complete or release it) or refers to
+     *         the earlier request; null if the store is full.
+     */
+    public Claim claim(String key, String fingerprint) {
+        while (true) {
+            Slot existing = slots.get(key);
+            if (existing != null) {
+                if (!existing.isExpired(nanoClock.getAsLong())) {
+                    return new Claim(key, existing, false);
+                }
+                slots.remove(key, existing);
+                continue;
+            }
+            if (slots.size() >= maxKeys) {
+                evictExpired();
+                if (slots.size() >= maxKeys) {
+                    return null;
+                }
+            }
+            Slot slot = new Slot(fingerprint);
+            if (slots.putIfAbsent(key, slot) == null) {
+                return new Claim(key, slot, true);
+            }
+        }
+    }
+
+    /**
+     * Removes responses that are past their replay window. In-flight requests are never removed.
+     * @return The number of keys removed.
+     */
+    public int evictExpired() {
+        long now = nanoClock.getAsLong();
+        int removed = 0;
+        for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+            if (entry.getValue().isExpired(now) && slots.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes every key starting with the prefix (e.g. all of one user's keys), in flight or completed.
+     * @return The number of keys removed.
+     */
+    public int removeByPrefix(String prefix) {
+        int removed = 0;
+        for (String key : slots.keySet()) {
+            if (key.startsWith(prefix) && slots.remove(key) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return The number of tracked keys (in flight or completed).
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * A request's hold on a key: either the owner that runs the request, or a duplicate of it.
+     */
+    public final class Claim {
+
+        private final String key;
+        private final Slot slot;
+        private final boolean owner;
+
+        private Claim(String key, Slot slot, boolean owner) {
+            this.key = key;
+            this.slot = slot;
+            this.owner = owner;
+        }
+
+        public boolean isOwner() {
+            return owner;
+        }
+
+        /**
+         * @return True if the request that claimed the key first had the same fingerprint.
+         */
+        public boolean matches(String fingerprint) {
+            return slot.fingerprint.equals(fingerprint);
+        }
+
+        /**
+         * Records the owner's response; it is handed to waiting duplicates and replayed until it expires.
+         */
+        public void complete(StoredResponse response) {
+            slot.completedAtNanos = nanoClock.getAsLong();
+            slot.completed = true;
+            slot.result.complete(response);
+        }
+
+        /**
+         * Gives the key up without a response (e.g. the request failed), so the next request with it runs again.
+         */
+        public void release() {
+            slots.remove(key, slot);
+            slot.result.complete(null);
+        }
+
+        /**
+         * Waits for the owner's response.
+         * @return The response, or empty if the owner released the key (claim it again and run).
+         * @throws TimeoutException if the owner is still running after the timeout.
+         */
+        public Optional<StoredResponse> await(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+            try {
+                return Optional.ofNullable(slot.result.get(timeout, unit));
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Idempotent request failed", e.getCause()); // Never completed exceptionally
+            }
+        }
+    }
+
+    /**
+     * A response as recorded for replay.
+     */
+    public static final class StoredResponse {
+
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+
+        public StoredResponse(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+
+    private final class Slot {
+
+        final String fingerprint;
+        final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+        volatile boolean completed;
+        volatile long completedAtNanos;
+
+        Slot(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        boolean isExpired(long now) {
+            return completed && now - completedAtNanos >= ttlNanos;
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.mymindmirror.backend.security;
 
+import com.mymindmirror.backend.config.CorrelationIdFilter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -64,7 +66,8 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             }
 
             // Validate the token and user details
-            if (userDetails != null && jwtUtil.validateToken(jwt, userDetails)) {
+            // Disabled (deleted) accounts are refused even with an unexpired token
+            if (userDetails != null && userDetails.isEnabled() && jwtUtil.validateToken(jwt, userDetails)) {
                 // Create an authentication token
                 UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -72,7 +75,8 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                         .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 // Set the authentication in the SecurityContext
                 SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
-                logger.info("Authenticated user: {}", username);
+                MDC.put(CorrelationIdFilter.MDC_USER, username); // Cleared by CorrelationIdFilter
+                logger.debug("Authenticated user: {}", username); // Every request; keep out of INFO
             } else {
                 logger.warn("JWT token validation failed for user: {}", username);
             }
@@ -0,0 +1,103 @@
+package com.mymindmirror.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Per-user rate limiting for the journal writes that trigger the (expensive) ML analysis: saving an entry
+ * (POST /api/journal) and editing one (PUT /api/journal/{id}). Reads and deletes are not limited.
+ * Runs right after JwtRequestFilter so the authenticated user is known.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final String SAVE_PATH = "/api/journal";
+    private static final Pattern EDIT_PATH = Pattern.compile("/api/journal/[^/]+");
+
+    private final boolean enabled;
+    private final TokenBucketRateLimiter writeLimiter;
+
+    public RateLimitFilter(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.write.capacity:5}") long writeCapacity,
+                           @Value("${app.rate-limit.write.refill-per-minute:5}") double writeRefillPerMinute,
+                           @Value("${app.rate-limit.idle-eviction-seconds:600}") long idleEvictionSeconds,
+                           @Value("${app.rate-limit.max-buckets:100000}") int maxBuckets) {
+        this.enabled = enabled;
+        this.writeLimiter = new TokenBucketRateLimiter(writeCapacity, writeRefillPerMinute / 60d, idleEvictionSeconds, maxBuckets);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !triggersAnalysis(request);
+    }
+
+    private static boolean triggersAnalysis(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (HttpMethod.POST.matches(request.getMethod())) {
+            return path.equals(SAVE_PATH) || path.equals(SAVE_PATH + "/");
+        }
+        return HttpMethod.PUT.matches(request.getMethod()) && EDIT_PATH.matcher(path).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            // Unauthenticated requests are rejected by Spring Security further down the chain
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = authentication.getName(); // Usernames are unique and immutable, so they identify the user
+        TokenBucketRateLimiter.Decision decision = writeLimiter.tryAcquire(key);
+
+        if (!decision.isAllowed()) {
+            long retryAfter = decision.getRetryAfterSeconds();
+            logger.warn("Rate limit exceeded for user {} on {} {}. Retry after {}s.", key, request.getMethod(), request.getRequestURI(), retryAfter);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(retryAfter));
+            response.setHeader("X-RateLimit-Remaining", "0");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Too many requests. Please retry in " + retryAfter + " seconds.\"}");
+            return;
+        }
+
+        response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.getRemainingTokens()));
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Drops buckets for users that have gone quiet so memory stays proportional to active users.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        writeLimiter.cleanUp();
+    }
+
+    /**
+     * Forgets all rate-limit state for a user.
+     */
+    public void forget(String username) {
+        writeLimiter.remove(username);
+    }
+}
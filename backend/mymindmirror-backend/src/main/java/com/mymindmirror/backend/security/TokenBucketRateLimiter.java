@@ -0,0 +1,132 @@
+package com.mymindmirror.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process, lock-free token-bucket rate limiter keyed by an arbitrary string (e.g. the user).
+ * Each bucket is a single AtomicLong holding the "theoretical arrival time" (the instant the bucket
+ * would be full again, as in GCRA), updated with a CAS loop. Integer nanosecond arithmetic keeps
+ * decisions and Retry-After values exact.
+ * <p>
+ * Buckets live in a Caffeine cache that drops a bucket once nobody has used it for the refill time plus the idle
+ * eviction time (by then it is full again, so dropping it loses nothing). Beyond maxBuckets keys, the cache evicts
+ * rarely used buckets; every key always has a bucket of its own.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long intervalNanos; // Time to refill one token
+    private final long capacityNanos; // Burst size expressed as refill time
+    private final LongSupplier nanoClock; // Injectable clock for tests
+
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(long capacity, double refillPerSecond, long idleEvictionSeconds, int maxBuckets) {
+        this(capacity, refillPerSecond, idleEvictionSeconds, maxBuckets, System::nanoTime);
+    }
+
+    public TokenBucketRateLimiter(long capacity, double refillPerSecond, long idleEvictionSeconds, int maxBuckets,
+                                  LongSupplier nanoClock) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limiter capacity and refill rate must be positive.");
+        }
+        this.intervalNanos = Math.max(1L, Math.round(1_000_000_000d / refillPerSecond));
+        this.capacityNanos = capacity * intervalNanos;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                // A bucket is full capacityNanos after its last use; full buckets untouched for the idle time go
+                .expireAfterAccess(Duration.ofNanos(capacityNanos + idleEvictionSeconds * 1_000_000_000L))
+                .maximumSize(maxBuckets)
+                .ticker(nanoClock::getAsLong)
+                .executor(Runnable::run) // Evictions are cheap; no need for the common pool
+                .build();
+    }
+
+    /**
+     * Attempts to take one token from the bucket for the given key.
+     * @param key The bucket key (e.g. username).
+     * @return A Decision describing whether the call is allowed and, if not, how long to wait.
+     */
+    public Decision tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        // A new bucket starts full: its theoretical arrival time is "now"
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long tat = bucket.get();
+            long nextTat = Math.max(tat, now) + intervalNanos;
+            long debt = nextTat - now; // How far "into the future" this request would push the bucket
+            if (debt > capacityNanos) {
+                // Denied requests leave the bucket untouched
+                return Decision.rejected(debt - capacityNanos);
+            }
+            if (bucket.compareAndSet(tat, nextTat)) {
+                return Decision.allowed((capacityNanos - debt) / intervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Drops expired buckets now instead of on later accesses, so memory is released while traffic is quiet.
+     */
+    public void cleanUp() {
+        buckets.cleanUp();
+    }
+
+    /**
+     * Drops the bucket for a key, e.g. when the account behind it is deleted.
+     */
+    public void remove(String key) {
+        buckets.invalidate(key);
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * Outcome of a tryAcquire call.
+     */
+    public static final class Decision {
+        private final boolean allowed;
+        private final long remainingTokens;
+        private final long retryAfterNanos;
+
+        private Decision(boolean allowed, long remainingTokens, long retryAfterNanos) {
+            this.allowed = allowed;
+            this.remainingTokens = remainingTokens;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+
+        static Decision allowed(long remainingTokens) {
+            return new Decision(true, remainingTokens, 0L);
+        }
+
+        static Decision rejected(long retryAfterNanos) {
+            return new Decision(false, 0L, retryAfterNanos);
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public long getRemainingTokens() {
+            return remainingTokens;
+        }
+
+        public long getRetryAfterNanos() {
+            return retryAfterNanos;
+        }
+
+        /**
+         * Whole seconds until a token is available, rounded up (Retry-After must be an integer).
+         */
+        public long getRetryAfterSeconds() {
+            return Math.max(1L, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+        }
+    }
+}
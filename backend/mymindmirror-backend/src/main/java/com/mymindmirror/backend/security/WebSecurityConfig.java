@@ -24,10 +24,14 @@ import org.springframework.web.filter.CorsFilter;
 public class WebSecurityConfig {
 
     private final JwtRequestFilter jwtRequestFilter; // Our custom JWT filter
+    private final RateLimitFilter rateLimitFilter; // Per-user limits on the journal API
+    private final IdempotencyFilter idempotencyFilter; // Replays retried journal writes
 
-    // Constructor injection for JwtRequestFilter
-    public WebSecurityConfig(JwtRequestFilter jwtRequestFilter) {
+    // Constructor injection for our custom filters
+    public WebSecurityConfig(JwtRequestFilter jwtRequestFilter, RateLimitFilter rateLimitFilter, IdempotencyFilter idempotencyFilter) {
         this.jwtRequestFilter = jwtRequestFilter;
+        this.rateLimitFilter = rateLimitFilter;
+        this.idempotencyFilter = idempotencyFilter;
     }
 
     /**
@@ -52,6 +56,10 @@ public class WebSecurityConfig {
 
         // Add our custom JWT filter before Spring Security's default UsernamePasswordAuthenticationFilter
         http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+        // Replay retried writes once the user is known; replays don't spend the user's write tokens
+        http.addFilterAfter(idempotencyFilter, JwtRequestFilter.class);
+        // Rate limit before any controller (and ML call) runs
+        http.addFilterAfter(rateLimitFilter, IdempotencyFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,400 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.config.ShardContext;
+import com.mymindmirror.backend.model.AccountDeletion;
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.repository.AccountDeletionRepository;
+import com.mymindmirror.backend.repository.AnalysisJobRepository;
+import com.mymindmirror.backend.repository.ArchivedJournalEntryRepository;
+import com.mymindmirror.backend.repository.JournalEntryRepository;
+import com.mymindmirror.backend.repository.MoodInsightStateRepository;
+import com.mymindmirror.backend.repository.UserRepository;
+import com.mymindmirror.backend.repository.WeeklyDigestRepository;
+import com.mymindmirror.backend.security.IdempotencyFilter;
+import com.mymindmirror.backend.security.RateLimitFilter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Deletes user accounts. A request disables the account at once (sign-in and existing tokens stop working) and
+ * records an AccountDeletion; workers on every node then delete the user's data in the background:
+ * <ul>
+ *     <li>Chunk by chunk, by primary key, each chunk in its own short transaction on the user's shard, with a pause
+ *     in between, so no long locks are held and other users' requests aren't starved. Runs are short (at most
+ *     app.account-deletion.max-chunks-per-run chunks) and happen on this service's own thread, so the pauses
+ *     never hold up the shared scheduler thread the other jobs run on.</li>
+ *     <li>Progress (the current step) is checkpointed after each chunk; a deletion interrupted by a restart is
+ *     taken over by any node once its lease expires, and carries on from its step.</li>
+ *     <li>The users row goes last, after app.account-deletion.grace-seconds (at least the users cache TTL): until
+ *     then another node may still hold the enabled user in its cache and accept a write, so the data steps are
+ *     repeated once just before.</li>
+ * </ul>
+ * Population statistics are anonymous sketches and keep the user's past contributions.
+ */
+@Service
+public class AccountDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    private static final List<AccountDeletion.Step> DATA_STEPS = List.of(AccountDeletion.Step.JOURNAL_ENTRIES,
+            AccountDeletion.Step.ARCHIVED_ENTRIES, AccountDeletion.Step.WEEKLY_DIGESTS, AccountDeletion.Step.INSIGHTS);
+
+    private final AccountDeletionRepository accountDeletionRepository;
+    private final UserRepository userRepository;
+    private final JournalEntryRepository journalEntryRepository;
+    private final ArchivedJournalEntryRepository archivedJournalEntryRepository;
+    private final AnalysisJobRepository analysisJobRepository;
+    private final WeeklyDigestRepository weeklyDigestRepository;
+    private final MoodInsightStateRepository moodInsightStateRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final SecondLevelCacheService secondLevelCacheService;
+    private final ReflectionService reflectionService;
+    private final MoodSeriesStore moodSeriesStore;
+    private final RateLimitFilter rateLimitFilter;
+    private final IdempotencyFilter idempotencyFilter;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long pauseMillis; // Between chunks
+    private final Duration lease;
+    private final Duration grace;
+    private final String nodeId;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public AccountDeletionService(AccountDeletionRepository accountDeletionRepository, UserRepository userRepository,
+                                  JournalEntryRepository journalEntryRepository,
+                                  ArchivedJournalEntryRepository archivedJournalEntryRepository,
+                                  AnalysisJobRepository analysisJobRepository, WeeklyDigestRepository weeklyDigestRepository,
+                                  MoodInsightStateRepository moodInsightStateRepository, ShardRouter shardRouter,
+                                  TransactionTemplate transactionTemplate, SecondLevelCacheService secondLevelCacheService,
+                                  ReflectionService reflectionService, MoodSeriesStore moodSeriesStore,
+                                  RateLimitFilter rateLimitFilter, IdempotencyFilter idempotencyFilter,
+                                  @Value("${app.account-deletion.enabled:true}") boolean enabled,
+                                  @Value("${app.account-deletion.chunk-size:500}") int chunkSize,
+                                  @Value("${app.account-deletion.max-chunks-per-run:20}") int maxChunksPerRun,
+                                  @Value("${app.account-deletion.pause-ms:50}") long pauseMillis,
+                                  @Value("${app.account-deletion.lease-seconds:120}") long leaseSeconds,
+                                  @Value("${app.account-deletion.grace-seconds:3600}") long graceSeconds) {
+        this.accountDeletionRepository = accountDeletionRepository;
+        this.userRepository = userRepository;
+        this.journalEntryRepository = journalEntryRepository;
+        this.archivedJournalEntryRepository = archivedJournalEntryRepository;
+        this.analysisJobRepository = analysisJobRepository;
+        this.weeklyDigestRepository = weeklyDigestRepository;
+        this.moodInsightStateRepository = moodInsightStateRepository;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.secondLevelCacheService = secondLevelCacheService;
+        this.reflectionService = reflectionService;
+        this.moodSeriesStore = moodSeriesStore;
+        this.rateLimitFilter = rateLimitFilter;
+        this.idempotencyFilter = idempotencyFilter;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.pauseMillis = pauseMillis;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.grace = Duration.ofSeconds(graceSeconds);
+        this.nodeId = AnalysisJobWorker.resolveNodeId();
+    }
+
+    /**
+     * Disables the user's account and schedules the deletion of all their data. Repeated requests are no-ops.
+     * @param user The authenticated user.
+     */
+    public void requestDeletion(User user) {
+        UUID userId = user.getId();
+        ShardContext.runOn(null, () -> transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            User current = userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+            if (current.getDisabledAt() == null) {
+                current.setDisabledAt(now);
+                userRepository.save(current); // Also updates this node's cached user
+            }
+            if (!accountDeletionRepository.existsById(userId)) {
+                AccountDeletion deletion = new AccountDeletion();
+                deletion.setUserId(userId);
+                deletion.setStep(AccountDeletion.Step.JOURNAL_ENTRIES);
+                deletion.setRequestedAt(now);
+                deletion.setUpdatedAt(now);
+                accountDeletionRepository.save(deletion);
+            }
+        }));
+        forgetCachedData(userId, user.getUsername());
+        logger.info("Account of user {} disabled; data deletion scheduled.", userId);
+    }
+
+    /**
+     * Starts a run on the deletion thread, unless the previous one is still going. Returns at once.
+     */
+    @Scheduled(fixedDelayString = "${app.account-deletion.poll-interval-ms:10000}")
+    public void poll() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    processPending();
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) { // Rejected while shutting down
+            running.set(false);
+        }
+    }
+
+    /**
+     * Works through pending deletions, up to app.account-deletion.max-chunks-per-run chunks per call.
+     */
+    public void processPending() {
+        if (!enabled) {
+            return;
+        }
+        int budget = maxChunksPerRun;
+        while (budget > 0) {
+            AccountDeletion deletion = claimNext();
+            if (deletion == null) {
+                return;
+            }
+            try {
+                budget = process(deletion, budget);
+            } catch (Exception e) {
+                logger.error("Deletion of user {} failed at {}; will retry: {}", deletion.getUserId(), deletion.getStep(),
+                        e.getMessage(), e);
+                return; // The lease runs out and the deletion is taken up again
+            }
+        }
+    }
+
+    /**
+     * Runs the deletion's remaining steps until it is done, waits for its grace period, or the budget runs out.
+     * @return The chunk budget left.
+     */
+    private int process(AccountDeletion deletion, int budget) {
+        UUID userId = deletion.getUserId();
+        String shard;
+        try {
+            shard = shardRouter.route(userId, true);
+        } catch (ShardMovingException e) {
+            logger.info("User {} is being moved between shards; deletion postponed.", userId);
+            release(deletion, Instant.now().plus(lease));
+            return budget;
+        }
+
+        while (deletion.getStep() != AccountDeletion.Step.DONE) {
+            AccountDeletion.Step step = deletion.getStep();
+            if (step == AccountDeletion.Step.ACCOUNT) {
+                Instant deletableAt = deletion.getRequestedAt().plus(grace);
+                if (Instant.now().isBefore(deletableAt)) {
+                    release(deletion, deletableAt); // Not claimable again until then
+                    return budget;
+                }
+                return deleteAccount(deletion, shard) ? budget - 1 : budget;
+            }
+            if (budget == 0) {
+                release(deletion, null);
+                return 0;
+            }
+
+            int deleted = ShardContext.callOn(shard, () -> deleteChunk(step, userId));
+            budget--;
+            // A short chunk was the last one of its kind
+            AccountDeletion.Step next = deleted < chunkSize ? AccountDeletion.Step.values()[step.ordinal() + 1] : step;
+            deletion = checkpoint(deletion, deleted, next);
+            if (deletion == null) {
+                logger.warn("Lost the lease on the deletion of user {}; another node carries on.", userId);
+                return budget;
+            }
+            if (deleted > 0 && !pause()) {
+                return budget;
+            }
+        }
+        return budget;
+    }
+
+    /**
+     * Last step: sweeps the data once more, then removes the shard assignment and the users row.
+     * @return False if the lease was lost.
+     */
+    private boolean deleteAccount(AccountDeletion deletion, String shard) {
+        UUID userId = deletion.getUserId();
+        long swept = 0;
+        for (AccountDeletion.Step step : DATA_STEPS) {
+            int deleted;
+            do {
+                deleted = ShardContext.callOn(shard, () -> deleteChunk(step, userId));
+                swept += deleted;
+            } while (deleted >= chunkSize);
+        }
+        if (swept > 0) {
+            logger.info("Deleted {} rows written for user {} after the account was disabled.", swept, userId);
+        }
+
+        shardRouter.removeUser(userId);
+        String username = ShardContext.callOn(null, () -> transactionTemplate.execute(status ->
+                userRepository.findById(userId).map(user -> {
+                    userRepository.delete(user);
+                    return user.getUsername();
+                }).orElse(null)));
+        if (checkpoint(deletion, swept + 1, AccountDeletion.Step.DONE) == null) {
+            return false;
+        }
+        if (username != null) {
+            forgetCachedData(userId, username);
+        }
+        secondLevelCacheService.evictUser(userId);
+        logger.info("Account of user {} deleted.", userId);
+        return true;
+    }
+
+    /**
+     * Deletes one chunk of the user's rows of the step's kind, in one transaction on the current shard.
+     * @return The number of rows the chunk covered (entries, digests, ...); below chunkSize means none are left.
+     */
+    private int deleteChunk(AccountDeletion.Step step, UUID userId) {
+        Integer deleted = transactionTemplate.execute(status -> switch (step) {
+            case JOURNAL_ENTRIES -> {
+                List<UUID> ids = journalEntryRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+                if (ids.isEmpty()) {
+                    yield 0;
+                }
+                analysisJobRepository.deleteAllByEntryIdIn(ids); // Before the entries they reference
+                yield journalEntryRepository.deleteAllByIdIn(ids);
+            }
+            case ARCHIVED_ENTRIES -> {
+                List<UUID> ids = archivedJournalEntryRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+                yield ids.isEmpty() ? 0 : archivedJournalEntryRepository.deleteAllByIdIn(ids);
+            }
+            case WEEKLY_DIGESTS -> {
+                List<UUID> ids = weeklyDigestRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+                yield ids.isEmpty() ? 0 : weeklyDigestRepository.deleteAllByIdIn(ids);
+            }
+            case INSIGHTS -> {
+                if (!moodInsightStateRepository.existsById(userId)) {
+                    yield 0;
+                }
+                moodInsightStateRepository.deleteById(userId);
+                yield 1;
+            }
+            default -> throw new IllegalArgumentException("Not a data step: " + step);
+        });
+        return deleted != null ? deleted : 0;
+    }
+
+    /**
+     * Takes the oldest unfinished deletion that no node holds.
+     */
+    private AccountDeletion claimNext() {
+        try {
+            return ShardContext.callOn(null, () -> transactionTemplate.execute(status -> {
+                Instant now = Instant.now();
+                List<AccountDeletion> claimable = accountDeletionRepository.findClaimable(AccountDeletion.Step.DONE, now,
+                        PageRequest.of(0, 1));
+                if (claimable.isEmpty()) {
+                    return null;
+                }
+                AccountDeletion deletion = claimable.get(0);
+                deletion.setLeaseOwner(nodeId);
+                deletion.setLeaseExpiresAt(now.plus(lease));
+                deletion.setUpdatedAt(now);
+                return accountDeletionRepository.save(deletion);
+            }));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.debug("An account deletion was claimed by another node.");
+            return null;
+        }
+    }
+
+    /**
+     * Records progress and renews the lease; null if the lease was lost meanwhile.
+     */
+    private AccountDeletion checkpoint(AccountDeletion deletion, long deletedRows, AccountDeletion.Step step) {
+        try {
+            return ShardContext.callOn(null, () -> transactionTemplate.execute(status -> {
+                Instant now = Instant.now();
+                deletion.setDeletedRows(deletion.getDeletedRows() + deletedRows);
+                deletion.setStep(step);
+                deletion.setUpdatedAt(now);
+                if (step == AccountDeletion.Step.DONE) {
+                    deletion.setCompletedAt(now);
+                    deletion.setLeaseOwner(null);
+                    deletion.setLeaseExpiresAt(null);
+                } else {
+                    deletion.setLeaseExpiresAt(now.plus(lease));
+                }
+                return accountDeletionRepository.save(deletion); // Version check: fails if another node took it over
+            }));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gives the deletion up for now; no node takes it again before notBefore (null: right away).
+     */
+    private void release(AccountDeletion deletion, Instant notBefore) {
+        try {
+            ShardContext.runOn(null, () -> transactionTemplate.executeWithoutResult(status -> {
+                deletion.setLeaseOwner(null);
+                deletion.setLeaseExpiresAt(notBefore);
+                deletion.setUpdatedAt(Instant.now());
+                accountDeletionRepository.save(deletion);
+            }));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.debug("Deletion of user {} already taken over.", deletion.getUserId());
+        }
+    }
+
+    /**
+     * Drops what this node keeps in memory about the user. Other nodes' copies can no longer be reached
+     * (the account is disabled) and expire on their own.
+     */
+    private void forgetCachedData(UUID userId, String username) {
+        reflectionService.evict(userId);
+        moodSeriesStore.evict(userId);
+        rateLimitFilter.forget(username);
+        idempotencyFilter.forget(username);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow(); // Interrupts a pause; the deletion's lease runs out and it is taken up again
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
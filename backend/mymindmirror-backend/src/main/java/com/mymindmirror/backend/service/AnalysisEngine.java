@@ -0,0 +1,18 @@
+package com.mymindmirror.backend.service;
+
+import java.util.Map;
+
+/**
+ * Produces the AI analysis for a journal entry: moodScore, emotions, coreConcerns, summary and growthTips.
+ * The result uses the ML service's response shape, so JournalService stores it the same way whichever engine ran.
+ * Selected with app.analysis.engine ("flask" or "onnx").
+ */
+public interface AnalysisEngine {
+
+    /**
+     * Analyzes the text. Blocking.
+     * @param text The journal text.
+     * @return The analysis, or null if it failed (the caller resets the entry's AI fields or retries the job).
+     */
+    Map<String, Object> analyze(String text);
+}
@@ -0,0 +1,140 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.model.AnalysisJob;
+import com.mymindmirror.backend.repository.AnalysisJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Database-backed queue of analysis jobs shared by all backend nodes.
+ * Jobs are enqueued in the caller's transaction (outbox style), claimed in batches with
+ * SELECT ... FOR UPDATE SKIP LOCKED, held under a lease, and retried with exponential backoff.
+ */
+@Service
+public class AnalysisJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisJobService.class);
+
+    private final AnalysisJobRepository analysisJobRepository;
+    private final Duration lease; // How long a claimed job belongs to one node
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+
+    public AnalysisJobService(AnalysisJobRepository analysisJobRepository,
+                              @Value("${app.analysis.jobs.lease-seconds:120}") long leaseSeconds,
+                              @Value("${app.analysis.jobs.max-attempts:5}") int maxAttempts,
+                              @Value("${app.analysis.jobs.backoff-base-seconds:10}") long backoffBaseSeconds,
+                              @Value("${app.analysis.jobs.backoff-max-seconds:600}") long backoffMaxSeconds) {
+        this.analysisJobRepository = analysisJobRepository;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.backoffBase = Duration.ofSeconds(backoffBaseSeconds);
+        this.backoffMax = Duration.ofSeconds(backoffMaxSeconds);
+    }
+
+    /**
+     * Queues an analysis for an entry. Joins the caller's transaction, so the job is committed
+     * together with the entry write (or not at all).
+     * @param entryId The entry to analyze.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(UUID entryId) {
+        if (analysisJobRepository.existsByEntryIdAndStatus(entryId, AnalysisJob.Status.PENDING)) {
+            // A waiting job always analyzes the entry's latest text, so one is enough
+            return;
+        }
+        AnalysisJob job = new AnalysisJob();
+        job.setEntryId(entryId);
+        job.setStatus(AnalysisJob.Status.PENDING);
+        job.setAttempts(0);
+        Instant now = Instant.now();
+        job.setAvailableAt(now);
+        job.setCreatedAt(now);
+        analysisJobRepository.save(job);
+    }
+
+    /**
+     * Claims up to 'limit' due jobs for a node and leases them.
+     * Rows locked by another node's concurrent claim are skipped, not waited on.
+     * @param owner The claiming node's ID.
+     * @param limit Maximum number of jobs to claim.
+     * @param now The current time.
+     * @return The claimed jobs (detached once the transaction commits).
+     */
+    @Transactional
+    public List<AnalysisJob> claimBatch(String owner, int limit, Instant now) {
+        List<AnalysisJob> jobs = analysisJobRepository.findClaimable(
+                now, AnalysisJob.Status.PENDING, AnalysisJob.Status.RUNNING, PageRequest.of(0, limit));
+        for (AnalysisJob job : jobs) {
+            if (job.getStatus() == AnalysisJob.Status.RUNNING) {
+                logger.warn("Lease of analysis job {} held by {} expired; reclaiming.", job.getId(), job.getLeaseOwner());
+            }
+            job.setStatus(AnalysisJob.Status.RUNNING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLeaseOwner(owner);
+            job.setLeaseExpiresAt(now.plus(lease));
+        }
+        return analysisJobRepository.saveAll(jobs);
+    }
+
+    /**
+     * Marks a claimed job as done.
+     * @return False if the lease had already been lost (another node now owns the job).
+     */
+    @Transactional
+    public boolean complete(AnalysisJob job, String owner, Instant now) {
+        return analysisJobRepository.markDone(job.getId(), owner, now,
+                AnalysisJob.Status.DONE, AnalysisJob.Status.RUNNING) == 1;
+    }
+
+    /**
+     * Records a failed attempt: schedules a retry with exponential backoff and jitter,
+     * or marks the job failed once it has used up its attempts.
+     * @return False if the lease had already been lost (another node now owns the job).
+     */
+    @Transactional
+    public boolean fail(AnalysisJob job, String owner, String error, Instant now) {
+        String message = error == null ? null : error.substring(0, Math.min(error.length(), 1000));
+        if (job.getAttempts() >= maxAttempts) {
+            logger.error("Analysis job {} for entry {} failed permanently after {} attempts: {}",
+                    job.getId(), job.getEntryId(), job.getAttempts(), message);
+            return analysisJobRepository.release(job.getId(), owner, AnalysisJob.Status.FAILED, now, message,
+                    AnalysisJob.Status.RUNNING) == 1;
+        }
+        Duration delay = backoff(job.getAttempts());
+        logger.warn("Analysis job {} attempt {} failed; retrying in {}s: {}", job.getId(), job.getAttempts(), delay.toSeconds(), message);
+        return analysisJobRepository.release(job.getId(), owner, AnalysisJob.Status.PENDING, now.plus(delay), message,
+                AnalysisJob.Status.RUNNING) == 1;
+    }
+
+    /**
+     * Deletes completed jobs older than the retention window.
+     */
+    @Transactional
+    public int purgeCompleted(Instant before) {
+        return analysisJobRepository.deleteCompletedBefore(AnalysisJob.Status.DONE, before);
+    }
+
+    /**
+     * base * 2^(attempt-1), capped, with up to 20% random jitter so retries from many jobs spread out.
+     */
+    Duration backoff(int attempt) {
+        long baseMillis = backoffBase.toMillis();
+        long exponential = baseMillis << Math.min(Math.max(attempt - 1, 0), 20);
+        long capped = Math.min(exponential, backoffMax.toMillis());
+        long jitter = (long) (capped * 0.2 * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(capped + jitter);
+    }
+}
@@ -0,0 +1,141 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.config.ShardContext;
+import com.mymindmirror.backend.model.AnalysisJob;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls the shared analysis_jobs table and runs claimed jobs on a bounded local pool.
+ * Every node runs one worker; each only claims as many jobs as it has free slots,
+ * so total throughput grows with the number of replicas.
+ * With sharding, each shard has its own analysis_jobs table; every poll visits all of them.
+ * Active only when app.analysis.mode=queued.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analysis.mode", havingValue = "queued")
+public class AnalysisJobWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisJobWorker.class);
+
+    private final AnalysisJobService analysisJobService;
+    private final JournalService journalService;
+    private final ShardRouter shardRouter;
+    private final int concurrency; // Jobs this node runs at once
+    private final int batchSize; // Maximum jobs claimed per poll
+    private final Duration retention; // How long finished jobs are kept
+    private final String nodeId;
+
+    private final ExecutorService executor;
+    private final AtomicInteger active = new AtomicInteger();
+
+    public AnalysisJobWorker(AnalysisJobService analysisJobService, JournalService journalService, ShardRouter shardRouter,
+                             @Value("${app.analysis.worker.concurrency:4}") int concurrency,
+                             @Value("${app.analysis.worker.batch-size:10}") int batchSize,
+                             @Value("${app.analysis.jobs.retention-hours:24}") long retentionHours) {
+        this.analysisJobService = analysisJobService;
+        this.journalService = journalService;
+        this.shardRouter = shardRouter;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.retention = Duration.ofHours(retentionHours);
+        this.nodeId = resolveNodeId();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "analysis-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        logger.info("Analysis worker {} started with concurrency {}.", nodeId, concurrency);
+    }
+
+    /**
+     * Claims as many jobs as there are free slots and hands them to the pool.
+     */
+    @Scheduled(fixedDelayString = "${app.analysis.worker.poll-interval-ms:1000}")
+    public void poll() {
+        for (String shard : shardRouter.getShards()) {
+            int free = concurrency - active.get();
+            if (free <= 0) {
+                return;
+            }
+            List<AnalysisJob> jobs;
+            try {
+                jobs = ShardContext.callOn(shard, () -> analysisJobService.claimBatch(nodeId, Math.min(free, batchSize), Instant.now()));
+            } catch (Exception e) {
+                logger.error("Failed to claim analysis jobs on {}: {}", shard, e.getMessage(), e);
+                continue;
+            }
+            for (AnalysisJob job : jobs) {
+                active.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        ShardContext.runOn(shard, () -> run(job)); // The job, its entry and its result are all on this shard
+                    } finally {
+                        active.decrementAndGet();
+                    }
+                });
+            }
+        }
+    }
+
+    private void run(AnalysisJob job) {
+        try {
+            boolean analyzed = journalService.applyQueuedAnalysis(job.getEntryId());
+            if (analyzed) {
+                if (!analysisJobService.complete(job, nodeId, Instant.now())) {
+                    logger.warn("Lease on analysis job {} was lost before completion.", job.getId());
+                }
+            } else {
+                analysisJobService.fail(job, nodeId, "ML service returned no analysis.", Instant.now());
+            }
+        } catch (Exception e) {
+            logger.error("Analysis job {} failed: {}", job.getId(), e.getMessage(), e);
+            analysisJobService.fail(job, nodeId, e.getMessage(), Instant.now());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analysis.jobs.purge-interval-ms:3600000}")
+    public void purgeCompleted() {
+        for (String shard : shardRouter.getShards()) {
+            int purged = ShardContext.callOn(shard, () -> analysisJobService.purgeCompleted(Instant.now().minus(retention)));
+            if (purged > 0) {
+                logger.info("Purged {} completed analysis jobs on {}.", purged, shard);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        // Unfinished jobs keep their lease and are picked up elsewhere once it expires
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    static String resolveNodeId() { // Also used by WeeklyDigestJob
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown-host";
+        }
+        return host + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,53 @@
+package com.mymindmirror.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Consistent hashing of user IDs onto shard names. Each shard owns many points ("virtual nodes") on a
+ * 64-bit ring and a key belongs to the first point at or after its own hash, so adding a shard takes
+ * roughly 1/N of the keys from each existing shard and moves no others.
+ */
+final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A hash ring needs at least one node and one virtual node per node.");
+        }
+        for (String node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+
+    String nodeFor(UUID key) {
+        Map.Entry<Long, String> owner = ring.ceilingEntry(hash(key.toString()));
+        return (owner != null ? owner : ring.firstEntry()).getValue();
+    }
+
+    /**
+     * First 64 bits of the MD5 digest: evenly spread and stable across JVMs and releases, unlike String.hashCode.
+     */
+    private static long hash(String value) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+        long hash = 0;
+        for (int i = 0; i < 8; i++) {
+            hash = (hash << 8) | (digest[i] & 0xff);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,152 @@
+package com.mymindmirror.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Most frequent items of a stream: a Count-Min sketch (4 rows of 1024 counters, 16 KiB) estimates any item's
+ * count, never under and over by at most about 0.3% of the total with 98% probability, and a candidate set keeps
+ * the items with the highest estimates. Merging adds the counters and re-ranks both candidate sets, so per-node or
+ * per-day sketches combine into one for any union of their inputs. Not thread-safe.
+ */
+final class CountMinTopK {
+
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 1024;
+    static final int CANDIDATES = 64;
+
+    private final int[] counters = new int[DEPTH * WIDTH];
+    private final Set<String> candidates = new HashSet<>();
+    private long total;
+
+    void add(String item) {
+        long hash = hash(item);
+        for (int row = 0; row < DEPTH; row++) {
+            counters[row * WIDTH + index(hash, row)]++;
+        }
+        total++;
+        offer(item);
+    }
+
+    void merge(CountMinTopK other) {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        total += other.total;
+        List<String> items = new ArrayList<>(candidates);
+        items.addAll(other.candidates);
+        candidates.clear();
+        for (String item : items) {
+            offer(item);
+        }
+    }
+
+    long estimate(String item) {
+        long hash = hash(item);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters[row * WIDTH + index(hash, row)]);
+        }
+        return estimate;
+    }
+
+    long total() {
+        return total;
+    }
+
+    /**
+     * @return Up to limit candidates with an estimated count of at least minCount, most frequent first.
+     */
+    List<Map.Entry<String, Long>> top(int limit, long minCount) {
+        return candidates.stream()
+                .map(item -> Map.entry(item, estimate(item)))
+                .filter(entry -> entry.getValue() >= minCount)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .toList();
+    }
+
+    byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(counters.length * Integer.BYTES + 2048);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeShort(DEPTH);
+            out.writeShort(WIDTH);
+            for (int counter : counters) {
+                out.writeInt(counter);
+            }
+            out.writeLong(total);
+            out.writeShort(candidates.size());
+            for (String item : candidates) {
+                byte[] utf8 = item.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(utf8.length);
+                out.write(utf8);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Not thrown by in-memory streams
+        }
+        return bytes.toByteArray();
+    }
+
+    static CountMinTopK fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readShort() != DEPTH || in.readShort() != WIDTH) {
+                throw new IllegalArgumentException("Unsupported Count-Min dimensions.");
+            }
+            CountMinTopK sketch = new CountMinTopK();
+            for (int i = 0; i < sketch.counters.length; i++) {
+                sketch.counters[i] = in.readInt();
+            }
+            sketch.total = in.readLong();
+            int items = in.readShort();
+            for (int i = 0; i < items; i++) {
+                byte[] utf8 = new byte[in.readShort()];
+                in.readFully(utf8);
+                sketch.candidates.add(new String(utf8, StandardCharsets.UTF_8));
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated Count-Min sketch.", e);
+        }
+    }
+
+    /**
+     * Keeps the item as a candidate if there is room, or if it now ranks above the weakest candidate.
+     */
+    private void offer(String item) {
+        if (candidates.size() < CANDIDATES || candidates.contains(item)) {
+            candidates.add(item);
+            return;
+        }
+        String weakest = candidates.stream().min(Comparator.comparingLong(this::estimate)).orElseThrow();
+        if (estimate(item) > estimate(weakest)) {
+            candidates.remove(weakest);
+            candidates.add(item);
+        }
+    }
+
+    /**
+     * Column of the item in a row: two halves of one 64-bit hash combined per row (Kirsch-Mitzenmacher).
+     */
+    private static int index(long hash, int row) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % WIDTH;
+    }
+
+    private static long hash(String item) {
+        long hash = 0xcbf29ce484222325L; // FNV-1a, then mixed so both halves are well spread
+        for (int i = 0; i < item.length(); i++) {
+            hash = (hash ^ item.charAt(i)) * 0x100000001b3L;
+        }
+        return HyperLogLog.mix(hash);
+    }
+}
@@ -0,0 +1,191 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.payload.DashboardResponse;
+import com.mymindmirror.backend.payload.JournalEntryResponse;
+import com.mymindmirror.backend.payload.MoodDataResponse;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Assembles the journal page in one request: recent entries, the mood series, emotion averages, concern counts,
+ * today's entry and today's reflection.
+ * The two independent lookups (the entry history and the reflection) run at the same time on virtual threads,
+ * each with its own deadline; the rest is derived from the history in memory. A part that fails or misses its
+ * deadline is reported in {@link DashboardResponse#getDegraded()} instead of failing the page, and a part still
+ * running is cancelled so it doesn't keep a database connection or ML call busy for a page that has moved on.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    static final String PART_ENTRIES = "entries";
+    static final String PART_REFLECTION = "reflection";
+
+    private final JournalService journalService;
+    private final ReflectionService reflectionService;
+    private final int historyDays;
+    private final long entriesTimeoutMillis;
+    private final long reflectionTimeoutMillis;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dashboard-", 0).factory());
+    private final ContextSnapshotFactory contextSnapshotFactory = ContextSnapshotFactory.builder().build();
+
+    public DashboardService(JournalService journalService, ReflectionService reflectionService,
+                            @Value("${app.dashboard.history-days:30}") int historyDays,
+                            @Value("${app.dashboard.entries-timeout-ms:2000}") long entriesTimeoutMillis,
+                            @Value("${app.dashboard.reflection-timeout-ms:1500}") long reflectionTimeoutMillis) {
+        this.journalService = journalService;
+        this.reflectionService = reflectionService;
+        this.historyDays = historyDays;
+        this.entriesTimeoutMillis = entriesTimeoutMillis;
+        this.reflectionTimeoutMillis = reflectionTimeoutMillis;
+    }
+
+    /**
+     * Builds the dashboard for the user. Takes as long as the slowest part, bounded by that part's deadline.
+     * @param user The authenticated user.
+     * @return The dashboard; never fails because of a single part.
+     */
+    public DashboardResponse getDashboard(User user) {
+        LocalDate today = LocalDate.now();
+        long started = System.nanoTime();
+        // Each service call routes itself to the user's shard and opens its own transaction on its thread
+        Future<List<JournalEntryResponse>> entries = fork(
+                () -> journalService.getJournalEntriesForUser(user, today.minusDays(historyDays), today));
+        Future<Optional<String>> reflection = fork(() -> reflectionService.getTodaysReflection(user));
+
+        DashboardResponse dashboard = new DashboardResponse();
+        List<JournalEntryResponse> history = await(PART_ENTRIES, entries, started + entriesTimeoutMillis * 1_000_000L, dashboard);
+        if (history != null) {
+            dashboard.setEntries(history);
+            dashboard.setMoodSeries(moodSeries(history));
+            dashboard.setEmotionAverages(emotionAverages(history));
+            dashboard.setConcernCounts(concernCounts(history));
+            dashboard.setTodaysEntry(history.stream().filter(entry -> today.equals(entry.getEntryDate())).findFirst().orElse(null));
+        }
+        Optional<String> text = await(PART_REFLECTION, reflection, started + reflectionTimeoutMillis * 1_000_000L, dashboard);
+        if (text != null) {
+            text.ifPresentOrElse(dashboard::setReflection, () -> dashboard.getDegraded().add(PART_REFLECTION));
+        }
+        return dashboard;
+    }
+
+    /**
+     * Starts a part on its own virtual thread, carrying over the logging MDC and the current trace.
+     */
+    private <T> Future<T> fork(Supplier<T> part) {
+        ContextSnapshot snapshot = contextSnapshotFactory.captureAll();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return executor.submit(() -> {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try (ContextSnapshot.Scope scope = snapshot.setThreadLocals()) {
+                return part.get();
+            } finally {
+                MDC.clear();
+            }
+        });
+    }
+
+    /**
+     * Waits for a part until its deadline; on failure or timeout records it as degraded and returns null.
+     * A part that is still running is cancelled: interrupting its virtual thread aborts the blocking JDBC read or
+     * ML call, which releases the connection. A timed-out reflection is therefore not cached for the next view.
+     * @param deadlineNanos The {@link System#nanoTime()} by which the part must have finished.
+     */
+    private <T> T await(String name, Future<T> part, long deadlineNanos, DashboardResponse dashboard) {
+        try {
+            return part.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Dashboard part '{}' missed its deadline; cancelling it.", name);
+        } catch (ExecutionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            logger.warn("Dashboard part '{}' failed: {}", name, cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // The request is being abandoned; the next await cancels its part too
+            logger.warn("Interrupted while waiting for dashboard part '{}'.", name);
+        }
+        part.cancel(true);
+        dashboard.getDegraded().add(name);
+        return null;
+    }
+
+    private static List<MoodDataResponse> moodSeries(List<JournalEntryResponse> history) {
+        return history.stream()
+                .filter(entry -> entry.getMoodScore() != null)
+                .sorted(Comparator.comparing(JournalEntryResponse::getEntryDate))
+                .map(entry -> new MoodDataResponse(entry.getEntryDate(), entry.getMoodScore()))
+                .toList();
+    }
+
+    private static Map<String, Double> emotionAverages(List<JournalEntryResponse> history) {
+        Map<String, double[]> sums = new HashMap<>(); // emotion -> {sum, count}
+        for (JournalEntryResponse entry : history) {
+            if (entry.getEmotions() == null) {
+                continue;
+            }
+            Map<String, ?> emotions = entry.getEmotions(); // Untyped JSON: whole-number scores arrive as Integer
+            emotions.forEach((emotion, score) -> {
+                if (score instanceof Number number) {
+                    double[] sum = sums.computeIfAbsent(emotion, key -> new double[2]);
+                    sum[0] += number.doubleValue();
+                    sum[1]++;
+                }
+            });
+        }
+        Map<String, Double> averages = new LinkedHashMap<>();
+        sums.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<String, double[]> e) -> e.getValue()[0] / e.getValue()[1]).reversed())
+                .forEach(e -> averages.put(e.getKey(), e.getValue()[0] / e.getValue()[1]));
+        return averages;
+    }
+
+    private static Map<String, Integer> concernCounts(List<JournalEntryResponse> history) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (JournalEntryResponse entry : history) {
+            if (entry.getCoreConcerns() == null) {
+                continue;
+            }
+            for (Object concern : entry.getCoreConcerns()) { // Untyped JSON; skip anything that isn't text
+                if (concern instanceof String text && !text.isBlank()) {
+                    counts.merge(text, 1, Integer::sum);
+                }
+            }
+        }
+        Map<String, Integer> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
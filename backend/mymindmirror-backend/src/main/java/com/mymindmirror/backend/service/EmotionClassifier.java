@@ -0,0 +1,237 @@
+package com.mymindmirror.backend.service;
+
+import ai.onnxruntime.OnnxTensor;
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process emotion classification with an ONNX export of the ML service's emotion model
+ * (bhadresh-savani/distilbert-base-uncased-emotion; see ml-service/export_onnx.py), on CPU.
+ * Callers tokenize on their own thread and queue the ids; a fixed set of inference threads each drain up to
+ * max-batch waiting requests, run them as one padded batch and hand back the top-k softmax scores.
+ * The queue is bounded: when it's full, classify() returns empty at once instead of piling up work.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analysis.engine", havingValue = "onnx")
+public class EmotionClassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmotionClassifier.class);
+
+    private final WordPieceTokenizer tokenizer;
+    private final List<String> labels; // Model output index -> emotion label (the model's id2label)
+    private final int topK;
+    private final int maxBatch;
+    private final long maxBatchWaitMillis; // How long a thread holding one request waits for more to batch with it
+    private final long timeoutMillis; // How long a caller waits for its result
+
+    private final OrtEnvironment environment;
+    private final OrtSession session;
+    private final boolean needsTokenTypeIds; // BERT exports take token_type_ids; DistilBERT exports don't
+    private final BlockingQueue<Request> queue;
+    private final ExecutorService inferencePool;
+    private volatile boolean running = true;
+
+    public EmotionClassifier(@Value("${app.analysis.onnx.model-dir}") String modelDir,
+                             @Value("${app.analysis.onnx.labels:sadness,joy,love,anger,fear,surprise}") List<String> labels,
+                             @Value("${app.analysis.onnx.max-tokens:512}") int maxTokens,
+                             @Value("${app.analysis.onnx.top-k:5}") int topK,
+                             @Value("${app.analysis.onnx.threads:2}") int threads,
+                             @Value("${app.analysis.onnx.intra-op-threads:2}") int intraOpThreads,
+                             @Value("${app.analysis.onnx.max-batch:8}") int maxBatch,
+                             @Value("${app.analysis.onnx.max-batch-wait-ms:5}") long maxBatchWaitMillis,
+                             @Value("${app.analysis.onnx.queue-capacity:256}") int queueCapacity,
+                             @Value("${app.analysis.onnx.timeout-ms:2000}") long timeoutMillis) throws IOException, OrtException {
+        if (modelDir == null || modelDir.isBlank()) {
+            throw new IllegalArgumentException("app.analysis.onnx.model-dir must point at the exported model (model.onnx, vocab.txt).");
+        }
+        Path dir = Path.of(modelDir);
+        this.tokenizer = WordPieceTokenizer.load(dir.resolve("vocab.txt"), maxTokens);
+        this.labels = List.copyOf(labels);
+        this.topK = topK;
+        this.maxBatch = maxBatch;
+        this.maxBatchWaitMillis = maxBatchWaitMillis;
+        this.timeoutMillis = timeoutMillis;
+
+        this.environment = OrtEnvironment.getEnvironment();
+        try (OrtSession.SessionOptions options = new OrtSession.SessionOptions()) {
+            options.setOptimizationLevel(OrtSession.SessionOptions.OptLevel.ALL_OPT);
+            options.setIntraOpNumThreads(intraOpThreads); // Threads per batch; threads x intra-op should fit the cores
+            this.session = environment.createSession(dir.resolve("model.onnx").toString(), options);
+        }
+        this.needsTokenTypeIds = session.getInputNames().contains("token_type_ids");
+
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.inferencePool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "emotion-inference-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) {
+            inferencePool.execute(this::inferenceLoop);
+        }
+        logger.info("Emotion model loaded from {} ({} inference threads, batches of up to {}).", dir, threads, maxBatch);
+    }
+
+    /**
+     * Classifies the text. Blocking, for at most app.analysis.onnx.timeout-ms.
+     * @param text The journal text.
+     * @return The top-k emotions with their probabilities (highest first), or empty if the queue was full,
+     *         the result took too long or inference failed.
+     */
+    public Optional<Map<String, Double>> classify(String text) {
+        Request request = new Request(tokenizer.encode(text));
+        if (!queue.offer(request)) {
+            logger.warn("Emotion inference queue is full; skipping local classification.");
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(request.result.get(timeoutMillis, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException | TimeoutException e) {
+            request.result.cancel(false); // Skipped if it hasn't been batched yet
+            logger.warn("Local emotion classification did not complete: {}", e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private void inferenceLoop() {
+        List<Request> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                Request first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBatchWaitMillis);
+                while (batch.size() < maxBatch) {
+                    Request next = queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                batch.removeIf(request -> request.result.isDone()); // Callers that already gave up
+                if (!batch.isEmpty()) {
+                    runBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (Exception e) {
+                logger.error("Emotion inference failed for a batch of {}: {}", batch.size(), e.getMessage(), e);
+                batch.forEach(request -> request.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        queue.forEach(request -> request.result.cancel(false));
+    }
+
+    private void runBatch(List<Request> batch) throws OrtException {
+        int length = batch.stream().mapToInt(request -> request.ids.length).max().orElse(0);
+        long[][] ids = new long[batch.size()][length]; // Padded with 0 ([PAD]) and masked out
+        long[][] mask = new long[batch.size()][length];
+        for (int row = 0; row < batch.size(); row++) {
+            long[] tokens = batch.get(row).ids;
+            System.arraycopy(tokens, 0, ids[row], 0, tokens.length);
+            Arrays.fill(mask[row], 0, tokens.length, 1L);
+        }
+
+        Map<String, OnnxTensor> inputs = new HashMap<>();
+        try {
+            inputs.put("input_ids", OnnxTensor.createTensor(environment, ids));
+            inputs.put("attention_mask", OnnxTensor.createTensor(environment, mask));
+            if (needsTokenTypeIds) {
+                inputs.put("token_type_ids", OnnxTensor.createTensor(environment, new long[batch.size()][length]));
+            }
+            try (OrtSession.Result result = session.run(inputs)) {
+                float[][] logits = (float[][]) result.get(0).getValue();
+                for (int row = 0; row < batch.size(); row++) {
+                    batch.get(row).result.complete(topEmotions(logits[row]));
+                }
+            }
+        } finally {
+            inputs.values().forEach(OnnxTensor::close);
+        }
+    }
+
+    /**
+     * Softmax over the logits, then the top-k labels by probability (what the pipeline with top_k returns).
+     */
+    private Map<String, Double> topEmotions(float[] logits) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (float logit : logits) {
+            max = Math.max(max, logit);
+        }
+        double[] probabilities = new double[logits.length];
+        double sum = 0.0;
+        for (int i = 0; i < logits.length; i++) {
+            probabilities[i] = Math.exp(logits[i] - max);
+            sum += probabilities[i];
+        }
+        Integer[] order = new Integer[logits.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            probabilities[i] /= sum;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(probabilities[b], probabilities[a]));
+
+        Map<String, Double> top = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(topK, order.length); i++) {
+            int index = order[i];
+            top.put(index < labels.size() ? labels.get(index) : "LABEL_" + index, probabilities[index]);
+        }
+        return top;
+    }
+
+    @PreDestroy
+    public void shutdown() throws OrtException {
+        running = false;
+        inferencePool.shutdownNow();
+        try {
+            inferencePool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        session.close();
+    }
+
+    private static final class Request {
+        private final long[] ids;
+        private final CompletableFuture<Map<String, Double>> result = new CompletableFuture<>();
+
+        private Request(long[] ids) {
+            this.ids = ids;
+        }
+    }
+}
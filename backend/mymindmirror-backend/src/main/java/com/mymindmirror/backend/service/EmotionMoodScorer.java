@@ -0,0 +1,35 @@
+package com.mymindmirror.backend.service;
+
+import java.util.Map;
+
+/**
+ * Mood score from emotion scores: the score-weighted average of each emotion's valence.
+ * A port of the emotion_weights table in ml-service/app.py; keep the two in step.
+ * Emotions without a weight count as neutral (they dilute the score but don't move it).
+ */
+final class EmotionMoodScorer {
+
+    private static final Map<String, Double> EMOTION_WEIGHTS = Map.ofEntries(
+            Map.entry("joy", 1.0), Map.entry("love", 1.0), Map.entry("surprise", 0.5), Map.entry("amusement", 0.5),
+            Map.entry("excitement", 0.8), Map.entry("sadness", -1.0), Map.entry("anger", -0.8), Map.entry("fear", -0.7),
+            Map.entry("disappointment", -0.6), Map.entry("grief", -1.0), Map.entry("neutral", 0.0), Map.entry("optimism", 0.7),
+            Map.entry("relief", 0.4), Map.entry("caring", 0.6), Map.entry("curiosity", 0.3), Map.entry("embarrassment", -0.4),
+            Map.entry("pride", 0.5), Map.entry("remorse", -0.5), Map.entry("annoyance", -0.3), Map.entry("disgust", -0.6));
+
+    private EmotionMoodScorer() {
+    }
+
+    /**
+     * @param emotions Emotion label to score (e.g. the top 5 softmax probabilities).
+     * @return The mood score in [-1, 1], or 0.0 when there are no scores.
+     */
+    static double moodScore(Map<String, Double> emotions) {
+        double weighted = 0.0;
+        double total = 0.0;
+        for (Map.Entry<String, Double> emotion : emotions.entrySet()) {
+            weighted += emotion.getValue() * EMOTION_WEIGHTS.getOrDefault(emotion.getKey(), 0.0);
+            total += emotion.getValue();
+        }
+        return total > 0 ? weighted / total : 0.0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.mymindmirror.backend.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Default engine: the Flask ML service runs the whole analysis, emotion model included.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analysis.engine", havingValue = "flask", matchIfMissing = true)
+public class FlaskAnalysisEngine implements AnalysisEngine {
+
+    private final MlServiceClient mlServiceClient;
+
+    public FlaskAnalysisEngine(MlServiceClient mlServiceClient) {
+        this.mlServiceClient = mlServiceClient;
+    }
+
+    @Override
+    public Map<String, Object> analyze(String text) {
+        return mlServiceClient.analyzeJournal(text);
+    }
+}
@@ -0,0 +1,97 @@
+package com.mymindmirror.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * HyperLogLog distinct counter: 2^12 one-byte registers (4 KiB), about 1.6% standard error at any cardinality.
+ * Sketches merge by register-wise maximum, so merging is exact, order-independent and idempotent: the union of
+ * two nodes' sketches estimates the distinct count of the union of their inputs. Keeps no identifiers.
+ * Not thread-safe.
+ */
+final class HyperLogLog {
+
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    HyperLogLog() {
+        this(new byte[REGISTERS]);
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    void add(UUID id) {
+        long hash = mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+        int index = (int) (hash >>> (64 - PRECISION));
+        int rank = Math.min(Long.numberOfLeadingZeros(hash << PRECISION), 64 - PRECISION) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros); // Linear counting for small cardinalities
+        }
+        return Math.round(estimate);
+    }
+
+    byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(REGISTERS + 1);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(PRECISION);
+            out.write(registers);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Not thrown by in-memory streams
+        }
+        return bytes.toByteArray();
+    }
+
+    static HyperLogLog fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readByte() != PRECISION) {
+                throw new IllegalArgumentException("Unsupported HyperLogLog precision.");
+            }
+            byte[] registers = new byte[REGISTERS];
+            in.readFully(registers);
+            return new HyperLogLog(registers);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated HyperLogLog sketch.", e);
+        }
+    }
+
+    /**
+     * 64-bit finalizer (SplitMix64): spreads UUID bits over the whole hash, which the register index and rank need.
+     */
+    static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
@@ -0,0 +1,104 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.config.JournalArchivePolicy;
+import com.mymindmirror.backend.config.ShardContext;
+import com.mymindmirror.backend.model.JournalEntry;
+import com.mymindmirror.backend.repository.JournalEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves journal entries older than the archive horizon from journal_entries to journal_entries_archive.
+ * Works in small chunks, each in its own short transaction, so row locks and replication lag stay bounded;
+ * a run stops after max-chunks-per-run and the next run carries on. Reads keep working throughout:
+ * an entry is in exactly one of the two tables at any commit point. With sharding, every shard is archived in turn.
+ * Active only when app.archive.enabled=true.
+ */
+@Service
+@ConditionalOnProperty(name = "app.archive.enabled", havingValue = "true")
+public class JournalArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalArchiveService.class);
+
+    private final JournalEntryRepository journalEntryRepository;
+    private final JournalArchivePolicy archivePolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final long pauseMillis; // Between chunks
+
+    public JournalArchiveService(JournalEntryRepository journalEntryRepository, JournalArchivePolicy archivePolicy,
+                                 TransactionTemplate transactionTemplate, ShardRouter shardRouter,
+                                 @Value("${app.archive.chunk-size:500}") int chunkSize,
+                                 @Value("${app.archive.max-chunks-per-run:200}") int maxChunksPerRun,
+                                 @Value("${app.archive.pause-ms:100}") long pauseMillis) {
+        this.journalEntryRepository = journalEntryRepository;
+        this.archivePolicy = archivePolicy;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archiveColdEntries() {
+        for (String shard : shardRouter.getShards()) {
+            try {
+                ShardContext.callOn(shard, () -> archiveBefore(archivePolicy.cutoff()));
+            } catch (Exception e) {
+                logger.error("Journal archive run on {} failed: {}", shard, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Moves entries dated before the cutoff, chunk by chunk, on the current shard.
+     * @param cutoff The first date that stays hot.
+     * @return The number of entries moved in this run.
+     */
+    public int archiveBefore(LocalDate cutoff) {
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<UUID> ids = journalEntryRepository.findArchivable(cutoff, PageRequest.of(0, chunkSize)).stream()
+                        .map(JournalEntry::getId)
+                        .toList();
+                return journalEntryRepository.moveToArchive(ids, Instant.now());
+            });
+            total += moved != null ? moved : 0;
+            if (moved == null || moved < chunkSize) {
+                break; // Nothing older than the cutoff is left (or other nodes hold the rest)
+            }
+            if (!pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("Archived {} journal entries dated before {}.", total, cutoff);
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.config.JournalArchivePolicy;
+import com.mymindmirror.backend.config.ShardContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps journal_entries range-partitioned by month on entry_date (MySQL only), so range scans over recent
+ * history prune to a few partitions instead of walking years of cold rows.
+ * On every run it:
+ * <ul>
+ *     <li>partitions the table if it isn't yet. This is a one-off table rebuild: it drops foreign keys
+ *     (MySQL doesn't allow them on partitioned tables) and widens the primary key to (id, entry_date),
+ *     which every unique key of a partitioned table must include;</li>
+ *     <li>creates partitions for the next months-ahead months by splitting p_future;</li>
+ *     <li>drops monthly partitions older than the archive cutoff once the archive job has emptied them.</li>
+ * </ul>
+ * Runs at startup and daily on every shard; a MySQL named lock keeps nodes from running DDL at the same time.
+ * Active only when app.partitioning.enabled=true.
+ */
+@Service
+@ConditionalOnProperty(name = "app.partitioning.enabled", havingValue = "true")
+public class JournalPartitionMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalPartitionMaintenance.class);
+
+    static final String TABLE = "journal_entries";
+    private static final String LOCK_NAME = "mymindmirror.journal_partitions";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JournalArchivePolicy archivePolicy;
+    private final ShardRouter shardRouter;
+    private final int monthsAhead;
+    private final MonthlyPartitionPlan plan = new MonthlyPartitionPlan(TABLE, "entry_date");
+
+    public JournalPartitionMaintenance(JdbcTemplate jdbcTemplate, JournalArchivePolicy archivePolicy, ShardRouter shardRouter,
+                                       @Value("${app.partitioning.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archivePolicy = archivePolicy;
+        this.shardRouter = shardRouter;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        runMaintenance();
+    }
+
+    @Scheduled(cron = "${app.partitioning.cron:0 0 3 * * *}")
+    public void runMaintenance() {
+        for (String shard : shardRouter.getShards()) {
+            try {
+                ShardContext.runOn(shard, () -> maintain(LocalDate.now()));
+            } catch (Exception e) {
+                logger.error("Journal partition maintenance on {} failed: {}", shard, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Runs one maintenance pass on a single connection to the current shard, holding the named lock.
+     */
+    public void maintain(LocalDate today) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            Integer locked = jdbc.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, LOCK_NAME);
+            if (locked == null || locked != 1) {
+                logger.debug("Partition maintenance is running on another node.");
+                return null;
+            }
+            try {
+                maintain(jdbc, today);
+            } finally {
+                jdbc.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+            }
+            return null;
+        });
+    }
+
+    private void maintain(JdbcTemplate jdbc, LocalDate today) {
+        YearMonth through = YearMonth.from(today).plusMonths(monthsAhead);
+        List<String> partitions = partitions(jdbc);
+        if (partitions.isEmpty()) {
+            partitionTable(jdbc, YearMonth.from(today), through);
+            partitions = partitions(jdbc);
+        }
+
+        Optional<String> addMonths = plan.addMonths(partitions, through);
+        if (addMonths.isPresent()) {
+            jdbc.execute(addMonths.get());
+            logger.info("Created journal partitions through {}.", through);
+        }
+
+        for (String partition : MonthlyPartitionPlan.entirelyBefore(partitions, archivePolicy.cutoff(today))) {
+            Integer rows = jdbc.queryForObject("SELECT COUNT(*) FROM " + TABLE + " PARTITION (" + partition + ")", Integer.class);
+            if (rows == null || rows > 0) {
+                break; // Not archived yet; later partitions won't be either
+            }
+            jdbc.execute(plan.dropPartition(partition));
+            logger.info("Dropped empty journal partition {}.", partition);
+        }
+    }
+
+    private void partitionTable(JdbcTemplate jdbc, YearMonth current, YearMonth through) {
+        logger.warn("{} is not partitioned; rebuilding it with monthly partitions. This can take a while on large tables.", TABLE);
+        for (String foreignKey : jdbc.queryForList("SELECT constraint_name FROM information_schema.referential_constraints"
+                + " WHERE constraint_schema = DATABASE() AND table_name = ?", String.class, TABLE)) {
+            jdbc.execute("ALTER TABLE " + TABLE + " DROP FOREIGN KEY " + foreignKey);
+        }
+        List<String> primaryKey = jdbc.queryForList("SELECT column_name FROM information_schema.key_column_usage"
+                + " WHERE table_schema = DATABASE() AND table_name = ? AND constraint_name = 'PRIMARY'", String.class, TABLE);
+        if (!primaryKey.contains("entry_date")) {
+            jdbc.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, entry_date)");
+        }
+        Date oldest = jdbc.queryForObject("SELECT MIN(entry_date) FROM " + TABLE, Date.class);
+        YearMonth from = oldest != null ? YearMonth.from(oldest.toLocalDate()) : current;
+        jdbc.execute(plan.partitionTable(from.isAfter(current) ? current : from, through));
+        logger.info("Partitioned {} by month from {} through {}.", TABLE, from, through);
+    }
+
+    private static List<String> partitions(JdbcTemplate jdbc) {
+        return jdbc.queryForList("SELECT partition_name FROM information_schema.partitions"
+                + " WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL", String.class, TABLE);
+    }
+}
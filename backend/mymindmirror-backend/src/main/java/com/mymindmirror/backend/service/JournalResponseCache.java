@@ -0,0 +1,113 @@
+package com.mymindmirror.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mymindmirror.backend.payload.JournalEntryResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Journal entries' JSON responses, serialized once (UTF-8 bytes) and reused until the entry changes.
+ * An analyzed entry is read far more often than it is edited, and each read otherwise re-parses its stored JSON
+ * columns and re-serializes the response.
+ * <p>
+ * Each cached response is tagged with the entry's version (JournalEntry's @Version), and a lookup only hits if the
+ * version read from the database matches, so a node never serves an entry another node has changed since.
+ * JournalService also evicts an entry when this node updates or deletes it. Responses are evicted by Caffeine's
+ * size-based policy to stay within app.response-cache.memory-budget-mb; hit rates are exported as
+ * cache.* metrics with cache=journal-responses.
+ */
+@Component
+public class JournalResponseCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 96; // Key, holder object and map node, roughly
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Cache<UUID, Serialized> responses;
+
+    public JournalResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                @Value("${app.response-cache.enabled:true}") boolean enabled,
+                                @Value("${app.response-cache.memory-budget-mb:32}") long budgetMegabytes) {
+        this.objectMapper = objectMapper; // Spring's mapper, so the bytes match what the message converters would write
+        this.enabled = enabled;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(budgetMegabytes * 1024 * 1024)
+                .weigher((UUID entryId, Serialized serialized) -> serialized.json.length + ENTRY_OVERHEAD_BYTES)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "journal-responses");
+    }
+
+    /**
+     * False if disabled by configuration; readers then skip the version lookup and read responses directly.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The entry's cached JSON if it was serialized at this version, else null.
+     */
+    public byte[] get(UUID entryId, long version) {
+        Serialized serialized = responses.getIfPresent(entryId);
+        return serialized != null && serialized.version == version ? serialized.json : null;
+    }
+
+    /**
+     * Serializes a response and caches it under its entry's version (replacing any older version).
+     * @return The JSON bytes.
+     */
+    public byte[] store(JournalEntryResponse response) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize journal entry " + response.getId(), e);
+        }
+        if (enabled) {
+            responses.put(response.getId(), new Serialized(response.getVersion(), json));
+        }
+        return json;
+    }
+
+    /**
+     * Drops the entry's cached JSON (after this node changed or deleted it).
+     */
+    public void evict(UUID entryId) {
+        responses.invalidate(entryId);
+    }
+
+    /**
+     * Joins serialized entries into one JSON array without re-parsing them.
+     */
+    public static byte[] toJsonArray(List<byte[]> elements) {
+        int length = 2 + Math.max(0, elements.size() - 1);
+        for (byte[] element : elements) {
+            length += element.length;
+        }
+        byte[] array = new byte[length];
+        array[0] = '[';
+        int position = 1;
+        for (int i = 0; i < elements.size(); i++) {
+            if (i > 0) {
+                array[position++] = ',';
+            }
+            byte[] element = elements.get(i);
+            System.arraycopy(element, 0, array, position, element.length);
+            position += element.length;
+        }
+        array[position] = ']';
+        return array;
+    }
+
+    private record Serialized(long version, byte[] json) {
+    }
+}
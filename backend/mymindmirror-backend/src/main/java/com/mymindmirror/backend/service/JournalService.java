@@ -3,24 +3,33 @@ package com.mymindmirror.backend.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mymindmirror.backend.config.ShardContext;
+import com.mymindmirror.backend.config.UserSharded;
 import com.mymindmirror.backend.model.JournalEntry;
 import com.mymindmirror.backend.model.User;
 import com.mymindmirror.backend.repository.JournalEntryRepository;
+import com.mymindmirror.backend.repository.UserRepository;
+import com.mymindmirror.backend.payload.AnalyticsEntryData;
+import com.mymindmirror.backend.payload.JournalEntryResponse;
+import com.mymindmirror.backend.payload.JournalEntryVersion;
 import com.mymindmirror.backend.payload.MoodDataResponse;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value; // Keep this if you want to log the URL, otherwise it can be removed
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient; // Keep this
-import reactor.core.publisher.Mono; // Keep this if used elsewhere in the class
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 /**
  * Service class for managing JournalEntry-related business logic.
@@ -32,42 +41,72 @@ public class JournalService {
     private static final Logger logger = LoggerFactory.getLogger(JournalService.class);
 
     private final JournalEntryRepository journalEntryRepository;
-    private final WebClient webClient; // This will now be the pre-configured WebClient bean
+    private final AnalysisEngine analysisEngine; // Flask ML service, or the in-process emotion model plus Flask for the LLM fields
     private final ObjectMapper objectMapper;
+    private final MoodInsightsService moodInsightsService;
+    private final ReflectionService reflectionService;
+    private final AnalysisJobService analysisJobService;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MoodSeriesStore moodSeriesStore;
+    private final PopulationStatsService populationStatsService;
+    private final JournalResponseCache responseCache;
 
-    // Keep this @Value field if you want to log the mlServiceBaseUrl string.
-    // It's no longer used for WebClient construction in this class, but useful for logging.
-    @Value("${app.ml-service.url}")
-    private String mlServiceBaseUrl;
+    // "inline" analyzes in the request thread; "queued" stores the entry and leaves analysis to AnalysisJobWorker
+    private final boolean queuedAnalysis;
 
-    // Constructor injection: Spring will now inject the 'mlServiceWebClient' bean
-    public JournalService(JournalEntryRepository journalEntryRepository, WebClient mlServiceWebClient, ObjectMapper objectMapper) {
+    public JournalService(JournalEntryRepository journalEntryRepository, AnalysisEngine analysisEngine, ObjectMapper objectMapper,
+                          MoodInsightsService moodInsightsService, ReflectionService reflectionService,
+                          AnalysisJobService analysisJobService, UserRepository userRepository,
+                          TransactionTemplate transactionTemplate, MoodSeriesStore moodSeriesStore,
+                          PopulationStatsService populationStatsService, JournalResponseCache responseCache,
+                          @Value("${app.analysis.mode:inline}") String analysisMode) {
         this.journalEntryRepository = journalEntryRepository;
-        this.webClient = mlServiceWebClient; // Inject the WebClient bean here
+        this.analysisEngine = analysisEngine;
         this.objectMapper = objectMapper;
+        this.moodInsightsService = moodInsightsService;
+        this.reflectionService = reflectionService;
+        this.analysisJobService = analysisJobService;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.moodSeriesStore = moodSeriesStore;
+        this.populationStatsService = populationStatsService;
+        this.responseCache = responseCache;
+        this.queuedAnalysis = "queued".equalsIgnoreCase(analysisMode);
     }
 
     /**
      * Saves a new journal entry or updates an existing one for the current day.
-     * Orchestrates the call to the Flask ML service for AI analysis.
+     * Orchestrates the AI analysis through the configured AnalysisEngine (or queues it, in queued mode).
      * @param user The authenticated user creating/updating the entry.
      * @param rawText The raw journal text provided by the user.
      * @return The saved JournalEntry entity with AI analysis results.
      */
+    @Observed(name = "journal.save", contextualName = "journal-save") // Parent span for the lookup, ML call and writes
+    @UserSharded(write = true)
     public JournalEntry saveJournalEntry(User user, String rawText) {
-        logger.info("Attempting to save journal entry for user: {} on date: {}", user.getUsername(), LocalDate.now());
+        logger.debug("Attempting to save journal entry for user: {} on date: {}", user.getUsername(), LocalDate.now());
 
-        Optional<JournalEntry> existingEntry = journalEntryRepository.findByUserAndEntryDate(user, LocalDate.now());
+        Optional<JournalEntry> existingEntry = onPrimary(() -> journalEntryRepository.findByUserAndEntryDate(user, LocalDate.now()));
         JournalEntry entryToSave = existingEntry.orElseGet(JournalEntry::new);
+        boolean newDay = existingEntry.isEmpty();
 
-        entryToSave.setUser(user);
+        if (newDay) {
+            // Not on today's entry: it is already the user's, and the enhanced setter would compare the unloaded owner
+            entryToSave.setUser(user);
+        }
         entryToSave.setEntryDate(LocalDate.now());
         entryToSave.setRawText(rawText);
 
-        processAiAnalysis(rawText, entryToSave);
+        analyzeOrQueue(rawText, entryToSave);
 
-        JournalEntry savedEntry = journalEntryRepository.save(entryToSave);
+        JournalEntry savedEntry = persist(entryToSave);
         logger.info("Journal entry with ID {} for user {} saved successfully.", savedEntry.getId(), user.getUsername());
+        responseCache.evict(savedEntry.getId()); // Today's entry may have been overwritten
+        updateDerivedState("mood insights",
+                () -> moodInsightsService.recordEntry(user, savedEntry.getEntryDate(), savedEntry.getMoodScore(), newDay));
+        updateAnalytics(user.getId(), savedEntry);
+        reflectionService.onEntryChanged(user, savedEntry.getEntryDate());
         return savedEntry;
     }
 
@@ -80,9 +119,11 @@ public class JournalService {
      * @return The updated JournalEntry entity.
      * @throws IllegalArgumentException if entry not found or not owned by user.
      */
+    @Observed(name = "journal.update", contextualName = "journal-update")
+    @UserSharded(write = true)
     public JournalEntry updateJournalEntry(UUID entryId, User user, String updatedText) {
-        logger.info("Attempting to update journal entry with ID: {} for user: {}", entryId, user.getUsername());
-        JournalEntry existingEntry = journalEntryRepository.findById(entryId)
+        logger.debug("Attempting to update journal entry with ID: {} for user: {}", entryId, user.getUsername());
+        JournalEntry existingEntry = onPrimary(() -> journalEntryRepository.findById(entryId))
                 .orElseThrow(() -> new IllegalArgumentException("Journal entry not found with ID: " + entryId));
 
         if (!existingEntry.getUser().getId().equals(user.getId())) {
@@ -92,10 +133,15 @@ public class JournalService {
 
         existingEntry.setRawText(updatedText);
 
-        processAiAnalysis(updatedText, existingEntry);
+        analyzeOrQueue(updatedText, existingEntry);
 
-        JournalEntry savedEntry = journalEntryRepository.save(existingEntry);
+        JournalEntry savedEntry = persist(existingEntry);
         logger.info("Journal entry with ID {} for user {} updated successfully.", savedEntry.getId(), user.getUsername());
+        responseCache.evict(entryId);
+        updateDerivedState("mood insights",
+                () -> moodInsightsService.recordEntry(user, savedEntry.getEntryDate(), savedEntry.getMoodScore(), false));
+        updateAnalytics(user.getId(), savedEntry);
+        reflectionService.onEntryChanged(user, savedEntry.getEntryDate());
         return savedEntry;
     }
 
@@ -105,9 +151,11 @@ public class JournalService {
      * @param user The authenticated user (for ownership check).
      * @throws IllegalArgumentException if entry not found or not owned by user.
      */
+    @Observed(name = "journal.delete", contextualName = "journal-delete")
+    @UserSharded(write = true)
     public void deleteJournalEntry(UUID entryId, User user) {
-        logger.info("Attempting to delete journal entry with ID: {} for user: {}", entryId, user.getUsername());
-        JournalEntry existingEntry = journalEntryRepository.findById(entryId)
+        logger.debug("Attempting to delete journal entry with ID: {} for user: {}", entryId, user.getUsername());
+        JournalEntry existingEntry = onPrimary(() -> journalEntryRepository.findById(entryId))
                 .orElseThrow(() -> new IllegalArgumentException("Journal entry not found with ID: " + entryId));
 
         if (!existingEntry.getUser().getId().equals(user.getId())) {
@@ -117,47 +165,154 @@ public class JournalService {
 
         journalEntryRepository.delete(existingEntry);
         logger.info("Journal entry with ID {} for user {} deleted successfully.", entryId, user.getUsername());
+        responseCache.evict(entryId);
+        updateDerivedState("mood insights", () -> moodInsightsService.recordDeletion(user, existingEntry.getEntryDate()));
+        updateDerivedState("mood series", () -> moodSeriesStore.onEntryDeleted(user.getId(), existingEntry.getEntryDate()));
+        // Population statistics are insert-only sketches and keep the deleted entry (see PopulationStatsService)
+        reflectionService.onEntryChanged(user, existingEntry.getEntryDate());
     }
 
     /**
-     * Helper method to call ML service and update JournalEntry fields.
+     * Runs a queued analysis for an entry (called by AnalysisJobWorker, outside any transaction,
+     * on the shard the job was claimed from).
+     * The ML call happens without holding a transaction; results are only written if the
+     * entry's text is unchanged, since a newer edit has queued its own job.
+     * @param entryId The entry to analyze.
+     * @return True if the job is finished (including when the entry was deleted or superseded),
+     *         false if the ML service failed and the job should be retried.
      */
-    private void processAiAnalysis(String textForAnalysis, JournalEntry entryToUpdate) {
-        Map<String, String> requestBody = new HashMap<>();
-        requestBody.put("text", textForAnalysis);
+    @Observed(name = "journal.queued-analysis", contextualName = "journal-queued-analysis")
+    public boolean applyQueuedAnalysis(UUID entryId) {
+        // Read the (lazy) text while the session is open
+        Optional<JournalEntry> entry = onPrimary(() -> journalEntryRepository.findById(entryId)
+                .map(found -> {
+                    found.getRawText();
+                    return found;
+                }));
+        if (entry.isEmpty()) {
+            logger.info("Journal entry {} was deleted before its analysis ran.", entryId);
+            return true;
+        }
+        String analyzedText = entry.get().getRawText();
+        String ownerKey = entry.get().getUser().getId().toString(); // Fairness key for the LLM scheduler
+        Map<String, Object> mlResponse = LlmScheduler.callAs(LlmScheduler.Priority.INTERACTIVE_SAVE, ownerKey,
+                () -> analysisEngine.analyze(analyzedText));
+        if (mlResponse == null) {
+            return false;
+        }
+
+        JournalEntry analyzedEntry = transactionTemplate.execute(status -> journalEntryRepository.findById(entryId)
+                .filter(current -> analyzedText.equals(current.getRawText()))
+                .map(current -> {
+                    applyMlResponse(mlResponse, current);
+                    return journalEntryRepository.save(current);
+                })
+                .orElse(null));
+        if (analyzedEntry == null) {
+            logger.info("Journal entry {} changed or was deleted during analysis; result discarded.", entryId);
+            return true;
+        }
+
+        logger.info("Queued analysis for journal entry {} applied.", entryId);
+        responseCache.evict(entryId);
+        // Users live in the directory database, not on the entry's shard
+        UUID ownerId = analyzedEntry.getUser().getId();
+        updateAnalytics(ownerId, analyzedEntry);
+        ShardContext.callOn(null, () -> userRepository.findById(ownerId)).ifPresent(owner -> {
+            updateDerivedState("mood insights",
+                    () -> moodInsightsService.recordEntry(owner, analyzedEntry.getEntryDate(), analyzedEntry.getMoodScore(), false));
+            reflectionService.onEntryChanged(owner, analyzedEntry.getEntryDate());
+        });
+        return true;
+    }
 
-        Map<String, Object> mlResponse = null;
+    /**
+     * Helper method to analyze an entry now (inline mode) or clear stale results until a worker does (queued mode).
+     */
+    private void analyzeOrQueue(String textForAnalysis, JournalEntry entryToUpdate) {
+        if (queuedAnalysis) {
+            resetAiFields(entryToUpdate); // Filled in by AnalysisJobWorker
+        } else {
+            processAiAnalysis(textForAnalysis, entryToUpdate);
+        }
+    }
+
+    /**
+     * Helper method to store an entry; in queued mode the analysis job is written in the same transaction.
+     */
+    private JournalEntry persist(JournalEntry entry) {
+        if (!queuedAnalysis) {
+            return journalEntryRepository.save(entry);
+        }
+        return transactionTemplate.execute(status -> {
+            JournalEntry saved = journalEntryRepository.save(entry);
+            analysisJobService.enqueue(saved.getId());
+            return saved;
+        });
+    }
+
+    /**
+     * Helper method for lookups that precede a write. Running them in a read-write transaction keeps them
+     * on the primary when read replicas are enabled, so a lagging replica can't hide the row being changed.
+     */
+    private <T> T onPrimary(Supplier<T> lookup) {
+        return transactionTemplate.execute(status -> lookup.get());
+    }
+
+    /**
+     * Helper method to keep state derived from entries (insights, analytics series, population statistics) in step
+     * with a write. The entry itself is already stored, so a failure here is logged rather than failing the request.
+     * @param store Names the derived state in the failure log.
+     */
+    private void updateDerivedState(String store, Runnable update) {
         try {
-            // This mlServiceBaseUrl field is now correctly injected by Spring
-            logger.info("Calling ML service at {}/analyze_journal", mlServiceBaseUrl);
-            mlResponse = webClient.post()
-                    .uri("/analyze_journal") // Use relative URI as base URL is already set in the bean
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .block();
-            logger.info("ML service responded successfully.");
+            update.run();
         } catch (Exception e) {
-            logger.error("Failed to call ML service or received error: {}", e.getMessage(), e);
+            logger.error("Failed to update {}: {}", store, e.getMessage(), e);
         }
+    }
+
+    /**
+     * Helper method to keep the user's analytics series (if loaded) and the population statistics in step with a saved entry.
+     */
+    private void updateAnalytics(UUID userId, JournalEntry savedEntry) {
+        updateDerivedState("mood series", () -> moodSeriesStore.onEntrySaved(userId, savedEntry.getEntryDate(),
+                savedEntry.getMoodScore(), savedEntry.getEmotions(), savedEntry.getCoreConcerns()));
+        updateDerivedState("population statistics", () -> populationStatsService.record(userId, savedEntry.getEntryDate(),
+                savedEntry.getMoodScore(), savedEntry.getCoreConcerns()));
+    }
+
+    /**
+     * Helper method to run the analysis engine and update JournalEntry fields.
+     */
+    private void processAiAnalysis(String textForAnalysis, JournalEntry entryToUpdate) {
+        Map<String, Object> mlResponse = LlmScheduler.callAs(LlmScheduler.Priority.INTERACTIVE_SAVE,
+                entryToUpdate.getUser().getId().toString(), () -> analysisEngine.analyze(textForAnalysis));
 
         if (mlResponse != null) {
-            try {
-                entryToUpdate.setMoodScore(((Number) mlResponse.get("moodScore")).doubleValue());
-                entryToUpdate.setEmotions(objectMapper.writeValueAsString(mlResponse.get("emotions")));
-                entryToUpdate.setCoreConcerns(objectMapper.writeValueAsString(mlResponse.get("coreConcerns")));
-                entryToUpdate.setSummary((String) mlResponse.get("summary"));
-                entryToUpdate.setGrowthTips(objectMapper.writeValueAsString(mlResponse.get("growthTips")));
-                logger.info("Journal entry AI analysis results processed.");
-            } catch (JsonProcessingException e) {
-                logger.error("Error serializing ML response to JSON string for DB storage: {}", e.getMessage(), e);
-                resetAiFields(entryToUpdate);
-            } catch (ClassCastException e) {
-                logger.error("Type casting error from ML response: {}", e.getMessage(), e);
-                resetAiFields(entryToUpdate);
-            }
+            applyMlResponse(mlResponse, entryToUpdate);
         } else {
-            logger.warn("ML service response was null. Journal entry saved/updated without AI analysis.");
+            logger.warn("Analysis failed. Journal entry saved/updated without AI analysis.");
+            resetAiFields(entryToUpdate);
+        }
+    }
+
+    /**
+     * Helper method to copy an ML response onto a JournalEntry.
+     */
+    private void applyMlResponse(Map<String, Object> mlResponse, JournalEntry entryToUpdate) {
+        try {
+            entryToUpdate.setMoodScore(((Number) mlResponse.get("moodScore")).doubleValue());
+            entryToUpdate.setEmotions(objectMapper.writeValueAsString(mlResponse.get("emotions")));
+            entryToUpdate.setCoreConcerns(objectMapper.writeValueAsString(mlResponse.get("coreConcerns")));
+            entryToUpdate.setSummary((String) mlResponse.get("summary"));
+            entryToUpdate.setGrowthTips(objectMapper.writeValueAsString(mlResponse.get("growthTips")));
+            logger.debug("Journal entry AI analysis results processed.");
+        } catch (JsonProcessingException e) {
+            logger.error("Error serializing ML response to JSON string for DB storage: {}", e.getMessage(), e);
+            resetAiFields(entryToUpdate);
+        } catch (ClassCastException e) {
+            logger.error("Type casting error from ML response: {}", e.getMessage(), e);
             resetAiFields(entryToUpdate);
         }
     }
@@ -174,23 +329,82 @@ public class JournalService {
     }
 
 
-    public List<JournalEntry> getJournalEntriesForUser(User user, LocalDate startDate, LocalDate endDate) {
-        logger.info("Fetching journal entries for user: {} from {} to {}", user.getUsername(), startDate, endDate);
-        return journalEntryRepository.findByUserAndEntryDateBetween(user, startDate, endDate);
+    @Transactional(readOnly = true) // Served by a read replica when replicas are enabled
+    @UserSharded
+    public List<JournalEntryResponse> getJournalEntriesForUser(User user, LocalDate startDate, LocalDate endDate) {
+        logger.debug("Fetching journal entries for user: {} from {} to {}", user.getUsername(), startDate, endDate);
+        return journalEntryRepository.findResponsesByUserAndEntryDateBetween(user, startDate, endDate);
+    }
+
+    /**
+     * The user's entries in a date range as a JSON array. Only entry IDs and versions are queried up front; entries
+     * whose JSON is cached at that version are copied as is, and only the others are read and serialized.
+     */
+    @Transactional(readOnly = true)
+    @UserSharded
+    public byte[] getJournalEntriesJson(User user, LocalDate startDate, LocalDate endDate) {
+        logger.debug("Fetching journal entries JSON for user: {} from {} to {}", user.getUsername(), startDate, endDate);
+        if (!responseCache.isEnabled()) {
+            return JournalResponseCache.toJsonArray(journalEntryRepository.findResponsesByUserAndEntryDateBetween(user, startDate, endDate)
+                    .stream().map(responseCache::store).toList());
+        }
+        List<JournalEntryVersion> versions = journalEntryRepository.findVersionsByUserAndEntryDateBetween(user, startDate, endDate);
+        Map<UUID, byte[]> json = new HashMap<>();
+        List<UUID> misses = new ArrayList<>();
+        for (JournalEntryVersion version : versions) {
+            byte[] cached = responseCache.get(version.getId(), version.getVersion());
+            if (cached != null) {
+                json.put(version.getId(), cached);
+            } else {
+                misses.add(version.getId());
+            }
+        }
+        for (JournalEntryResponse response : journalEntryRepository.findResponsesByUserAndIdIn(user, misses)) {
+            json.put(response.getId(), responseCache.store(response));
+        }
+        logger.debug("Journal history for user {}: {} entries, {} served from the response cache.",
+                user.getUsername(), versions.size(), versions.size() - misses.size());
+        return JournalResponseCache.toJsonArray(versions.stream()
+                .map(version -> json.get(version.getId()))
+                .filter(Objects::nonNull) // Deleted between the two queries
+                .toList());
     }
 
-    public Optional<JournalEntry> getJournalEntryById(UUID entryId) {
-        logger.info("Fetching journal entry by ID: {}", entryId);
-        return journalEntryRepository.findById(entryId);
+    /**
+     * One of the user's entries (archived ones included) as JSON, from the response cache if it is unchanged
+     * since it was last served.
+     */
+    @Transactional(readOnly = true)
+    @UserSharded
+    public Optional<byte[]> getJournalEntryJson(UUID entryId, User user) {
+        logger.debug("Fetching journal entry JSON by ID: {}", entryId);
+        if (responseCache.isEnabled()) {
+            Optional<JournalEntryVersion> version = journalEntryRepository.findVersionByIdAndUser(entryId, user);
+            if (version.isEmpty()) {
+                return Optional.empty();
+            }
+            byte[] cached = responseCache.get(entryId, version.get().getVersion());
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        return journalEntryRepository.findResponseByIdAndUser(entryId, user).map(responseCache::store);
     }
 
+    @Transactional(readOnly = true)
+    @UserSharded
     public List<MoodDataResponse> getMoodDataForChart(User user, LocalDate startDate, LocalDate endDate) {
-        logger.info("Fetching mood data for chart for user: {} from {} to {}", user.getUsername(), startDate, endDate);
-        List<JournalEntry> entries = journalEntryRepository.findByUserAndEntryDateBetween(user, startDate, endDate);
-        return entries.stream()
-                .filter(entry -> entry.getMoodScore() != null)
-                .map(entry -> new MoodDataResponse(entry.getEntryDate(), entry.getMoodScore()))
-                .sorted((d1, d2) -> d1.getDate().compareTo(d2.getDate()))
-                .collect(Collectors.toList());
-    }
-}
\ No newline at end of file
+        logger.debug("Fetching mood data for chart for user: {} from {} to {}", user.getUsername(), startDate, endDate);
+        return journalEntryRepository.findMoodDataByUserAndEntryDateBetween(user, startDate, endDate); // Dates and scores only
+    }
+
+    /**
+     * Reads the user's whole history (dates and analysis results only) for the analytics store.
+     */
+    @Transactional(readOnly = true)
+    @UserSharded
+    public List<AnalyticsEntryData> getAnalyticsData(User user) {
+        logger.debug("Loading analytics data for user: {}", user.getUsername());
+        return journalEntryRepository.findAnalyticsDataByUser(user); // Archived entries included
+    }
+}
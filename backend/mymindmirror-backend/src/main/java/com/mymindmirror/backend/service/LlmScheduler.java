@@ -0,0 +1,303 @@
+package com.mymindmirror.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for LLM calls (through the ML service), which all draw on one external quota.
+ * <ul>
+ *     <li>A global budget of app.llm.requests-per-minute, as a token bucket with app.llm.burst tokens;
+ *     a journal analysis costs app.llm.analyze-cost tokens (one per Gemini call it makes), a reflection one.</li>
+ *     <li>Interactive calls (saves, reflections) always go before background work (digest recaps), which
+ *     therefore only uses quota the interactive traffic leaves over.</li>
+ *     <li>Within each of the two tiers, weighted fair queuing (self-clocked) between flows, a flow being one
+ *     user's calls of one priority: a user with many queued calls can't hold up the others, and saves get twice
+ *     the share of reflections.</li>
+ * </ul>
+ * Callers block until their call is admitted, or give up after the priority's queue timeout, which MlServiceClient
+ * reports like an ML failure. The caller tags its calls with {@link #callAs}; untagged calls are unattributed.
+ * Queue wait is recorded as app.llm.queue.wait per priority.
+ */
+@Component
+public class LlmScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmScheduler.class);
+
+    private static final String UNATTRIBUTED = "unattributed";
+
+    /**
+     * Priority classes, with their weight within the tier.
+     */
+    public enum Priority {
+        INTERACTIVE_SAVE(2, true),
+        INTERACTIVE_REFLECTION(1, true),
+        BACKGROUND(1, false);
+
+        private final int weight;
+        private final boolean interactive;
+
+        Priority(int weight, boolean interactive) {
+            this.weight = weight;
+            this.interactive = interactive;
+        }
+    }
+
+    private static final ThreadLocal<Tag> CURRENT = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final double tokensPerNano;
+    private final double burst;
+    private final int maxQueued;
+    private final Map<Priority, Long> queueTimeoutMillis = new EnumMap<>(Priority.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition(); // New tickets, shutdown
+    private final Comparator<Ticket> finishOrder = Comparator.<Ticket>comparingDouble(ticket -> ticket.finish)
+            .thenComparingLong(ticket -> ticket.sequence);
+    private final PriorityQueue<Ticket> interactiveQueue = new PriorityQueue<>(finishOrder);
+    private final PriorityQueue<Ticket> backgroundQueue = new PriorityQueue<>(finishOrder);
+    private final Map<String, Flow> flows = new HashMap<>(); // Flows with queued tickets only
+    private double interactiveClock; // Virtual time per tier: the finish tag of the last admitted ticket
+    private double backgroundClock;
+    private double tokens;
+    private long refilledAt;
+    private long sequence;
+    private int queued;
+
+    private final Map<Priority, AtomicInteger> queuedByPriority = new EnumMap<>(Priority.class);
+    private final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejections = new EnumMap<>(Priority.class);
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    public LlmScheduler(@Value("${app.llm.scheduler.enabled:true}") boolean enabled,
+                        @Value("${app.llm.requests-per-minute:300}") double requestsPerMinute,
+                        @Value("${app.llm.burst:30}") int burst,
+                        @Value("${app.llm.scheduler.max-queued:1000}") int maxQueued,
+                        @Value("${app.llm.scheduler.save-timeout-ms:30000}") long saveTimeoutMillis,
+                        @Value("${app.llm.scheduler.reflection-timeout-ms:10000}") long reflectionTimeoutMillis,
+                        @Value("${app.llm.scheduler.background-timeout-ms:600000}") long backgroundTimeoutMillis,
+                        MeterRegistry meterRegistry) {
+        if (requestsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("app.llm.requests-per-minute and app.llm.burst must be positive.");
+        }
+        this.enabled = enabled;
+        this.tokensPerNano = requestsPerMinute / 60e9;
+        this.burst = burst;
+        this.maxQueued = maxQueued;
+        this.tokens = burst; // Start full
+        this.refilledAt = System.nanoTime();
+        queueTimeoutMillis.put(Priority.INTERACTIVE_SAVE, saveTimeoutMillis);
+        queueTimeoutMillis.put(Priority.INTERACTIVE_REFLECTION, reflectionTimeoutMillis);
+        queueTimeoutMillis.put(Priority.BACKGROUND, backgroundTimeoutMillis);
+
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            AtomicInteger count = new AtomicInteger();
+            queuedByPriority.put(priority, count);
+            Gauge.builder("app.llm.queue.size", count, AtomicInteger::get).tag("priority", tag).register(meterRegistry);
+            waitTimers.put(priority, Timer.builder("app.llm.queue.wait").tag("priority", tag)
+                    .publishPercentiles(0.5, 0.95, 0.99).register(meterRegistry));
+            rejections.put(priority, Counter.builder("app.llm.queue.rejected").tag("priority", tag).register(meterRegistry));
+        }
+
+        this.dispatcher = new Thread(this::dispatch, "llm-scheduler");
+        dispatcher.setDaemon(true);
+        if (enabled) {
+            dispatcher.start();
+        }
+    }
+
+    /**
+     * Runs a block whose LLM calls are scheduled with the given priority, as part of the given flow.
+     * @param priority The priority class.
+     * @param flow Whose calls these are (e.g. the user ID); fair queuing is between flows.
+     * @param call The block, e.g. an analysis or a reflection.
+     * @return The block's result.
+     */
+    public static <T> T callAs(Priority priority, String flow, Supplier<T> call) {
+        Tag previous = CURRENT.get();
+        CURRENT.set(new Tag(priority, flow));
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Waits until an LLM call may go out, under the priority and flow set by callAs.
+     * @param defaultPriority Used when the caller didn't tag the call.
+     * @param cost The call's share of the quota (the number of LLM requests it makes).
+     * @return True to go ahead; false if the queue was full or the wait timed out (don't make the call).
+     */
+    public boolean acquire(Priority defaultPriority, int cost) {
+        if (!enabled) {
+            return true;
+        }
+        Tag tag = CURRENT.get();
+        Priority priority = tag != null ? tag.priority : defaultPriority;
+        String flowKey = priority.name() + ":" + (tag != null ? tag.flow : UNATTRIBUTED);
+        Ticket ticket;
+
+        lock.lock();
+        try {
+            if (queued >= maxQueued) {
+                logger.warn("LLM queue full ({} calls); rejecting a {} call.", queued, priority);
+                rejections.get(priority).increment();
+                return false;
+            }
+            Flow flow = flows.computeIfAbsent(flowKey, key -> new Flow());
+            double start = Math.max(priority.interactive ? interactiveClock : backgroundClock, flow.lastFinish);
+            double cappedCost = Math.min(cost, burst); // A call costing more than the burst could never go out
+            flow.lastFinish = start + cappedCost / priority.weight;
+            flow.queued++;
+            ticket = new Ticket(priority, flowKey, cappedCost, flow.lastFinish, sequence++, System.nanoTime());
+            (priority.interactive ? interactiveQueue : backgroundQueue).add(ticket);
+            queued++;
+            queuedByPriority.get(priority).incrementAndGet();
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        boolean interrupted = false;
+        try {
+            if (ticket.admitted.await(queueTimeoutMillis.get(priority), TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+
+        lock.lock();
+        try {
+            if (ticket.admittedFlag) {
+                return true; // Admitted just as the wait ended
+            }
+            (priority.interactive ? interactiveQueue : backgroundQueue).remove(ticket);
+            dequeued(ticket);
+        } finally {
+            lock.unlock();
+        }
+        rejections.get(priority).increment();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        } else {
+            logger.warn("{} LLM call waited {} ms without getting quota; giving up.", priority, queueTimeoutMillis.get(priority));
+        }
+        return false;
+    }
+
+    /**
+     * Dispatcher loop: admits the head of the interactive queue, else of the background queue, as soon as the
+     * bucket holds enough tokens for it.
+     */
+    private void dispatch() {
+        lock.lock();
+        try {
+            while (running) {
+                Ticket next = !interactiveQueue.isEmpty() ? interactiveQueue.peek() : backgroundQueue.peek();
+                if (next == null) {
+                    changed.await();
+                    continue;
+                }
+                long now = System.nanoTime();
+                tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+                refilledAt = now;
+                if (tokens < next.cost) {
+                    // Re-checked early if a higher-priority or fairer ticket arrives
+                    changed.awaitNanos((long) Math.ceil((next.cost - tokens) / tokensPerNano));
+                    continue;
+                }
+                tokens -= next.cost;
+                if (next.priority.interactive) {
+                    interactiveQueue.poll();
+                    interactiveClock = next.finish;
+                } else {
+                    backgroundQueue.poll();
+                    backgroundClock = next.finish;
+                }
+                dequeued(next);
+                // Recorded before the caller is released, so its wait is counted by the time its call runs
+                waitTimers.get(next.priority).record(now - next.enqueuedAt, TimeUnit.NANOSECONDS);
+                next.admittedFlag = true;
+                next.admitted.countDown();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bookkeeping for a ticket leaving the queue (admitted or given up). Caller holds the lock.
+     */
+    private void dequeued(Ticket ticket) {
+        queued--;
+        queuedByPriority.get(ticket.priority).decrementAndGet();
+        Flow flow = flows.get(ticket.flowKey);
+        if (flow != null && --flow.queued == 0) {
+            // An idle flow restarts at the tier's clock, so forgetting it loses nothing
+            flows.remove(ticket.flowKey);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        dispatcher.interrupt();
+    }
+
+    private record Tag(Priority priority, String flow) {
+    }
+
+    private static final class Flow {
+        double lastFinish;
+        int queued;
+    }
+
+    private static final class Ticket {
+        final Priority priority;
+        final String flowKey;
+        final double cost;
+        final double finish; // Virtual finish tag: admission order within the tier
+        final long sequence; // Tie-breaker: arrival order
+        final long enqueuedAt;
+        final CountDownLatch admitted = new CountDownLatch(1);
+        boolean admittedFlag; // Guarded by the lock
+
+        Ticket(Priority priority, String flowKey, double cost, double finish, long sequence, long enqueuedAt) {
+            this.priority = priority;
+            this.flowKey = flowKey;
+            this.cost = cost;
+            this.finish = finish;
+            this.sequence = sequence;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
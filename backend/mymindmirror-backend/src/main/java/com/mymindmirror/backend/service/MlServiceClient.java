@@ -0,0 +1,105 @@
+package com.mymindmirror.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Thin client for the Flask ML service.
+ * All calls are blocking and return null on failure, so callers can degrade gracefully.
+ * Calls that use the LLM wait for LlmScheduler first; one that doesn't get quota in time fails like an outage.
+ */
+@Component
+public class MlServiceClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(MlServiceClient.class);
+
+    private final WebClient webClient; // Pre-configured with the ML service base URL
+    private final LlmScheduler llmScheduler;
+    private final int analyzeCost; // LLM requests the ML service makes per journal analysis
+
+    @Value("${app.ml-service.url}")
+    private String mlServiceBaseUrl; // Only used for logging
+
+    public MlServiceClient(WebClient mlServiceWebClient, LlmScheduler llmScheduler,
+                           @Value("${app.llm.analyze-cost:3}") int analyzeCost) {
+        this.webClient = mlServiceWebClient;
+        this.llmScheduler = llmScheduler;
+        this.analyzeCost = analyzeCost;
+    }
+
+    /**
+     * Runs the full journal analysis (emotions, mood score, concerns, summary, growth tips).
+     * @param text The journal text.
+     * @return The raw ML response, or null if the call failed.
+     */
+    public Map<String, Object> analyzeJournal(String text) {
+        return analyzeJournal(text, null);
+    }
+
+    /**
+     * Runs the journal analysis with emotions already classified (by EmotionClassifier), so the ML service
+     * skips its emotion model and only produces the LLM fields.
+     * @param text The journal text.
+     * @param emotions Emotion label to score, or null to let the ML service classify.
+     * @return The raw ML response, or null if the call failed.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> analyzeJournal(String text, Map<String, Double> emotions) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("text", text);
+        if (emotions != null) {
+            requestBody.put("emotions", emotions);
+        }
+        if (!llmScheduler.acquire(LlmScheduler.Priority.INTERACTIVE_SAVE, analyzeCost)) {
+            return null; // Logged by the scheduler
+        }
+        try {
+            logger.info("Calling ML service at {}/analyze_journal", mlServiceBaseUrl);
+            Map<String, Object> response = webClient.post()
+                    .uri("/analyze_journal") // Use relative URI as base URL is already set in the bean
+                    .bodyValue(requestBody)
+                    .retrieve()
+                    .bodyToMono(Map.class)
+                    .block();
+            logger.info("ML service responded successfully.");
+            return response;
+        } catch (Exception e) {
+            logger.error("Failed to call ML service or received error: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Asks the LLM for a short free-text reflection.
+     * @param prompt The full prompt text.
+     * @return The generated reflection, or null if the call failed.
+     */
+    @SuppressWarnings("unchecked")
+    public String generateReflection(String prompt) {
+        Map<String, String> requestBody = new HashMap<>();
+        requestBody.put("prompt_text", prompt);
+        if (!llmScheduler.acquire(LlmScheduler.Priority.INTERACTIVE_REFLECTION, 1)) {
+            return null;
+        }
+        try {
+            logger.info("Calling ML service at {}/generate_reflection", mlServiceBaseUrl);
+            Map<String, Object> response = webClient.post()
+                    .uri("/generate_reflection")
+                    .bodyValue(requestBody)
+                    .retrieve()
+                    .bodyToMono(Map.class)
+                    .block();
+            Object reflection = response != null ? response.get("reflection") : null;
+            return reflection instanceof String ? (String) reflection : null;
+        } catch (Exception e) {
+            logger.error("Failed to generate reflection via ML service: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+}
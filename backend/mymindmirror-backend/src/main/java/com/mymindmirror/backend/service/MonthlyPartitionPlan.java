@@ -0,0 +1,109 @@
+package com.mymindmirror.backend.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * DDL planning for a table range-partitioned by month on a DATE column: one partition per month,
+ * named pYYYYMM and holding dates before the first of the following month, plus a catch-all p_future.
+ * Pure functions of the current partition list; JournalPartitionMaintenance runs the statements.
+ */
+final class MonthlyPartitionPlan {
+
+    static final String FUTURE = "p_future";
+
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final String table;
+    private final String column;
+
+    MonthlyPartitionPlan(String table, String column) {
+        this.table = table;
+        this.column = column;
+    }
+
+    static String partitionName(YearMonth month) {
+        return NAME_FORMAT.format(month);
+    }
+
+    /**
+     * The month a pYYYYMM partition holds, or empty for p_future and names this plan didn't create.
+     */
+    static Optional<YearMonth> monthOf(String partitionName) {
+        if (partitionName == null || !partitionName.matches("p\\d{6}")) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(partitionName.substring(1, 5)),
+                Integer.parseInt(partitionName.substring(5))));
+    }
+
+    /**
+     * Partitions an unpartitioned table with one partition per month from the oldest row's month
+     * through the last month that should already exist.
+     */
+    String partitionTable(YearMonth oldest, YearMonth through) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = oldest; !month.isAfter(through); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return "ALTER TABLE " + table + " PARTITION BY RANGE COLUMNS(" + column + ") (" + definitions(months) + ")";
+    }
+
+    /**
+     * Splits p_future so every month up to and including the target has its own partition.
+     * Empty when nothing is missing. Months are only ever added above the newest existing one.
+     */
+    Optional<String> addMonths(Collection<String> existingPartitions, YearMonth through) {
+        Optional<YearMonth> newest = existingPartitions.stream()
+                .map(MonthlyPartitionPlan::monthOf)
+                .flatMap(Optional::stream)
+                .max(Comparator.naturalOrder());
+        if (newest.isEmpty() || !newest.get().isBefore(through)) {
+            return Optional.empty();
+        }
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = newest.get().plusMonths(1); !month.isAfter(through); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return Optional.of("ALTER TABLE " + table + " REORGANIZE PARTITION " + FUTURE + " INTO (" + definitions(months) + ")");
+    }
+
+    /**
+     * Monthly partitions that only hold dates before the cutoff, oldest first.
+     * Never includes the newest monthly partition, so the table always keeps one.
+     */
+    static List<String> entirelyBefore(Collection<String> existingPartitions, LocalDate cutoff) {
+        List<YearMonth> months = existingPartitions.stream()
+                .map(MonthlyPartitionPlan::monthOf)
+                .flatMap(Optional::stream)
+                .sorted()
+                .collect(Collectors.toList());
+        if (!months.isEmpty()) {
+            months.remove(months.size() - 1);
+        }
+        return months.stream()
+                .filter(month -> !month.plusMonths(1).atDay(1).isAfter(cutoff))
+                .map(MonthlyPartitionPlan::partitionName)
+                .collect(Collectors.toList());
+    }
+
+    String dropPartition(String partitionName) {
+        return "ALTER TABLE " + table + " DROP PARTITION " + partitionName;
+    }
+
+    private static String definitions(List<YearMonth> months) {
+        StringBuilder sql = new StringBuilder();
+        for (YearMonth month : months) {
+            sql.append("PARTITION ").append(partitionName(month))
+                    .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append("'), ");
+        }
+        return sql.append("PARTITION ").append(FUTURE).append(" VALUES LESS THAN (MAXVALUE)").toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.payload.AnalyticsResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Mood analytics over arbitrary date ranges: mood statistics and percentiles, average emotions, and how each
+ * concern relates to mood. Computed from the user's series in MoodSeriesStore, so after the first request
+ * (which loads the user's history) no query is made.
+ */
+@Service
+public class MoodAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoodAnalyticsService.class);
+
+    private static final double[] PERCENTILES = {0.10, 0.25, 0.50, 0.75, 0.90};
+
+    private final MoodSeriesStore moodSeriesStore;
+    private final JournalService journalService;
+
+    public MoodAnalyticsService(MoodSeriesStore moodSeriesStore, JournalService journalService) {
+        this.moodSeriesStore = moodSeriesStore;
+        this.journalService = journalService;
+    }
+
+    /**
+     * Computes the user's analytics for [startDate, endDate].
+     * @param user The authenticated user.
+     * @param startDate First day of the range (inclusive).
+     * @param endDate Last day of the range (inclusive).
+     * @return The analytics; empty figures if there are no entries in range.
+     */
+    public AnalyticsResponse getAnalytics(User user, LocalDate startDate, LocalDate endDate) {
+        logger.info("Computing mood analytics for user: {} from {} to {}", user.getUsername(), startDate, endDate);
+        MoodSeries series = moodSeriesStore.get(user.getId(), () -> journalService.getAnalyticsData(user));
+        int from = (int) startDate.toEpochDay();
+        int to = (int) endDate.toEpochDay();
+
+        AnalyticsResponse response = new AnalyticsResponse();
+        response.setStartDate(startDate);
+        response.setEndDate(endDate);
+        MoodSeries.MoodStats stats = series.moodStats(from, to);
+        response.setEntryCount(stats.entries);
+        response.setScoredCount(stats.scored);
+        response.setMoodAverage(orNull(stats.mean));
+        response.setMoodMin(orNull(stats.min));
+        response.setMoodMax(orNull(stats.max));
+        response.setMoodStdDev(orNull(stats.stdDev));
+
+        double[] percentiles = series.moodPercentiles(from, to, PERCENTILES);
+        if (percentiles != null) {
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                response.getMoodPercentiles().put("p" + Math.round(PERCENTILES[i] * 100), percentiles[i]);
+            }
+        }
+        response.setEmotionAverages(series.emotionAverages(from, to));
+        for (MoodSeries.ConcernStats concern : series.concernStats(from, to)) {
+            AnalyticsResponse.ConcernAnalytics analytics = new AnalyticsResponse.ConcernAnalytics();
+            analytics.setConcern(concern.concern);
+            analytics.setDays(concern.days);
+            analytics.setMoodWith(concern.moodWith);
+            analytics.setMoodWithout(concern.moodWithout);
+            analytics.setCorrelation(concern.correlation);
+            response.getConcerns().add(analytics);
+        }
+        return response;
+    }
+
+    private static Double orNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,240 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.config.UserSharded;
+import com.mymindmirror.backend.model.MoodInsightState;
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.payload.InsightsResponse;
+import com.mymindmirror.backend.payload.MoodDataResponse;
+import com.mymindmirror.backend.repository.JournalEntryRepository;
+import com.mymindmirror.backend.repository.MoodInsightStateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Maintains per-user streaming mood statistics (EWMA trend, rolling averages, streaks, z-score)
+ * and serves them to the insights endpoint. Every journal write updates the state in constant time;
+ * history is only scanned to create a user's state, which the first journal write stores. Reads never write.
+ */
+@Service
+public class MoodInsightsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoodInsightsService.class);
+
+    private final MoodInsightStateRepository stateRepository;
+    private final JournalEntryRepository journalEntryRepository;
+
+    private final double ewmaAlpha; // Smoothing factor derived from the configured span
+    private final double anomalyZThreshold; // A latest mood this many standard deviations below baseline is "unusually low"
+    private final int minBaselineDays; // Scored days needed before z-scores are reported
+    private final double trendThreshold; // Minimum EWMA vs 30-day average gap to call a trend
+
+    public MoodInsightsService(MoodInsightStateRepository stateRepository,
+                               JournalEntryRepository journalEntryRepository,
+                               @Value("${app.insights.ewma-span-days:7}") int ewmaSpanDays,
+                               @Value("${app.insights.anomaly-z-threshold:2.0}") double anomalyZThreshold,
+                               @Value("${app.insights.min-baseline-days:7}") int minBaselineDays,
+                               @Value("${app.insights.trend-threshold:0.05}") double trendThreshold) {
+        this.stateRepository = stateRepository;
+        this.journalEntryRepository = journalEntryRepository;
+        this.ewmaAlpha = 2.0 / (ewmaSpanDays + 1);
+        this.anomalyZThreshold = anomalyZThreshold;
+        this.minBaselineDays = minBaselineDays;
+        this.trendThreshold = trendThreshold;
+    }
+
+    /**
+     * Folds a saved or updated entry into the user's state.
+     * @param user The entry's owner.
+     * @param entryDate The entry's date.
+     * @param moodScore The analyzed mood score (null if analysis failed).
+     * @param newDay True if this entry is the first one for its date.
+     */
+    @Transactional
+    @UserSharded(write = true)
+    public void recordEntry(User user, LocalDate entryDate, Double moodScore, boolean newDay) {
+        Optional<MoodInsightState> existing = stateRepository.findForUpdate(user.getId());
+        if (existing.isEmpty()) {
+            // Bootstrapping reads the database, which already contains this entry
+            stateRepository.save(bootstrap(user));
+            return;
+        }
+        MoodInsightState state = existing.get();
+        long day = entryDate.toEpochDay();
+        if (newDay) {
+            extendStreak(state, day);
+        }
+        applyMood(state, day, moodScore);
+        stateRepository.save(state);
+    }
+
+    /**
+     * Removes a deleted entry from the user's state.
+     * @param user The entry's owner.
+     * @param entryDate The deleted entry's date.
+     */
+    @Transactional
+    @UserSharded(write = true)
+    public void recordDeletion(User user, LocalDate entryDate) {
+        Optional<MoodInsightState> existing = stateRepository.findForUpdate(user.getId());
+        if (existing.isEmpty()) {
+            stateRepository.save(bootstrap(user));
+            return;
+        }
+        MoodInsightState state = existing.get();
+        long day = entryDate.toEpochDay();
+        applyMood(state, day, null);
+        shortenStreak(state, day);
+        stateRepository.save(state);
+    }
+
+    /**
+     * Builds the insights callouts from the stored state; no journal entries are read once it exists.
+     * A user without state yet gets one computed in memory; it is first stored by their next journal write.
+     */
+    @Transactional(readOnly = true)
+    @UserSharded
+    public InsightsResponse getInsights(User user) {
+        MoodInsightState state = stateRepository.findById(user.getId())
+                .orElseGet(() -> bootstrap(user));
+
+        long today = LocalDate.now().toEpochDay();
+        // Slide a copy of the window to today so averages reflect days without entries
+        MoodWindow window = MoodWindow.decode(state.getMoodWindow(), state.getWindowEndDay());
+        window.advanceTo(today);
+
+        InsightsResponse response = new InsightsResponse();
+        response.setSevenDayAverage(window.shortAverage());
+        response.setThirtyDayAverage(window.longAverage());
+        response.setScoredDaysLast7(window.shortCount());
+        response.setScoredDaysLast30(window.longCount());
+        response.setMoodTrend(state.getEwma());
+        if (state.getEwma() != null && window.longAverage() != null && window.longCount() >= 3) {
+            double gap = state.getEwma() - window.longAverage();
+            response.setTrendDirection(gap > trendThreshold ? "improving" : gap < -trendThreshold ? "declining" : "steady");
+        }
+
+        Long lastEntryDay = state.getLastEntryDay();
+        response.setCurrentStreak(lastEntryDay != null && lastEntryDay >= today - 1 ? state.getStreak() : 0);
+        response.setLongestStreak(state.getLongestStreak());
+        response.setLastEntryDate(lastEntryDay == null ? null : LocalDate.ofEpochDay(lastEntryDay));
+
+        Long latestScoredDay = window.latestScoredDay();
+        if (latestScoredDay != null) {
+            Double zScore = window.zScore(latestScoredDay, minBaselineDays);
+            response.setLatestMoodDate(LocalDate.ofEpochDay(latestScoredDay));
+            response.setLatestMoodScore(window.get(latestScoredDay));
+            response.setLatestMoodZScore(zScore);
+            response.setUnusuallyLowDay(zScore != null && zScore <= -anomalyZThreshold);
+        }
+        return response;
+    }
+
+    /**
+     * Counts a new entry day towards the streak.
+     */
+    private void extendStreak(MoodInsightState state, long day) {
+        Long last = state.getLastEntryDay();
+        if (last != null && day <= last) {
+            return; // Already counted
+        }
+        int streak = last != null && day == last + 1 ? state.getStreak() + 1 : 1;
+        state.setStreak(streak);
+        state.setLastEntryDay(day);
+        state.setLongestStreak(Math.max(state.getLongestStreak(), streak));
+    }
+
+    /**
+     * Cuts the current streak at a deleted day. Entries before the streak don't affect it,
+     * so this needs no history. The longest streak is a historical record and is kept.
+     */
+    private void shortenStreak(MoodInsightState state, long day) {
+        Long last = state.getLastEntryDay();
+        if (last == null || day > last || day <= last - state.getStreak()) {
+            return;
+        }
+        if (day == last) {
+            // With a streak of 1 the previous day had no entry, so no streak remains
+            state.setStreak(state.getStreak() - 1);
+            state.setLastEntryDay(state.getStreak() > 0 ? last - 1 : null);
+        } else {
+            state.setStreak((int) (last - day));
+        }
+    }
+
+    /**
+     * Applies a day's mood (or its removal, when null) to the rolling window and the EWMA.
+     */
+    private void applyMood(MoodInsightState state, long day, Double moodScore) {
+        MoodWindow window = MoodWindow.decode(state.getMoodWindow(), state.getWindowEndDay());
+        window.set(day, moodScore);
+        state.setMoodWindow(window.encode());
+        state.setWindowEndDay(window.getEndDay());
+
+        Long ewmaDay = state.getEwmaDay();
+        if (ewmaDay != null && day < ewmaDay) {
+            return; // An EWMA can't retract old observations; edits to past days only affect the window
+        }
+        if (ewmaDay == null || day > ewmaDay) {
+            if (moodScore == null) {
+                return;
+            }
+            state.setEwmaBeforeLatestDay(state.getEwma());
+            state.setEwmaDay(day);
+        }
+        Double previous = state.getEwmaBeforeLatestDay();
+        if (moodScore == null) {
+            state.setEwma(previous);
+        } else {
+            state.setEwma(previous == null ? moodScore : ewmaAlpha * moodScore + (1 - ewmaAlpha) * previous);
+        }
+    }
+
+    /**
+     * One-time initialization from a user's existing entries.
+     */
+    private MoodInsightState bootstrap(User user) {
+        logger.info("Bootstrapping mood insights for user: {}", user.getUsername());
+        MoodInsightState state = new MoodInsightState();
+        state.setUserId(user.getId());
+
+        List<LocalDate> dates = journalEntryRepository.findEntryDatesByUserDesc(user);
+        int run = 0;
+        int longest = 0;
+        Integer current = null;
+        LocalDate previous = null;
+        for (LocalDate date : dates) {
+            if (previous != null && date.equals(previous)) {
+                continue;
+            }
+            if (previous == null || date.equals(previous.minusDays(1))) {
+                run++;
+            } else {
+                if (current == null) {
+                    current = run;
+                }
+                longest = Math.max(longest, run);
+                run = 1;
+            }
+            previous = date;
+        }
+        state.setStreak(current != null ? current : run);
+        state.setLongestStreak(Math.max(longest, run));
+        state.setLastEntryDay(dates.isEmpty() ? null : dates.get(0).toEpochDay());
+
+        LocalDate today = LocalDate.now();
+        // Oldest first, dates and scores only
+        List<MoodDataResponse> recent = journalEntryRepository.findMoodDataByUserAndEntryDateBetween(
+                user, today.minusDays(MoodWindow.DAYS - 1), today);
+        for (MoodDataResponse point : recent) {
+            applyMood(state, point.getDate().toEpochDay(), point.getMoodScore());
+        }
+        return state;
+    }
+}
@@ -0,0 +1,324 @@
+package com.mymindmirror.backend.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One user's journal history as primitive columns, one row per entry in date order: epoch days, mood scores,
+ * a float column per emotion and a bitset per concern. Immutable; writes produce a new series.
+ * Range queries binary-search the day column and then scan only the rows in range, without boxing or JSON.
+ * Missing values (unanalyzed entries, emotions an entry doesn't have) are NaN.
+ */
+final class MoodSeries {
+
+    private static final long ROW_OVERHEAD_BYTES = 16; // Array headers and references, per column, amortized
+    private static final long LABEL_BYTES = 64; // A short label String
+
+    private final int[] days;
+    private final double[] mood;
+    private final String[] emotionLabels;
+    private final float[][] emotions; // [emotion][row]
+    private final String[] concernLabels;
+    private final long[][] concerns; // [concern][row / 64], bit (row % 64)
+
+    private MoodSeries(int[] days, double[] mood, String[] emotionLabels, float[][] emotions,
+                       String[] concernLabels, long[][] concerns) {
+        this.days = days;
+        this.mood = mood;
+        this.emotionLabels = emotionLabels;
+        this.emotions = emotions;
+        this.concernLabels = concernLabels;
+        this.concerns = concerns;
+    }
+
+    /**
+     * One entry's values, as read from the database.
+     * @param day Epoch day of the entry.
+     * @param mood Mood score, or null if not analyzed.
+     * @param emotions Emotion label to score (empty if none).
+     * @param concerns Concern labels (empty if none).
+     */
+    record Day(int day, Double mood, Map<String, Double> emotions, List<String> concerns) {
+    }
+
+    /**
+     * Builds a series from entries in any order; of two entries on the same day, the later one in the list wins.
+     */
+    static MoodSeries of(List<Day> entries) {
+        TreeMap<Integer, Day> byDay = new TreeMap<>();
+        for (Day entry : entries) {
+            byDay.put(entry.day(), entry);
+        }
+        int rows = byDay.size();
+        int[] days = new int[rows];
+        double[] mood = new double[rows];
+        Map<String, float[]> emotionColumns = new TreeMap<>();
+        Map<String, long[]> concernColumns = new TreeMap<>();
+
+        int row = 0;
+        for (Day entry : byDay.values()) {
+            days[row] = entry.day();
+            mood[row] = entry.mood() != null ? entry.mood() : Double.NaN;
+            for (Map.Entry<String, Double> emotion : entry.emotions().entrySet()) {
+                if (emotion.getValue() != null) {
+                    emotionColumns.computeIfAbsent(emotion.getKey(), label -> nanColumn(rows))[row] = emotion.getValue().floatValue();
+                }
+            }
+            for (String concern : entry.concerns()) {
+                long[] bits = concernColumns.computeIfAbsent(concern, label -> new long[(rows + 63) >>> 6]);
+                bits[row >>> 6] |= 1L << row;
+            }
+            row++;
+        }
+        return new MoodSeries(days, mood,
+                emotionColumns.keySet().toArray(String[]::new), emotionColumns.values().toArray(float[][]::new),
+                concernColumns.keySet().toArray(String[]::new), concernColumns.values().toArray(long[][]::new));
+    }
+
+    /**
+     * @return A copy of this series with the day's entry added or replaced.
+     */
+    MoodSeries withDay(Day entry) {
+        List<Day> entries = toDays();
+        entries.add(entry); // Replaces an existing entry for the same day
+        return of(entries);
+    }
+
+    /**
+     * @return A copy of this series without the given day's entry.
+     */
+    MoodSeries withoutDay(int day) {
+        List<Day> entries = toDays();
+        entries.removeIf(entry -> entry.day() == day);
+        return of(entries);
+    }
+
+    int size() {
+        return days.length;
+    }
+
+    /**
+     * Rough heap footprint, for the store's memory budget.
+     */
+    long estimatedBytes() {
+        long rows = days.length;
+        long bytes = rows * (Integer.BYTES + Double.BYTES) + 2 * ROW_OVERHEAD_BYTES;
+        bytes += emotions.length * (rows * Float.BYTES + ROW_OVERHEAD_BYTES + LABEL_BYTES);
+        bytes += concerns.length * (((rows + 63) >>> 6) * Long.BYTES + ROW_OVERHEAD_BYTES + LABEL_BYTES);
+        return bytes;
+    }
+
+    /**
+     * Mood statistics over the scored entries in [fromDay, toDay].
+     */
+    MoodStats moodStats(int fromDay, int toDay) {
+        int from = lowerBound(fromDay);
+        int to = lowerBound(toDay + 1);
+        MoodStats stats = new MoodStats();
+        stats.entries = to - from;
+        double mean = 0;
+        double m2 = 0; // Welford
+        for (int row = from; row < to; row++) {
+            double value = mood[row];
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            stats.scored++;
+            double delta = value - mean;
+            mean += delta / stats.scored;
+            m2 += delta * (value - mean);
+            stats.min = Math.min(stats.min, value);
+            stats.max = Math.max(stats.max, value);
+        }
+        if (stats.scored > 0) {
+            stats.mean = mean;
+            stats.stdDev = Math.sqrt(m2 / stats.scored);
+        } else {
+            stats.min = Double.NaN;
+            stats.max = Double.NaN;
+        }
+        return stats;
+    }
+
+    /**
+     * Mood percentiles over the scored entries in [fromDay, toDay], interpolated between the closest ranks.
+     * @param percentiles Values between 0 and 1.
+     * @return One value per requested percentile, or null if no entry in range is scored.
+     */
+    double[] moodPercentiles(int fromDay, int toDay, double... percentiles) {
+        int from = lowerBound(fromDay);
+        int to = lowerBound(toDay + 1);
+        double[] values = new double[to - from];
+        int count = 0;
+        for (int row = from; row < to; row++) {
+            if (!Double.isNaN(mood[row])) {
+                values[count++] = mood[row];
+            }
+        }
+        if (count == 0) {
+            return null;
+        }
+        Arrays.sort(values, 0, count);
+        double[] result = new double[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            double rank = percentiles[i] * (count - 1);
+            int lower = (int) Math.floor(rank);
+            int upper = Math.min(lower + 1, count - 1);
+            result[i] = values[lower] + (rank - lower) * (values[upper] - values[lower]);
+        }
+        return result;
+    }
+
+    /**
+     * Average score per emotion in [fromDay, toDay], over the entries that have that emotion; highest first.
+     */
+    Map<String, Double> emotionAverages(int fromDay, int toDay) {
+        int from = lowerBound(fromDay);
+        int to = lowerBound(toDay + 1);
+        List<Map.Entry<String, Double>> averages = new ArrayList<>();
+        for (int e = 0; e < emotions.length; e++) {
+            float[] column = emotions[e];
+            double sum = 0;
+            int count = 0;
+            for (int row = from; row < to; row++) {
+                if (!Float.isNaN(column[row])) {
+                    sum += column[row];
+                    count++;
+                }
+            }
+            if (count > 0) {
+                averages.add(Map.entry(emotionLabels[e], sum / count));
+            }
+        }
+        averages.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        Map<String, Double> result = new LinkedHashMap<>();
+        averages.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    /**
+     * How each concern relates to mood over the scored entries in [fromDay, toDay]: mean mood on days with and
+     * without it, and the point-biserial correlation between mood and its presence. Most frequent concern first.
+     */
+    List<ConcernStats> concernStats(int fromDay, int toDay) {
+        int from = lowerBound(fromDay);
+        int to = lowerBound(toDay + 1);
+        MoodStats overall = moodStats(fromDay, toDay);
+        List<ConcernStats> result = new ArrayList<>();
+        for (int c = 0; c < concerns.length; c++) {
+            long[] bits = concerns[c];
+            int days = 0;
+            int scoredWith = 0;
+            double sumWith = 0;
+            double sumWithout = 0;
+            for (int row = from; row < to; row++) {
+                boolean present = (bits[row >>> 6] & (1L << row)) != 0;
+                if (present) {
+                    days++;
+                }
+                if (Double.isNaN(mood[row])) {
+                    continue;
+                }
+                if (present) {
+                    scoredWith++;
+                    sumWith += mood[row];
+                } else {
+                    sumWithout += mood[row];
+                }
+            }
+            if (days == 0) {
+                continue;
+            }
+            ConcernStats stats = new ConcernStats(concernLabels[c], days);
+            int scoredWithout = overall.scored - scoredWith;
+            if (scoredWith > 0) {
+                stats.moodWith = sumWith / scoredWith;
+            }
+            if (scoredWithout > 0) {
+                stats.moodWithout = sumWithout / scoredWithout;
+            }
+            if (scoredWith > 0 && scoredWithout > 0 && overall.stdDev > 0) {
+                double p = (double) scoredWith / overall.scored;
+                stats.correlation = (stats.moodWith - stats.moodWithout) / overall.stdDev * Math.sqrt(p * (1 - p));
+            }
+            result.add(stats);
+        }
+        result.sort((a, b) -> Integer.compare(b.days, a.days));
+        return result;
+    }
+
+    /**
+     * The first row whose day is at least the given day (binary search over the sorted day column).
+     */
+    private int lowerBound(int day) {
+        int low = 0;
+        int high = days.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (days[middle] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private List<Day> toDays() {
+        List<Day> entries = new ArrayList<>(days.length + 1);
+        for (int row = 0; row < days.length; row++) {
+            Map<String, Double> rowEmotions = new LinkedHashMap<>();
+            for (int e = 0; e < emotions.length; e++) {
+                if (!Float.isNaN(emotions[e][row])) {
+                    rowEmotions.put(emotionLabels[e], (double) emotions[e][row]);
+                }
+            }
+            List<String> rowConcerns = new ArrayList<>();
+            for (int c = 0; c < concerns.length; c++) {
+                if ((concerns[c][row >>> 6] & (1L << row)) != 0) {
+                    rowConcerns.add(concernLabels[c]);
+                }
+            }
+            entries.add(new Day(days[row], Double.isNaN(mood[row]) ? null : mood[row], rowEmotions, rowConcerns));
+        }
+        return entries;
+    }
+
+    private static float[] nanColumn(int rows) {
+        float[] column = new float[rows];
+        Arrays.fill(column, Float.NaN);
+        return column;
+    }
+
+    /**
+     * Mood aggregates over a range; mean, min, max and standard deviation are NaN when nothing is scored.
+     */
+    static final class MoodStats {
+        int entries;
+        int scored;
+        double mean = Double.NaN;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double stdDev = Double.NaN;
+    }
+
+    /**
+     * A concern's frequency and relation to mood over a range.
+     */
+    static final class ConcernStats {
+        final String concern;
+        final int days;
+        Double moodWith;
+        Double moodWithout;
+        Double correlation;
+
+        ConcernStats(String concern, int days) {
+            this.concern = concern;
+            this.days = days;
+        }
+    }
+}
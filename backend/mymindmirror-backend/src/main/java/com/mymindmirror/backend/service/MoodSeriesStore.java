@@ -0,0 +1,220 @@
+package com.mymindmirror.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mymindmirror.backend.payload.AnalyticsEntryData;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-process analytics store: each active user's history as a columnar MoodSeries, loaded from the database on
+ * first use and then kept current by JournalService on every write, so analytics reads neither query nor parse JSON.
+ * Least recently used users are evicted to stay within app.analytics.memory-budget-mb.
+ * <p>
+ * The store is per node and only sees this node's writes; series are reloaded after app.analytics.ttl-seconds
+ * so writes handled by other nodes show up within that time.
+ */
+@Component
+public class MoodSeriesStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoodSeriesStore.class);
+
+    private static final TypeReference<Map<String, Object>> EMOTIONS_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<Object>> CONCERNS_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final long budgetBytes;
+    private final long ttlNanos;
+
+    // Guarded by this: access-ordered, so iteration starts at the least recently used user
+    private final LinkedHashMap<UUID, Cached> series = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<UUID, Load> loads = new HashMap<>(); // Loads in progress, to catch writes that race them
+    private long usedBytes;
+
+    public MoodSeriesStore(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${app.analytics.memory-budget-mb:64}") long budgetMegabytes,
+                           @Value("${app.analytics.ttl-seconds:300}") long ttlSeconds) {
+        this.objectMapper = objectMapper;
+        this.budgetBytes = budgetMegabytes * 1024 * 1024;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        Gauge.builder("app.analytics.store.bytes", this, MoodSeriesStore::usedBytes).register(meterRegistry);
+        Gauge.builder("app.analytics.store.users", this, MoodSeriesStore::users).register(meterRegistry);
+    }
+
+    /**
+     * Returns the user's series, loading it if it isn't held (or is past its TTL).
+     * @param userId The user.
+     * @param loader Reads the user's whole history (run outside the store's lock, on the caller's thread).
+     * @return The series.
+     */
+    MoodSeries get(UUID userId, Supplier<List<AnalyticsEntryData>> loader) {
+        Load load;
+        synchronized (this) {
+            Cached cached = series.get(userId);
+            if (cached != null && System.nanoTime() - cached.loadedAt < ttlNanos) {
+                return cached.series;
+            }
+            if (cached != null) {
+                remove(userId);
+            }
+            load = loads.computeIfAbsent(userId, id -> new Load());
+            load.loaders++;
+        }
+
+        MoodSeries loaded = null;
+        long started = System.nanoTime();
+        try {
+            loaded = MoodSeries.of(loader.get().stream()
+                    .map(row -> toDay(row.getEntryDate(), row.getMoodScore(), row.getEmotionsJson(), row.getCoreConcernsJson()))
+                    .toList());
+            logger.debug("Loaded {} entries of user {} into the analytics store.", loaded.size(), userId);
+            return loaded;
+        } finally {
+            synchronized (this) {
+                if (--load.loaders == 0) {
+                    loads.remove(userId);
+                }
+                // A write during the load may be missing from it; serve this result once, but don't keep it
+                if (loaded != null && !load.dirty) {
+                    put(userId, new Cached(loaded, started));
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a saved entry (new, edited or newly analyzed) in the user's series, if it is held.
+     */
+    public void onEntrySaved(UUID userId, LocalDate entryDate, Double moodScore, String emotionsJson, String coreConcernsJson) {
+        MoodSeries.Day day = toDay(entryDate, moodScore, emotionsJson, coreConcernsJson); // Parsed outside the lock
+        update(userId, current -> current.withDay(day));
+    }
+
+    /**
+     * Removes a deleted entry from the user's series, if it is held.
+     */
+    public void onEntryDeleted(UUID userId, LocalDate entryDate) {
+        int day = (int) entryDate.toEpochDay();
+        update(userId, current -> current.withoutDay(day));
+    }
+
+    /**
+     * Forgets a user's series.
+     */
+    public synchronized void evict(UUID userId) {
+        remove(userId);
+        Load load = loads.get(userId);
+        if (load != null) {
+            load.dirty = true;
+        }
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int users() {
+        return series.size();
+    }
+
+    private synchronized void update(UUID userId, UnaryOperator<MoodSeries> change) {
+        Load load = loads.get(userId);
+        if (load != null) {
+            load.dirty = true;
+        }
+        Cached cached = series.get(userId);
+        if (cached != null) {
+            remove(userId);
+            put(userId, new Cached(change.apply(cached.series), cached.loadedAt));
+        }
+    }
+
+    /**
+     * Adds a series and evicts least recently used ones until the budget holds. Caller holds the lock.
+     */
+    private void put(UUID userId, Cached cached) {
+        remove(userId);
+        if (cached.bytes > budgetBytes) {
+            logger.warn("History of user {} ({} bytes) exceeds the analytics memory budget; not kept.", userId, cached.bytes);
+            return;
+        }
+        series.put(userId, cached);
+        usedBytes += cached.bytes;
+        Iterator<Map.Entry<UUID, Cached>> eldest = series.entrySet().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext()) {
+            Map.Entry<UUID, Cached> entry = eldest.next();
+            if (!entry.getKey().equals(userId)) {
+                usedBytes -= entry.getValue().bytes;
+                eldest.remove();
+            }
+        }
+    }
+
+    private void remove(UUID userId) {
+        Cached removed = series.remove(userId);
+        if (removed != null) {
+            usedBytes -= removed.bytes;
+        }
+    }
+
+    private MoodSeries.Day toDay(LocalDate entryDate, Double moodScore, String emotionsJson, String coreConcernsJson) {
+        Map<String, Double> emotions = new LinkedHashMap<>();
+        parse(emotionsJson, EMOTIONS_TYPE, Map.<String, Object>of()).forEach((label, score) -> {
+            if (score instanceof Number number) { // Untyped JSON: whole-number scores arrive as Integer
+                emotions.put(label, number.doubleValue());
+            }
+        });
+        List<String> concerns = parse(coreConcernsJson, CONCERNS_TYPE, List.of()).stream()
+                .filter(concern -> concern instanceof String)
+                .map(concern -> ((String) concern).trim())
+                .filter(concern -> !concern.isEmpty())
+                .distinct()
+                .toList();
+        return new MoodSeries.Day((int) entryDate.toEpochDay(), moodScore, emotions, concerns);
+    }
+
+    private <T> T parse(String json, TypeReference<T> type, T fallback) {
+        if (json == null) {
+            return fallback;
+        }
+        try {
+            T value = objectMapper.readValue(json, type);
+            return value != null ? value : fallback;
+        } catch (JsonProcessingException e) {
+            logger.warn("Skipping unreadable analysis JSON in the analytics store: {}", e.getMessage());
+            return fallback;
+        }
+    }
+
+    private static final class Cached {
+        final MoodSeries series;
+        final long loadedAt; // Edits don't reset the TTL: it bounds staleness from other nodes' writes
+        final long bytes;
+
+        Cached(MoodSeries series, long loadedAt) {
+            this.series = series;
+            this.loadedAt = loadedAt;
+            this.bytes = series.estimatedBytes();
+        }
+    }
+
+    private static final class Load {
+        int loaders;
+        boolean dirty;
+    }
+}
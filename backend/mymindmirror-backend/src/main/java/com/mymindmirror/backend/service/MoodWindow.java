@@ -0,0 +1,195 @@
+package com.mymindmirror.backend.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Fixed-size rolling window of daily mood scores (a ring buffer indexed by epoch day),
+ * with 7- and 30-day sums maintained incrementally as days are added or slide out.
+ * Serializes to 120 bytes for storage in MoodInsightState.
+ */
+public final class MoodWindow {
+
+    public static final int DAYS = 30; // Baseline window
+    public static final int SHORT_DAYS = 7; // Trend window
+
+    private final float[] values = new float[DAYS]; // NaN marks a day without a mood score
+    private Long endDay; // Epoch day of the newest slot; null until the first value arrives
+
+    private double sum7;
+    private int count7;
+    private double sum30;
+    private double sumSquares30;
+    private int count30;
+
+    public MoodWindow() {
+        Arrays.fill(values, Float.NaN);
+    }
+
+    /**
+     * Restores a window from its stored form.
+     */
+    public static MoodWindow decode(byte[] bytes, Long endDay) {
+        MoodWindow window = new MoodWindow();
+        if (bytes == null || endDay == null) {
+            return window;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        for (int i = 0; i < DAYS && buffer.remaining() >= Float.BYTES; i++) {
+            window.values[i] = buffer.getFloat();
+        }
+        window.endDay = endDay;
+        // Sums are derived rather than stored, which keeps the persisted state compact
+        for (long day = endDay - DAYS + 1; day <= endDay; day++) {
+            window.addToSums(day, window.values[slot(day)], 1);
+        }
+        return window;
+    }
+
+    public byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(DAYS * Float.BYTES);
+        for (float value : values) {
+            buffer.putFloat(value);
+        }
+        return buffer.array();
+    }
+
+    public Long getEndDay() {
+        return endDay;
+    }
+
+    /**
+     * Slides the window forward so that its newest slot is the given day.
+     * Costs at most DAYS steps regardless of how long the gap is.
+     */
+    public void advanceTo(long day) {
+        if (endDay == null) {
+            endDay = day;
+            return;
+        }
+        if (day <= endDay) {
+            return;
+        }
+        if (day - endDay >= DAYS) {
+            Arrays.fill(values, Float.NaN);
+            sum7 = sum30 = sumSquares30 = 0;
+            count7 = count30 = 0;
+            endDay = day;
+            return;
+        }
+        for (long next = endDay + 1; next <= day; next++) {
+            // Day next-7 leaves the short window; day next-30 leaves the window entirely (its slot is reused)
+            float leavingShort = values[slot(next - SHORT_DAYS)];
+            if (!Float.isNaN(leavingShort)) {
+                sum7 -= leavingShort;
+                count7--;
+            }
+            int reused = slot(next);
+            float leavingLong = values[reused];
+            if (!Float.isNaN(leavingLong)) {
+                sum30 -= leavingLong;
+                sumSquares30 -= (double) leavingLong * leavingLong;
+                count30--;
+            }
+            values[reused] = Float.NaN;
+        }
+        endDay = day;
+    }
+
+    /**
+     * Sets (or clears, when moodScore is null) the score for a day inside the window.
+     * Days older than the window are ignored; newer days advance the window first.
+     */
+    public void set(long day, Double moodScore) {
+        advanceTo(day);
+        if (day <= endDay - DAYS) {
+            return;
+        }
+        int slot = slot(day);
+        addToSums(day, values[slot], -1);
+        values[slot] = moodScore == null ? Float.NaN : moodScore.floatValue();
+        addToSums(day, values[slot], 1);
+    }
+
+    public Double get(long day) {
+        if (endDay == null || day > endDay || day <= endDay - DAYS) {
+            return null;
+        }
+        float value = values[slot(day)];
+        return Float.isNaN(value) ? null : (double) value;
+    }
+
+    /**
+     * Most recent day in the window that has a score, or null if the window is empty.
+     */
+    public Long latestScoredDay() {
+        if (endDay == null || count30 == 0) {
+            return null;
+        }
+        for (long day = endDay; day > endDay - DAYS; day--) {
+            if (!Float.isNaN(values[slot(day)])) {
+                return day;
+            }
+        }
+        return null;
+    }
+
+    public Double shortAverage() {
+        return count7 == 0 ? null : sum7 / count7;
+    }
+
+    public Double longAverage() {
+        return count30 == 0 ? null : sum30 / count30;
+    }
+
+    public int shortCount() {
+        return count7;
+    }
+
+    public int longCount() {
+        return count30;
+    }
+
+    /**
+     * Z-score of a day's mood against the rest of the 30-day window (the day itself is left out of the baseline).
+     * @param minBaselineDays Minimum number of other scored days required for a meaningful baseline.
+     * @return The z-score, or null when the baseline is too small or has no variance.
+     */
+    public Double zScore(long day, int minBaselineDays) {
+        Double value = get(day);
+        if (value == null || count30 - 1 < minBaselineDays) {
+            return null;
+        }
+        int n = count30 - 1;
+        double mean = (sum30 - value) / n;
+        double variance = (sumSquares30 - value * value) / n - mean * mean;
+        if (variance <= 1e-9) {
+            return null;
+        }
+        return (value - mean) / Math.sqrt(variance);
+    }
+
+    private void addToSums(long day, float value, int sign) {
+        if (Float.isNaN(value)) {
+            return;
+        }
+        sum30 += sign * value;
+        sumSquares30 += sign * (double) value * value;
+        count30 += sign;
+        if (day > endDay - SHORT_DAYS) {
+            sum7 += sign * value;
+            count7 += sign;
+        }
+        if (count30 == 0) {
+            // Avoid carrying floating-point residue once the window is empty
+            sum30 = sumSquares30 = 0;
+        }
+        if (count7 == 0) {
+            sum7 = 0;
+        }
+    }
+
+    private static int slot(long day) {
+        return (int) Math.floorMod(day, (long) DAYS);
+    }
+}
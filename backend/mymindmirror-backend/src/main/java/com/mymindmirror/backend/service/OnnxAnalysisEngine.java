@@ -0,0 +1,48 @@
+package com.mymindmirror.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Runs the emotion model and the mood score in this JVM and asks the ML service only for the LLM fields
+ * (core concerns, summary, growth tips), passing it the emotions so it skips its own model.
+ * If the local classifier is overloaded or fails, the ML service does the whole analysis as before.
+ */
+@Component
+@ConditionalOnProperty(name = "app.analysis.engine", havingValue = "onnx")
+public class OnnxAnalysisEngine implements AnalysisEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(OnnxAnalysisEngine.class);
+
+    private final EmotionClassifier emotionClassifier;
+    private final MlServiceClient mlServiceClient;
+
+    public OnnxAnalysisEngine(EmotionClassifier emotionClassifier, MlServiceClient mlServiceClient) {
+        this.emotionClassifier = emotionClassifier;
+        this.mlServiceClient = mlServiceClient;
+    }
+
+    @Override
+    public Map<String, Object> analyze(String text) {
+        Optional<Map<String, Double>> emotions = emotionClassifier.classify(text);
+        if (emotions.isEmpty()) {
+            logger.warn("Local emotion classification unavailable; falling back to the ML service's model.");
+            return mlServiceClient.analyzeJournal(text);
+        }
+
+        Map<String, Object> response = mlServiceClient.analyzeJournal(text, emotions.get());
+        if (response == null) {
+            return null; // Same as a failed ML call today: the LLM fields are part of the analysis
+        }
+        Map<String, Object> analysis = new HashMap<>(response);
+        analysis.put("emotions", emotions.get());
+        analysis.put("moodScore", EmotionMoodScorer.moodScore(emotions.get()));
+        return analysis;
+    }
+}
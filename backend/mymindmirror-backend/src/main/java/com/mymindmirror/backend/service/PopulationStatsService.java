@@ -0,0 +1,263 @@
+package com.mymindmirror.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mymindmirror.backend.config.ShardContext;
+import com.mymindmirror.backend.model.PopulationDailyStats;
+import com.mymindmirror.backend.payload.PopulationStatsResponse;
+import com.mymindmirror.backend.repository.PopulationDailyStatsRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Platform-wide, anonymous journaling statistics (distinct journalers, mood percentiles, most common concerns)
+ * kept as mergeable sketches instead of scanning journal_entries.
+ * <p>
+ * JournalService reports every saved or analyzed entry; each node collects them into per-day sketches in memory
+ * and every app.population.flush-interval-ms merges them into that day's row of population_daily_stats (directory
+ * database, optimistic locking). A date range is answered by merging its days' rows, whatever the number of entries.
+ * Counts are estimates; edited entries are counted again for mood and concerns.
+ * The sketches are insert-only: HyperLogLog, t-digest and Count-Min can merge but not subtract, so a deleted
+ * entry (or account) stays counted in its day. That is accepted for anonymous, approximate platform statistics.
+ */
+@Service
+public class PopulationStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopulationStatsService.class);
+
+    private static final double[] PERCENTILES = {0.05, 0.25, 0.50, 0.75, 0.95};
+    private static final int MAX_CONCERN_LENGTH = 100;
+    private static final int FLUSH_ATTEMPTS = 3;
+
+    private final PopulationDailyStatsRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int topConcerns;
+    private final long minConcernCount;
+    private final int maxRangeDays;
+
+    // Updates not yet merged into the table; usually just today's
+    private final Map<LocalDate, DaySketches> pending = new ConcurrentHashMap<>();
+
+    public PopulationStatsService(PopulationDailyStatsRepository repository, TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.population.enabled:true}") boolean enabled,
+                                  @Value("${app.population.top-concerns:10}") int topConcerns,
+                                  @Value("${app.population.min-concern-count:5}") long minConcernCount,
+                                  @Value("${app.population.max-range-days:366}") int maxRangeDays) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.topConcerns = topConcerns;
+        this.minConcernCount = minConcernCount;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    /**
+     * Counts a saved entry: its author as a journaler of the day, and its mood score and concerns if analyzed.
+     * @param userId The author (hashed into the day's distinct count, never stored).
+     * @param entryDate The entry's date.
+     * @param moodScore The mood score, or null if not analyzed (yet).
+     * @param coreConcernsJson The concerns as a JSON array, or null.
+     */
+    public void record(UUID userId, LocalDate entryDate, Double moodScore, String coreConcernsJson) {
+        if (!enabled) {
+            return;
+        }
+        List<String> concerns = parseConcerns(coreConcernsJson);
+        while (true) {
+            DaySketches sketches = pending.computeIfAbsent(entryDate, day -> new DaySketches());
+            synchronized (sketches) {
+                if (sketches.flushing) {
+                    continue; // Taken by flush() just now; its replacement is picked up on the next try
+                }
+                sketches.journalers.add(userId);
+                if (moodScore != null) {
+                    sketches.mood.add(moodScore);
+                }
+                concerns.forEach(sketches.concerns::add);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Merges this node's pending sketches into the stored daily rows. A day that can't be written stays pending.
+     */
+    @Scheduled(fixedDelayString = "${app.population.flush-interval-ms:60000}")
+    public void flush() {
+        for (LocalDate day : List.copyOf(pending.keySet())) {
+            DaySketches delta = pending.remove(day);
+            if (delta == null) {
+                continue;
+            }
+            synchronized (delta) {
+                delta.flushing = true; // No more updates; later ones go to a new pending entry
+            }
+            if (!store(day, delta)) {
+                requeue(day, delta);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Merges the stored sketches of [startDate, endDate] into population statistics.
+     * Updates still pending on a node (at most app.population.flush-interval-ms old) are not included.
+     * @throws IllegalArgumentException if the range is reversed or longer than app.population.max-range-days.
+     */
+    public PopulationStatsResponse getStats(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("startDate must not be after endDate.");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= maxRangeDays) {
+            throw new IllegalArgumentException("The range may span at most " + maxRangeDays + " days.");
+        }
+        List<PopulationDailyStats> rows = ShardContext.callOn(null, () -> repository.findByDayBetween(startDate, endDate));
+
+        PopulationStatsResponse response = new PopulationStatsResponse();
+        response.setStartDate(startDate);
+        response.setEndDate(endDate);
+        DaySketches range = new DaySketches();
+        rows.stream().sorted(Comparator.comparing(PopulationDailyStats::getDay)).forEach(row -> {
+            try {
+                DaySketches day = DaySketches.from(row);
+                response.getDailyJournalers().put(row.getDay(), day.journalers.estimate());
+                range.merge(day);
+            } catch (IllegalArgumentException e) {
+                logger.error("Skipping unreadable population sketches for {}: {}", row.getDay(), e.getMessage());
+            }
+        });
+
+        response.setJournalers(range.journalers.estimate());
+        response.setScoredEntries(range.mood.count());
+        if (response.getScoredEntries() > 0) {
+            for (double percentile : PERCENTILES) {
+                response.getMoodPercentiles().put("p" + Math.round(percentile * 100), range.mood.quantile(percentile));
+            }
+        }
+        range.concerns.top(topConcerns, minConcernCount).forEach(concern ->
+                response.getTopConcerns().add(new PopulationStatsResponse.ConcernCount(concern.getKey(), concern.getValue())));
+        return response;
+    }
+
+    /**
+     * Merges a day's delta into its row, retrying when another node wrote the row in between.
+     * @return False if the row couldn't be written.
+     */
+    private boolean store(LocalDate day, DaySketches delta) {
+        for (int attempt = 1; attempt <= FLUSH_ATTEMPTS; attempt++) {
+            try {
+                ShardContext.runOn(null, () -> transactionTemplate.executeWithoutResult(status -> {
+                    PopulationDailyStats row = repository.findById(day).orElseGet(() -> {
+                        PopulationDailyStats created = new PopulationDailyStats();
+                        created.setDay(day);
+                        return created;
+                    });
+                    DaySketches merged = row.getJournalers() != null ? DaySketches.from(row) : new DaySketches();
+                    merged.merge(delta);
+                    row.setJournalers(merged.journalers.toBytes());
+                    row.setMoodDigest(merged.mood.toBytes());
+                    row.setConcerns(merged.concerns.toBytes());
+                    row.setUpdatedAt(Instant.now());
+                    repository.save(row); // Version check: fails if another node merged in the meantime
+                }));
+                return true;
+            } catch (DataIntegrityViolationException | ObjectOptimisticLockingFailureException e) {
+                logger.debug("Population sketches for {} changed concurrently (attempt {}).", day, attempt);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to store population sketches for {}: {}", day, e.getMessage());
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private void requeue(LocalDate day, DaySketches delta) {
+        while (true) {
+            DaySketches sketches = pending.computeIfAbsent(day, key -> new DaySketches());
+            synchronized (sketches) {
+                if (!sketches.flushing) {
+                    sketches.merge(delta);
+                    return;
+                }
+            }
+        }
+    }
+
+    private List<String> parseConcerns(String json) {
+        if (json == null) {
+            return List.of();
+        }
+        try {
+            List<?> concerns = objectMapper.readValue(json, List.class);
+            if (concerns == null) {
+                return List.of();
+            }
+            return concerns.stream()
+                    .filter(concern -> concern instanceof String)
+                    .map(concern -> ((String) concern).trim().toLowerCase(Locale.ROOT)) // One count across users' phrasing
+                    .filter(concern -> !concern.isEmpty())
+                    .map(concern -> concern.length() > MAX_CONCERN_LENGTH ? concern.substring(0, MAX_CONCERN_LENGTH) : concern)
+                    .distinct()
+                    .toList();
+        } catch (JsonProcessingException e) {
+            logger.warn("Skipping unreadable concerns JSON in population statistics: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * One day's three sketches. Guarded by its own monitor while pending.
+     */
+    private static final class DaySketches {
+        final HyperLogLog journalers;
+        final TDigest mood;
+        final CountMinTopK concerns;
+        boolean flushing;
+
+        DaySketches() {
+            this(new HyperLogLog(), new TDigest(), new CountMinTopK());
+        }
+
+        DaySketches(HyperLogLog journalers, TDigest mood, CountMinTopK concerns) {
+            this.journalers = journalers;
+            this.mood = mood;
+            this.concerns = concerns;
+        }
+
+        static DaySketches from(PopulationDailyStats row) {
+            return new DaySketches(HyperLogLog.fromBytes(row.getJournalers()), TDigest.fromBytes(row.getMoodDigest()),
+                    CountMinTopK.fromBytes(row.getConcerns()));
+        }
+
+        void merge(DaySketches other) {
+            journalers.merge(other.journalers);
+            mood.merge(other.mood);
+            concerns.merge(other.concerns);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.config.UserSharded;
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.payload.JournalEntryResponse;
+import com.mymindmirror.backend.repository.JournalEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Generates the "Today's Reflection" text on the backend instead of the browser.
+ * Results are cached per user per day and dropped when that day's entry changes.
+ * Concurrent requests for the same user share a single upstream LLM call (single-flight).
+ */
+@Service
+public class ReflectionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReflectionService.class);
+
+    public static final String NO_ENTRY_MESSAGE = "Journal an entry today to get your daily reflection!";
+    private static final int CONTEXT_DAYS = 3; // Previous days summarized in the prompt for context
+
+    private final JournalEntryRepository journalEntryRepository;
+    private final MlServiceClient mlServiceClient;
+    private final long waitTimeoutSeconds; // How long a coalesced request waits for the shared call
+
+    private final Map<UUID, CachedReflection> cache = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<Optional<String>>> inFlight = new ConcurrentHashMap<>();
+    // Bumped on invalidation so a generation that started before an edit doesn't cache stale text
+    private final Map<UUID, Long> versions = new ConcurrentHashMap<>();
+
+    public ReflectionService(JournalEntryRepository journalEntryRepository, MlServiceClient mlServiceClient,
+                             @Value("${app.reflection.wait-timeout-seconds:60}") long waitTimeoutSeconds) {
+        this.journalEntryRepository = journalEntryRepository;
+        this.mlServiceClient = mlServiceClient;
+        this.waitTimeoutSeconds = waitTimeoutSeconds;
+    }
+
+    /**
+     * Returns today's reflection for the user, generating it at most once per day (per entry version).
+     * @param user The authenticated user.
+     * @return The reflection text, or empty if the ML service could not produce one.
+     */
+    @UserSharded
+    public Optional<String> getTodaysReflection(User user) {
+        UUID userId = user.getId();
+        LocalDate today = LocalDate.now();
+
+        CachedReflection cached = cache.get(userId);
+        if (cached != null && cached.date.equals(today)) {
+            logger.debug("Serving cached reflection for user {}.", user.getUsername());
+            return Optional.of(cached.text);
+        }
+
+        CompletableFuture<Optional<String>> flight = new CompletableFuture<>();
+        CompletableFuture<Optional<String>> existing = inFlight.putIfAbsent(userId, flight);
+        if (existing != null) {
+            logger.debug("Joining in-flight reflection generation for user {}.", user.getUsername());
+            return await(existing);
+        }
+
+        try {
+            long version = versions.getOrDefault(userId, 0L);
+            Optional<String> reflection = generate(user, today);
+            if (reflection.isPresent() && versions.getOrDefault(userId, 0L) == version) {
+                cache.put(userId, new CachedReflection(today, reflection.get()));
+            }
+            flight.complete(reflection);
+            return reflection;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(userId, flight);
+        }
+    }
+
+    /**
+     * Drops the cached reflection when the entry it was based on changes.
+     * @param user The entry's owner.
+     * @param entryDate The date of the changed entry; only today's entry affects the reflection.
+     */
+    public void onEntryChanged(User user, LocalDate entryDate) {
+        if (!LocalDate.now().equals(entryDate)) {
+            return;
+        }
+        UUID userId = user.getId();
+        versions.merge(userId, 1L, Long::sum);
+        cache.remove(userId);
+        inFlight.remove(userId); // New requests must not join a generation based on the old text
+    }
+
+    /**
+     * Forgets everything cached for a user.
+     */
+    public void evict(UUID userId) {
+        cache.remove(userId);
+        versions.remove(userId);
+    }
+
+    /**
+     * Yesterday's reflections are never served again; clear them shortly after midnight.
+     */
+    @Scheduled(cron = "${app.reflection.cleanup-cron:0 5 0 * * *}")
+    public void evictStaleReflections() {
+        LocalDate today = LocalDate.now();
+        cache.entrySet().removeIf(entry -> !entry.getValue().date.equals(today));
+        versions.keySet().removeIf(userId -> !cache.containsKey(userId) && !inFlight.containsKey(userId));
+    }
+
+    private Optional<String> await(CompletableFuture<Optional<String>> flight) {
+        try {
+            return flight.get(waitTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Shared reflection generation did not complete: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<String> generate(User user, LocalDate today) {
+        List<JournalEntryResponse> recent = journalEntryRepository
+                .findResponsesByUserAndEntryDateBetween(user, today.minusDays(CONTEXT_DAYS), today) // One query, bodies included
+                .stream()
+                .sorted(Comparator.comparing(JournalEntryResponse::getEntryDate).reversed())
+                .collect(Collectors.toList());
+        if (recent.isEmpty() || !recent.get(0).getEntryDate().equals(today)) {
+            // Nothing to reflect on; answered locally. Saving today's entry invalidates this like any other reflection.
+            return Optional.of(NO_ENTRY_MESSAGE);
+        }
+        logger.info("Generating today's reflection for user {}.", user.getUsername());
+        String prompt = buildPrompt(recent);
+        return Optional.ofNullable(LlmScheduler.callAs(LlmScheduler.Priority.INTERACTIVE_REFLECTION, user.getId().toString(),
+                () -> mlServiceClient.generateReflection(prompt)));
+    }
+
+    /**
+     * Builds the reflection prompt from today's entry plus short summaries of the previous few days.
+     */
+    private String buildPrompt(List<JournalEntryResponse> recentNewestFirst) {
+        JournalEntryResponse today = recentNewestFirst.get(0);
+        String emotions = today.getEmotions() != null && !today.getEmotions().isEmpty()
+                ? today.getEmotions().entrySet().stream()
+                    .map(e -> String.format("%s (%.1f%%)", e.getKey(), e.getValue() * 100))
+                    .collect(Collectors.joining(", "))
+                : "No specific emotions detected.";
+        String concerns = today.getCoreConcerns() != null && !today.getCoreConcerns().isEmpty()
+                ? String.join(", ", today.getCoreConcerns())
+                : "No specific concerns identified.";
+
+        StringBuilder previousDays = new StringBuilder();
+        for (JournalEntryResponse entry : recentNewestFirst.subList(1, recentNewestFirst.size())) {
+            previousDays.append("- ").append(entry.getEntryDate()).append(": ")
+                    .append(entry.getSummary() != null ? entry.getSummary() : "(no summary)")
+                    .append(entry.getMoodScore() != null ? String.format(" [mood %.2f]", entry.getMoodScore()) : "")
+                    .append('\n');
+        }
+
+        return """
+                Based on the following journal entry, its detected emotions, and core concerns,
+                generate a concise (1-2 sentences), empathetic, and insightful "Today's Reflection" or a short, encouraging thought.
+                Focus on summarizing the emotional state and offering a gentle, positive perspective.
+
+                Journal Entry: "%s"
+                Detected Emotions: %s
+                Core Concerns: %s
+                Previous Days:
+                %s
+                Today's Reflection:""".formatted(today.getRawText(), emotions, concerns,
+                previousDays.length() > 0 ? previousDays.toString() : "(no recent entries)\n");
+    }
+
+    private static final class CachedReflection {
+        final LocalDate date;
+        final String text;
+
+        CachedReflection(LocalDate date, String text) {
+            this.date = date;
+            this.text = text;
+        }
+    }
+}
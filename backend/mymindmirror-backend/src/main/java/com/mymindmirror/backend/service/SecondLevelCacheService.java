@@ -0,0 +1,97 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.config.HibernateCacheConfig;
+import com.mymindmirror.backend.model.JournalEntry;
+import com.mymindmirror.backend.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Explicit invalidation and hit-ratio reporting for Hibernate's second-level cache.
+ * Regular repository saves/deletes keep the cache consistent on their own; the evict methods
+ * are for code paths that bypass the persistence context (native SQL, bulk deletes).
+ */
+@Service
+public class SecondLevelCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheService.class);
+
+    private static final List<String> REPORTED_REGIONS = List.of(
+            HibernateCacheConfig.USERS_REGION,
+            HibernateCacheConfig.USERS_BY_USERNAME_REGION,
+            HibernateCacheConfig.JOURNAL_ENTRIES_REGION,
+            HibernateCacheConfig.JOURNAL_ENTRY_BY_DAY_REGION);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheService(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Evicts a single journal entry and any cached per-day lookups.
+     */
+    public void evictJournalEntry(UUID entryId) {
+        entityManagerFactory.getCache().evict(JournalEntry.class, entryId);
+        sessionFactory().getCache().evictRegion(HibernateCacheConfig.JOURNAL_ENTRY_BY_DAY_REGION);
+    }
+
+    /**
+     * Evicts every cached journal entry, e.g. after a bulk delete by native SQL.
+     */
+    public void evictAllJournalEntries() {
+        entityManagerFactory.getCache().evict(JournalEntry.class);
+        sessionFactory().getCache().evictRegion(HibernateCacheConfig.JOURNAL_ENTRY_BY_DAY_REGION);
+    }
+
+    /**
+     * Evicts a user and its username -> id mapping.
+     */
+    public void evictUser(UUID userId) {
+        entityManagerFactory.getCache().evict(User.class, userId);
+        sessionFactory().getCache().evictNaturalIdData(User.class);
+    }
+
+    /**
+     * Current hit ratio per region (hits / (hits + misses)); NaN when a region has not been used yet.
+     */
+    public Map<String, Double> getHitRatios() {
+        Statistics statistics = sessionFactory().getStatistics();
+        Map<String, Double> ratios = new LinkedHashMap<>();
+        for (String region : REPORTED_REGIONS) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            long hits = regionStatistics.getHitCount();
+            long lookups = hits + regionStatistics.getMissCount();
+            ratios.put(region, lookups == 0 ? Double.NaN : (double) hits / lookups);
+        }
+        return ratios;
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.statistics-log-interval-ms:300000}")
+    public void logHitRatios() {
+        if (!sessionFactory().getStatistics().isStatisticsEnabled()) {
+            return;
+        }
+        getHitRatios().forEach((region, ratio) ->
+                logger.info("Second-level cache region '{}' hit ratio: {}", region,
+                        ratio.isNaN() ? "n/a" : String.format("%.1f%%", ratio * 100)));
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
@@ -0,0 +1,12 @@
+package com.mymindmirror.backend.service;
+
+/**
+ * Thrown for a write to a user's journal while ShardRebalancer is moving it to another shard.
+ * The move takes seconds; the client should retry.
+ */
+public class ShardMovingException extends IllegalStateException {
+
+    public ShardMovingException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,200 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.config.ShardContext;
+import com.mymindmirror.backend.model.AnalysisJob;
+import com.mymindmirror.backend.model.JournalEntry;
+import com.mymindmirror.backend.model.UserShardAssignment;
+import com.mymindmirror.backend.repository.AnalysisJobRepository;
+import com.mymindmirror.backend.repository.ArchivedJournalEntryRepository;
+import com.mymindmirror.backend.repository.JournalEntryRepository;
+import com.mymindmirror.backend.repository.MoodInsightStateRepository;
+import com.mymindmirror.backend.repository.WeeklyDigestRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves one user's journal data (entries, archived entries, insight state, weekly digests, open analysis jobs) to another shard
+ * while the application keeps serving them:
+ * <ol>
+ *     <li>mark the user MOVING in the directory; once every node has seen that (settle time), writes are refused
+ *     with ShardMovingException while reads keep going to the source;</li>
+ *     <li>copy the rows to the target (upserts with the original IDs, so a retried move is harmless);</li>
+ *     <li>switch the assignment to the target; after another settle time no node reads the source any more;</li>
+ *     <li>delete the rows from the source.</li>
+ * </ol>
+ * Running analysis jobs are copied as pending, so an analysis that finishes on the source during the copy is
+ * simply redone on the target. A failed copy puts the user back on the source.
+ */
+@Service
+public class ShardRebalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private final ShardRouter shardRouter;
+    private final JournalEntryRepository journalEntryRepository;
+    private final ArchivedJournalEntryRepository archivedJournalEntryRepository;
+    private final MoodInsightStateRepository moodInsightStateRepository;
+    private final AnalysisJobRepository analysisJobRepository;
+    private final WeeklyDigestRepository weeklyDigestRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionFactory sessionFactory;
+    private final long settleMillis; // Longer than the assignment cache TTL plus the longest journal request
+
+    public ShardRebalancer(ShardRouter shardRouter, JournalEntryRepository journalEntryRepository,
+                           ArchivedJournalEntryRepository archivedJournalEntryRepository,
+                           MoodInsightStateRepository moodInsightStateRepository,
+                           AnalysisJobRepository analysisJobRepository, WeeklyDigestRepository weeklyDigestRepository,
+                           TransactionTemplate transactionTemplate,
+                           EntityManagerFactory entityManagerFactory,
+                           @Value("${app.sharding.move-settle-ms:10000}") long settleMillis) {
+        this.shardRouter = shardRouter;
+        this.journalEntryRepository = journalEntryRepository;
+        this.archivedJournalEntryRepository = archivedJournalEntryRepository;
+        this.moodInsightStateRepository = moodInsightStateRepository;
+        this.analysisJobRepository = analysisJobRepository;
+        this.weeklyDigestRepository = weeklyDigestRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.settleMillis = settleMillis;
+        if (settleMillis < shardRouter.getCacheTtlMillis()) {
+            throw new IllegalArgumentException("app.sharding.move-settle-ms must be at least app.sharding.assignment-cache-ttl-ms.");
+        }
+    }
+
+    /**
+     * Moves a user's journal data to the target shard. Blocks for about two settle times plus the copy.
+     * @param userId The user to move.
+     * @param targetShard The shard to move to.
+     * @return False if the user was already on the target shard.
+     * @throws IllegalArgumentException for an unknown shard; IllegalStateException if the user is already moving.
+     */
+    public boolean moveUser(UUID userId, String targetShard) {
+        if (!shardRouter.isEnabled() || !shardRouter.getShards().contains(targetShard)) {
+            throw new IllegalArgumentException("Unknown shard: " + targetShard);
+        }
+        UserShardAssignment assignment = shardRouter.load(userId);
+        if (assignment.getState() == UserShardAssignment.State.MOVING) {
+            throw new IllegalStateException("User " + userId + " is already being moved to " + assignment.getTargetShard());
+        }
+        String sourceShard = assignment.getShard();
+        if (sourceShard.equals(targetShard)) {
+            return false;
+        }
+
+        logger.info("Moving user {} from {} to {}.", userId, sourceShard, targetShard);
+        assignment.setState(UserShardAssignment.State.MOVING);
+        assignment.setTargetShard(targetShard);
+        assignment.setUpdatedAt(Instant.now());
+        assignment = shardRouter.save(assignment); // Optimistic version check: only one mover wins
+        settle();
+
+        int copied;
+        try {
+            UserData data = ShardContext.callOn(sourceShard, () -> read(userId));
+            ShardContext.runOn(targetShard, () -> {
+                deleteUserData(userId); // Leftovers of an earlier failed attempt
+                write(data);
+            });
+            copied = data.rows.size();
+        } catch (RuntimeException e) {
+            logger.error("Moving user {} to {} failed; staying on {}: {}", userId, targetShard, sourceShard, e.getMessage(), e);
+            assignment.setState(UserShardAssignment.State.ACTIVE);
+            assignment.setTargetShard(null);
+            assignment.setUpdatedAt(Instant.now());
+            shardRouter.save(assignment);
+            throw e;
+        }
+
+        assignment.setShard(targetShard);
+        assignment.setState(UserShardAssignment.State.ACTIVE);
+        assignment.setTargetShard(null);
+        assignment.setUpdatedAt(Instant.now());
+        shardRouter.save(assignment);
+        settle();
+
+        int deleted = ShardContext.callOn(sourceShard, () -> deleteUserData(userId));
+        logger.info("Moved user {} from {} to {}: {} rows copied, {} deleted from the source.",
+                userId, sourceShard, targetShard, copied, deleted);
+        return true;
+    }
+
+    private UserData read(UUID userId) {
+        return transactionTemplate.execute(status -> {
+            UserData data = new UserData();
+            for (JournalEntry entry : journalEntryRepository.findAllByUserId(userId)) {
+                entry.getRawText(); // Loads the lazy body group while the session is open
+                data.rows.add(entry);
+            }
+            data.rows.addAll(archivedJournalEntryRepository.findAllByUserId(userId));
+            moodInsightStateRepository.findById(userId).ifPresent(data.rows::add);
+            data.rows.addAll(weeklyDigestRepository.findAllByUserId(userId));
+            Instant now = Instant.now();
+            for (AnalysisJob job : analysisJobRepository.findByUserIdAndStatusIn(userId,
+                    List.of(AnalysisJob.Status.PENDING, AnalysisJob.Status.RUNNING))) {
+                job.setStatus(AnalysisJob.Status.PENDING); // Changes stay on the detached copy
+                job.setLeaseOwner(null);
+                job.setLeaseExpiresAt(null);
+                job.setAvailableAt(now);
+                data.rows.add(job);
+            }
+            status.setRollbackOnly(); // Read-only: the job edits above must not be flushed to the source
+            return data;
+        });
+    }
+
+    /**
+     * Inserts the rows with their original IDs through a stateless session, in one transaction on the current shard.
+     */
+    private void write(UserData data) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                data.rows.forEach(session::upsert);
+                transaction.commit();
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private int deleteUserData(UUID userId) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            int rows = analysisJobRepository.deleteAllByUserId(userId); // Before the entries they reference
+            rows += journalEntryRepository.deleteAllByUserId(userId);
+            rows += archivedJournalEntryRepository.deleteAllByUserId(userId);
+            rows += weeklyDigestRepository.deleteAllByUserId(userId);
+            if (moodInsightStateRepository.existsById(userId)) {
+                moodInsightStateRepository.deleteById(userId);
+                rows++;
+            }
+            return rows;
+        });
+        return deleted != null ? deleted : 0;
+    }
+
+    private void settle() {
+        try {
+            Thread.sleep(settleMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while moving a user between shards", e);
+        }
+    }
+
+    private static final class UserData {
+        final List<Object> rows = new ArrayList<>();
+    }
+}
@@ -0,0 +1,195 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.config.ShardContext;
+import com.mymindmirror.backend.config.ShardRoutingDataSource;
+import com.mymindmirror.backend.model.UserShardAssignment;
+import com.mymindmirror.backend.repository.UserShardAssignmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps users to journal shards. New users are placed by consistent hashing over the configured shards and
+ * the placement is recorded in user_shards, so adding shards later never silently relocates anyone; existing
+ * users only change shards through ShardRebalancer.
+ * Assignments are cached per node for assignment-cache-ttl-ms, which bounds how long another node can act on
+ * an outdated one (ShardRebalancer waits at least that long between the steps of a move).
+ * With sharding disabled every user maps to the single database.
+ */
+@Service
+public class ShardRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRouter.class);
+
+    private final UserShardAssignmentRepository assignmentRepository;
+    private final TransactionTemplate directoryTransaction; // Always a fresh transaction on the directory
+    private final List<String> shards; // Empty when sharding is disabled
+    private final ConsistentHashRing ring;
+    private final String defaultShard; // For users registered before sharding was enabled
+    private final long cacheTtlNanos;
+    private final Map<UUID, CachedAssignment> cache = new ConcurrentHashMap<>();
+
+    public ShardRouter(UserShardAssignmentRepository assignmentRepository, PlatformTransactionManager transactionManager,
+                       ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource,
+                       @Value("${app.sharding.virtual-nodes:128}") int virtualNodes,
+                       @Value("${app.sharding.default-shard:}") String defaultShard,
+                       @Value("${app.sharding.assignment-cache-ttl-ms:5000}") long cacheTtlMillis) {
+        this.assignmentRepository = assignmentRepository;
+        this.directoryTransaction = new TransactionTemplate(transactionManager);
+        this.directoryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        ShardRoutingDataSource routing = shardRoutingDataSource.getIfAvailable();
+        this.shards = routing != null ? routing.getShardNames() : List.of();
+        this.ring = shards.isEmpty() ? null : new ConsistentHashRing(shards, virtualNodes);
+        this.defaultShard = defaultShard.isBlank() && !shards.isEmpty() ? shards.get(0) : defaultShard;
+        if (!shards.isEmpty() && !shards.contains(this.defaultShard)) {
+            throw new IllegalArgumentException("app.sharding.default-shard must be one of " + shards);
+        }
+        this.cacheTtlNanos = cacheTtlMillis * 1_000_000L;
+    }
+
+    public boolean isEnabled() {
+        return !shards.isEmpty();
+    }
+
+    /**
+     * Every database that holds journal data: the shards, or just the directory when sharding is disabled.
+     * Background jobs iterate over these.
+     */
+    public List<String> getShards() {
+        return isEnabled() ? shards : List.of(ShardRoutingDataSource.DIRECTORY);
+    }
+
+    public long getCacheTtlMillis() {
+        return cacheTtlNanos / 1_000_000L;
+    }
+
+    /**
+     * Places a newly registered user on the ring and records the placement.
+     */
+    public void placeNewUser(UUID userId) {
+        if (!isEnabled()) {
+            return;
+        }
+        UserShardAssignment assignment = new UserShardAssignment();
+        assignment.setUserId(userId);
+        assignment.setShard(ring.nodeFor(userId));
+        assignment.setState(UserShardAssignment.State.ACTIVE);
+        assignment.setUpdatedAt(Instant.now());
+        save(assignment);
+        logger.info("User {} placed on {}.", userId, assignment.getShard());
+    }
+
+    /**
+     * The shard to use for a unit of work on the user's journal data.
+     * @param userId The user's ID.
+     * @param write Whether the work changes the user's data.
+     * @return The shard name.
+     * @throws ShardMovingException for writes while the user's data is being moved.
+     */
+    public String route(UUID userId, boolean write) {
+        if (!isEnabled()) {
+            return ShardRoutingDataSource.DIRECTORY;
+        }
+        UserShardAssignment assignment = assignment(userId);
+        if (write && assignment.getState() == UserShardAssignment.State.MOVING) {
+            throw new ShardMovingException("Your journal is being moved to new storage; please try again in a few seconds.");
+        }
+        return assignment.getShard();
+    }
+
+    /**
+     * The user's current assignment (cached); users without a row are reported as active on the default shard.
+     */
+    public UserShardAssignment assignment(UUID userId) {
+        CachedAssignment cached = cache.get(userId);
+        long now = System.nanoTime();
+        if (cached != null && now - cached.loadedAt < cacheTtlNanos) {
+            return cached.assignment;
+        }
+        UserShardAssignment assignment = load(userId);
+        cache.put(userId, new CachedAssignment(assignment, now));
+        return assignment;
+    }
+
+    /**
+     * Reads the assignment from the directory, bypassing the cache.
+     */
+    UserShardAssignment load(UUID userId) {
+        return ShardContext.callOn(null, () -> directoryTransaction.execute(status ->
+                assignmentRepository.findById(userId).orElseGet(() -> {
+                    UserShardAssignment unassigned = new UserShardAssignment();
+                    unassigned.setUserId(userId);
+                    unassigned.setShard(defaultShard);
+                    unassigned.setState(UserShardAssignment.State.ACTIVE);
+                    return unassigned;
+                })));
+    }
+
+    /**
+     * Writes an assignment to the directory and drops this node's cached copy.
+     */
+    UserShardAssignment save(UserShardAssignment assignment) {
+        UserShardAssignment saved = ShardContext.callOn(null, () -> directoryTransaction.execute(status ->
+                assignmentRepository.save(assignment)));
+        cache.remove(assignment.getUserId());
+        return saved;
+    }
+
+    /**
+     * Removes a deleted user's assignment from the directory and drops this node's cached copy.
+     */
+    public void removeUser(UUID userId) {
+        if (!isEnabled()) {
+            return;
+        }
+        ShardContext.runOn(null, () -> directoryTransaction.executeWithoutResult(status -> {
+            if (assignmentRepository.existsById(userId)) {
+                assignmentRepository.deleteById(userId);
+            }
+        }));
+        cache.remove(userId);
+    }
+
+    /**
+     * Users with a recorded assignment, per shard (users still on the default shard without a row are not counted).
+     */
+    public Map<String, Long> countAssignedUsers() {
+        return ShardContext.callOn(null, () -> directoryTransaction.execute(status -> {
+            Map<String, Long> counts = new TreeMap<>();
+            shards.forEach(shard -> counts.put(shard, 0L));
+            for (Object[] row : assignmentRepository.countByShard()) {
+                counts.put((String) row[0], (Long) row[1]);
+            }
+            return counts;
+        }));
+    }
+
+    @Scheduled(fixedDelayString = "${app.sharding.cache-cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        cache.values().removeIf(cached -> now - cached.loadedAt >= cacheTtlNanos);
+    }
+
+    private static final class CachedAssignment {
+        final UserShardAssignment assignment;
+        final long loadedAt;
+
+        CachedAssignment(UserShardAssignment assignment, long loadedAt) {
+            this.assignment = assignment;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.mymindmirror.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Merging t-digest (Dunning) for quantiles of a stream of values: a few hundred weighted centroids, small near
+ * the tails (where the k1 scale function allows little weight) and larger in the middle, so extreme percentiles
+ * stay accurate. Digests merge by re-clustering their centroids together, so per-node or per-day digests combine
+ * into one for any union of their inputs. Not thread-safe.
+ */
+final class TDigest {
+
+    private static final int COMPRESSION = 100;
+    private static final int BUFFER_SIZE = 5 * COMPRESSION; // Values collected between compressions
+
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private final double[] bufferMeans = new double[BUFFER_SIZE];
+    private final double[] bufferWeights = new double[BUFFER_SIZE];
+    private int buffered;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    void add(double value) {
+        add(value, 1);
+    }
+
+    void merge(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.means.length; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        compress();
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        return Math.round(total);
+    }
+
+    /**
+     * @param q Between 0 and 1.
+     * @return The estimated q-quantile, interpolated between centroid centers; NaN if the digest is empty.
+     */
+    double quantile(double q) {
+        compress();
+        int n = means.length;
+        if (n == 0) {
+            return Double.NaN;
+        }
+        if (n == 1) {
+            return means[0];
+        }
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double target = q * total;
+        double center = weights[0] / 2; // Cumulative weight at the first centroid's center
+        if (target < center) {
+            return min + (means[0] - min) * target / center;
+        }
+        for (int i = 0; i < n - 1; i++) {
+            double gap = (weights[i] + weights[i + 1]) / 2;
+            if (target < center + gap) {
+                return means[i] + (means[i + 1] - means[i]) * (target - center) / gap;
+            }
+            center += gap;
+        }
+        double tail = total - center;
+        return tail > 0 ? means[n - 1] + (max - means[n - 1]) * Math.min(1, (target - center) / tail) : max;
+    }
+
+    byte[] toBytes() {
+        compress();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(24 + 16 * means.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(COMPRESSION);
+            out.writeDouble(min);
+            out.writeDouble(max);
+            out.writeInt(means.length);
+            for (int i = 0; i < means.length; i++) {
+                out.writeDouble(means[i]);
+                out.writeDouble(weights[i]);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Not thrown by in-memory streams
+        }
+        return bytes.toByteArray();
+    }
+
+    static TDigest fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readInt() != COMPRESSION) {
+                throw new IllegalArgumentException("Unsupported t-digest compression.");
+            }
+            TDigest digest = new TDigest();
+            digest.min = in.readDouble();
+            digest.max = in.readDouble();
+            int centroids = in.readInt();
+            if (centroids < 0 || centroids > 4 * COMPRESSION) {
+                throw new IllegalArgumentException("Corrupt t-digest: " + centroids + " centroids.");
+            }
+            digest.means = new double[centroids];
+            digest.weights = new double[centroids];
+            for (int i = 0; i < centroids; i++) {
+                digest.means[i] = in.readDouble();
+                digest.weights[i] = in.readDouble();
+            }
+            return digest;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated t-digest.", e);
+        }
+    }
+
+    private void add(double mean, double weight) {
+        if (Double.isNaN(mean)) {
+            return;
+        }
+        if (buffered == BUFFER_SIZE) {
+            compress();
+        }
+        bufferMeans[buffered] = mean;
+        bufferWeights[buffered] = weight;
+        buffered++;
+        min = Math.min(min, mean);
+        max = Math.max(max, mean);
+    }
+
+    /**
+     * Folds the buffer into the centroids: sorts everything by mean, then merges neighbours for as long as the
+     * merged centroid stays within one unit of the scale function k(q) = compression / 2pi * asin(2q - 1).
+     */
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        int n = means.length + buffered;
+        double[] allMeans = Arrays.copyOf(means, n);
+        double[] allWeights = Arrays.copyOf(weights, n);
+        System.arraycopy(bufferMeans, 0, allMeans, means.length, buffered);
+        System.arraycopy(bufferWeights, 0, allWeights, means.length, buffered);
+        buffered = 0;
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(allMeans[a], allMeans[b]));
+        double total = 0;
+        for (double weight : allWeights) {
+            total += weight;
+        }
+
+        double[] newMeans = new double[n];
+        double[] newWeights = new double[n];
+        int count = 0;
+        double mean = allMeans[order[0]];
+        double weight = allWeights[order[0]];
+        double before = 0; // Weight of the centroids already emitted
+        double limit = total * inverseScale(scale(0) + 1);
+        for (int i = 1; i < n; i++) {
+            double nextMean = allMeans[order[i]];
+            double nextWeight = allWeights[order[i]];
+            if (before + weight + nextWeight <= limit) {
+                weight += nextWeight;
+                mean += (nextMean - mean) * nextWeight / weight;
+            } else {
+                newMeans[count] = mean;
+                newWeights[count] = weight;
+                count++;
+                before += weight;
+                limit = total * inverseScale(scale(before / total) + 1);
+                mean = nextMean;
+                weight = nextWeight;
+            }
+        }
+        newMeans[count] = mean;
+        newWeights[count] = weight;
+        count++;
+        means = Arrays.copyOf(newMeans, count);
+        weights = Arrays.copyOf(newWeights, count);
+    }
+
+    private static double scale(double q) {
+        return COMPRESSION / (2 * Math.PI) * Math.asin(2 * q - 1);
+    }
+
+    private static double inverseScale(double k) {
+        return (Math.sin(Math.min(k * 2 * Math.PI / COMPRESSION, Math.PI / 2)) + 1) / 2;
+    }
+}
@@ -35,8 +35,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        logger.info("Attempting to load user by username: {}", username);
-        User user = userRepository.findByUsername(username)
+        logger.debug("Attempting to load user by username: {}", username); // Runs on every authenticated request
+        User user = userRepository.findByNaturalUsername(username) // Served from the second-level cache after the first hit
                 .orElseThrow(() -> {
                     logger.warn("User not found: {}", username);
                     return new UsernameNotFoundException("User not found with username: " + username);
@@ -45,10 +45,12 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         // Build Spring Security's UserDetails object from our custom User model.
         // For simplicity, we are not assigning specific roles/authorities here.
         // In a real app, you'd fetch roles from the DB and assign them.
-        logger.info("User {} found. Building UserDetails.", username);
+        logger.debug("User {} found. Building UserDetails.", username);
         return new org.springframework.security.core.userdetails.User(
                 user.getUsername(),
                 user.getPasswordHash(), // The hashed password from the database
+                user.getDisabledAt() == null, // Disabled once the user has deleted their account
+                true, true, true, // Accounts and credentials don't expire or lock
                 new java.util.ArrayList<>() // No roles/authorities for this MVP
         );
     }
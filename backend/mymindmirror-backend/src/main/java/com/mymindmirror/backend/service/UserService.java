@@ -4,6 +4,7 @@ import com.mymindmirror.backend.model.User;
 import com.mymindmirror.backend.repository.UserRepository;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,11 +20,13 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder; // Injected for password hashing
+    private final ShardRouter shardRouter;
 
     // Constructor injection
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, ShardRouter shardRouter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.shardRouter = shardRouter;
     }
 
     /**
@@ -53,6 +56,7 @@ public class UserService {
         user.setPasswordHash(passwordEncoder.encode(password)); // Hash the password!
 
         User savedUser = userRepository.save(user);
+        shardRouter.placeNewUser(savedUser.getId()); // Picks the shard for the user's journal (no-op without sharding)
         logger.info("User '{}' registered successfully with ID: {}", username, savedUser.getId());
         return savedUser;
     }
@@ -62,8 +66,9 @@ public class UserService {
      * @param username The username to search for.
      * @return An Optional containing the User if found.
      */
+    @Transactional(readOnly = true) // Served by a read replica when replicas are enabled
     public Optional<User> findByUsername(String username) {
         logger.debug("Attempting to find user by username: {}", username);
-        return userRepository.findByUsername(username);
+        return userRepository.findByNaturalUsername(username);
     }
 }
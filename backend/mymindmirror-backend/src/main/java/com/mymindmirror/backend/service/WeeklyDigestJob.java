@@ -0,0 +1,300 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.config.ShardContext;
+import com.mymindmirror.backend.model.DigestRun;
+import com.mymindmirror.backend.model.WeeklyDigest;
+import com.mymindmirror.backend.payload.DigestEntryData;
+import com.mymindmirror.backend.repository.DigestRunRepository;
+import com.mymindmirror.backend.repository.JournalEntryRepository;
+import com.mymindmirror.backend.repository.UserRepository;
+import com.mymindmirror.backend.repository.WeeklyDigestRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Off-peak batch that precomputes every user's weekly digest (mood statistics, top concerns and emotions,
+ * an LLM-written recap) for the week that just ended.
+ * <ul>
+ *     <li>Users are walked in ID order, one keyset-paginated chunk at a time; each chunk's week of entries is read
+ *     with one query per shard.</li>
+ *     <li>Users in a chunk are summarized on a bounded pool. Recaps are LLM calls at background priority in
+ *     LlmScheduler, which keeps them within the quota interactive requests leave over.</li>
+ *     <li>After each chunk the cursor is checkpointed in digest_runs. An interrupted or time-boxed run resumes
+ *     after the last finished chunk on the next trigger, and users that already have a digest are skipped.</li>
+ *     <li>A lease on the run row keeps other nodes from running the same week at the same time.</li>
+ * </ul>
+ */
+@Service
+@ConditionalOnProperty(name = "app.digest.enabled", havingValue = "true")
+public class WeeklyDigestJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeeklyDigestJob.class);
+
+    private static final UUID FIRST_CURSOR = new UUID(0L, 0L); // Sorts before every user ID
+
+    private final UserRepository userRepository;
+    private final JournalEntryRepository journalEntryRepository;
+    private final WeeklyDigestRepository weeklyDigestRepository;
+    private final DigestRunRepository digestRunRepository;
+    private final WeeklyDigestService weeklyDigestService;
+    private final MlServiceClient mlServiceClient;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final Duration lease; // Renewed after every chunk
+    private final Duration maxRunTime; // Stop (and resume on the next trigger) to stay inside the off-peak window
+    private final String nodeId;
+    private final ExecutorService executor;
+
+    public WeeklyDigestJob(UserRepository userRepository, JournalEntryRepository journalEntryRepository,
+                           WeeklyDigestRepository weeklyDigestRepository, DigestRunRepository digestRunRepository,
+                           WeeklyDigestService weeklyDigestService, MlServiceClient mlServiceClient, ShardRouter shardRouter,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${app.digest.chunk-size:200}") int chunkSize,
+                           @Value("${app.digest.parallelism:4}") int parallelism,
+                           @Value("${app.digest.lease-minutes:15}") long leaseMinutes,
+                           @Value("${app.digest.max-run-minutes:240}") long maxRunMinutes) {
+        this.userRepository = userRepository;
+        this.journalEntryRepository = journalEntryRepository;
+        this.weeklyDigestRepository = weeklyDigestRepository;
+        this.digestRunRepository = digestRunRepository;
+        this.weeklyDigestService = weeklyDigestService;
+        this.mlServiceClient = mlServiceClient;
+        this.shardRouter = shardRouter;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+        this.maxRunTime = Duration.ofMinutes(maxRunMinutes);
+        this.nodeId = AnalysisJobWorker.resolveNodeId();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "digest-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Fires repeatedly during the off-peak window; after the week is done the remaining triggers are no-ops.
+     */
+    @Scheduled(cron = "${app.digest.cron:0 0 2-6 * * MON}")
+    public void runScheduled() {
+        runForWeek(WeeklyDigestService.lastCompletedWeek(LocalDate.now()));
+    }
+
+    /**
+     * Produces the digests for one week, resuming from its checkpoint.
+     * @param weekStart The week's Monday.
+     * @return True if the week is complete, false if another node holds it or the run stopped early.
+     */
+    public boolean runForWeek(LocalDate weekStart) {
+        DigestRun run = claim(weekStart);
+        if (run == null) {
+            return digestRunRepository.findById(weekStart).map(r -> r.getStatus() == DigestRun.Status.COMPLETED).orElse(false);
+        }
+        logger.info("Weekly digest for {} {} on {}.", weekStart, run.getLastUserId() == null ? "starting" : "resuming", nodeId);
+        Instant stopAt = Instant.now().plus(maxRunTime);
+        UUID cursor = run.getLastUserId() != null ? run.getLastUserId() : FIRST_CURSOR;
+        while (true) {
+            UUID after = cursor;
+            List<UUID> chunk = ShardContext.callOn(null, () -> userRepository.findIdsAfter(after, PageRequest.of(0, chunkSize)));
+            if (chunk.isEmpty()) {
+                run = checkpoint(run, cursor, new ChunkResult(), true);
+                if (run != null) {
+                    logger.info("Weekly digest for {} completed: {} users, {} digests, {} failed.", weekStart,
+                            run.getProcessedUsers(), run.getDigestsWritten(), run.getFailedUsers());
+                }
+                return run != null;
+            }
+            ChunkResult result = processChunk(weekStart, chunk);
+            cursor = chunk.get(chunk.size() - 1);
+            run = checkpoint(run, cursor, result, false);
+            if (run == null) {
+                logger.warn("Lost the lease on the weekly digest for {}; another node continues it.", weekStart);
+                return false;
+            }
+            if (Instant.now().isAfter(stopAt)) {
+                logger.info("Weekly digest for {} paused after {} users; it resumes on the next trigger.", weekStart, run.getProcessedUsers());
+                release(run);
+                return false;
+            }
+        }
+    }
+
+    private ChunkResult processChunk(LocalDate weekStart, List<UUID> chunk) {
+        ChunkResult result = new ChunkResult();
+        result.processed = chunk.size();
+        Map<String, List<UUID>> byShard = new LinkedHashMap<>();
+        for (UUID userId : chunk) {
+            try {
+                byShard.computeIfAbsent(shardRouter.route(userId, true), shard -> new ArrayList<>()).add(userId);
+            } catch (ShardMovingException e) {
+                result.failed++; // Being moved right now; no digest this week rather than one on the wrong shard
+            }
+        }
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (Map.Entry<String, List<UUID>> group : byShard.entrySet()) {
+            String shard = group.getKey();
+            Map<UUID, List<DigestEntryData>> weeks = ShardContext.callOn(shard, () -> readWeeks(weekStart, group.getValue()));
+            weeks.forEach((userId, entries) ->
+                    tasks.add(() -> ShardContext.callOn(shard, () -> digestUser(userId, weekStart, entries))));
+        }
+        try {
+            for (Future<Boolean> task : executor.invokeAll(tasks)) {
+                try {
+                    if (task.get()) {
+                        result.written++;
+                    }
+                } catch (ExecutionException e) {
+                    result.failed++;
+                    logger.error("Weekly digest failed for a user: {}", e.getCause().getMessage(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building weekly digests", e);
+        }
+        return result;
+    }
+
+    /**
+     * The week's entries for the users in one shard group who don't have a digest yet, grouped by user.
+     * Users without entries that week get no digest.
+     */
+    private Map<UUID, List<DigestEntryData>> readWeeks(LocalDate weekStart, List<UUID> userIds) {
+        Set<UUID> done = new HashSet<>(weeklyDigestRepository.findUserIdsWithDigest(weekStart, userIds));
+        List<UUID> pending = userIds.stream().filter(id -> !done.contains(id)).toList();
+        if (pending.isEmpty()) {
+            return Map.of();
+        }
+        return journalEntryRepository.findDigestData(pending, weekStart, weekStart.plusDays(6)).stream()
+                .collect(Collectors.groupingBy(DigestEntryData::getUserId));
+    }
+
+    private boolean digestUser(UUID userId, LocalDate weekStart, List<DigestEntryData> entries) {
+        WeeklyDigest digest = weeklyDigestService.summarize(userId, weekStart, entries);
+        String prompt = weeklyDigestService.recapPrompt(digest, entries);
+        // Background priority: recaps only use LLM quota that interactive saves and reflections leave over
+        digest.setRecap(LlmScheduler.callAs(LlmScheduler.Priority.BACKGROUND, userId.toString(),
+                () -> mlServiceClient.generateReflection(prompt))); // Null on failure
+        try {
+            weeklyDigestRepository.save(digest);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false; // Written by an earlier, interrupted attempt at this chunk
+        }
+    }
+
+    /**
+     * Takes the week's run (creating it on first use) unless it is complete or another node's lease is live.
+     */
+    private DigestRun claim(LocalDate weekStart) {
+        try {
+            return ShardContext.callOn(null, () -> transactionTemplate.execute(status -> {
+                Instant now = Instant.now();
+                DigestRun run = digestRunRepository.findById(weekStart).orElseGet(() -> {
+                    DigestRun created = new DigestRun();
+                    created.setWeekStart(weekStart);
+                    created.setStatus(DigestRun.Status.RUNNING);
+                    created.setStartedAt(now);
+                    return created;
+                });
+                if (run.getStatus() == DigestRun.Status.COMPLETED) {
+                    return null;
+                }
+                if (run.getLeaseOwner() != null && !nodeId.equals(run.getLeaseOwner())
+                        && run.getLeaseExpiresAt() != null && run.getLeaseExpiresAt().isAfter(now)) {
+                    return null;
+                }
+                run.setLeaseOwner(nodeId);
+                run.setLeaseExpiresAt(now.plus(lease));
+                run.setUpdatedAt(now);
+                return digestRunRepository.save(run);
+            }));
+        } catch (DataIntegrityViolationException | ObjectOptimisticLockingFailureException e) {
+            logger.info("Weekly digest for {} was claimed by another node.", weekStart);
+            return null;
+        }
+    }
+
+    /**
+     * Advances the cursor and counters and renews the lease; null if the lease was lost meanwhile.
+     */
+    private DigestRun checkpoint(DigestRun run, UUID cursor, ChunkResult result, boolean completed) {
+        try {
+            return ShardContext.callOn(null, () -> transactionTemplate.execute(status -> {
+                Instant now = Instant.now();
+                run.setLastUserId(cursor.equals(FIRST_CURSOR) ? null : cursor);
+                run.setProcessedUsers(run.getProcessedUsers() + result.processed);
+                run.setDigestsWritten(run.getDigestsWritten() + result.written);
+                run.setFailedUsers(run.getFailedUsers() + result.failed);
+                run.setUpdatedAt(now);
+                if (completed) {
+                    run.setStatus(DigestRun.Status.COMPLETED);
+                    run.setCompletedAt(now);
+                    run.setLeaseOwner(null);
+                    run.setLeaseExpiresAt(null);
+                } else {
+                    run.setLeaseExpiresAt(now.plus(lease));
+                }
+                return digestRunRepository.save(run); // Version check: fails if another node took the run over
+            }));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return null;
+        }
+    }
+
+    private void release(DigestRun run) {
+        try {
+            ShardContext.runOn(null, () -> transactionTemplate.executeWithoutResult(status -> {
+                run.setLeaseOwner(null);
+                run.setLeaseExpiresAt(null);
+                digestRunRepository.save(run);
+            }));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.debug("Weekly digest run for {} already taken over.", run.getWeekStart());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class ChunkResult {
+        int processed;
+        int written;
+        int failed;
+    }
+}
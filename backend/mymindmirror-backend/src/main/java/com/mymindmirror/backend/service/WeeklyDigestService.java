@@ -0,0 +1,169 @@
+package com.mymindmirror.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mymindmirror.backend.config.UserSharded;
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.model.WeeklyDigest;
+import com.mymindmirror.backend.payload.DigestEntryData;
+import com.mymindmirror.backend.payload.WeeklyDigestResponse;
+import com.mymindmirror.backend.repository.WeeklyDigestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Weekly digests: reading them for the API, and turning a week of entries into a digest for WeeklyDigestJob.
+ */
+@Service
+public class WeeklyDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeeklyDigestService.class);
+
+    private static final int TOP_CONCERNS = 5;
+    private static final int TOP_EMOTIONS = 3;
+    private static final TypeReference<Map<String, Object>> EMOTIONS_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<Object>> CONCERNS_TYPE = new TypeReference<>() {};
+
+    private final WeeklyDigestRepository weeklyDigestRepository;
+    private final ObjectMapper objectMapper;
+
+    public WeeklyDigestService(WeeklyDigestRepository weeklyDigestRepository, ObjectMapper objectMapper) {
+        this.weeklyDigestRepository = weeklyDigestRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Monday of the most recent full week (the week the Monday-morning batch summarizes).
+     */
+    public static LocalDate lastCompletedWeek(LocalDate today) {
+        return today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(1);
+    }
+
+    /**
+     * Returns a stored digest; a single indexed lookup, nothing is generated on demand.
+     * @param user The authenticated user.
+     * @param weekStart Any date in the week; normalized to its Monday.
+     * @return The digest, or empty if the batch hasn't produced one (no entries that week, or not run yet).
+     */
+    @Transactional(readOnly = true)
+    @UserSharded
+    public Optional<WeeklyDigestResponse> getDigest(User user, LocalDate weekStart) {
+        LocalDate monday = weekStart.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return weeklyDigestRepository.findByUserIdAndWeekStart(user.getId(), monday).map(WeeklyDigestResponse::new);
+    }
+
+    /**
+     * Computes a user's digest statistics from their entries for the week (without the recap).
+     * @param userId The user's ID.
+     * @param weekStart The week's Monday.
+     * @param entries The user's entries that week (at least one).
+     * @return An unsaved digest.
+     */
+    WeeklyDigest summarize(UUID userId, LocalDate weekStart, List<DigestEntryData> entries) {
+        WeeklyDigest digest = new WeeklyDigest();
+        digest.setUserId(userId);
+        digest.setWeekStart(weekStart);
+        digest.setEntryCount(entries.size());
+        digest.setGeneratedAt(Instant.now());
+
+        DoubleSummaryStatistics moods = entries.stream().map(DigestEntryData::getMoodScore).filter(score -> score != null)
+                .mapToDouble(Double::doubleValue).summaryStatistics();
+        if (moods.getCount() > 0) {
+            digest.setAverageMood(moods.getAverage());
+            digest.setLowestMood(moods.getMin());
+            digest.setHighestMood(moods.getMax());
+        }
+
+        Map<String, Integer> concernCounts = new HashMap<>();
+        Map<String, double[]> emotionSums = new HashMap<>(); // emotion -> {sum, count}
+        for (DigestEntryData entry : entries) {
+            for (Object concern : parse(entry.getCoreConcernsJson(), CONCERNS_TYPE, List.of())) {
+                if (concern instanceof String text && !text.isBlank()) {
+                    concernCounts.merge(text.strip().toLowerCase(), 1, Integer::sum);
+                }
+            }
+            parse(entry.getEmotionsJson(), EMOTIONS_TYPE, Map.<String, Object>of()).forEach((emotion, score) -> {
+                if (score instanceof Number number) {
+                    double[] sum = emotionSums.computeIfAbsent(emotion, key -> new double[2]);
+                    sum[0] += number.doubleValue();
+                    sum[1]++;
+                }
+            });
+        }
+
+        List<String> topConcerns = concernCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP_CONCERNS)
+                .map(Map.Entry::getKey)
+                .toList();
+        Map<String, Double> topEmotions = emotionSums.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue()[0] / e.getValue()[1]))
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(TOP_EMOTIONS)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+        digest.setTopConcerns(toJson(topConcerns));
+        digest.setTopEmotions(toJson(topEmotions));
+        return digest;
+    }
+
+    /**
+     * Builds the LLM prompt for a digest's recap from its statistics and the entries' AI summaries.
+     */
+    String recapPrompt(WeeklyDigest digest, List<DigestEntryData> entries) {
+        StringBuilder prompt = new StringBuilder()
+                .append("Write a warm, encouraging recap of this person's week in 3-4 sentences, speaking to them directly. ")
+                .append("Mention one pattern you notice and one small thing to try next week. Do not give medical advice.\n\n")
+                .append("Week starting ").append(digest.getWeekStart()).append(", ")
+                .append(digest.getEntryCount()).append(" journal entries.\n");
+        if (digest.getAverageMood() != null) {
+            prompt.append(String.format("Mood (from -1 to 1): average %.2f, lowest %.2f, highest %.2f.%n",
+                    digest.getAverageMood(), digest.getLowestMood(), digest.getHighestMood()));
+        }
+        prompt.append("Most frequent concerns: ").append(digest.getTopConcerns()).append('\n')
+                .append("Strongest emotions: ").append(digest.getTopEmotions()).append("\n\nDaily summaries:\n");
+        entries.stream()
+                .sorted(Comparator.comparing(DigestEntryData::getEntryDate))
+                .filter(entry -> entry.getSummary() != null && !entry.getSummary().isBlank())
+                .forEach(entry -> prompt.append("- ").append(entry.getEntryDate().getDayOfWeek()).append(": ")
+                        .append(entry.getSummary()).append('\n'));
+        return prompt.toString();
+    }
+
+    private <T> T parse(String json, TypeReference<T> type, T fallback) {
+        if (json == null) {
+            return fallback;
+        }
+        try {
+            T value = objectMapper.readValue(json, type);
+            return value != null ? value : fallback;
+        } catch (JsonProcessingException e) {
+            logger.warn("Skipping unreadable analysis JSON in weekly digest: {}", e.getMessage());
+            return fallback;
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize weekly digest field", e);
+        }
+    }
+}
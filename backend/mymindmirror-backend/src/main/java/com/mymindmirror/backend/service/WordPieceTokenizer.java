@@ -0,0 +1,165 @@
+package com.mymindmirror.backend.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uncased BERT/DistilBERT tokenization (what the Hugging Face BertTokenizer does with do_lower_case):
+ * clean and lowercase the text, strip accents, split on whitespace and punctuation, then split each word into
+ * the longest vocabulary pieces, marking continuations with "##". Output is framed as [CLS] ... [SEP].
+ */
+final class WordPieceTokenizer {
+
+    private static final String UNKNOWN = "[UNK]";
+    private static final String CLASSIFY = "[CLS]";
+    private static final String SEPARATOR = "[SEP]";
+    private static final int MAX_WORD_CHARS = 100; // Longer words become [UNK], as in the reference tokenizer
+
+    private final Map<String, Integer> vocab;
+    private final int maxTokens; // Including [CLS] and [SEP]; the model's position limit
+    private final int unknownId;
+    private final int classifyId;
+    private final int separatorId;
+
+    WordPieceTokenizer(Map<String, Integer> vocab, int maxTokens) {
+        if (maxTokens < 2) {
+            throw new IllegalArgumentException("maxTokens must leave room for [CLS] and [SEP].");
+        }
+        this.vocab = vocab;
+        this.maxTokens = maxTokens;
+        this.unknownId = idOf(UNKNOWN);
+        this.classifyId = idOf(CLASSIFY);
+        this.separatorId = idOf(SEPARATOR);
+    }
+
+    /**
+     * Loads a vocab.txt (one token per line; the line number is the token's id).
+     */
+    static WordPieceTokenizer load(Path vocabFile, int maxTokens) throws IOException {
+        List<String> lines = Files.readAllLines(vocabFile, StandardCharsets.UTF_8);
+        Map<String, Integer> vocab = new HashMap<>(lines.size() * 2);
+        for (int i = 0; i < lines.size(); i++) {
+            vocab.putIfAbsent(lines.get(i).strip(), i);
+        }
+        return new WordPieceTokenizer(vocab, maxTokens);
+    }
+
+    /**
+     * @return Token ids, starting with [CLS] and ending with [SEP]; text beyond the limit is dropped.
+     */
+    long[] encode(String text) {
+        List<Integer> ids = new ArrayList<>();
+        ids.add(classifyId);
+        int budget = maxTokens - 1; // Keep the last slot for [SEP]
+        for (String word : basicTokens(text)) {
+            for (int id : wordPieces(word)) {
+                if (ids.size() >= budget) {
+                    break;
+                }
+                ids.add(id);
+            }
+            if (ids.size() >= budget) {
+                break;
+            }
+        }
+        ids.add(separatorId);
+        return ids.stream().mapToLong(Integer::longValue).toArray();
+    }
+
+    /**
+     * Cleans, lowercases and strips accents, then splits on whitespace and around punctuation and CJK characters.
+     */
+    List<String> basicTokens(String text) {
+        String lowered = Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD);
+        List<String> tokens = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < lowered.length(); ) {
+            int c = lowered.codePointAt(i);
+            i += Character.charCount(c);
+            int type = Character.getType(c);
+            if (c == 0 || c == 0xFFFD || type == Character.NON_SPACING_MARK || type == Character.FORMAT
+                    || (Character.isISOControl(c) && !Character.isWhitespace(c))) {
+                continue; // Dropped: NUL, replacement chars, accents (after NFD) and control characters
+            }
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                flush(word, tokens);
+            } else if (isPunctuation(c) || isCjk(c)) {
+                flush(word, tokens);
+                tokens.add(new String(Character.toChars(c)));
+            } else {
+                word.appendCodePoint(c);
+            }
+        }
+        flush(word, tokens);
+        return tokens;
+    }
+
+    /**
+     * Greedy longest-match-first split of one word; the whole word is [UNK] if any part has no match.
+     */
+    List<Integer> wordPieces(String word) {
+        if (word.codePointCount(0, word.length()) > MAX_WORD_CHARS) {
+            return List.of(unknownId);
+        }
+        List<Integer> pieces = new ArrayList<>();
+        int start = 0;
+        while (start < word.length()) {
+            int end = word.length();
+            Integer match = null;
+            while (start < end) {
+                String candidate = (start > 0 ? "##" : "") + word.substring(start, end);
+                match = vocab.get(candidate);
+                if (match != null) {
+                    break;
+                }
+                end = word.offsetByCodePoints(end, -1);
+            }
+            if (match == null) {
+                return List.of(unknownId);
+            }
+            pieces.add(match);
+            start = end;
+        }
+        return pieces;
+    }
+
+    private int idOf(String token) {
+        Integer id = vocab.get(token);
+        if (id == null) {
+            throw new IllegalArgumentException("Vocabulary has no " + token + " token.");
+        }
+        return id;
+    }
+
+    private static void flush(StringBuilder word, List<String> tokens) {
+        if (!word.isEmpty()) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static boolean isPunctuation(int c) {
+        // All non-letter/number ASCII counts as punctuation (e.g. "$", "^"), as in the reference tokenizer
+        if ((c >= 33 && c <= 47) || (c >= 58 && c <= 64) || (c >= 91 && c <= 96) || (c >= 123 && c <= 126)) {
+            return true;
+        }
+        int type = Character.getType(c);
+        return type == Character.CONNECTOR_PUNCTUATION || type == Character.DASH_PUNCTUATION
+                || type == Character.START_PUNCTUATION || type == Character.END_PUNCTUATION
+                || type == Character.INITIAL_QUOTE_PUNCTUATION || type == Character.FINAL_QUOTE_PUNCTUATION
+                || type == Character.OTHER_PUNCTUATION;
+    }
+
+    private static boolean isCjk(int c) {
+        return (c >= 0x4E00 && c <= 0x9FFF) || (c >= 0x3400 && c <= 0x4DBF) || (c >= 0x20000 && c <= 0x2A6DF)
+                || (c >= 0x2A700 && c <= 0x2B73F) || (c >= 0x2B740 && c <= 0x2B81F) || (c >= 0x2B820 && c <= 0x2CEAF)
+                || (c >= 0xF900 && c <= 0xFAFF) || (c >= 0x2F800 && c <= 0x2FA1F);
+    }
+}
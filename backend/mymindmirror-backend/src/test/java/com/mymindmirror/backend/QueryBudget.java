@@ -0,0 +1,196 @@
+package com.mymindmirror.backend;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Query budgets for tests: counts the JDBC statements an action executes and the rows it reads back, and fails
+ * with the captured SQL when either exceeds its budget. Catches N+1 selects and redundant lookups before they ship.
+ * <p>
+ * Import {@link Config} into a Spring Boot test to wrap the application DataSource (datasource-proxy, which
+ * datasource-micrometer already brings in). Statements from every thread count, so work an endpoint hands to
+ * other threads (e.g. the dashboard's parallel reads) is included.
+ */
+public class QueryBudget {
+
+	private final List<Statement> statements = new ArrayList<>();
+	private final ThreadLocal<Statement> current = new ThreadLocal<>(); // Rows are read on the executing thread
+	private volatile boolean recording;
+
+	/**
+	 * An action under measurement (typically a MockMvc request).
+	 */
+	@FunctionalInterface
+	public interface Action {
+		void run() throws Exception;
+	}
+
+	/**
+	 * Runs the action and fails if it executed more statements or read more rows than allowed.
+	 * @param label What is measured, for the failure message (e.g. "GET /api/journal/history").
+	 * @param maxStatements Statement budget; a batch counts as one statement.
+	 * @param maxRows Budget for rows read from result sets (rows changed by writes don't count).
+	 * @param action The action to measure.
+	 */
+	public void assertWithin(String label, int maxStatements, int maxRows, Action action) throws Exception {
+		List<Statement> captured = record(action);
+		int rows = captured.stream().mapToInt(statement -> statement.rows.get()).sum();
+		if (captured.size() > maxStatements || rows > maxRows) {
+			throw new AssertionError(report(label, captured, rows, maxStatements, maxRows));
+		}
+	}
+
+	/**
+	 * Runs the action and returns the statements it executed, in order.
+	 */
+	public synchronized List<Statement> record(Action action) throws Exception {
+		synchronized (statements) {
+			statements.clear();
+		}
+		recording = true;
+		try {
+			action.run();
+		} finally {
+			recording = false;
+		}
+		synchronized (statements) {
+			return List.copyOf(statements);
+		}
+	}
+
+	private static String report(String label, List<Statement> captured, int rows, int maxStatements, int maxRows) {
+		StringBuilder message = new StringBuilder()
+				.append(label).append(" ran ").append(captured.size()).append(" statements reading ").append(rows)
+				.append(" rows (budget: ").append(maxStatements).append(" statements, ").append(maxRows).append(" rows):\n");
+		for (int i = 0; i < captured.size(); i++) {
+			message.append(String.format("  %2d. %s%n", i + 1, captured.get(i)));
+		}
+		// The same SQL more than once usually means a lookup inside a loop, or one that should be cached
+		Map<String, Long> repeated = captured.stream()
+				.collect(Collectors.groupingBy(statement -> statement.sql, LinkedHashMap::new, Collectors.counting()));
+		repeated.values().removeIf(count -> count < 2);
+		if (!repeated.isEmpty()) {
+			message.append("Repeated statements (N+1 or redundant lookups?):\n");
+			repeated.forEach((sql, count) -> message.append("  ").append(count).append("x ").append(sql).append('\n'));
+		}
+		return message.toString();
+	}
+
+	private void onQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+		if (!recording || queries.isEmpty()) {
+			current.remove();
+			return;
+		}
+		Statement statement = new Statement(queries.get(0).getQuery(), execution.isBatch() ? execution.getBatchSize() : 0);
+		synchronized (statements) {
+			statements.add(statement);
+		}
+		current.set(statement);
+	}
+
+	private void onMethod(MethodExecutionContext context) {
+		if (recording && context.getTarget() instanceof ResultSet && "next".equals(context.getMethod().getName())
+				&& Boolean.TRUE.equals(context.getResult())) {
+			Statement statement = current.get();
+			if (statement != null) {
+				statement.rows.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * One executed statement: its SQL, batch size (0 if not batched) and the rows read from its result.
+	 */
+	public static final class Statement {
+
+		private final String sql;
+		private final int batchSize;
+		private final AtomicInteger rows = new AtomicInteger();
+
+		private Statement(String sql, int batchSize) {
+			this.sql = sql;
+			this.batchSize = batchSize;
+		}
+
+		public String getSql() {
+			return sql;
+		}
+
+		public int getRows() {
+			return rows.get();
+		}
+
+		@Override
+		public String toString() {
+			String batch = batchSize > 0 ? ", batch of " + batchSize : "";
+			return "[" + rows.get() + (rows.get() == 1 ? " row" : " rows") + batch + "] " + sql;
+		}
+	}
+
+	/**
+	 * Registers the QueryBudget bean and routes the application DataSource through it.
+	 */
+	@TestConfiguration(proxyBeanMethods = false)
+	public static class Config {
+
+		@Bean
+		public QueryBudget queryBudget() {
+			return new QueryBudget();
+		}
+
+		@Bean
+		public static BeanPostProcessor queryBudgetDataSourceWrapper(ObjectProvider<QueryBudget> queryBudget) {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					// Only the DataSource the application uses; with replicas or shards its delegates stay unwrapped
+					if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)) {
+						return bean;
+					}
+					QueryBudget budget = queryBudget.getObject();
+					return ProxyDataSourceBuilder.create(dataSource)
+							.name("query-budget")
+							.listener(new QueryExecutionListener() {
+								@Override
+								public void beforeQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+								}
+
+								@Override
+								public void afterQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+									budget.onQuery(execution, queries);
+								}
+							})
+							.proxyResultSet() // So ResultSet.next() calls reach the method listener
+							.methodListener(new MethodExecutionListener() {
+								@Override
+								public void beforeMethod(MethodExecutionContext context) {
+								}
+
+								@Override
+								public void afterMethod(MethodExecutionContext context) {
+									budget.onMethod(context);
+								}
+							})
+							.build();
+				}
+			};
+		}
+	}
+}
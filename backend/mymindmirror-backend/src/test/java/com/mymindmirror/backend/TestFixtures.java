@@ -0,0 +1,54 @@
+package com.mymindmirror.backend;
+
+import com.mymindmirror.backend.model.JournalEntry;
+import com.mymindmirror.backend.model.User;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Unsaved users and journal entries for tests that write straight through the repositories. Usernames get a random
+ * suffix so tests sharing the context's database never collide.
+ */
+public final class TestFixtures {
+
+	public static final String EMOTIONS = "{\"joy\":0.6,\"sadness\":0.2}";
+	public static final String CONCERNS = "[\"work\"]";
+
+	private TestFixtures() {
+	}
+
+	/**
+	 * A user named {@code prefix} plus a random suffix. The password hash is a placeholder; these users never log in.
+	 */
+	public static User newUser(String prefix) {
+		String username = prefix + "-" + UUID.randomUUID();
+		User user = new User();
+		user.setUsername(username);
+		user.setEmail(username + "@example.com");
+		user.setPasswordHash("not-a-real-hash");
+		return user;
+	}
+
+	/**
+	 * An entry that has not been analysed yet.
+	 */
+	public static JournalEntry newEntry(User user, LocalDate date) {
+		JournalEntry entry = new JournalEntry();
+		entry.setUser(user);
+		entry.setEntryDate(date);
+		entry.setRawText("Entry for " + date);
+		return entry;
+	}
+
+	/**
+	 * An entry carrying analysis results, as the ML service would have filled them in. Any of them may be null.
+	 */
+	public static JournalEntry newEntry(User user, LocalDate date, Double moodScore, String emotions, String concerns) {
+		JournalEntry entry = newEntry(user, date);
+		entry.setMoodScore(moodScore);
+		entry.setEmotions(emotions);
+		entry.setCoreConcerns(concerns);
+		return entry;
+	}
+}
@@ -0,0 +1,134 @@
+package com.mymindmirror.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+	private final AtomicLong clock = new AtomicLong();
+	private final DataSource primary = mock(DataSource.class);
+	private final DataSource replica1 = mock(DataSource.class);
+	private final DataSource replica2 = mock(DataSource.class);
+	private ReadWriteRoutingDataSource routing;
+
+	@BeforeEach
+	void setUp() {
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		replicas.put("replica-1", replica1);
+		replicas.put("replica-2", replica2);
+		ReadYourWritesTracker tracker = new ReadYourWritesTracker(5000, clock::get);
+		routing = new ReadWriteRoutingDataSource(primary, replicas, tracker, new SimpleMeterRegistry(), 1);
+		routing.afterPropertiesSet();
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+	@Test
+	void readOnlyTransactionsRoundRobinAcrossReplicas() {
+		authenticate("alice");
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertEquals("replica-1", routing.determineCurrentLookupKey());
+		assertEquals("replica-2", routing.determineCurrentLookupKey());
+		assertEquals("replica-1", routing.determineCurrentLookupKey());
+	}
+
+	@Test
+	void writesAndUnauthenticatedReadsUsePrimary() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+		authenticate("alice");
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+	}
+
+	@Test
+	void readsStayOnPrimaryForTheReadYourWritesWindow() {
+		authenticate("alice");
+		runTransaction(true, "select e1_0.id from journal_entries e1_0", "insert into journal_entries (id) values (?)");
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		clock.addAndGet(4_000_000_000L);
+		assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+		clock.addAndGet(2_000_000_000L);
+		assertEquals("replica-1", routing.determineCurrentLookupKey());
+	}
+
+	@Test
+	void onlyCommittedTransactionsThatChangedDataStartTheWindow() {
+		authenticate("alice");
+		runTransaction(true, "select u1_0.id from users u1_0 where u1_0.id=? for update");
+		runTransaction(false, "/* update JournalEntry */ update journal_entries set raw_text=? where id=?");
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertEquals("replica-1", routing.determineCurrentLookupKey());
+	}
+
+	@Test
+	void unhealthyReplicasAreSkipped() throws SQLException {
+		Connection healthy = mock(Connection.class);
+		when(healthy.isValid(1)).thenReturn(true);
+		when(replica1.getConnection()).thenThrow(new SQLException("down"));
+		when(replica2.getConnection()).thenReturn(healthy);
+
+		routing.checkReplicas();
+		assertEquals(List.of("replica-2"), routing.getHealthyReplicas());
+
+		authenticate("alice");
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertEquals("replica-2", routing.determineCurrentLookupKey());
+		assertEquals("replica-2", routing.determineCurrentLookupKey());
+	}
+
+	/**
+	 * Runs the statements through the write detector inside a read-write transaction, then commits or rolls back.
+	 */
+	private void runTransaction(boolean commit, String... statements) {
+		StatementInspector inspector = routing.writeDetector();
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			assertEquals(ReadWriteRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+			for (String statement : statements) {
+				inspector.inspect(statement);
+			}
+			List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+			if (commit) {
+				synchronizations.forEach(TransactionSynchronization::afterCommit);
+			}
+			synchronizations.forEach(synchronization -> synchronization.afterCompletion(commit
+					? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	private static void authenticate(String username) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(username, null, List.of()));
+	}
+}
@@ -0,0 +1,50 @@
+package com.mymindmirror.backend.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SamplingTurboFilterTest {
+
+	private final LoggerContext context = new LoggerContext();
+	private final SamplingTurboFilter filter = new SamplingTurboFilter();
+	private Logger hot;
+	private Logger other;
+
+	@BeforeEach
+	void setUp() {
+		hot = context.getLogger("hot.path");
+		other = context.getLogger("other");
+		context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+		filter.addLogger("hot.path");
+		filter.setRate(10);
+	}
+
+	@Test
+	void keepsOneInRateInfoEventsFromSampledLoggers() {
+		int kept = 0;
+		for (int i = 0; i < 100; i++) {
+			if (filter.decide(null, hot, Level.INFO, "msg", null, null) == FilterReply.NEUTRAL) {
+				kept++;
+			}
+		}
+		assertEquals(10, kept);
+	}
+
+	@Test
+	void warningsOtherLoggersAndDisabledLevelsAreNotSampled() {
+		for (int i = 0; i < 20; i++) {
+			assertEquals(FilterReply.NEUTRAL, filter.decide(null, hot, Level.WARN, "msg", null, null));
+			assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.INFO, "msg", null, null));
+			assertEquals(FilterReply.NEUTRAL, filter.decide(null, hot, Level.DEBUG, "msg", null, null));
+		}
+		// None of the above consumed a sample slot, so the next INFO event is kept
+		assertEquals(FilterReply.NEUTRAL, filter.decide(null, hot, Level.INFO, "msg", null, null));
+		assertEquals(FilterReply.DENY, filter.decide(null, hot, Level.INFO, "msg", null, null));
+	}
+}
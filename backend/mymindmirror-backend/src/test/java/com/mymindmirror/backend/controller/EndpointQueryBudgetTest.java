@@ -0,0 +1,171 @@
+package com.mymindmirror.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mymindmirror.backend.QueryBudget;
+import com.mymindmirror.backend.model.JournalEntry;
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.payload.AuthRequest;
+import com.mymindmirror.backend.repository.JournalEntryRepository;
+import com.mymindmirror.backend.security.JwtUtil;
+import com.mymindmirror.backend.service.MlServiceClient;
+import com.mymindmirror.backend.service.MoodInsightsService;
+import com.mymindmirror.backend.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static com.mymindmirror.backend.TestFixtures.CONCERNS;
+import static com.mymindmirror.backend.TestFixtures.EMOTIONS;
+import static com.mymindmirror.backend.TestFixtures.newEntry;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement and row budgets for the journal and auth endpoints. Each request is measured through the whole
+ * filter chain (JWT user lookup included) with a warm second-level cache; reads are measured on their second call.
+ * Budgets are the measured counts plus one statement and one row, for a user lookup that misses the cache;
+ * a query per entry, or a read of the whole history where a window is enough, still exceeds them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(QueryBudget.Config.class)
+class EndpointQueryBudgetTest {
+
+	private static final int ENTRIES = 10; // More than any budget below allows statements for
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private QueryBudget queryBudget;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserDetailsService userDetailsService;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private JournalEntryRepository journalEntryRepository;
+
+	@Autowired
+	private MoodInsightsService moodInsightsService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@MockitoBean
+	private MlServiceClient mlServiceClient;
+
+	private String token;
+	private List<JournalEntry> entries;
+
+	@BeforeEach
+	void setUp() {
+		when(mlServiceClient.analyzeJournal(anyString())).thenReturn(Map.of(
+				"moodScore", 0.4,
+				"emotions", Map.of("joy", 0.7, "sadness", 0.1),
+				"coreConcerns", List.of("work"),
+				"summary", "A steady day.",
+				"growthTips", List.of("Take a walk.")));
+		when(mlServiceClient.generateReflection(anyString())).thenReturn("A calm day.");
+
+		String username = "budget-" + UUID.randomUUID();
+		User user = userService.registerNewUser(username, username + "@example.com", "secret-password");
+		token = "Bearer " + jwtUtil.generateToken(userDetailsService.loadUserByUsername(username));
+		LocalDate today = LocalDate.now();
+		entries = journalEntryRepository.saveAll(IntStream.range(0, ENTRIES)
+				.mapToObj(day -> newEntry(user, today.minusDays(day), 0.1 * day, EMOTIONS, CONCERNS))
+				.toList());
+		moodInsightsService.recordEntry(user, today, 0.0, false); // The first journal write stores the insight state
+	}
+
+	@Test
+	void journalReadsStayWithinBudget() throws Exception {
+		UUID entryId = entries.get(3).getId();
+		warmAndExpect("GET /api/journal/history", get("/api/journal/history"), status().isOk(), 2, ENTRIES + 1);
+		warmAndExpect("GET /api/journal/mood-data", get("/api/journal/mood-data"), status().isOk(), 2, ENTRIES + 1);
+		warmAndExpect("GET /api/journal/{id}", get("/api/journal/" + entryId), status().isOk(), 2, 2);
+		// Served from the stored insight state, not the history
+		warmAndExpect("GET /api/journal/insights", get("/api/journal/insights"), status().isOk(), 2, 2);
+		// Cached for the day after the first call
+		warmAndExpect("GET /api/journal/reflection/today", get("/api/journal/reflection/today"), status().isOk(), 1, 1);
+		warmAndExpect("GET /api/journal/dashboard", get("/api/journal/dashboard"), status().isOk(), 2, ENTRIES + 1);
+		warmAndExpect("GET /api/journal/digest/weekly", get("/api/journal/digest/weekly"), status().isNotFound(), 2, 1);
+	}
+
+	@Test
+	void journalWritesStayWithinBudget() throws Exception {
+		String body = objectMapper.writeValueAsString(Map.of("text", "Edited text."));
+
+		// Today's entry looked up and updated, then the insight state locked and updated; never the rest of the history
+		expect("POST /api/journal", post("/api/journal").contentType(MediaType.APPLICATION_JSON).content(body),
+				status().isCreated(), 5, 3);
+		// The entry comes from the second-level cache; its update or delete, plus the insight state
+		expect("PUT /api/journal/{id}", put("/api/journal/" + entries.get(2).getId())
+				.contentType(MediaType.APPLICATION_JSON).content(body), status().isOk(), 4, 2);
+		expect("DELETE /api/journal/{id}", delete("/api/journal/" + entries.get(5).getId()), status().isNoContent(), 4, 2);
+	}
+
+	@Test
+	void authEndpointsStayWithinBudget() throws Exception {
+		String username = "budget-" + UUID.randomUUID();
+		AuthRequest request = new AuthRequest();
+		request.setUsername(username);
+		request.setEmail(username + "@example.com");
+		request.setPassword("secret-password");
+		String body = objectMapper.writeValueAsString(request);
+
+		// Existence check (finds nothing) and insert; no user to look up yet
+		assertWithin("POST /api/auth/register", 2, 0, () -> mockMvc.perform(post("/api/auth/register")
+				.contentType(MediaType.APPLICATION_JSON).content(body)).andExpect(status().isCreated()));
+		// The user was cached on insert; authentication and token generation both find it there
+		assertWithin("POST /api/auth/login", 1, 1, () -> mockMvc.perform(post("/api/auth/login")
+				.contentType(MediaType.APPLICATION_JSON).content(body)).andExpect(status().isOk()));
+	}
+
+	/**
+	 * Sends a read once to warm the caches, then measures it again.
+	 */
+	private void warmAndExpect(String label, MockHttpServletRequestBuilder request, ResultMatcher expectedStatus,
+							   int maxStatements, int maxRows) throws Exception {
+		request.header("Authorization", token);
+		mockMvc.perform(request).andExpect(expectedStatus);
+		assertWithin(label, maxStatements, maxRows, () -> mockMvc.perform(request).andExpect(expectedStatus));
+	}
+
+	private void expect(String label, MockHttpServletRequestBuilder request, ResultMatcher expectedStatus,
+						int maxStatements, int maxRows) throws Exception {
+		request.header("Authorization", token);
+		assertWithin(label, maxStatements, maxRows, () -> mockMvc.perform(request).andExpect(expectedStatus));
+	}
+
+	private void assertWithin(String label, int maxStatements, int maxRows, QueryBudget.Action action) throws Exception {
+		queryBudget.assertWithin(label, maxStatements, maxRows, action);
+	}
+}
@@ -0,0 +1,38 @@
+package com.mymindmirror.backend.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedTextConverterTest {
+
+	private final CompressedTextConverter converter = new CompressedTextConverter(64);
+
+	@Test
+	void longTextIsCompressedAndRestored() {
+		String text = "Today I walked by the river and thought about work again. ".repeat(40);
+
+		String column = converter.convertToDatabaseColumn(text);
+
+		assertTrue(column.startsWith(CompressedTextConverter.MARKER));
+		assertTrue(column.length() < text.length());
+		assertEquals(text, converter.convertToEntityAttribute(column));
+	}
+
+	@Test
+	void shortTextAndExistingPlainRowsAreLeftAsIs() {
+		assertEquals("A calm day.", converter.convertToDatabaseColumn("A calm day."));
+		assertEquals("A calm day.", converter.convertToEntityAttribute("A calm day."));
+		assertNull(converter.convertToDatabaseColumn(null));
+		assertNull(converter.convertToEntityAttribute(null));
+	}
+
+	@Test
+	void textThatLooksCompressedSurvivesARoundTrip() {
+		String text = CompressedTextConverter.MARKER + "not really compressed";
+
+		assertEquals(text, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(text)));
+	}
+}
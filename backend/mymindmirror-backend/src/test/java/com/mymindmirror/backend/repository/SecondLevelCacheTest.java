@@ -0,0 +1,116 @@
+package com.mymindmirror.backend.repository;
+
+import com.mymindmirror.backend.TestFixtures;
+import com.mymindmirror.backend.model.JournalEntry;
+import com.mymindmirror.backend.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static com.mymindmirror.backend.TestFixtures.newUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JournalEntryRepository journalEntryRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void resetCache() {
+		entityManagerFactory.getCache().evictAll();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void repeatedUsernameLookupsDoNotHitTheDatabase() {
+		User user = userRepository.save(newUser("cache"));
+
+		assertTrue(userRepository.findByNaturalUsername(user.getUsername()).isPresent());
+		statistics.clear();
+		assertTrue(userRepository.findByNaturalUsername(user.getUsername()).isPresent());
+
+		assertEquals(0, statistics.getPrepareStatementCount());
+		assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+	}
+
+	@Test
+	void updatedEntryIsNotServedStaleFromCache() {
+		JournalEntry entry = journalEntryRepository.save(newEntry(userRepository.save(newUser("cache")), "first draft"));
+		UUID id = entry.getId();
+
+		journalEntryRepository.findById(id); // Warm the cache
+		statistics.clear();
+		assertEquals("first draft", transactionTemplate.execute(status -> {
+			JournalEntry cached = journalEntryRepository.findById(id).orElseThrow();
+			assertEquals(0, statistics.getPrepareStatementCount());
+			return cached.getRawText(); // Lazy body group; may still need its own select
+		}));
+
+		entry.setRawText("second draft");
+		journalEntryRepository.save(entry);
+
+		assertEquals("second draft", transactionTemplate.execute(status ->
+				journalEntryRepository.findById(id).orElseThrow().getRawText()));
+	}
+
+	@Test
+	void deletedEntryIsEvicted() {
+		JournalEntry entry = journalEntryRepository.save(newEntry(userRepository.save(newUser("cache")), "to be deleted"));
+		UUID id = entry.getId();
+		journalEntryRepository.findById(id); // Warm the cache
+
+		journalEntryRepository.delete(entry);
+
+		// READ_WRITE leaves a soft lock under the key until it times out, so check lookups rather than contains()
+		statistics.clear();
+		assertFalse(journalEntryRepository.findById(id).isPresent());
+		assertEquals(0, statistics.getSecondLevelCacheHitCount());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void perDayLookupIsCachedAndInvalidatedByNewEntries() {
+		User user = userRepository.save(newUser("cache"));
+		LocalDate today = LocalDate.now();
+
+		assertFalse(journalEntryRepository.findByUserAndEntryDate(user, today).isPresent());
+		journalEntryRepository.save(newEntry(user, "written after the first lookup"));
+
+		// The cached empty result must not survive the insert
+		assertTrue(journalEntryRepository.findByUserAndEntryDate(user, today).isPresent());
+		statistics.clear();
+		assertTrue(journalEntryRepository.findByUserAndEntryDate(user, today).isPresent());
+		assertTrue(statistics.getQueryCacheHitCount() > 0);
+	}
+
+	private static JournalEntry newEntry(User user, String text) {
+		JournalEntry entry = TestFixtures.newEntry(user, LocalDate.now());
+		entry.setRawText(text);
+		return entry;
+	}
+}
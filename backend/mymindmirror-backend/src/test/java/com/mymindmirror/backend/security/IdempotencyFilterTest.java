@@ -0,0 +1,137 @@
+package com.mymindmirror.backend.security;
+
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+class IdempotencyFilterTest {
+
+	private final JournalStub journal = new JournalStub();
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		// Stands in for the JWT filter, on whichever thread the request runs
+		Filter authenticate = (request, response, chain) -> {
+			SecurityContextHolder.getContext().setAuthentication(
+					UsernamePasswordAuthenticationToken.authenticated("alice", null, List.of()));
+			try {
+				chain.doFilter(request, response);
+			} finally {
+				SecurityContextHolder.clearContext();
+			}
+		};
+		IdempotencyFilter idempotencyFilter = new IdempotencyFilter(true, 3600, 100, 32768, 5);
+		mockMvc = MockMvcBuilders.standaloneSetup(journal).addFilters(authenticate, idempotencyFilter).build();
+	}
+
+	@AfterEach
+	void releaseBlockedRequests() {
+		journal.release.countDown();
+	}
+
+	@Test
+	void retryGetsTheOriginalResponseWithoutRunningAgain() throws Exception {
+		journal.release.countDown();
+
+		MockHttpServletResponse first = send("k1", "{\"text\":\"A good day.\"}");
+		MockHttpServletResponse retry = send("k1", "{\"text\":\"A good day.\"}");
+
+		assertEquals(201, first.getStatus());
+		assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+		assertEquals(201, retry.getStatus());
+		assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+		assertEquals(first.getContentAsString(), retry.getContentAsString());
+		assertEquals(1, journal.saves.get());
+	}
+
+	@Test
+	void retryWaitsForTheRequestStillRunning() throws Exception {
+		CompletableFuture<MockHttpServletResponse> original = CompletableFuture.supplyAsync(() -> sendUnchecked("k2"));
+		assertTrue(journal.entered.await(5, TimeUnit.SECONDS));
+		CompletableFuture<MockHttpServletResponse> retry = CompletableFuture.supplyAsync(() -> sendUnchecked("k2"));
+
+		Thread.sleep(100);
+		assertFalse(retry.isDone()); // Waiting, not running a second save
+		journal.release.countDown();
+
+		assertEquals(201, original.get(5, TimeUnit.SECONDS).getStatus());
+		MockHttpServletResponse replayed = retry.get(5, TimeUnit.SECONDS);
+		assertEquals(201, replayed.getStatus());
+		assertEquals("true", replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+		assertEquals(1, journal.saves.get());
+	}
+
+	@Test
+	void keyReusedWithADifferentBodyIsRejected() throws Exception {
+		journal.release.countDown();
+
+		assertEquals(201, send("k3", "{\"text\":\"A good day.\"}").getStatus());
+		MockHttpServletResponse reused = send("k3", "{\"text\":\"A different day.\"}");
+
+		assertEquals(422, reused.getStatus());
+		assertNull(reused.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+		assertEquals(1, journal.saves.get());
+	}
+
+	private MockHttpServletResponse send(String key, String body) throws Exception {
+		MockHttpServletRequestBuilder request = post("/api/journal")
+				.header(IdempotencyFilter.HEADER, key)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body);
+		return mockMvc.perform(request).andReturn().getResponse();
+	}
+
+	private MockHttpServletResponse sendUnchecked(String key) {
+		try {
+			return send(key, "{\"text\":\"A slow day.\"}");
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Counts saves and echoes the body; holds each save until released.
+	 */
+	@RestController
+	static class JournalStub {
+
+		final AtomicInteger saves = new AtomicInteger();
+		final CountDownLatch entered = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@PostMapping("/api/journal")
+		ResponseEntity<String> save(@RequestBody String body) throws InterruptedException {
+			int save = saves.incrementAndGet();
+			entered.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return ResponseEntity.status(HttpStatus.CREATED).contentType(MediaType.APPLICATION_JSON)
+					.body("{\"save\":" + save + ",\"request\":" + body + "}");
+		}
+	}
+}
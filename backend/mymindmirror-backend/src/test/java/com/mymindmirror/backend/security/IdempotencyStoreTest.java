@@ -0,0 +1,92 @@
+package com.mymindmirror.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTest {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void replaysTheFirstResponseUntilItExpires() throws Exception {
+		AtomicLong clock = new AtomicLong();
+		IdempotencyStore store = new IdempotencyStore(60, 100, clock::get);
+
+		IdempotencyStore.Claim first = store.claim("alice:k1", "POST /api/journal");
+		assertTrue(first.isOwner());
+		first.complete(response(201, "{\"id\":1}"));
+
+		IdempotencyStore.Claim retry = store.claim("alice:k1", "POST /api/journal");
+		assertFalse(retry.isOwner());
+		assertTrue(retry.matches("POST /api/journal"));
+		assertFalse(retry.matches("PUT /api/journal/1"));
+		IdempotencyStore.StoredResponse replayed = retry.await(1, TimeUnit.SECONDS).orElseThrow();
+		assertEquals(201, replayed.getStatus());
+		assertArrayEquals("{\"id\":1}".getBytes(StandardCharsets.UTF_8), replayed.getBody());
+
+		clock.addAndGet(60 * SECOND);
+		assertTrue(store.claim("alice:k1", "POST /api/journal").isOwner()); // Expired: runs again
+	}
+
+	@Test
+	void duplicateWaitsForTheInFlightRequest() throws Exception {
+		IdempotencyStore store = new IdempotencyStore(60, 100);
+		IdempotencyStore.Claim owner = store.claim("alice:k1", "POST /api/journal");
+		IdempotencyStore.Claim duplicate = store.claim("alice:k1", "POST /api/journal");
+
+		CompletableFuture<Optional<IdempotencyStore.StoredResponse>> waiting =
+				CompletableFuture.supplyAsync(() -> {
+					try {
+						return duplicate.await(5, TimeUnit.SECONDS);
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					}
+				});
+		Thread.sleep(50);
+		assertFalse(waiting.isDone());
+
+		owner.complete(response(200, "ok"));
+		assertEquals(200, waiting.get(5, TimeUnit.SECONDS).orElseThrow().getStatus());
+	}
+
+	@Test
+	void releasedKeyLetsTheNextRequestRun() throws Exception {
+		IdempotencyStore store = new IdempotencyStore(60, 100);
+		IdempotencyStore.Claim owner = store.claim("alice:k1", "POST /api/journal");
+		IdempotencyStore.Claim duplicate = store.claim("alice:k1", "POST /api/journal");
+
+		owner.release(); // e.g. the ML-backed save failed with a 500
+		assertTrue(duplicate.await(1, TimeUnit.SECONDS).isEmpty());
+		assertTrue(store.claim("alice:k1", "POST /api/journal").isOwner());
+	}
+
+	@Test
+	void boundsTrackedKeysAndNeverEvictsInFlightRequests() {
+		AtomicLong clock = new AtomicLong();
+		IdempotencyStore store = new IdempotencyStore(10, 2, clock::get);
+
+		store.claim("a", "POST /api/journal").complete(response(201, ""));
+		store.claim("b", "POST /api/journal"); // Still running
+		assertNull(store.claim("c", "POST /api/journal"));
+
+		clock.addAndGet(10 * SECOND);
+		assertTrue(store.claim("c", "POST /api/journal").isOwner()); // "a" expired and made room
+		assertEquals(2, store.size());
+		assertEquals(0, store.evictExpired());
+	}
+
+	private static IdempotencyStore.StoredResponse response(int status, String body) {
+		return new IdempotencyStore.StoredResponse(status, "application/json", body.getBytes(StandardCharsets.UTF_8));
+	}
+}
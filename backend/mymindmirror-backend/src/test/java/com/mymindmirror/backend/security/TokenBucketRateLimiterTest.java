@@ -0,0 +1,67 @@
+package com.mymindmirror.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void rejectsOnceBurstIsSpentAndReportsRetryAfter() {
+		AtomicLong clock = new AtomicLong();
+		// 2 tokens, refilled at 1 token every 10 seconds
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 0.1, 60, 100, clock::get);
+
+		assertTrue(limiter.tryAcquire("alice").isAllowed());
+		assertTrue(limiter.tryAcquire("alice").isAllowed());
+		TokenBucketRateLimiter.Decision denied = limiter.tryAcquire("alice");
+		assertFalse(denied.isAllowed());
+		assertEquals(10, denied.getRetryAfterSeconds());
+
+		clock.addAndGet(4 * SECOND);
+		assertEquals(6, limiter.tryAcquire("alice").getRetryAfterSeconds());
+
+		clock.addAndGet(6 * SECOND);
+		assertTrue(limiter.tryAcquire("alice").isAllowed());
+		// Other users have their own budget
+		assertTrue(limiter.tryAcquire("bob").isAllowed());
+	}
+
+	@Test
+	void evictsOnlyBucketsThatHaveRefilledAndGoneIdle() {
+		AtomicLong clock = new AtomicLong();
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 1.0, 1, 100, clock::get);
+
+		for (int i = 0; i < 5; i++) {
+			limiter.tryAcquire("alice");
+		}
+		clock.addAndGet(5 * SECOND);
+		limiter.cleanUp();
+		assertEquals(1, limiter.size()); // Just refilled, not yet idle for 1s
+
+		clock.addAndGet(SECOND);
+		limiter.cleanUp();
+		assertEquals(0, limiter.size());
+	}
+
+	@Test
+	void everyKeyKeepsItsOwnBucketWhileTrackedKeysStayBounded() {
+		AtomicLong clock = new AtomicLong();
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1.0, 60, 2, clock::get);
+
+		assertTrue(limiter.tryAcquire("a").isAllowed());
+		assertFalse(limiter.tryAcquire("a").isAllowed());
+		// Keys beyond the bound don't share a bucket, so "a" can't throttle them
+		assertTrue(limiter.tryAcquire("b").isAllowed());
+		assertTrue(limiter.tryAcquire("c").isAllowed());
+		assertTrue(limiter.tryAcquire("d").isAllowed());
+		limiter.cleanUp();
+		assertEquals(2, limiter.size());
+	}
+}
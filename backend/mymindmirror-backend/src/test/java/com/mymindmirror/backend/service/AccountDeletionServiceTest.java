@@ -0,0 +1,77 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.model.AccountDeletion;
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.repository.AccountDeletionRepository;
+import com.mymindmirror.backend.repository.JournalEntryRepository;
+import com.mymindmirror.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+
+import static com.mymindmirror.backend.TestFixtures.newEntry;
+import static com.mymindmirror.backend.TestFixtures.newUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"app.account-deletion.chunk-size=2",
+		"app.account-deletion.pause-ms=0",
+		"app.account-deletion.grace-seconds=0",
+		"app.account-deletion.poll-interval-ms=3600000" // Only the test's own calls run
+})
+@ActiveProfiles("test")
+class AccountDeletionServiceTest {
+
+	@Autowired
+	private AccountDeletionService accountDeletionService;
+
+	@Autowired
+	private AccountDeletionRepository accountDeletionRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JournalEntryRepository journalEntryRepository;
+
+	@Autowired
+	private UserDetailsService userDetailsService;
+
+	@MockitoBean
+	private MlServiceClient mlServiceClient;
+
+	@Test
+	void disablesTheAccountAtOnceAndDeletesItsDataInChunks() {
+		User user = userRepository.save(newUser("deleted"));
+		User other = userRepository.save(newUser("deleted"));
+		LocalDate day = LocalDate.of(2024, 5, 1);
+		for (int i = 0; i < 5; i++) {
+			journalEntryRepository.save(newEntry(user, day.plusDays(i)));
+		}
+		journalEntryRepository.save(newEntry(other, day));
+
+		accountDeletionService.requestDeletion(user);
+
+		assertFalse(userDetailsService.loadUserByUsername(user.getUsername()).isEnabled());
+		assertTrue(userDetailsService.loadUserByUsername(other.getUsername()).isEnabled());
+		assertEquals(5, journalEntryRepository.findAllByUserId(user.getId()).size()); // Nothing deleted in the request
+
+		accountDeletionService.processPending();
+
+		assertTrue(journalEntryRepository.findAllByUserId(user.getId()).isEmpty());
+		assertTrue(userRepository.findById(user.getId()).isEmpty());
+		assertEquals(1, journalEntryRepository.findAllByUserId(other.getId()).size());
+		AccountDeletion deletion = accountDeletionRepository.findById(user.getId()).orElseThrow();
+		assertEquals(AccountDeletion.Step.DONE, deletion.getStep());
+		assertEquals(6, deletion.getDeletedRows()); // 5 entries, 1 users row
+		assertNotNull(deletion.getCompletedAt());
+	}
+}
@@ -0,0 +1,88 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.model.AnalysisJob;
+import com.mymindmirror.backend.repository.AnalysisJobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"app.analysis.jobs.lease-seconds=60",
+		"app.analysis.jobs.max-attempts=2",
+		"app.analysis.jobs.backoff-base-seconds=10"
+})
+@ActiveProfiles("test")
+class AnalysisJobServiceTest {
+
+	@Autowired
+	private AnalysisJobService analysisJobService;
+
+	@Autowired
+	private AnalysisJobRepository analysisJobRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@BeforeEach
+	void clearJobs() {
+		analysisJobRepository.deleteAll();
+	}
+
+	@Test
+	void claimedJobsAreNotHandedToAnotherNodeUntilTheLeaseExpires() {
+		UUID entryId = UUID.randomUUID();
+		transactionTemplate.executeWithoutResult(status -> analysisJobService.enqueue(entryId));
+		Instant now = Instant.now();
+
+		List<AnalysisJob> first = analysisJobService.claimBatch("node-a", 10, now);
+		assertEquals(1, first.size());
+		assertTrue(analysisJobService.claimBatch("node-b", 10, now).isEmpty());
+
+		List<AnalysisJob> reclaimed = analysisJobService.claimBatch("node-b", 10, now.plusSeconds(61));
+		assertEquals(1, reclaimed.size());
+		assertEquals(2, reclaimed.get(0).getAttempts());
+		// node-a's lease is gone, so it can no longer complete the job
+		assertFalse(analysisJobService.complete(first.get(0), "node-a", now.plusSeconds(62)));
+		assertTrue(analysisJobService.complete(reclaimed.get(0), "node-b", now.plusSeconds(62)));
+	}
+
+	@Test
+	void failedJobsBackOffAndEventuallyFail() {
+		transactionTemplate.executeWithoutResult(status -> analysisJobService.enqueue(UUID.randomUUID()));
+		Instant now = Instant.now();
+
+		AnalysisJob job = analysisJobService.claimBatch("node-a", 10, now).get(0);
+		assertTrue(analysisJobService.fail(job, "node-a", "ML down", now));
+		assertTrue(analysisJobService.claimBatch("node-a", 10, now.plusSeconds(5)).isEmpty()); // Still backing off
+
+		job = analysisJobService.claimBatch("node-a", 10, now.plusSeconds(13)).get(0);
+		assertTrue(analysisJobService.fail(job, "node-a", "ML still down", now.plusSeconds(13)));
+
+		AnalysisJob stored = analysisJobRepository.findById(job.getId()).orElseThrow();
+		assertEquals(AnalysisJob.Status.FAILED, stored.getStatus());
+		assertTrue(analysisJobService.claimBatch("node-a", 10, now.plus(Duration.ofDays(1))).isEmpty());
+	}
+
+	@Test
+	void enqueueingTwiceKeepsOnePendingJob() {
+		UUID entryId = UUID.randomUUID();
+		transactionTemplate.executeWithoutResult(status -> {
+			analysisJobService.enqueue(entryId);
+			analysisJobService.enqueue(entryId);
+		});
+
+		assertEquals(1, analysisJobRepository.count());
+	}
+}
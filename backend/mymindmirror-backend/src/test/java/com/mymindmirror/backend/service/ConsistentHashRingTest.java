@@ -0,0 +1,47 @@
+package com.mymindmirror.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+	private static final int KEYS = 30_000;
+
+	@Test
+	void spreadsUsersEvenlyAcrossShards() {
+		ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2"), 128);
+		Map<String, Integer> counts = new HashMap<>();
+		Random random = new Random(7);
+		for (int i = 0; i < KEYS; i++) {
+			counts.merge(ring.nodeFor(new UUID(random.nextLong(), random.nextLong())), 1, Integer::sum);
+		}
+		assertEquals(3, counts.size());
+		counts.values().forEach(count -> assertTrue(Math.abs(count - KEYS / 3) < KEYS / 3 * 0.2, "Uneven spread: " + counts));
+	}
+
+	@Test
+	void addingAShardOnlyMovesUsersOntoIt() {
+		ConsistentHashRing before = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2"), 128);
+		ConsistentHashRing after = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2", "shard-3"), 128);
+		Random random = new Random(11);
+		int moved = 0;
+		for (int i = 0; i < KEYS; i++) {
+			UUID key = new UUID(random.nextLong(), random.nextLong());
+			String oldShard = before.nodeFor(key);
+			String newShard = after.nodeFor(key);
+			if (!oldShard.equals(newShard)) {
+				assertEquals("shard-3", newShard);
+				moved++;
+			}
+		}
+		assertTrue(Math.abs(moved - KEYS / 4) < KEYS / 4 * 0.2, "Moved " + moved);
+	}
+}
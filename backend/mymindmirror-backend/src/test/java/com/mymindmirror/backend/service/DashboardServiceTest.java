@@ -0,0 +1,99 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.payload.DashboardResponse;
+import com.mymindmirror.backend.repository.JournalEntryRepository;
+import com.mymindmirror.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.mymindmirror.backend.TestFixtures.newEntry;
+import static com.mymindmirror.backend.TestFixtures.newUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "app.dashboard.reflection-timeout-ms=300")
+@ActiveProfiles("test")
+class DashboardServiceTest {
+
+	@Autowired
+	private DashboardService dashboardService;
+
+	@Autowired
+	private JournalEntryRepository journalEntryRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@MockitoBean
+	private ReflectionService reflectionService;
+
+	@Test
+	void assemblesEveryPartFromOneHistoryRead() {
+		AtomicReference<Thread> reflectionThread = new AtomicReference<>();
+		when(reflectionService.getTodaysReflection(any())).thenAnswer(invocation -> {
+			reflectionThread.set(Thread.currentThread());
+			return Optional.of("A calm day.");
+		});
+		User user = userRepository.save(newUser("dashboard"));
+		LocalDate today = LocalDate.now();
+		journalEntryRepository.save(newEntry(user, today.minusDays(2), 0.2, "{\"joy\":0.6,\"sadness\":0.2}", "[\"work\",\"sleep\"]"));
+		journalEntryRepository.save(newEntry(user, today.minusDays(1), null, "{\"joy\":1,\"sadness\":0.4}", "[\"work\"]"));
+		journalEntryRepository.save(newEntry(user, today, -0.1, null, null));
+
+		DashboardResponse dashboard = dashboardService.getDashboard(user);
+
+		assertTrue(dashboard.getDegraded().isEmpty());
+		assertEquals(3, dashboard.getEntries().size());
+		assertEquals(today, dashboard.getTodaysEntry().getEntryDate());
+		assertEquals(List.of(today.minusDays(2), today), dashboard.getMoodSeries().stream().map(point -> point.getDate()).toList());
+		assertEquals(List.of("joy", "sadness"), List.copyOf(dashboard.getEmotionAverages().keySet()));
+		assertEquals(0.8, dashboard.getEmotionAverages().get("joy"), 1e-9);
+		assertEquals(List.of("work", "sleep"), List.copyOf(dashboard.getConcernCounts().keySet()));
+		assertEquals(2, dashboard.getConcernCounts().get("work"));
+		assertEquals("A calm day.", dashboard.getReflection());
+		// Forked, not run on the caller's thread
+		assertTrue(reflectionThread.get().isVirtual());
+		assertTrue(reflectionThread.get().getName().startsWith("dashboard-"), reflectionThread.get().getName());
+	}
+
+	@Test
+	void slowReflectionIsLeftOutInsteadOfHoldingUpThePage() throws InterruptedException {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		when(reflectionService.getTodaysReflection(any())).thenAnswer(invocation -> {
+			try {
+				Thread.sleep(5_000);
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+				throw e;
+			}
+			return Optional.of("Too late.");
+		});
+		User user = userRepository.save(newUser("dashboard"));
+		journalEntryRepository.save(newEntry(user, LocalDate.now(), 0.3, null, null));
+
+		long started = System.nanoTime();
+		DashboardResponse dashboard = dashboardService.getDashboard(user);
+		long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+		assertTrue(elapsedMillis < 3_000, "Took " + elapsedMillis + " ms");
+		assertEquals(List.of(DashboardService.PART_REFLECTION), dashboard.getDegraded());
+		assertNull(dashboard.getReflection());
+		assertEquals(1, dashboard.getEntries().size());
+		// Cancelled rather than left running in the background
+		assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+	}
+}
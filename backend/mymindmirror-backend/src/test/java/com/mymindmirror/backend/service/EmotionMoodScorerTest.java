@@ -0,0 +1,27 @@
+package com.mymindmirror.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmotionMoodScorerTest {
+
+	@Test
+	void weightsEachEmotionByItsScore() {
+		assertEquals(0.2, EmotionMoodScorer.moodScore(Map.of("joy", 0.6, "sadness", 0.4)), 1e-9);
+		assertEquals((0.5 * -0.8 + 0.3 * -0.7) / 0.8, EmotionMoodScorer.moodScore(Map.of("anger", 0.5, "fear", 0.3)), 1e-9);
+	}
+
+	@Test
+	void unweightedEmotionsDiluteTheScore() {
+		assertEquals(0.5, EmotionMoodScorer.moodScore(Map.of("love", 0.5, "boredom", 0.5)), 1e-9);
+	}
+
+	@Test
+	void noScoresMeanNeutral() {
+		assertEquals(0.0, EmotionMoodScorer.moodScore(Map.of()));
+		assertEquals(0.0, EmotionMoodScorer.moodScore(Map.of("joy", 0.0)));
+	}
+}
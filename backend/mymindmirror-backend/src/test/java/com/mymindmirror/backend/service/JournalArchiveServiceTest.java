@@ -0,0 +1,91 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.TestFixtures;
+import com.mymindmirror.backend.config.JournalArchivePolicy;
+import com.mymindmirror.backend.model.JournalEntry;
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.payload.JournalEntryResponse;
+import com.mymindmirror.backend.payload.MoodDataResponse;
+import com.mymindmirror.backend.repository.ArchivedJournalEntryRepository;
+import com.mymindmirror.backend.repository.JournalEntryRepository;
+import com.mymindmirror.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static com.mymindmirror.backend.TestFixtures.newUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"app.archive.enabled=true",
+		"app.archive.horizon-months=12",
+		"app.archive.chunk-size=2",
+		"app.archive.pause-ms=0"
+})
+@ActiveProfiles("test")
+class JournalArchiveServiceTest {
+
+	@Autowired
+	private JournalArchiveService journalArchiveService;
+
+	@Autowired
+	private JournalArchivePolicy archivePolicy;
+
+	@Autowired
+	private JournalEntryRepository journalEntryRepository;
+
+	@Autowired
+	private ArchivedJournalEntryRepository archivedJournalEntryRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void coldEntriesMoveInChunksAndRangeReadsStillFindThem() {
+		User user = userRepository.save(newUser("archive"));
+		LocalDate today = LocalDate.now();
+		LocalDate cutoff = archivePolicy.cutoff();
+		List<UUID> cold = List.of(
+				journalEntryRepository.save(newEntry(user, cutoff.minusYears(2), "two years back", 0.5)).getId(),
+				journalEntryRepository.save(newEntry(user, cutoff.minusMonths(3), "a season back", -0.2)).getId(),
+				journalEntryRepository.save(newEntry(user, cutoff.minusDays(1), "x".repeat(5000), null)).getId());
+		UUID hot = journalEntryRepository.save(newEntry(user, today, "today", 0.1)).getId();
+
+		assertEquals(3, journalArchiveService.archiveBefore(cutoff));
+
+		cold.forEach(id -> {
+			assertFalse(journalEntryRepository.existsById(id));
+			assertTrue(archivedJournalEntryRepository.existsById(id));
+		});
+		assertTrue(journalEntryRepository.existsById(hot));
+
+		// A range reaching past the cutoff reads both tiers; compressed text is copied as stored
+		List<JournalEntryResponse> all = journalEntryRepository.findResponsesByUserAndEntryDateBetween(
+				user, cutoff.minusYears(3), today);
+		assertEquals(4, all.size());
+		assertTrue(all.stream().anyMatch(entry -> "x".repeat(5000).equals(entry.getRawText())));
+		List<MoodDataResponse> moods = journalEntryRepository.findMoodDataByUserAndEntryDateBetween(
+				user, cutoff.minusYears(3), today);
+		assertEquals(List.of(0.5, -0.2, 0.1), moods.stream().map(MoodDataResponse::getMoodScore).toList());
+		assertEquals(4, journalEntryRepository.findEntryDatesByUserDesc(user).size());
+		assertTrue(journalEntryRepository.findResponseByIdAndUser(cold.get(0), user).isPresent());
+
+		// Recent ranges stay on the hot table
+		assertEquals(1, journalEntryRepository.findResponsesByUserAndEntryDateBetween(user, today.minusDays(30), today).size());
+
+		assertEquals(0, journalArchiveService.archiveBefore(cutoff));
+	}
+
+	private static JournalEntry newEntry(User user, LocalDate date, String text, Double moodScore) {
+		JournalEntry entry = TestFixtures.newEntry(user, date, moodScore, null, null);
+		entry.setRawText(text);
+		return entry;
+	}
+}
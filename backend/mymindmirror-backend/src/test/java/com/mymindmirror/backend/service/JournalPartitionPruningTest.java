@@ -0,0 +1,80 @@
+package com.mymindmirror.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that MySQL prunes the monthly partitions for the history and chart range queries.
+ * Needs MySQL 8 (H2 has no partitioning), so it is skipped unless mysql.url is set. The mysql profile runs it against
+ * a Testcontainers MySQL (mvn -Pmysql test, as CI does); to use an existing scratch database instead:
+ * ./mvnw test -Dtest=JournalPartitionPruningTest -Dmysql.url=jdbc:mysql://localhost:3306/scratch -Dmysql.user=root -Dmysql.password=...
+ */
+@EnabledIfSystemProperty(named = "mysql.url", matches = ".+")
+class JournalPartitionPruningTest {
+
+	private static final String TABLE = "journal_pruning_check";
+
+	private final MonthlyPartitionPlan plan = new MonthlyPartitionPlan(TABLE, "entry_date");
+	private Connection connection;
+
+	@BeforeEach
+	void createPartitionedTable() throws SQLException {
+		connection = DriverManager.getConnection(System.getProperty("mysql.url"),
+				System.getProperty("mysql.user", "root"), System.getProperty("mysql.password", ""));
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS " + TABLE);
+			statement.execute("CREATE TABLE " + TABLE + " (id BINARY(16) NOT NULL, user_id BINARY(16) NOT NULL,"
+					+ " entry_date DATE NOT NULL, mood_score DOUBLE, PRIMARY KEY (id, entry_date),"
+					+ " KEY idx_user_date (user_id, entry_date))");
+			statement.execute(plan.partitionTable(YearMonth.of(2024, 1), YearMonth.of(2024, 12)));
+		}
+	}
+
+	@AfterEach
+	void dropTable() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DROP TABLE IF EXISTS " + TABLE);
+		}
+		connection.close();
+	}
+
+	@Test
+	void thirtyDayRangeReadsOnlyTheMonthsItCovers() throws SQLException {
+		assertEquals("p202405,p202406", explainPartitions("2024-05-20", "2024-06-19"));
+		assertEquals("p202412", explainPartitions("2024-12-01", "2024-12-31"));
+	}
+
+	@Test
+	void monthsAddedLaterArePrunedToo() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute(plan.addMonths(List.of("p202412", MonthlyPartitionPlan.FUTURE), YearMonth.of(2025, 2))
+					.orElseThrow());
+		}
+		assertEquals("p202502", explainPartitions("2025-02-03", "2025-02-10"));
+	}
+
+	private String explainPartitions(String from, String to) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement("EXPLAIN SELECT entry_date, mood_score FROM " + TABLE
+				+ " WHERE user_id = UNHEX(REPEAT('00', 16)) AND entry_date BETWEEN ? AND ?")) {
+			statement.setString(1, from);
+			statement.setString(2, to);
+			try (ResultSet result = statement.executeQuery()) {
+				result.next();
+				return result.getString("partitions");
+			}
+		}
+	}
+}
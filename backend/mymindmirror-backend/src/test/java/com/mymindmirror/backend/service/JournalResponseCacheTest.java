@@ -0,0 +1,92 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.TestFixtures;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mymindmirror.backend.model.JournalEntry;
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.repository.JournalEntryRepository;
+import com.mymindmirror.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.mymindmirror.backend.TestFixtures.newUser;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class JournalResponseCacheTest {
+
+	@Autowired
+	private JournalService journalService;
+
+	@Autowired
+	private JournalResponseCache responseCache;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JournalEntryRepository journalEntryRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@MockitoBean
+	private MlServiceClient mlServiceClient;
+
+	@Test
+	void servesTheMappedJsonUntilTheEntryVersionChanges() throws Exception {
+		User user = userRepository.save(newUser("cached"));
+		LocalDate day = LocalDate.now().minusDays(3);
+		JournalEntry first = journalEntryRepository.save(newEntry(user, day, "A steady day."));
+		journalEntryRepository.save(newEntry(user, day.plusDays(1), "A tense day."));
+
+		byte[] history = journalService.getJournalEntriesJson(user, day, day.plusDays(1));
+
+		JsonNode mapped = objectMapper.readTree(objectMapper.writeValueAsBytes(
+				journalService.getJournalEntriesForUser(user, day, day.plusDays(1))));
+		assertEquals(elements(mapped), elements(objectMapper.readTree(history))); // Same entries, same JSON
+		assertFalse(objectMapper.readTree(history).get(0).has("version"));
+		assertNotNull(responseCache.get(first.getId(), first.getVersion()));
+		assertArrayEquals(history, journalService.getJournalEntriesJson(user, day, day.plusDays(1))); // From the cache
+
+		// Changed without this node's JournalService, as by another node: the new version misses the cache
+		transactionTemplate.executeWithoutResult(status -> journalEntryRepository.findById(first.getId())
+				.orElseThrow().setSummary("Edited elsewhere."));
+		byte[] entry = journalService.getJournalEntryJson(first.getId(), user).orElseThrow();
+		assertEquals("Edited elsewhere.", objectMapper.readTree(entry).path("summary").asText());
+		assertNull(responseCache.get(first.getId(), first.getVersion()));
+
+		assertEquals("[]", new String(journalService.getJournalEntriesJson(user, day.minusDays(10), day.minusDays(5)),
+				StandardCharsets.UTF_8));
+	}
+
+	private static Set<JsonNode> elements(JsonNode array) {
+		Set<JsonNode> elements = new HashSet<>();
+		array.forEach(elements::add);
+		return elements;
+	}
+
+	private static JournalEntry newEntry(User user, LocalDate date, String summary) {
+		JournalEntry entry = TestFixtures.newEntry(user, date, 0.3, TestFixtures.EMOTIONS, TestFixtures.CONCERNS);
+		entry.setSummary(summary);
+		return entry;
+	}
+}
@@ -0,0 +1,84 @@
+package com.mymindmirror.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LlmSchedulerTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	// One token, refilled every 100 ms: after the first call, every call queues
+	private final LlmScheduler scheduler = new LlmScheduler(true, 600, 1, 100, 5_000, 50, 5_000, meterRegistry);
+	private final Queue<String> admitted = new ConcurrentLinkedQueue<>();
+
+	@AfterEach
+	void tearDown() {
+		scheduler.shutdown();
+	}
+
+	@Test
+	void interactiveCallsOvertakeQueuedBackgroundWork() throws Exception {
+		assertTrue(scheduler.acquire(LlmScheduler.Priority.INTERACTIVE_SAVE, 1)); // Spends the burst
+
+		List<Thread> callers = new ArrayList<>();
+		callers.add(call(LlmScheduler.Priority.BACKGROUND, "digest-a", "digest-a"));
+		callers.add(call(LlmScheduler.Priority.BACKGROUND, "digest-b", "digest-b"));
+		callers.add(call(LlmScheduler.Priority.INTERACTIVE_SAVE, "alice", "save"));
+		for (Thread caller : callers) {
+			caller.join(5_000);
+		}
+
+		assertEquals(List.of("save", "digest-a", "digest-b"), List.copyOf(admitted));
+		assertEquals(4, meterRegistry.get("app.llm.queue.wait").timers().stream().mapToLong(timer -> timer.count()).sum());
+	}
+
+	@Test
+	void usersShareTheQuotaFairlyWithinATier() throws Exception {
+		assertTrue(scheduler.acquire(LlmScheduler.Priority.INTERACTIVE_SAVE, 1));
+
+		List<Thread> callers = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			callers.add(call(LlmScheduler.Priority.INTERACTIVE_SAVE, "alice", "alice-" + i));
+		}
+		callers.add(call(LlmScheduler.Priority.INTERACTIVE_SAVE, "bob", "bob-1"));
+		for (Thread caller : callers) {
+			caller.join(5_000);
+		}
+
+		// Bob's single call doesn't wait behind all of Alice's
+		assertEquals(List.of("alice-1", "bob-1", "alice-2", "alice-3"), List.copyOf(admitted));
+	}
+
+	@Test
+	void givesUpAfterThePriorityQueueTimeout() {
+		assertTrue(scheduler.acquire(LlmScheduler.Priority.INTERACTIVE_REFLECTION, 1));
+
+		// Reflections may wait 50 ms; the next token is 100 ms away
+		assertFalse(scheduler.acquire(LlmScheduler.Priority.INTERACTIVE_REFLECTION, 1));
+		assertEquals(1.0, meterRegistry.get("app.llm.queue.rejected").tag("priority", "interactive_reflection").counter().count());
+	}
+
+	/**
+	 * Starts a thread that waits for admission and records the label; callers start 10 ms apart, so they
+	 * queue in order well before the next token.
+	 */
+	private Thread call(LlmScheduler.Priority priority, String flow, String label) throws InterruptedException {
+		Thread thread = Thread.ofVirtual().start(() -> LlmScheduler.callAs(priority, flow, () -> {
+			if (scheduler.acquire(LlmScheduler.Priority.INTERACTIVE_SAVE, 1)) {
+				admitted.add(label);
+			}
+			return null;
+		}));
+		Thread.sleep(10);
+		return thread;
+	}
+}
@@ -0,0 +1,47 @@
+package com.mymindmirror.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonthlyPartitionPlanTest {
+
+	private final MonthlyPartitionPlan plan = new MonthlyPartitionPlan("journal_entries", "entry_date");
+
+	@Test
+	void partitionsEveryMonthFromTheOldestRowPlusACatchAll() {
+		assertEquals("ALTER TABLE journal_entries PARTITION BY RANGE COLUMNS(entry_date) ("
+						+ "PARTITION p202511 VALUES LESS THAN ('2025-12-01'), "
+						+ "PARTITION p202512 VALUES LESS THAN ('2026-01-01'), "
+						+ "PARTITION p202601 VALUES LESS THAN ('2026-02-01'), "
+						+ "PARTITION p_future VALUES LESS THAN (MAXVALUE))",
+				plan.partitionTable(YearMonth.of(2025, 11), YearMonth.of(2026, 1)));
+	}
+
+	@Test
+	void splitsFutureOnlyForMissingMonths() {
+		List<String> existing = List.of("p202609", "p202610", "p_future");
+
+		assertEquals(Optional.of("ALTER TABLE journal_entries REORGANIZE PARTITION p_future INTO ("
+						+ "PARTITION p202611 VALUES LESS THAN ('2026-12-01'), "
+						+ "PARTITION p202612 VALUES LESS THAN ('2027-01-01'), "
+						+ "PARTITION p_future VALUES LESS THAN (MAXVALUE))"),
+				plan.addMonths(existing, YearMonth.of(2026, 12)));
+		assertTrue(plan.addMonths(existing, YearMonth.of(2026, 10)).isEmpty());
+	}
+
+	@Test
+	void onlyMonthsEndingBeforeTheCutoffAreDroppableAndTheNewestIsKept() {
+		List<String> existing = List.of("p_future", "p202410", "p202408", "p202409");
+
+		assertEquals(List.of("p202408", "p202409"), MonthlyPartitionPlan.entirelyBefore(existing, LocalDate.of(2024, 10, 1)));
+		assertEquals(List.of("p202408"), MonthlyPartitionPlan.entirelyBefore(existing, LocalDate.of(2024, 9, 30)));
+		assertEquals(List.of("p202408", "p202409"), MonthlyPartitionPlan.entirelyBefore(existing, LocalDate.of(2030, 1, 1)));
+	}
+}
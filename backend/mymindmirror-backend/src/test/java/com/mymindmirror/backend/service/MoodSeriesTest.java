@@ -0,0 +1,86 @@
+package com.mymindmirror.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoodSeriesTest {
+
+	// Given out of order; day 13 isn't analyzed yet
+	private final MoodSeries series = MoodSeries.of(List.of(
+			new MoodSeries.Day(12, -0.3, Map.of("sadness", 0.4, "joy", 0.2), List.of("work", "sleep")),
+			new MoodSeries.Day(10, -0.5, Map.of("sadness", 0.8), List.of("work")),
+			new MoodSeries.Day(13, null, Map.of(), List.of("work")),
+			new MoodSeries.Day(11, 0.5, Map.of("joy", 0.6), List.of())));
+
+	@Test
+	void aggregatesMoodOverARange() {
+		MoodSeries.MoodStats stats = series.moodStats(10, 13);
+		assertEquals(4, stats.entries);
+		assertEquals(3, stats.scored);
+		assertEquals(-0.1, stats.mean, 1e-9);
+		assertEquals(-0.5, stats.min, 1e-9);
+		assertEquals(0.5, stats.max, 1e-9);
+		assertEquals(Math.sqrt(0.56 / 3), stats.stdDev, 1e-9);
+
+		assertEquals(2, series.moodStats(11, 12).entries);
+		assertTrue(Double.isNaN(series.moodStats(13, 20).mean));
+	}
+
+	@Test
+	void interpolatesPercentiles() {
+		assertArrayEquals(new double[] {-0.5, -0.4, -0.3, 0.5}, series.moodPercentiles(10, 13, 0, 0.25, 0.5, 1), 1e-9);
+		assertNull(series.moodPercentiles(13, 13, 0.5));
+	}
+
+	@Test
+	void averagesEmotionsOverTheEntriesThatHaveThem() {
+		Map<String, Double> averages = series.emotionAverages(10, 13);
+		assertEquals(List.of("sadness", "joy"), List.copyOf(averages.keySet()));
+		assertEquals(0.6, averages.get("sadness"), 1e-6);
+		assertEquals(0.4, averages.get("joy"), 1e-6);
+	}
+
+	@Test
+	void correlatesConcernsWithMood() {
+		List<MoodSeries.ConcernStats> concerns = series.concernStats(10, 13);
+		assertEquals("work", concerns.get(0).concern);
+		assertEquals(3, concerns.get(0).days); // Including the unscored day
+		assertEquals(-0.4, concerns.get(0).moodWith, 1e-9);
+		assertEquals(0.5, concerns.get(0).moodWithout, 1e-9);
+		assertEquals(-0.98198, concerns.get(0).correlation, 1e-5); // Pearson's r of mood against presence
+		assertEquals("sleep", concerns.get(1).concern);
+	}
+
+	@Test
+	void writesReplaceOrRemoveADay() {
+		MoodSeries edited = series.withDay(new MoodSeries.Day(11, -0.5, Map.of(), List.of("work")))
+				.withoutDay(12);
+
+		assertEquals(3, edited.size());
+		assertEquals(-0.5, edited.moodStats(10, 13).max, 1e-9);
+		assertEquals(3, edited.concernStats(10, 13).get(0).days);
+		assertTrue(edited.emotionAverages(11, 13).isEmpty());
+		assertEquals(4, series.size()); // The original is unchanged
+	}
+
+	@Test
+	void concernBitsetsSpanSeveralWords() {
+		List<MoodSeries.Day> days = new ArrayList<>();
+		for (int day = 0; day < 150; day++) {
+			days.add(new MoodSeries.Day(day, 0.0, Map.of(), day == 70 || day == 140 ? List.of("exams") : List.of()));
+		}
+		MoodSeries longSeries = MoodSeries.of(days);
+
+		assertEquals(2, longSeries.concernStats(0, 149).get(0).days);
+		assertEquals(1, longSeries.concernStats(100, 149).get(0).days);
+		assertTrue(longSeries.concernStats(0, 69).isEmpty());
+	}
+}
@@ -0,0 +1,64 @@
+package com.mymindmirror.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoodWindowTest {
+
+	@Test
+	void maintainsShortAndLongAveragesAsDaysSlideOut() {
+		MoodWindow window = new MoodWindow();
+		for (long day = 100; day < 110; day++) {
+			window.set(day, day < 103 ? -0.5 : 0.5);
+		}
+
+		assertEquals(0.5, window.shortAverage(), 1e-6); // Days 103..109
+		assertEquals(0.2, window.longAverage(), 1e-6); // 3 x -0.5 and 7 x 0.5
+
+		window.advanceTo(135); // Days 100..105 fall out of the 30-day window
+		assertEquals(4, window.longCount());
+		assertEquals(0, window.shortCount());
+		assertNull(window.shortAverage());
+	}
+
+	@Test
+	void editsAndDeletionsReplaceThePreviousValue() {
+		MoodWindow window = new MoodWindow();
+		window.set(10, 0.8);
+		window.set(11, 0.4);
+		window.set(10, -0.2);
+		window.set(11, null);
+
+		assertEquals(1, window.longCount());
+		assertEquals(-0.2, window.longAverage(), 1e-6);
+	}
+
+	@Test
+	void survivesEncodeDecodeRoundTrip() {
+		MoodWindow window = new MoodWindow();
+		window.set(500, 0.25);
+		window.set(505, -0.75);
+
+		MoodWindow restored = MoodWindow.decode(window.encode(), window.getEndDay());
+
+		assertEquals(window.longAverage(), restored.longAverage(), 1e-9);
+		assertEquals(window.shortAverage(), restored.shortAverage(), 1e-9);
+		assertEquals(505L, restored.latestScoredDay());
+	}
+
+	@Test
+	void flagsALowDayAgainstTheBaseline() {
+		MoodWindow window = new MoodWindow();
+		for (long day = 1; day <= 14; day++) {
+			window.set(day, day % 2 == 0 ? 0.6 : 0.4);
+		}
+		window.set(15, -0.9);
+
+		Double zScore = window.zScore(15, 7);
+		assertTrue(zScore < -2.0);
+		assertNull(window.zScore(15, 20)); // Not enough baseline days
+	}
+}
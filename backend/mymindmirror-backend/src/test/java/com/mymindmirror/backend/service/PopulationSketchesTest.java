@@ -0,0 +1,87 @@
+package com.mymindmirror.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PopulationSketchesTest {
+
+	private final Random random = new Random(42);
+
+	@Test
+	void hyperLogLogCountsTheUnionOfOverlappingSketches() {
+		List<UUID> users = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			users.add(new UUID(random.nextLong(), random.nextLong()));
+		}
+		HyperLogLog first = new HyperLogLog();
+		HyperLogLog second = new HyperLogLog();
+		users.subList(0, 12_000).forEach(first::add);
+		users.subList(8_000, 20_000).forEach(second::add);
+		users.subList(0, 1_000).forEach(second::add); // Repeats don't count
+
+		first.merge(second);
+		assertEquals(20_000, first.estimate(), 20_000 * 0.05);
+		assertEquals(first.estimate(), HyperLogLog.fromBytes(first.toBytes()).estimate());
+
+		HyperLogLog few = new HyperLogLog();
+		users.subList(0, 10).forEach(few::add);
+		users.subList(0, 10).forEach(few::add);
+		assertEquals(10, few.estimate());
+	}
+
+	@Test
+	void tDigestEstimatesQuantilesAfterMerging() {
+		List<Double> values = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			values.add(i / 10_000.0 * 2 - 1); // Evenly over -1..1, like mood scores
+		}
+		Collections.shuffle(values, random);
+		TDigest first = new TDigest();
+		TDigest second = new TDigest();
+		values.subList(0, 3_000).forEach(first::add);
+		values.subList(3_000, 10_000).forEach(second::add);
+
+		first.merge(second);
+		TDigest restored = TDigest.fromBytes(first.toBytes());
+		assertEquals(10_000, restored.count());
+		assertEquals(-1.0, restored.quantile(0), 1e-9);
+		assertEquals(-0.9, restored.quantile(0.05), 0.01);
+		assertEquals(0.0, restored.quantile(0.5), 0.01);
+		assertEquals(0.98, restored.quantile(0.99), 0.005);
+		assertTrue(Double.isNaN(new TDigest().quantile(0.5)));
+	}
+
+	@Test
+	void countMinTopKFindsTheMostCommonItemsAcrossSketches() {
+		CountMinTopK first = new CountMinTopK();
+		CountMinTopK second = new CountMinTopK();
+		for (int i = 0; i < 2_000; i++) {
+			first.add("rare concern " + i); // Many one-off items, more than there are candidate slots
+			second.add("rare concern " + (i + 2_000));
+		}
+		for (int i = 0; i < 300; i++) {
+			first.add("work stress");
+			second.add(i % 2 == 0 ? "sleep" : "work stress");
+		}
+		for (int i = 0; i < 100; i++) {
+			second.add("loneliness");
+		}
+
+		first.merge(second);
+		CountMinTopK restored = CountMinTopK.fromBytes(first.toBytes());
+		List<Map.Entry<String, Long>> top = restored.top(3, 50);
+		assertEquals(List.of("work stress", "sleep", "loneliness"), top.stream().map(Map.Entry::getKey).toList());
+		assertTrue(top.get(0).getValue() >= 450); // Never underestimated
+		assertEquals(4_700, restored.total());
+		assertEquals(2, restored.top(10, 150).size());
+	}
+}
@@ -0,0 +1,118 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.model.UserShardAssignment;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=" + ShardingTest.DIRECTORY_URL,
+		"app.sharding.enabled=true",
+		"app.sharding.urls=" + ShardingTest.SHARD_0_URL + "," + ShardingTest.SHARD_1_URL,
+		"app.sharding.assignment-cache-ttl-ms=0",
+		"app.sharding.move-settle-ms=0"
+})
+@ActiveProfiles("test")
+class ShardingTest {
+
+	static final String DIRECTORY_URL = "jdbc:h2:mem:sharding_directory;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+	static final String SHARD_0_URL = "jdbc:h2:mem:sharding_shard0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+	static final String SHARD_1_URL = "jdbc:h2:mem:sharding_shard1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private JournalService journalService;
+
+	@Autowired
+	private ShardRouter shardRouter;
+
+	@Autowired
+	private ShardRebalancer shardRebalancer;
+
+	@Test
+	void entriesLiveOnTheUsersShardAndFollowAMove() throws SQLException {
+		User user = userService.registerNewUser("shard-" + UUID.randomUUID(), "shard@example.com", "password");
+		String home = shardRouter.route(user.getId(), false);
+		String other = home.equals("shard-0") ? "shard-1" : "shard-0";
+
+		journalService.saveJournalEntry(user, "Stored on my own shard.");
+
+		assertEquals(1, entriesOn(home, user.getId()));
+		assertEquals(0, entriesOn(other, user.getId()));
+		assertEquals(0, entriesOn("directory", user.getId()));
+
+		assertEquals(true, shardRebalancer.moveUser(user.getId(), other));
+
+		assertEquals(other, shardRouter.route(user.getId(), true));
+		assertEquals(0, entriesOn(home, user.getId()));
+		assertEquals(1, entriesOn(other, user.getId()));
+		LocalDate today = LocalDate.now();
+		assertEquals("Stored on my own shard.",
+				journalService.getJournalEntriesForUser(user, today, today).get(0).getRawText());
+	}
+
+	@Test
+	void writesAreRefusedWhileAUserIsMoving() {
+		User user = userService.registerNewUser("shard-" + UUID.randomUUID(), "moving@example.com", "password");
+		UserShardAssignment assignment = shardRouter.load(user.getId());
+		assignment.setState(UserShardAssignment.State.MOVING);
+		assignment.setTargetShard("shard-1");
+		shardRouter.save(assignment);
+
+		assertThrows(ShardMovingException.class, () -> journalService.saveJournalEntry(user, "Not now."));
+		LocalDate today = LocalDate.now();
+		assertEquals(0, journalService.getJournalEntriesForUser(user, today, today).size()); // Reads still work
+	}
+
+	@Test
+	void shardsOnlyGetThePerUserTables() throws SQLException {
+		assertEquals(true, hasTable("directory", "users"));
+		for (String shard : new String[] {"shard-0", "shard-1"}) {
+			assertEquals(false, hasTable(shard, "users"));
+			assertEquals(false, hasTable(shard, "user_shards"));
+			assertEquals(true, hasTable(shard, "journal_entries"));
+			assertEquals(true, hasTable(shard, "journal_entries_archive"));
+		}
+	}
+
+	private static boolean hasTable(String shard, String table) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(urlOf(shard), "sa", "");
+			 ResultSet tables = connection.getMetaData().getTables(null, "public", table, null)) {
+			return tables.next();
+		}
+	}
+
+	private static int entriesOn(String shard, UUID userId) throws SQLException {
+		try (Connection connection = DriverManager.getConnection(urlOf(shard), "sa", "");
+			 PreparedStatement statement = connection.prepareStatement("select count(*) from journal_entries where user_id = ?")) {
+			statement.setObject(1, userId);
+			try (ResultSet result = statement.executeQuery()) {
+				result.next();
+				return result.getInt(1);
+			}
+		}
+	}
+
+	private static String urlOf(String shard) {
+		return switch (shard) {
+			case "shard-0" -> SHARD_0_URL;
+			case "shard-1" -> SHARD_1_URL;
+			default -> DIRECTORY_URL;
+		};
+	}
+}
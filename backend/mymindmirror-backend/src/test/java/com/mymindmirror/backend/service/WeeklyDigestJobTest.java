@@ -0,0 +1,120 @@
+package com.mymindmirror.backend.service;
+
+import com.mymindmirror.backend.TestFixtures;
+import com.mymindmirror.backend.model.DigestRun;
+import com.mymindmirror.backend.model.JournalEntry;
+import com.mymindmirror.backend.model.User;
+import com.mymindmirror.backend.model.WeeklyDigest;
+import com.mymindmirror.backend.repository.DigestRunRepository;
+import com.mymindmirror.backend.repository.JournalEntryRepository;
+import com.mymindmirror.backend.repository.UserRepository;
+import com.mymindmirror.backend.repository.WeeklyDigestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static com.mymindmirror.backend.TestFixtures.newUser;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+		"app.digest.enabled=true",
+		"app.digest.chunk-size=2",
+		"app.digest.parallelism=2"
+})
+@ActiveProfiles("test")
+class WeeklyDigestJobTest {
+
+	@Autowired
+	private WeeklyDigestJob weeklyDigestJob;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JournalEntryRepository journalEntryRepository;
+
+	@Autowired
+	private WeeklyDigestRepository weeklyDigestRepository;
+
+	@Autowired
+	private DigestRunRepository digestRunRepository;
+
+	@MockitoBean
+	private MlServiceClient mlServiceClient;
+
+	@Test
+	void writesOneDigestPerUserWithEntriesAndCompletesTheRun() {
+		when(mlServiceClient.generateReflection(anyString())).thenReturn("A steady week.");
+		LocalDate week = LocalDate.of(2024, 3, 4); // A Monday
+		User busy = userRepository.save(newUser("digest"));
+		User quiet = userRepository.save(newUser("digest"));
+		journalEntryRepository.save(newEntry(busy, week, 0.5, "{\"joy\":0.7,\"sadness\":0.1}", "[\"Work\",\"sleep\"]", "Good start."));
+		journalEntryRepository.save(newEntry(busy, week.plusDays(3), -0.1, "{\"joy\":0.3,\"fear\":0.4}", "[\"work\"]", "Tense."));
+		journalEntryRepository.save(newEntry(busy, week.plusDays(7), 0.9, null, null, "Next week; not counted."));
+
+		assertTrue(weeklyDigestJob.runForWeek(week));
+
+		WeeklyDigest digest = weeklyDigestRepository.findByUserIdAndWeekStart(busy.getId(), week).orElseThrow();
+		assertEquals(2, digest.getEntryCount());
+		assertEquals(0.2, digest.getAverageMood(), 1e-9);
+		assertEquals(-0.1, digest.getLowestMood(), 1e-9);
+		assertEquals("[\"work\",\"sleep\"]", digest.getTopConcerns());
+		assertEquals("{\"joy\":0.5,\"fear\":0.4,\"sadness\":0.1}", digest.getTopEmotions());
+		assertEquals("A steady week.", digest.getRecap());
+		assertTrue(weeklyDigestRepository.findByUserIdAndWeekStart(quiet.getId(), week).isEmpty());
+
+		DigestRun run = digestRunRepository.findById(week).orElseThrow();
+		assertEquals(DigestRun.Status.COMPLETED, run.getStatus());
+		assertNull(run.getLeaseOwner());
+		assertTrue(weeklyDigestJob.runForWeek(week)); // Already complete: nothing to do
+	}
+
+	@Test
+	void resumesAfterTheCheckpointedUser() {
+		when(mlServiceClient.generateReflection(anyString())).thenReturn(null); // LLM down: digest without a recap
+		LocalDate week = LocalDate.of(2024, 4, 1);
+		List<UUID> created = List.of(userRepository.save(newUser("digest")).getId(),
+				userRepository.save(newUser("digest")).getId(), userRepository.save(newUser("digest")).getId());
+		List<UUID> ordered = userRepository.findIdsAfter(new UUID(0L, 0L), PageRequest.of(0, 100_000)).stream()
+				.filter(created::contains)
+				.toList(); // The database's ID order, which the batch follows
+		for (UUID userId : ordered) {
+			journalEntryRepository.save(newEntry(userRepository.findById(userId).orElseThrow(), week.plusDays(1), 0.1, null, null, null));
+		}
+		DigestRun interrupted = new DigestRun();
+		interrupted.setWeekStart(week);
+		interrupted.setStatus(DigestRun.Status.RUNNING);
+		interrupted.setLastUserId(ordered.get(0));
+		interrupted.setLeaseOwner("crashed-node");
+		interrupted.setLeaseExpiresAt(Instant.now().minusSeconds(60)); // Expired, so this node may take over
+		interrupted.setStartedAt(Instant.now().minusSeconds(3600));
+		interrupted.setUpdatedAt(Instant.now().minusSeconds(600));
+		digestRunRepository.save(interrupted);
+
+		assertTrue(weeklyDigestJob.runForWeek(week));
+
+		assertFalse(weeklyDigestRepository.findByUserIdAndWeekStart(ordered.get(0), week).isPresent());
+		WeeklyDigest resumed = weeklyDigestRepository.findByUserIdAndWeekStart(ordered.get(1), week).orElseThrow();
+		assertNull(resumed.getRecap());
+		assertTrue(weeklyDigestRepository.findByUserIdAndWeekStart(ordered.get(2), week).isPresent());
+	}
+
+	private static JournalEntry newEntry(User user, LocalDate date, Double moodScore, String emotions, String concerns, String summary) {
+		JournalEntry entry = TestFixtures.newEntry(user, date, moodScore, emotions, concerns);
+		entry.setSummary(summary);
+		return entry;
+	}
+}
@@ -0,0 +1,57 @@
+package com.mymindmirror.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WordPieceTokenizerTest {
+
+	private static final List<String> VOCAB = List.of("[PAD]", "[UNK]", "[CLS]", "[SEP]",
+			"i", "feel", "un", "##happy", "happy", "today", "!", ",", "cafe", "'", "s", "好");
+
+	@Test
+	void lowercasesSplitsPunctuationAndWordPieces() {
+		WordPieceTokenizer tokenizer = tokenizer(512);
+		assertEquals(List.of("i", "feel", "unhappy", "today", "!"), tokenizer.basicTokens("I feel\tUNHAPPY today!"));
+		assertArrayEquals(ids("[CLS]", "i", "feel", "un", "##happy", "today", "!", "[SEP]"), tokenizer.encode("I feel UNHAPPY today!"));
+	}
+
+	@Test
+	void stripsAccentsAndIsolatesCjkCharacters() {
+		WordPieceTokenizer tokenizer = tokenizer(512);
+		assertArrayEquals(ids("[CLS]", "cafe", "'", "s", "好", "[SEP]"), tokenizer.encode("Café's好"));
+	}
+
+	@Test
+	void unknownWordsBecomeOneUnknownToken() {
+		WordPieceTokenizer tokenizer = tokenizer(512);
+		assertArrayEquals(ids("[CLS]", "i", "[UNK]", ",", "happy", "[SEP]"), tokenizer.encode("I unxyz, happy"));
+	}
+
+	@Test
+	void truncatesToTheTokenLimitKeepingSeparator() {
+		WordPieceTokenizer tokenizer = tokenizer(5);
+		assertArrayEquals(ids("[CLS]", "i", "feel", "un", "[SEP]"), tokenizer.encode("I feel unhappy today"));
+	}
+
+	private static WordPieceTokenizer tokenizer(int maxTokens) {
+		Map<String, Integer> vocab = new HashMap<>();
+		for (int i = 0; i < VOCAB.size(); i++) {
+			vocab.put(VOCAB.get(i), i);
+		}
+		return new WordPieceTokenizer(vocab, maxTokens);
+	}
+
+	private static long[] ids(String... tokens) {
+		long[] ids = new long[tokens.length];
+		for (int i = 0; i < tokens.length; i++) {
+			ids[i] = VOCAB.indexOf(tokens[i]);
+		}
+		return ids;
+	}
+}
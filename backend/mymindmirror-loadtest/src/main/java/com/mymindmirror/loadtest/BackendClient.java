@@ -0,0 +1,108 @@
+package com.mymindmirror.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Thin HTTP client for the backend endpoints the load test exercises.
+ */
+public class BackendClient {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+
+    public BackendClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    /**
+     * A user of the backend with its login token and the ID of the last entry it saved.
+     */
+    static final class VirtualUser {
+        final String username;
+        final String password;
+        volatile String token;
+        volatile String lastEntryId;
+
+        VirtualUser(String username, String password) {
+            this.username = username;
+            this.password = password;
+        }
+    }
+
+    /**
+     * Registers the user (a 409 means it already exists from an earlier run) and logs in.
+     */
+    public void registerAndLogin(VirtualUser user) throws IOException, InterruptedException {
+        HttpResponse<String> register = post("/api/auth/register", null, Map.of(
+                "username", user.username, "email", user.username + "@loadtest.local", "password", user.password));
+        if (register.statusCode() != 201 && register.statusCode() != 409) {
+            throw new IOException("Registering " + user.username + " failed with HTTP " + register.statusCode());
+        }
+        HttpResponse<String> login = post("/api/auth/login", null, Map.of("username", user.username, "password", user.password));
+        if (login.statusCode() != 200) {
+            throw new IOException("Logging in " + user.username + " failed with HTTP " + login.statusCode());
+        }
+        user.token = objectMapper.readTree(login.body()).path("token").asText();
+    }
+
+    /**
+     * Runs one scenario for a user.
+     * @return The HTTP status code.
+     */
+    public int execute(Scenario scenario, VirtualUser user, String text) throws IOException, InterruptedException {
+        HttpResponse<String> response = switch (scenario) {
+            case SAVE -> post("/api/journal", user.token, Map.of("text", text));
+            case EDIT -> user.lastEntryId != null
+                    ? send(request("/api/journal/" + user.lastEntryId, user.token)
+                        .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of("text", text)))))
+                    : post("/api/journal", user.token, Map.of("text", text)); // Nothing to edit yet; save instead
+            case HISTORY -> send(request("/api/journal/history?startDate=" + LocalDate.now().minusDays(30), user.token).GET());
+            case ENTRY -> user.lastEntryId != null
+                    ? send(request("/api/journal/" + user.lastEntryId, user.token).GET())
+                    : send(request("/api/journal/history?startDate=" + LocalDate.now().minusDays(30), user.token).GET()); // No entry yet
+            case MOOD_DATA -> send(request("/api/journal/mood-data?startDate=" + LocalDate.now().minusDays(30), user.token).GET());
+        };
+        if ((scenario == Scenario.SAVE || scenario == Scenario.EDIT) && response.statusCode() / 100 == 2) {
+            JsonNode id = objectMapper.readTree(response.body()).path("id");
+            if (!id.isMissingNode()) {
+                user.lastEntryId = id.asText();
+            }
+        }
+        return response.statusCode();
+    }
+
+    private HttpResponse<String> post(String path, String token, Map<String, String> body) throws IOException, InterruptedException {
+        return send(request(path, token).POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
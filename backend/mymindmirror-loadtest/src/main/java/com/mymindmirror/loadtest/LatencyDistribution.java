@@ -0,0 +1,73 @@
+package com.mymindmirror.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A latency distribution for the stub ML service, parsed from a short spec:
+ * <ul>
+ *   <li>{@code fixed:ms=800}</li>
+ *   <li>{@code uniform:min=200,max=1500}</li>
+ *   <li>{@code exponential:mean=600}</li>
+ *   <li>{@code lognormal:median=700,sigma=0.6} (long right tail, closest to real LLM calls)</li>
+ * </ul>
+ * Every distribution accepts an optional {@code cap=<ms>} to bound the tail.
+ */
+public interface LatencyDistribution {
+
+    /**
+     * @return A latency in milliseconds.
+     */
+    long sampleMillis(Random random);
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().split(":", 2);
+        String kind = parts[0].toLowerCase();
+        Map<String, Double> params = new HashMap<>();
+        if (parts.length > 1 && !parts[1].isBlank()) {
+            for (String param : parts[1].split(",")) {
+                String[] keyValue = param.split("=", 2);
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException("Expected key=value in latency spec: " + spec);
+                }
+                params.put(keyValue[0].trim(), Double.parseDouble(keyValue[1].trim()));
+            }
+        }
+        double cap = params.getOrDefault("cap", Double.MAX_VALUE);
+
+        LatencyDistribution distribution = switch (kind) {
+            case "fixed" -> {
+                double ms = required(params, "ms", spec);
+                yield random -> (long) ms;
+            }
+            case "uniform" -> {
+                double min = required(params, "min", spec);
+                double max = required(params, "max", spec);
+                if (max < min) {
+                    throw new IllegalArgumentException("max must be >= min in latency spec: " + spec);
+                }
+                yield random -> (long) (min + random.nextDouble() * (max - min));
+            }
+            case "exponential" -> {
+                double mean = required(params, "mean", spec);
+                yield random -> (long) (-mean * Math.log(1.0 - random.nextDouble()));
+            }
+            case "lognormal" -> {
+                double mu = Math.log(required(params, "median", spec));
+                double sigma = required(params, "sigma", spec);
+                yield random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+            }
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + kind);
+        };
+        return random -> (long) Math.min(distribution.sampleMillis(random), cap);
+    }
+
+    private static double required(Map<String, Double> params, String key, String spec) {
+        Double value = params.get(key);
+        if (value == null || value < 0) {
+            throw new IllegalArgumentException("Missing or negative '" + key + "' in latency spec: " + spec);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,86 @@
+package com.mymindmirror.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms (microseconds, 3 significant digits) plus status-code and drop counts.
+ * Latency is measured from each request's scheduled start, not its actual send time, so a stalled
+ * backend shows up as queueing delay instead of being hidden (coordinated omission).
+ */
+public class LatencyReport {
+
+    private static final long MAX_TRACKABLE_MICROS = 10 * 60 * 1_000_000L; // 10 minutes
+
+    private final Map<Scenario, Histogram> histograms = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, Map<Integer, LongAdder>> statusCounts = new EnumMap<>(Scenario.class);
+    private final AtomicLong dropped = new AtomicLong(); // Arrivals skipped because max-in-flight was reached
+    private final AtomicLong failures = new AtomicLong(); // I/O errors and timeouts (no status code)
+
+    public LatencyReport() {
+        for (Scenario scenario : Scenario.values()) {
+            histograms.put(scenario, new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3));
+            statusCounts.put(scenario, new ConcurrentHashMap<>());
+        }
+    }
+
+    public void record(Scenario scenario, long latencyNanos, int status) {
+        histograms.get(scenario).recordValue(Math.min(latencyNanos / 1_000, MAX_TRACKABLE_MICROS));
+        statusCounts.get(scenario).computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+
+    public void recordFailure(Scenario scenario, long latencyNanos) {
+        record(scenario, latencyNanos, 0);
+        failures.incrementAndGet();
+    }
+
+    public void recordDropped() {
+        dropped.incrementAndGet();
+    }
+
+    /**
+     * Prints a summary table and writes one .hgrm percentile file per endpoint (values in milliseconds),
+     * which can be plotted with the HdrHistogram plotter.
+     */
+    public void write(PrintStream out, Path reportDir, double measuredSeconds) throws IOException {
+        Files.createDirectories(reportDir);
+        out.printf("%n%-28s %8s %8s %9s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "status codes");
+        for (Scenario scenario : Scenario.values()) {
+            Histogram histogram = histograms.get(scenario).copy();
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            Map<Integer, Long> codes = new TreeMap<>();
+            statusCounts.get(scenario).forEach((code, adder) -> codes.put(code, adder.sum()));
+            long errors = codes.entrySet().stream().filter(e -> e.getKey() / 100 != 2).mapToLong(Map.Entry::getValue).sum();
+            out.printf("%-28s %8d %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f %9d  %s%n",
+                    scenario.endpoint, count, count / measuredSeconds,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0, errors, codes);
+
+            try (PrintStream file = new PrintStream(Files.newOutputStream(reportDir.resolve(scenario.name + ".hgrm")))) {
+                histogram.outputPercentileDistribution(file, 1000.0);
+            }
+        }
+        out.printf("%nDropped arrivals (client at max-in-flight): %d; transport failures (status 0): %d%n",
+                dropped.get(), failures.get());
+        out.printf("Percentile distributions written to %s%n", reportDir.toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
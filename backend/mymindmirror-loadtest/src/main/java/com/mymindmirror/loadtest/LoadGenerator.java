@@ -0,0 +1,135 @@
+package com.mymindmirror.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: requests arrive as a Poisson process at the configured rate, regardless of how
+ * fast the backend answers, the way independent users do. A closed loop (N threads in request/response lock-step)
+ * would slow down with the backend and understate latency under overload.
+ * The schedule (inter-arrival gaps, user, scenario, entry text) comes from one seeded Random, so runs are repeatable.
+ */
+public class LoadGenerator {
+
+    private static final String[] WORDS = {
+            "today", "work", "tired", "happy", "walk", "friends", "deadline", "sleep", "coffee", "anxious",
+            "grateful", "rain", "family", "exercise", "meeting", "calm", "stressed", "dinner", "music", "proud"};
+
+    private final LoadTestConfig config;
+    private final BackendClient client;
+    private final LatencyReport report;
+    private final Random random;
+
+    public LoadGenerator(LoadTestConfig config, BackendClient client, LatencyReport report) {
+        this.config = config;
+        this.client = client;
+        this.report = report;
+        this.random = new Random(config.seed);
+    }
+
+    /**
+     * Registers and logs in the virtual users (in parallel, bounded by max-in-flight).
+     */
+    public List<BackendClient.VirtualUser> prepareUsers() throws InterruptedException {
+        List<BackendClient.VirtualUser> users = new ArrayList<>();
+        for (int i = 0; i < config.users; i++) {
+            users.add(new BackendClient.VirtualUser("loadtest-" + config.seed + "-" + i, "loadtest-password-" + i));
+        }
+        Semaphore permits = new Semaphore(config.maxInFlight);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (BackendClient.VirtualUser user : users) {
+                permits.acquire();
+                executor.execute(() -> {
+                    try {
+                        client.registerAndLogin(user);
+                    } catch (Exception e) {
+                        System.err.printf("Could not prepare %s: %s%n", user.username, e.getMessage());
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        users.removeIf(user -> user.token == null);
+        if (users.isEmpty()) {
+            throw new IllegalStateException("No virtual user could log in; is the backend running at " + config.baseUrl + "?");
+        }
+        System.out.printf("%d virtual users ready.%n", users.size());
+        return users;
+    }
+
+    /**
+     * Drives load for warm-up plus duration seconds.
+     * @return The measured (post-warm-up) time in seconds.
+     */
+    public double run(List<BackendClient.VirtualUser> users) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(config.maxInFlight);
+        long meanGapNanos = (long) (1_000_000_000L / config.arrivalRate);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long intendedStart = start;
+            while (true) {
+                intendedStart += (long) (-meanGapNanos * Math.log(1.0 - random.nextDouble())); // Exponential gap
+                if (intendedStart >= end) {
+                    break;
+                }
+                BackendClient.VirtualUser user = users.get(random.nextInt(users.size()));
+                Scenario scenario = Scenario.pick(config.mix, random);
+                String text = (scenario == Scenario.SAVE || scenario == Scenario.EDIT) ? randomText() : null;
+                boolean measured = intendedStart >= measureFrom;
+
+                sleepUntil(intendedStart);
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        report.recordDropped();
+                    }
+                    continue;
+                }
+                long scheduledAt = intendedStart;
+                executor.execute(() -> {
+                    try {
+                        int status = client.execute(scenario, user, text);
+                        if (measured) {
+                            report.record(scenario, System.nanoTime() - scheduledAt, status);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        if (measured) {
+                            report.recordFailure(scenario, System.nanoTime() - scheduledAt);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            System.out.println("Arrival schedule finished; waiting for in-flight requests.");
+        }
+        return config.durationSeconds;
+    }
+
+    private String randomText() {
+        int length = 40 + random.nextInt(160); // Words per entry
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.append('.').toString();
+    }
+
+    private static void sleepUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
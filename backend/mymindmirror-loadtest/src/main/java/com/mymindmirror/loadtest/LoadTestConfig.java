@@ -0,0 +1,81 @@
+package com.mymindmirror.loadtest;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from --key=value arguments. Unknown keys are rejected so typos don't go unnoticed.
+ */
+public class LoadTestConfig {
+
+    // "all" runs the stub and the load; "stub" only serves the stub ML service; "load" expects an ML service elsewhere
+    final String mode;
+    final String baseUrl;
+    final int users;
+    final double arrivalRate; // Requests per second across all users (open loop)
+    final int maxInFlight; // Client-side concurrency cap; arrivals beyond it are counted as dropped
+    final int durationSeconds;
+    final int warmupSeconds; // Requests started during warm-up are not recorded
+    final Map<Scenario, Integer> mix;
+    final long seed;
+    final Path reportDir;
+    final int stubPort;
+    final String analyzeLatency;
+    final String reflectionLatency;
+    final double stubErrorRate;
+
+    private LoadTestConfig(Map<String, String> args) {
+        Map<String, String> remaining = new HashMap<>(args);
+        mode = take(remaining, "mode", "all");
+        baseUrl = take(remaining, "base-url", "http://localhost:8080");
+        users = Integer.parseInt(take(remaining, "users", "50"));
+        arrivalRate = Double.parseDouble(take(remaining, "rate", "20"));
+        maxInFlight = Integer.parseInt(take(remaining, "max-in-flight", "200"));
+        durationSeconds = Integer.parseInt(take(remaining, "duration", "60"));
+        warmupSeconds = Integer.parseInt(take(remaining, "warmup", "10"));
+        mix = parseMix(take(remaining, "mix", "save=10,edit=5,history=50,mood-data=35"));
+        seed = Long.parseLong(take(remaining, "seed", "42"));
+        reportDir = Path.of(take(remaining, "report-dir", "loadtest-report"));
+        stubPort = Integer.parseInt(take(remaining, "stub-port", "5005"));
+        analyzeLatency = take(remaining, "analyze-latency", "lognormal:median=700,sigma=0.6,cap=15000");
+        reflectionLatency = take(remaining, "reflection-latency", "lognormal:median=900,sigma=0.5,cap=15000");
+        stubErrorRate = Double.parseDouble(take(remaining, "stub-error-rate", "0"));
+        if (!remaining.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + remaining.keySet());
+        }
+        if (arrivalRate <= 0 || users <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("rate, users and max-in-flight must be positive.");
+        }
+    }
+
+    public static LoadTestConfig fromArgs(String[] args) {
+        Map<String, String> parsed = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            parsed.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestConfig(parsed);
+    }
+
+    private static String take(Map<String, String> args, String key, String defaultValue) {
+        String value = args.remove(key);
+        return value != null ? value : defaultValue;
+    }
+
+    private static Map<Scenario, Integer> parseMix(String spec) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String part : spec.split(",")) {
+            String[] keyValue = part.split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Expected scenario=weight in mix: " + spec);
+            }
+            mix.put(Scenario.fromName(keyValue[0].trim()), Integer.parseInt(keyValue[1].trim()));
+        }
+        return mix;
+    }
+}
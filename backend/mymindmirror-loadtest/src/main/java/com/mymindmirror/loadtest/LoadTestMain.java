@@ -0,0 +1,55 @@
+package com.mymindmirror.loadtest;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Entry point. Examples:
+ * <pre>
+ *   # Stub ML service only (start the backend with --app.ml-service.url=http://localhost:5005)
+ *   java -jar target/loadtest.jar --mode=stub --analyze-latency=lognormal:median=700,sigma=0.6
+ *
+ *   # Drive 30 req/s from 200 users for 2 minutes against a backend already using the stub
+ *   java -jar target/loadtest.jar --mode=load --users=200 --rate=30 --duration=120
+ *
+ *   # Both in one process
+ *   java -jar target/loadtest.jar --users=100 --rate=20 --mix=save=10,edit=5,history=50,mood-data=35
+ * </pre>
+ * Run the backend with --app.rate-limit.enabled=false, or the per-user write limit shows up as 429s.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromArgs(args);
+
+        StubMlService stub = null;
+        if (!"load".equals(config.mode)) {
+            stub = new StubMlService(config.stubPort, LatencyDistribution.parse(config.analyzeLatency),
+                    LatencyDistribution.parse(config.reflectionLatency), config.stubErrorRate, config.seed);
+            stub.start();
+        }
+        if ("stub".equals(config.mode)) {
+            new CountDownLatch(1).await(); // Serve until killed
+            return;
+        }
+
+        try {
+            BackendClient client = new BackendClient(config.baseUrl);
+            LatencyReport report = new LatencyReport();
+            LoadGenerator generator = new LoadGenerator(config, client, report);
+
+            List<BackendClient.VirtualUser> users = generator.prepareUsers();
+            System.out.printf("Running %.1f req/s for %ds (+%ds warm-up), max %d in flight, mix %s, seed %d%n",
+                    config.arrivalRate, config.durationSeconds, config.warmupSeconds, config.maxInFlight, config.mix, config.seed);
+            double measuredSeconds = generator.run(users);
+            report.write(System.out, config.reportDir, measuredSeconds);
+            if (stub != null) {
+                System.out.printf("Stub ML service handled %d requests.%n", stub.getRequestCount());
+            }
+        } finally {
+            if (stub != null) {
+                stub.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.mymindmirror.loadtest;
+
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The user actions the load generator mixes, each mapped to one backend endpoint.
+ */
+public enum Scenario {
+    SAVE("save", "POST /api/journal"),
+    EDIT("edit", "PUT /api/journal/{id}"),
+    HISTORY("history", "GET /api/journal/history"),
+    ENTRY("entry", "GET /api/journal/{id}"),
+    MOOD_DATA("mood-data", "GET /api/journal/mood-data");
+
+    final String name;
+    final String endpoint; // Label used in the report
+
+    Scenario(String name, String endpoint) {
+        this.name = name;
+        this.endpoint = endpoint;
+    }
+
+    static Scenario fromName(String name) {
+        for (Scenario scenario : values()) {
+            if (scenario.name.equals(name)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + name);
+    }
+
+    /**
+     * Picks a scenario with probability proportional to its weight.
+     */
+    static Scenario pick(Map<Scenario, Integer> weights, Random random) {
+        int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<Scenario, Integer> weight : weights.entrySet()) {
+            roll -= weight.getValue();
+            if (roll < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Scenario weights must be positive.");
+    }
+}
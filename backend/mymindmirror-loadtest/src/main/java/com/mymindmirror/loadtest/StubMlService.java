@@ -0,0 +1,126 @@
+package com.mymindmirror.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for the Flask ML service (Hugging Face + Gemini) so the backend can be loaded without GPUs or API keys.
+ * Serves /analyze_journal and /generate_reflection with the same response shape as ml-service/app.py,
+ * after a delay drawn from a configurable latency distribution. An optional error rate returns 500s.
+ * Point the backend at it with --app.ml-service.url=http://localhost:&lt;port&gt;.
+ */
+public class StubMlService implements AutoCloseable {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final List<String> EMOTIONS = List.of("joy", "sadness", "anger", "fear", "love", "surprise", "neutral");
+    private static final Map<String, Double> EMOTION_WEIGHTS = Map.of(
+            "joy", 1.0, "love", 1.0, "surprise", 0.5, "sadness", -1.0, "anger", -0.8, "fear", -0.7, "neutral", 0.0);
+
+    private final HttpServer server;
+    private final LatencyDistribution analyzeLatency;
+    private final LatencyDistribution reflectionLatency;
+    private final double errorRate;
+    private final Random random; // Thread-safe; seeded so a run's latencies are reproducible
+    private final AtomicLong requests = new AtomicLong();
+
+    public StubMlService(int port, LatencyDistribution analyzeLatency, LatencyDistribution reflectionLatency,
+                         double errorRate, long seed) throws IOException {
+        this.analyzeLatency = analyzeLatency;
+        this.reflectionLatency = reflectionLatency;
+        this.errorRate = errorRate;
+        this.random = new Random(seed);
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor()); // Sleeping handlers must not cap concurrency
+        this.server.createContext("/analyze_journal", exchange -> handle(exchange, analyzeLatency, this::analysis));
+        this.server.createContext("/generate_reflection", exchange -> handle(exchange, reflectionLatency, this::reflection));
+    }
+
+    public void start() {
+        server.start();
+        System.out.printf("Stub ML service listening on port %d%n", server.getAddress().getPort());
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange, LatencyDistribution latency, ResponseBody body) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, Map.of("error", "Method not allowed"));
+                return;
+            }
+            Map<?, ?> request = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+            Thread.sleep(latency.sampleMillis(random));
+            if (random.nextDouble() < errorRate) {
+                send(exchange, 500, Map.of("error", "Injected stub failure"));
+                return;
+            }
+            send(exchange, 200, body.build(request));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<String, Object> analysis(Map<?, ?> request) {
+        Object text = request.get("text");
+        if (text == null || text.toString().isEmpty()) {
+            return Map.of("error", "No text provided");
+        }
+        Map<String, Double> emotions = new LinkedHashMap<>();
+        double total = 0;
+        for (String emotion : EMOTIONS) {
+            double score = random.nextDouble();
+            emotions.put(emotion, score);
+            total += score;
+        }
+        double mood = 0;
+        for (Map.Entry<String, Double> emotion : emotions.entrySet()) {
+            emotion.setValue(emotion.getValue() / total);
+            mood += emotion.getValue() * EMOTION_WEIGHTS.get(emotion.getKey());
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("moodScore", mood);
+        response.put("emotions", emotions);
+        response.put("coreConcerns", List.of("work", "sleep"));
+        String raw = text.toString();
+        response.put("summary", raw.length() > 150 ? raw.substring(0, 150) + "..." : raw);
+        response.put("growthTips", List.of("Take a short walk.", "Write down one thing you are grateful for."));
+        return response;
+    }
+
+    private Map<String, Object> reflection(Map<?, ?> request) {
+        return Map.of("reflection", "You showed up for yourself today; that matters.");
+    }
+
+    private static void send(HttpExchange exchange, int status, Map<String, ?> body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResponseBody {
+        Map<String, Object> build(Map<?, ?> request);
+    }
+}
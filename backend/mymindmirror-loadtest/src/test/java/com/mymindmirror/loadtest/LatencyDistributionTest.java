@@ -0,0 +1,44 @@
+package com.mymindmirror.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyDistributionTest {
+
+	@Test
+	void fixedAndUniformStayInRange() {
+		Random random = new Random(1);
+		assertEquals(800, LatencyDistribution.parse("fixed:ms=800").sampleMillis(random));
+
+		LatencyDistribution uniform = LatencyDistribution.parse("uniform:min=200,max=400");
+		for (int i = 0; i < 1000; i++) {
+			long sample = uniform.sampleMillis(random);
+			assertTrue(sample >= 200 && sample <= 400);
+		}
+	}
+
+	@Test
+	void lognormalMedianMatchesSpecAndCapBoundsTail() {
+		LatencyDistribution lognormal = LatencyDistribution.parse("lognormal:median=700,sigma=0.6,cap=3000");
+		Random random = new Random(7);
+		long[] samples = new long[20001];
+		for (int i = 0; i < samples.length; i++) {
+			samples[i] = lognormal.sampleMillis(random);
+			assertTrue(samples[i] <= 3000);
+		}
+		java.util.Arrays.sort(samples);
+		assertEquals(700, samples[samples.length / 2], 30);
+	}
+
+	@Test
+	void rejectsMalformedSpecs() {
+		assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.parse("gamma:shape=2"));
+		assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.parse("uniform:min=5"));
+		assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.parse("fixed:800"));
+	}
+}
@@ -44,7 +44,7 @@ const EMOTION_BAR_COLORS = {
 };
 
 
-function AverageEmotionChart({ entries }) {
+function AverageEmotionChart({ averages }) {
   const [chartData, setChartData] = useState({ labels: [], datasets: [] });
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
@@ -54,22 +54,7 @@ function AverageEmotionChart({ entries }) {
       setLoading(true);
       setError('');
       try {
-        const emotionSums = {};
-        const emotionCounts = {};
-
-        entries.forEach(entry => {
-          if (entry.emotions && Object.keys(entry.emotions).length > 0) {
-            Object.entries(entry.emotions).forEach(([emotion, score]) => {
-              emotionSums[emotion] = (emotionSums[emotion] || 0) + score;
-              emotionCounts[emotion] = (emotionCounts[emotion] || 0) + 1;
-            });
-          }
-        });
-
-        const averageEmotions = {};
-        for (const emotion in emotionSums) {
-          averageEmotions[emotion] = emotionSums[emotion] / emotionCounts[emotion];
-        }
+        const averageEmotions = averages || {}; // Averaged on the backend (/api/journal/dashboard)
 
         // Sort emotions by average intensity (descending) and take top N
         const sortedAverages = Object.entries(averageEmotions)
@@ -105,7 +90,7 @@ function AverageEmotionChart({ entries }) {
     };
 
     processEmotionAverages();
-  }, [entries]); // Re-process when journalEntries change
+  }, [averages]); // Re-process when the dashboard is reloaded
 
   if (loading) {
     return <div className="font-inter text-gray-700 dark:text-gray-300 text-center">Loading average emotions...</div>;
@@ -22,7 +22,7 @@ ChartJS.register(
   Filler
 );
 
-function ConcernFrequencyChart({ entries }) {
+function ConcernFrequencyChart({ counts }) {
   const [concernData, setConcernData] = useState({ labels: [], datasets: [] });
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
@@ -32,16 +32,7 @@ function ConcernFrequencyChart({ entries }) {
       setLoading(true);
       setError('');
       try {
-        const concernCounts = {};
-        entries.forEach(entry => {
-          if (entry.coreConcerns && Array.isArray(entry.coreConcerns)) {
-            entry.coreConcerns.forEach(concern => {
-              if (typeof concern === 'string' && concern.trim() !== '') {
-                concernCounts[concern] = (concernCounts[concern] || 0) + 1;
-              }
-            });
-          }
-        });
+        const concernCounts = counts || {}; // Counted on the backend (/api/journal/dashboard)
 
         const sortedConcerns = Object.entries(concernCounts)
           .sort(([, countA], [, countB]) => countB - countA)
@@ -79,7 +70,7 @@ function ConcernFrequencyChart({ entries }) {
     };
 
     processConcerns();
-  }, [entries]);
+  }, [counts]);
 
   if (loading) {
     return <div className="font-inter text-gray-700 dark:text-gray-300 text-center">Loading concerns chart...</div>;
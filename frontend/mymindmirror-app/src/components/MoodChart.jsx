@@ -1,6 +1,5 @@
 import React, { useState, useEffect } from 'react';
 import { Line } from 'react-chartjs-2';
-import axios from 'axios';
 import {
   Chart as ChartJS,
   CategoryScale,
@@ -47,61 +46,35 @@ const EMOTION_COLORS = {
   // Add more as needed based on bhadresh-savani/distilbert-base-uncased-emotion model's labels
 };
 
-function MoodChart({ entries }) {
+function MoodChart({ entries, moodSeries }) {
   const [moodData, setMoodData] = useState([]);
   const [emotionTrendData, setEmotionTrendData] = useState({}); // Stores emotion scores per date
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
 
   useEffect(() => {
-    const fetchMoodAndEmotionData = async () => {
-      const token = localStorage.getItem('jwtToken');
-      if (!token) {
-        setError('Not authenticated to fetch mood data.');
-        setLoading(false);
-        return;
-      }
-
-      setLoading(true);
-      setError('');
-      try {
-        // Fetch data for the last 30 days (default)
-        const response = await axios.get('http://localhost:8080/api/journal/history', { // Fetch history to get all data
-          headers: { Authorization: `Bearer ${token}` }
-        });
-        
-        const fetchedEntries = response.data;
-
-        // Process data for Mood Score chart
-        const processedMoodData = fetchedEntries
-          .filter(entry => entry.moodScore !== null)
-          .map(entry => ({ date: entry.entryDate, moodScore: entry.moodScore }))
-          .sort((a, b) => new Date(a.date) - new Date(b.date));
-        setMoodData(processedMoodData);
-
-        // Process data for Emotion Trends chart
-        const newEmotionTrendData = {}; // {date: {emotion: score, ...}}
-        fetchedEntries.forEach(entry => {
-          if (entry.emotions) {
-            // entry.emotions is already a Map<String, Double> from Spring Boot, NO JSON.parse() needed
-            newEmotionTrendData[entry.entryDate] = entry.emotions; 
-          }
-        });
-        setEmotionTrendData(newEmotionTrendData);
-
-        console.log("Fetched mood chart data:", processedMoodData);
-        console.log("Processed emotion trend data:", newEmotionTrendData);
-
-      } catch (err) {
-        console.error('Error fetching mood/emotion data for chart:', err);
-        setError('Failed to load mood/emotion chart data.');
-      } finally {
-        setLoading(false);
-      }
-    };
-
-    fetchMoodAndEmotionData();
-  }, [entries]); // Re-fetch when journalEntries change (new entry added)
+    // Both series come from the page's single dashboard request; nothing is fetched here
+    setLoading(true);
+    setError('');
+    try {
+      setMoodData((moodSeries || []).map(point => ({ date: point.date, moodScore: point.moodScore })));
+
+      // Process data for Emotion Trends chart
+      const newEmotionTrendData = {}; // {date: {emotion: score, ...}}
+      (entries || []).forEach(entry => {
+        if (entry.emotions) {
+          // entry.emotions is already a Map<String, Double> from Spring Boot, NO JSON.parse() needed
+          newEmotionTrendData[entry.entryDate] = entry.emotions;
+        }
+      });
+      setEmotionTrendData(newEmotionTrendData);
+    } catch (err) {
+      console.error('Error processing mood/emotion data for chart:', err);
+      setError('Failed to load mood/emotion chart data.');
+    } finally {
+      setLoading(false);
+    }
+  }, [entries, moodSeries]); // Re-process when the dashboard is reloaded (e.g. new entry added)
 
   if (loading) {
     return <div className="font-inter text-gray-700 dark:text-gray-300 text-center">Loading charts...</div>;
@@ -1,13 +1,13 @@
 import React, { useState, useEffect } from 'react';
 import axios from 'axios';
 
-function TodaysReflection({ latestEntry }) {
+function TodaysReflection({ latestEntry, initialReflection }) {
   const [reflection, setReflection] = useState('');
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
 
-  // Function to generate reflection using Gemini
-  const generateReflection = async (entry) => {
+  // Fetch today's reflection from the backend, which builds the prompt, calls Gemini and caches the result
+  const fetchReflection = async () => {
     setLoading(true);
     setError('');
     setReflection(''); // Clear previous reflection
@@ -19,52 +19,18 @@ function TodaysReflection({ latestEntry }) {
       return;
     }
 
-    if (!entry || !entry.rawText) {
-      setReflection("Journal an entry today to get your daily reflection!");
-      setLoading(false);
-      return;
-    }
-
-    const emotions_str = entry.emotions ? 
-      Object.entries(entry.emotions).map(([label, score]) => `${label} (${(score * 100).toFixed(1)}%)`).join(', ') : 'No specific emotions detected.';
-    const concerns_str = entry.coreConcerns && entry.coreConcerns.length > 0 ? 
-      entry.coreConcerns.join(', ') : 'No specific concerns identified.';
-
-    const prompt = `Based on the following journal entry, its detected emotions, and core concerns,
-    generate a concise (1-2 sentences), empathetic, and insightful "Today's Reflection" or a short, encouraging thought.
-    Focus on summarizing the emotional state and offering a gentle, positive perspective.
-
-    Journal Entry: "${entry.rawText}"
-    Detected Emotions: ${emotions_str}
-    Core Concerns: ${concerns_str}
-
-    Today's Reflection:`;
-
     try {
-      // Call your Flask ML service's /analyze_journal endpoint, but with a special prompt
-      // Alternatively, you could create a new endpoint in Flask specifically for reflections
-      // For simplicity and to reuse existing Flask setup, we'll send a reflection-specific prompt
-      // to the existing /analyze_journal endpoint and rely on its general text generation capability.
-      // NOTE: This assumes your Flask ML service is configured to handle arbitrary text generation
-      // if it's not explicitly structured for it. If it only returns fixed analysis,
-      // you'd need a new Flask endpoint that calls Gemini for just the reflection.
-
-      // A better approach for a dedicated reflection: call Gemini directly from Flask with this prompt
-      // For now, let's simulate by sending it to a new Flask endpoint or directly from frontend if allowed.
-      // Since Flask is already calling Gemini for tips/concerns, let's add a new endpoint in Flask.
-
-      const flaskResponse = await axios.post('http://localhost:5000/generate_reflection', { prompt_text: prompt }, {
-        headers: { Authorization: `Bearer ${token}` } // Not strictly needed for Flask, but good practice if Flask had auth
+      const response = await axios.get('http://localhost:8080/api/journal/reflection/today', {
+        headers: { Authorization: `Bearer ${token}` }
       });
 
-      if (flaskResponse.data && flaskResponse.data.reflection) {
-        setReflection(flaskResponse.data.reflection);
+      if (response.data && response.data.reflection) {
+        setReflection(response.data.reflection);
       } else {
         setReflection("Couldn't generate a reflection today. Keep journaling!");
       }
-
     } catch (err) {
-      console.error('Error generating reflection:', err.response ? err.response.data : err.message);
+      console.error('Error fetching reflection:', err.response ? err.response.data : err.message);
       setError('Failed to generate reflection.');
       setReflection("Couldn't generate a reflection today. Keep journaling!");
     } finally {
@@ -73,12 +39,15 @@ function TodaysReflection({ latestEntry }) {
   };
 
   useEffect(() => {
-    if (latestEntry) {
-      generateReflection(latestEntry);
+    if (initialReflection) {
+      setReflection(initialReflection); // Came with the dashboard
+      setError('');
+    } else if (latestEntry) {
+      fetchReflection(); // Not ready in time for the dashboard; the backend is still generating it
     } else {
       setReflection("Journal an entry today to get your daily reflection!");
     }
-  }, [latestEntry]); // Regenerate when the latest entry changes
+  }, [latestEntry, initialReflection]); // Refetch when the latest entry changes; the backend only regenerates if today's entry changed
 
   return (
     <div className="p-6 rounded-lg bg-white/60 dark:bg-black/40 shadow-inner transition-all duration-500">
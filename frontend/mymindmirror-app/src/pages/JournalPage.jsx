@@ -12,7 +12,7 @@ import { jwtDecode } from 'jwt-decode';
 import ThemeToggle from '../components/ThemeToggle'; // Make sure this is imported if you want to use it in App.jsx header
 
 function JournalPage() {
-  const [journalEntries, setJournalEntries] = useState([]);
+  const [dashboard, setDashboard] = useState(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState('');
   const [username, setUsername] = useState('');
@@ -38,11 +38,14 @@ function JournalPage() {
     setLoading(true);
     setError('');
     try {
-      const response = await axios.get('http://localhost:8080/api/journal/history', {
+      // One request for the whole page: entries, chart series, averages, concern counts and today's reflection
+      const response = await axios.get('http://localhost:8080/api/journal/dashboard', {
         headers: { Authorization: `Bearer ${token}` }
       });
-      setJournalEntries(response.data);
-      console.log("Fetched journal entries:", response.data);
+      setDashboard(response.data);
+      if (response.data.degraded && response.data.degraded.length > 0) {
+        console.warn("Dashboard parts not ready in time:", response.data.degraded);
+      }
     } catch (err) {
       console.error('Error fetching journal data:', err);
       setError('Failed to load journal data. Please try logging in again.');
@@ -64,6 +67,7 @@ function JournalPage() {
     navigate('/login');
   };
 
+  const journalEntries = dashboard ? dashboard.entries : [];
   const latestEntryForDashboard = journalEntries.length > 0 ? journalEntries[0] : null;
 
   if (loading) {
@@ -130,23 +134,23 @@ function JournalPage() {
 
         {/* Top Row of Widgets: Today's Reflection & Daily Emotion Snapshot */}
         <div className="grid grid-cols-1 md:grid-cols-2 gap-8">
-          <TodaysReflection latestEntry={latestEntryForDashboard} />
+          <TodaysReflection latestEntry={latestEntryForDashboard} initialReflection={dashboard ? dashboard.reflection : null} />
           <DailyEmotionSnapshot latestEntry={latestEntryForDashboard} />
         </div>
 
         {/* Mood & Emotion Trends Chart Section */}
         <div className="bg-white/60 dark:bg-black/40 p-6 rounded-lg shadow-inner transition-all duration-500">
-          <MoodChart entries={journalEntries} />
+          <MoodChart entries={journalEntries} moodSeries={dashboard ? dashboard.moodSeries : []} />
         </div>
 
         {/* Average Emotion Intensity Chart Section */}
         <div className="bg-white/60 dark:bg-black/40 p-6 rounded-lg shadow-inner transition-all duration-500">
-          <AverageEmotionChart entries={journalEntries} />
+          <AverageEmotionChart averages={dashboard ? dashboard.emotionAverages : {}} />
         </div>
 
         {/* Core Concerns Frequency Chart Section */}
         <div className="bg-white/60 dark:bg-black/40 p-6 rounded-lg shadow-inner transition-all duration-500">
-          <ConcernFrequencyChart entries={journalEntries} />
+          <ConcernFrequencyChart counts={dashboard ? dashboard.concernCounts : {}} />
         </div>
 
         {/* Journal History Section */}
@@ -6,6 +6,7 @@ import logging
 import requests
 import json
 from dotenv import load_dotenv
+from tracing import setup_tracing
 
 load_dotenv() # Load environment variables from .env file
 
@@ -14,6 +15,7 @@ logger = logging.getLogger(__name__)
 
 app = Flask(__name__)
 CORS(app)
+tracer = setup_tracing(app) # Spans for each analysis stage, joined to the backend's trace
 
 os.environ['HF_HUB_DISABLE_SYMLINKS_WARNING'] = '1'
 os.environ['HF_HUB_ENABLE_HF_TRANSFER'] = '1'
@@ -34,11 +36,16 @@ except Exception as e:
     logger.error(f"Failed to load sentiment analyzer: {e}")
     sentiment_analyzer = None
 
-try:
-    emotion_analyzer = pipeline("text-classification", model="bhadresh-savani/distilbert-base-uncased-emotion", top_k=5)
-    logger.info("✓ Emotion Analyzer Loaded")
-except Exception as e:
-    logger.error(f"Failed to load emotion analyzer: {e}")
+# Set LOAD_EMOTION_MODEL=false when the backend classifies emotions itself (app.analysis.engine=onnx)
+if os.getenv("LOAD_EMOTION_MODEL", "true").lower() != "false":
+    try:
+        emotion_analyzer = pipeline("text-classification", model="bhadresh-savani/distilbert-base-uncased-emotion", top_k=5)
+        logger.info("✓ Emotion Analyzer Loaded")
+    except Exception as e:
+        logger.error(f"Failed to load emotion analyzer: {e}")
+        emotion_analyzer = None
+else:
+    logger.info("Emotion analyzer not loaded (LOAD_EMOTION_MODEL=false); requests must carry emotions.")
     emotion_analyzer = None
 
 # Removed Hugging Face Summarizer
@@ -64,14 +71,18 @@ def call_gemini_api(prompt_text, response_schema=None):
 
     try:
         logger.info("Calling Gemini API...")
-        response = requests.post(
-            f"{GEMINI_API_URL}?key={GEMINI_API_KEY}",
-            headers=HEADERS,
-            json=payload,
-            timeout=30
-        )
-        response.raise_for_status()
-        result = response.json()
+        with tracer.start_as_current_span("gemini.generate_content") as span:
+            span.set_attribute("gemini.structured_output", response_schema is not None)
+            span.set_attribute("gemini.prompt_chars", len(prompt_text))
+            response = requests.post(
+                f"{GEMINI_API_URL}?key={GEMINI_API_KEY}",
+                headers=HEADERS,
+                json=payload,
+                timeout=30
+            )
+            span.set_attribute("http.response.status_code", response.status_code)
+            response.raise_for_status()
+            result = response.json()
         logger.info("Gemini API call successful.")
 
         if result.get("candidates") and result["candidates"][0].get("content") and result["candidates"][0]["content"].get("parts"):
@@ -167,7 +178,8 @@ def generate_reflection():
     if not prompt_text:
         return jsonify({"error": "No prompt text provided"}), 400
 
-    reflection_text = call_gemini_api(prompt_text)
+    with tracer.start_as_current_span("reflection.generate"):
+        reflection_text = call_gemini_api(prompt_text)
     
     if reflection_text:
         return jsonify({"reflection": reflection_text})
@@ -180,6 +192,7 @@ def generate_reflection():
 def analyze_journal():
     data = request.json
     journal_text = data.get('text', '')
+    precomputed_emotions = data.get('emotions') # Sent when the backend ran the emotion model itself
 
     if not journal_text:
         return jsonify({"error": "No text provided"}), 400
@@ -201,12 +214,16 @@ def analyze_journal():
         logger.warning("Journal text truncated for Hugging Face analysis due to length.")
 
 
-    # 1. Emotion Recognition (Hugging Face)
+    # 1. Emotion Recognition (Hugging Face, unless the backend already classified the text)
     detected_emotions_dict = {}
     dominant_emotions_labels = []
-    if emotion_analyzer:
+    if precomputed_emotions:
+        detected_emotions_dict = {label: float(score) for label, score in precomputed_emotions.items()}
+        response_data["emotions"] = detected_emotions_dict
+    elif emotion_analyzer:
         try:
-            emotion_results = emotion_analyzer(analysis_text)
+            with tracer.start_as_current_span("analyze.emotions"): # Hugging Face inference
+                emotion_results = emotion_analyzer(analysis_text)
             detected_emotions_dict = {e['label']: float(e['score']) for e in emotion_results[0]}
             response_data["emotions"] = detected_emotions_dict
             
@@ -241,17 +258,20 @@ def analyze_journal():
         response_data["moodScore"] = 0.0
 
     # 3. Core Concerns (Gemini AI)
-    response_data["coreConcerns"] = get_gemini_core_concerns(journal_text)
+    with tracer.start_as_current_span("analyze.core_concerns"):
+        response_data["coreConcerns"] = get_gemini_core_concerns(journal_text)
 
     # ⭐ 4. Summarization (Gemini AI) ⭐
-    response_data["summary"] = get_gemini_summary(journal_text)
+    with tracer.start_as_current_span("analyze.summary"):
+        response_data["summary"] = get_gemini_summary(journal_text)
 
     # 5. Growth Tips (Gemini AI)
-    response_data["growthTips"] = get_gemini_growth_tips(
-        journal_text, 
-        response_data["emotions"], 
-        response_data["coreConcerns"]
-    )
+    with tracer.start_as_current_span("analyze.growth_tips"):
+        response_data["growthTips"] = get_gemini_growth_tips(
+            journal_text, 
+            response_data["emotions"], 
+            response_data["coreConcerns"]
+        )
 
     return jsonify(response_data)
 
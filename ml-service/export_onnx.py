@@ -0,0 +1,28 @@
+"""
+Exports the emotion model used by app.py to ONNX for the backend's in-process classifier
+(app.analysis.engine=onnx, app.analysis.onnx.model-dir=<output dir>).
+
+    pip install "optimum[onnxruntime]"
+    python export_onnx.py ../models/emotion-onnx
+
+Writes model.onnx and vocab.txt, and prints the label order to use for app.analysis.onnx.labels.
+"""
+import sys
+
+from optimum.onnxruntime import ORTModelForSequenceClassification
+from transformers import AutoTokenizer
+
+MODEL_ID = "bhadresh-savani/distilbert-base-uncased-emotion"
+
+
+def main(output_dir):
+    model = ORTModelForSequenceClassification.from_pretrained(MODEL_ID, export=True)
+    model.save_pretrained(output_dir)
+    AutoTokenizer.from_pretrained(MODEL_ID).save_pretrained(output_dir) # vocab.txt (plus tokenizer.json)
+    labels = [model.config.id2label[i] for i in range(len(model.config.id2label))]
+    print(f"Exported {MODEL_ID} to {output_dir}")
+    print("app.analysis.onnx.labels=" + ",".join(labels))
+
+
+if __name__ == "__main__":
+    main(sys.argv[1] if len(sys.argv) > 1 else "emotion-onnx")
@@ -0,0 +1,64 @@
+"""
+OpenTelemetry setup for the ML service.
+
+Spans continue the backend's trace: FlaskInstrumentor reads the W3C traceparent header that the
+Spring Boot WebClient sends, so each analysis stage shows up under the backend's journal-save span.
+
+Export is controlled by environment variables:
+  OTEL_EXPORTER_OTLP_ENDPOINT  e.g. http://localhost:4318 (a local OpenTelemetry collector)
+  OTEL_TRACES_FILE             e.g. traces-ml.jsonl (one JSON span per line, no collector needed)
+
+If the OpenTelemetry packages are not installed, tracing is disabled and a no-op tracer is returned.
+"""
+import contextlib
+import logging
+import os
+
+logger = logging.getLogger(__name__)
+
+SERVICE_NAME = "mymindmirror-ml-service"
+
+
+class _NoopSpan:
+    def set_attribute(self, key, value):
+        pass
+
+    def record_exception(self, exception):
+        pass
+
+
+class _NoopTracer:
+    @contextlib.contextmanager
+    def start_as_current_span(self, name, **kwargs):
+        yield _NoopSpan()
+
+
+def setup_tracing(app):
+    """Instruments the Flask app and returns a tracer for the analysis stages."""
+    try:
+        from opentelemetry import trace
+        from opentelemetry.instrumentation.flask import FlaskInstrumentor
+        from opentelemetry.sdk.resources import Resource
+        from opentelemetry.sdk.trace import TracerProvider
+        from opentelemetry.sdk.trace.export import BatchSpanProcessor, ConsoleSpanExporter
+    except ImportError:
+        logger.warning("OpenTelemetry packages not installed; tracing disabled.")
+        return _NoopTracer()
+
+    provider = TracerProvider(resource=Resource.create({"service.name": SERVICE_NAME}))
+
+    if os.getenv("OTEL_EXPORTER_OTLP_ENDPOINT"):
+        from opentelemetry.exporter.otlp.proto.http.trace_exporter import OTLPSpanExporter
+        provider.add_span_processor(BatchSpanProcessor(OTLPSpanExporter()))  # Reads the endpoint from the environment
+        logger.info("Exporting traces to %s", os.getenv("OTEL_EXPORTER_OTLP_ENDPOINT"))
+
+    traces_file = os.getenv("OTEL_TRACES_FILE")
+    if traces_file:
+        out = open(traces_file, "a", encoding="utf-8")
+        provider.add_span_processor(BatchSpanProcessor(
+            ConsoleSpanExporter(out=out, formatter=lambda span: span.to_json(indent=None) + os.linesep)))
+        logger.info("Writing traces to %s", traces_file)
+
+    trace.set_tracer_provider(provider)
+    FlaskInstrumentor().instrument_app(app)
+    return trace.get_tracer(SERVICE_NAME)